@@ -0,0 +1,44 @@
+package com.medkha.lol_notes.configuration;
+
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Keeps track of the requests it created, so the blocked calls can be aborted when the tracking is stopped.
+ * The requests are weakly referenced, the finished ones are forgotten by the garbage collector.
+ */
+public class AbortableHttpComponentsClientHttpRequestFactory extends HttpComponentsClientHttpRequestFactory {
+    private final Set<HttpUriRequest> createdRequests = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
+    public AbortableHttpComponentsClientHttpRequestFactory(HttpClient httpClient) {
+        super(httpClient);
+    }
+
+    @Override
+    protected HttpUriRequest createHttpUriRequest(HttpMethod httpMethod, URI uri) {
+        HttpUriRequest request = super.createHttpUriRequest(httpMethod, uri);
+        createdRequests.add(request);
+        return request;
+    }
+
+    /**
+     * Aborts the requests in flight, their callers get an exception right away.
+     */
+    public void abortRequests() {
+        List<HttpUriRequest> requests;
+        synchronized (createdRequests) {
+            requests = new ArrayList<>(createdRequests);
+            createdRequests.clear();
+        }
+        requests.forEach(HttpUriRequest::abort);
+    }
+}
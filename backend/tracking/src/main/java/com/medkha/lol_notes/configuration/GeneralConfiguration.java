@@ -1,24 +1,56 @@
 package com.medkha.lol_notes.configuration;
 
+import com.medkha.lol_notes.ratelimit.RiotRateLimitExchangeFilter;
+import com.medkha.lol_notes.ratelimit.RiotRateLimitInterceptor;
+import com.medkha.lol_notes.ratelimit.RiotRateLimiter;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.PoolingHttpClientConnectionManagerMetricsBinder;
+import io.netty.channel.ChannelOption;
 import org.apache.http.client.HttpClient;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
 import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
 import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.apache.http.ssl.SSLContextBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.io.Resource;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import io.netty.handler.ssl.SslContext;
+import io.netty.handler.ssl.SslContextBuilder;
+import reactor.netty.resources.ConnectionProvider;
 
 import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManagerFactory;
 import java.io.IOException;
+import java.io.InputStream;
 import java.security.KeyManagementException;
+import java.security.KeyStore;
 import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
 import java.security.cert.CertificateException;
+import java.security.cert.X509Certificate;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * The game client (`localhost:2999`) and the riot api hosts get their own connection pool, for the RestTemplates as
+ * for the WebClients: a hung game client can't starve the riot calls, and each side has its own timeouts.
+ * Both pools keep the connections alive to avoid repeating the TLS handshakes, and publish
+ * their metrics under `httpcomponents.httpclient.pool.*` with the tag `httpclient=live-client|riot-api`.
+ * The riot api calls of both clients go through the shared {@link RiotRateLimiter}.
+ */
 @Configuration
 public class GeneralConfiguration {
 
@@ -26,20 +58,151 @@ public class GeneralConfiguration {
     private Resource keyStore;
     @Value("${http.client.ssl.trust-store-password}")
     private String keyStorePassword;
+    @Value("${lol_notes.riot-rate-limit.max-retries:3}")
+    private int rateLimitMaxRetries;
+    /**
+     * Certificates trusted on top of the trust store, the live client simulator gives its own.
+     */
+    @Autowired
+    private ObjectProvider<X509Certificate> trustedCertificates;
+
+    @Bean
+    @ConfigurationProperties("http.client.live-client")
+    public HttpClientPoolProperties liveClientPoolProperties() {
+        return new HttpClientPoolProperties();
+    }
+
+    @Bean
+    @ConfigurationProperties("http.client.riot-api")
+    public HttpClientPoolProperties riotApiPoolProperties() {
+        return new HttpClientPoolProperties();
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public PoolingHttpClientConnectionManager liveClientConnectionManager(
+            @Qualifier("liveClientPoolProperties") HttpClientPoolProperties poolProperties) throws IOException, CertificateException, NoSuchAlgorithmException, KeyStoreException, KeyManagementException {
+        return connectionManager(poolProperties);
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public PoolingHttpClientConnectionManager riotApiConnectionManager(
+            @Qualifier("riotApiPoolProperties") HttpClientPoolProperties poolProperties) throws IOException, CertificateException, NoSuchAlgorithmException, KeyStoreException, KeyManagementException {
+        return connectionManager(poolProperties);
+    }
+
+    @Bean
+    public RestTemplate liveClientRestTemplate(
+            @Qualifier("liveClientConnectionManager") PoolingHttpClientConnectionManager connectionManager,
+            @Qualifier("liveClientPoolProperties") HttpClientPoolProperties poolProperties) {
+        // the requests of the live tracking are aborted when it is stopped.
+        return new RestTemplate(new AbortableHttpComponentsClientHttpRequestFactory(httpClient(connectionManager, poolProperties)));
+    }
+
+    @Bean
+    public RestTemplate riotApiRestTemplate(
+            @Qualifier("riotApiConnectionManager") PoolingHttpClientConnectionManager connectionManager,
+            @Qualifier("riotApiPoolProperties") HttpClientPoolProperties poolProperties,
+            RiotRateLimiter riotRateLimiter) {
+        RestTemplate riotApiRestTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient(connectionManager, poolProperties)));
+        riotApiRestTemplate.getInterceptors().add(new RiotRateLimitInterceptor(riotRateLimiter, rateLimitMaxRetries));
+        return riotApiRestTemplate;
+    }
 
     @Bean
-    public RestTemplate restTemplate(RestTemplateBuilder builder) throws IOException, CertificateException, NoSuchAlgorithmException, KeyStoreException, KeyManagementException {
+    public MeterBinder liveClientConnectionPoolMetrics(@Qualifier("liveClientConnectionManager") PoolingHttpClientConnectionManager connectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "live-client");
+    }
+
+    @Bean
+    public MeterBinder riotApiConnectionPoolMetrics(@Qualifier("riotApiConnectionManager") PoolingHttpClientConnectionManager connectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "riot-api");
+    }
+
+    /**
+     * The reactive client of the game client, it only calls `localhost:2999` and has the short live-client timeouts.
+     */
+    @Bean
+    public WebClient liveClientWebClient(
+            WebClient.Builder builder,
+            @Qualifier("liveClientPoolProperties") HttpClientPoolProperties poolProperties) throws IOException, CertificateException, NoSuchAlgorithmException, KeyStoreException {
+        return webClient(builder, "live-client", poolProperties).build();
+    }
+
+    /**
+     * The reactive client of the riot api, its calls go through the shared {@link RiotRateLimiter}.
+     */
+    @Bean
+    public WebClient riotApiWebClient(
+            WebClient.Builder builder,
+            @Qualifier("riotApiPoolProperties") HttpClientPoolProperties poolProperties,
+            RiotRateLimiter riotRateLimiter) throws IOException, CertificateException, NoSuchAlgorithmException, KeyStoreException {
+        return webClient(builder, "riot-api", poolProperties)
+                .filter(new RiotRateLimitExchangeFilter(riotRateLimiter, rateLimitMaxRetries))
+                .build();
+    }
+
+    private WebClient.Builder webClient(WebClient.Builder builder, String name, HttpClientPoolProperties poolProperties) throws IOException, CertificateException, NoSuchAlgorithmException, KeyStoreException {
+        TrustManagerFactory trustManagerFactory = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+        trustManagerFactory.init(trustStore());
+        SslContext sslContext = SslContextBuilder.forClient()
+                .trustManager(trustManagerFactory)
+                .build();
+        ConnectionProvider connectionProvider = ConnectionProvider.builder(name)
+                .maxConnections(poolProperties.getMaxConnections())
+                .pendingAcquireTimeout(poolProperties.getConnectionRequestTimeout())
+                .maxIdleTime(poolProperties.getMaxIdleTime())
+                .evictInBackground(poolProperties.getMaxIdleTime())
+                .metrics(true)
+                .build();
+        reactor.netty.http.client.HttpClient httpClient = reactor.netty.http.client.HttpClient.create(connectionProvider)
+                .secure(sslSpec -> sslSpec.sslContext(sslContext))
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) poolProperties.getConnectTimeout().toMillis())
+                .responseTimeout(poolProperties.getReadTimeout());
+        return builder.clone()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                // the match-v5 payloads are bigger than the default 256KB buffer.
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(4 * 1024 * 1024));
+    }
+
+    private PoolingHttpClientConnectionManager connectionManager(HttpClientPoolProperties poolProperties) throws IOException, CertificateException, NoSuchAlgorithmException, KeyStoreException, KeyManagementException {
         SSLContext sslContext = new SSLContextBuilder()
-                .loadTrustMaterial(
-                        keyStore.getURL(),
-                        keyStorePassword.toCharArray()
-                ).build();
-        SSLConnectionSocketFactory socketFactory =
-                new SSLConnectionSocketFactory(sslContext);
-        HttpClient httpClient = HttpClients.custom()
-                .setSSLSocketFactory(socketFactory).build();
-        HttpComponentsClientHttpRequestFactory factory =
-                new HttpComponentsClientHttpRequestFactory(httpClient);
-        return new RestTemplate(factory);
+                .loadTrustMaterial(trustStore(), null)
+                .build();
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(
+                RegistryBuilder.<ConnectionSocketFactory>create()
+                        .register("https", new SSLConnectionSocketFactory(sslContext))
+                        .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                        .build());
+        connectionManager.setMaxTotal(poolProperties.getMaxConnections());
+        connectionManager.setDefaultMaxPerRoute(poolProperties.getMaxConnectionsPerRoute());
+        // a kept-alive connection idle for more than a second is checked before being reused.
+        connectionManager.setValidateAfterInactivity(1000);
+        return connectionManager;
+    }
+
+    private KeyStore trustStore() throws IOException, CertificateException, NoSuchAlgorithmException, KeyStoreException {
+        KeyStore trustStore = KeyStore.getInstance(KeyStore.getDefaultType());
+        try (InputStream keyStoreStream = keyStore.getInputStream()) {
+            trustStore.load(keyStoreStream, keyStorePassword.toCharArray());
+        }
+        int trustedCertificate = 0;
+        for (X509Certificate certificate : (Iterable<X509Certificate>) trustedCertificates.orderedStream()::iterator) {
+            trustStore.setCertificateEntry("trusted-certificate-" + trustedCertificate++, certificate);
+        }
+        return trustStore;
+    }
+
+    private HttpClient httpClient(PoolingHttpClientConnectionManager connectionManager, HttpClientPoolProperties poolProperties) {
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout((int) poolProperties.getConnectTimeout().toMillis())
+                .setSocketTimeout((int) poolProperties.getReadTimeout().toMillis())
+                .setConnectionRequestTimeout((int) poolProperties.getConnectionRequestTimeout().toMillis())
+                .build();
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .evictExpiredConnections()
+                .evictIdleConnections(poolProperties.getMaxIdleTime().toMillis(), TimeUnit.MILLISECONDS)
+                .build();
     }
 }
@@ -0,0 +1,69 @@
+package com.medkha.lol_notes.configuration;
+
+import java.time.Duration;
+
+/**
+ * Tuning of one HTTP connection pool, bound from `http.client.live-client.*` and `http.client.riot-api.*`.
+ */
+public class HttpClientPoolProperties {
+    private int maxConnections = 20;
+    private int maxConnectionsPerRoute = 10;
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    private Duration readTimeout = Duration.ofSeconds(10);
+    /**
+     * How long a caller waits for a free connection of the pool.
+     */
+    private Duration connectionRequestTimeout = Duration.ofSeconds(5);
+    /**
+     * Connections idle for longer are closed by the evictor thread.
+     */
+    private Duration maxIdleTime = Duration.ofSeconds(30);
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    public void setMaxConnections(int maxConnections) {
+        this.maxConnections = maxConnections;
+    }
+
+    public int getMaxConnectionsPerRoute() {
+        return maxConnectionsPerRoute;
+    }
+
+    public void setMaxConnectionsPerRoute(int maxConnectionsPerRoute) {
+        this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+    }
+
+    public Duration getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public void setConnectTimeout(Duration connectTimeout) {
+        this.connectTimeout = connectTimeout;
+    }
+
+    public Duration getReadTimeout() {
+        return readTimeout;
+    }
+
+    public void setReadTimeout(Duration readTimeout) {
+        this.readTimeout = readTimeout;
+    }
+
+    public Duration getConnectionRequestTimeout() {
+        return connectionRequestTimeout;
+    }
+
+    public void setConnectionRequestTimeout(Duration connectionRequestTimeout) {
+        this.connectionRequestTimeout = connectionRequestTimeout;
+    }
+
+    public Duration getMaxIdleTime() {
+        return maxIdleTime;
+    }
+
+    public void setMaxIdleTime(Duration maxIdleTime) {
+        this.maxIdleTime = maxIdleTime;
+    }
+}
@@ -1,18 +1,34 @@
 package com.medkha.lol_notes.configuration;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medkha.lol_notes.metrics.LiveTrackingMetrics;
 import com.medkha.lol_notes.services.*;
 import com.medkha.lol_notes.services.impl.*;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import com.medkha.lol_notes.mapper.MapperService;
 import com.medkha.lol_notes.repositories.DeathRepository;
 import com.medkha.lol_notes.repositories.GameRepository;
+import com.medkha.lol_notes.repositories.MatchHistoryCursorRepository;
+import com.medkha.lol_notes.repositories.MatchStoreRepository;
 import com.medkha.lol_notes.repositories.ReasonRepository;
 import com.medkha.lol_notes.services.filters.DeathFilterService;
+import com.medkha.lol_notes.util.AdaptivePollInterval;
+import com.medkha.lol_notes.util.MatchProjectionReader;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.Primary;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
 
 @Configuration
 @EnableAsync
@@ -55,20 +71,74 @@ public class ServiceConfiguration {
         return new ChampionServiceImpl(mapperService);
     }
 
+    /**
+     * `lol_notes.riot-look-up.client` selects the implementation: `rest` (default) blocks on the RestTemplate,
+     * `reactive` uses the non-blocking WebClient.
+     */
     @Bean
-    public RiotLookUpService riotLookUpService(RestTemplate restTemplate, @Lazy LiveGameService liveGameService) {
-        return new RiotLookUpServiceImpl(restTemplate, liveGameService);
+    public RiotLookUpService riotLookUpServiceDelegate(
+            @Value("${lol_notes.riot-look-up.client:rest}") String riotLookUpClient,
+            @Qualifier("liveClientRestTemplate") RestTemplate liveClientRestTemplate,
+            @Qualifier("riotApiRestTemplate") RestTemplate riotApiRestTemplate,
+            @Qualifier("liveClientWebClient") WebClient liveClientWebClient,
+            @Qualifier("riotApiWebClient") WebClient riotApiWebClient,
+            SummonerIdentityService summonerIdentityService,
+            @Lazy LiveGameService liveGameService,
+            LiveTrackingMetrics liveTrackingMetrics,
+            MatchHistoryCursorRepository matchHistoryCursorRepository,
+            MatchStoreRepository matchStoreRepository,
+            MatchProjectionReader matchProjectionReader,
+            @Value("${lol_notes.riot-look-up.match-fetch-concurrency:8}") int matchFetchConcurrency,
+            @Value("${lol_notes.match-history.cursor-ttl:1d}") Duration matchHistoryCursorTtl) {
+        if(riotLookUpClient.equals("reactive")) {
+            return new RiotLookUpReactiveServiceImpl(liveClientWebClient, riotApiWebClient, summonerIdentityService, liveGameService, liveTrackingMetrics, matchHistoryCursorRepository, matchStoreRepository, matchProjectionReader, matchFetchConcurrency, matchHistoryCursorTtl);
+        }
+        return new RiotLookUpServiceImpl(liveClientRestTemplate, riotApiRestTemplate, summonerIdentityService, liveGameService, liveTrackingMetrics, matchHistoryCursorRepository, matchStoreRepository, matchProjectionReader, matchFetchConcurrency, matchHistoryCursorTtl);
+    }
+
+    /**
+     * `lol_notes.riot-look-up.match-fields` lists the export columns bound from the match-v5 payloads and written by the exports, all of them when it is empty.
+     */
+    @Bean
+    public MatchProjectionReader matchProjectionReader(ObjectMapper objectMapper, @Value("${lol_notes.riot-look-up.match-fields:}") String matchFields) {
+        List<String> projectedColumns = Arrays.stream(matchFields.split(","))
+                .map(String::trim)
+                .filter(columnName -> !columnName.isEmpty())
+                .collect(Collectors.toList());
+        return new MatchProjectionReader(objectMapper.getFactory(), projectedColumns);
+    }
+
+    /**
+     * The service injected everywhere, it coalesces the identical concurrent look ups before they reach the delegate.
+     */
+    @Bean
+    @Primary
+    public RiotLookUpService riotLookUpService(
+            @Qualifier("riotLookUpServiceDelegate") RiotLookUpService riotLookUpServiceDelegate,
+            @Value("${lol_notes.riot-look-up.coalescing-ttl:2s}") Duration coalescingTimeToLive) {
+        return new RiotLookUpCoalescingServiceImpl(riotLookUpServiceDelegate, coalescingTimeToLive);
     }
     @Bean
     public LiveGameService liveGameService(
             RiotLookUpService riotLookUpService,
             GameService gameService,
             ChampionService championService,
-            QueueService queueService
+            QueueService queueService,
+            LiveTrackingMetrics liveTrackingMetrics,
+            @Value("${lol_notes.live-game.poll.min-interval:500ms}") Duration minPollInterval,
+            @Value("${lol_notes.live-game.poll.max-interval:5s}") Duration maxPollInterval,
+            @Value("${lol_notes.live-game.poll.late-game-max-interval:2s}") Duration lateGameMaxPollInterval,
+            @Value("${lol_notes.live-game.poll.laning-phase-end:14m}") Duration laningPhaseEnd,
+            @Value("${lol_notes.live-game.poll.backoff-factor:1.5}") double pollBackoffFactor,
+            @Value("${lol_notes.live-game.search-interval:4s}") Duration searchInterval
     ) {
         return new LiveGameServiceImpl( riotLookUpService,
                  gameService,
                  championService,
-                 queueService);
+                 queueService,
+                 liveTrackingMetrics,
+                 () -> new AdaptivePollInterval(minPollInterval, maxPollInterval, lateGameMaxPollInterval,
+                         laningPhaseEnd, pollBackoffFactor, Clock.systemUTC()),
+                 searchInterval);
     }
 }
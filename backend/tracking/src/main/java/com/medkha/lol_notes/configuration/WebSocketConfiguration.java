@@ -0,0 +1,22 @@
+package com.medkha.lol_notes.configuration;
+
+import com.medkha.lol_notes.controllers.LiveGameSocketHandler;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+@Configuration
+@EnableWebSocket
+public class WebSocketConfiguration implements WebSocketConfigurer {
+    private final LiveGameSocketHandler liveGameSocketHandler;
+
+    public WebSocketConfiguration(LiveGameSocketHandler liveGameSocketHandler) {
+        this.liveGameSocketHandler = liveGameSocketHandler;
+    }
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(liveGameSocketHandler, "/games/live-game/socket").setAllowedOrigins("*");
+    }
+}
@@ -11,6 +11,7 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.ResponseStatus;
 
+import com.medkha.lol_notes.exceptions.ExportJobConflictException;
 import com.medkha.lol_notes.exceptions.IncorrectReturnSizeException;
 import com.medkha.lol_notes.exceptions.NoElementFoundException;
 import com.medkha.lol_notes.util.ErrorMessage;
@@ -47,6 +48,13 @@ public class ExceptionHandlerController {
 		return new ErrorMessage("400", err.getMessage());
 	}
 
+	@ResponseBody
+	@ResponseStatus(HttpStatus.CONFLICT)
+	@ExceptionHandler(ExportJobConflictException.class)
+	ErrorMessage exportJobConflictExceptionHandler(ExportJobConflictException err) {
+		return new ErrorMessage("409", err.getMessage());
+	}
+
 	@ResponseBody
 	@ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
 	@ExceptionHandler(IncorrectReturnSizeException.class)
@@ -0,0 +1,55 @@
+package com.medkha.lol_notes.controllers;
+
+import java.nio.file.Path;
+import java.util.Optional;
+
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.medkha.lol_notes.dto.ExportJobDTO;
+import com.medkha.lol_notes.dto.enums.ExportFormat;
+import com.medkha.lol_notes.services.ExportJobService;
+
+@RestController
+@RequestMapping(path="games/export-jobs")
+public class ExportJobController {
+	private final ExportJobService exportJobService;
+
+	public ExportJobController(ExportJobService exportJobService) {
+		this.exportJobService = exportJobService;
+	}
+
+	@PostMapping(produces = "application/json")
+	@ResponseStatus(HttpStatus.ACCEPTED)
+	public ExportJobDTO submitExport(@RequestParam String summonerName, @RequestParam Optional<Integer> queueId, @RequestParam int count,
+			@RequestParam(defaultValue = "CSV") ExportFormat format, @RequestParam(defaultValue = "false") boolean incremental) {
+		return this.exportJobService.submit(summonerName, queueId, count, format, incremental);
+	}
+
+	@GetMapping(value = "/{jobId}", produces = "application/json")
+	public ExportJobDTO getExport(@PathVariable("jobId") Long jobId) {
+		return this.exportJobService.findJob(jobId);
+	}
+
+	@DeleteMapping(value = "/{jobId}", produces = "application/json")
+	@ResponseStatus(HttpStatus.ACCEPTED)
+	public ExportJobDTO cancelExport(@PathVariable("jobId") Long jobId) {
+		return this.exportJobService.cancel(jobId);
+	}
+
+	@GetMapping("/{jobId}/file")
+	public ResponseEntity<Resource> downloadExport(@PathVariable("jobId") Long jobId) {
+		Path file = this.exportJobService.findExportFile(jobId);
+		ExportJobDTO job = this.exportJobService.findJob(jobId);
+		return ResponseEntity.ok()
+				.contentType(MediaType.parseMediaType(job.compression.getMediaType(job.format)))
+				.header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(file.getFileName().toString()).build().toString())
+				.body(new FileSystemResource(file));
+	}
+}
@@ -4,14 +4,12 @@ package com.medkha.lol_notes.controllers;
 import java.io.IOException;
 import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.CompletableFuture;
 
 import javax.validation.Valid;
 
 import com.medkha.lol_notes.dto.*;
+import com.medkha.lol_notes.dto.enums.ExportFormat;
 import com.medkha.lol_notes.dto.enums.GameTrackingStatus;
-import com.medkha.lol_notes.dto.enums.PlayerGameStatus;
-import com.medkha.lol_notes.repositories.MatchHistoryRepository;
 import com.medkha.lol_notes.services.*;
 import com.medkha.lol_notes.util.ServerSentEventSession;
 import org.slf4j.Logger;
@@ -32,75 +30,61 @@ public class GameController {
 	private final LiveGameService liveGameService;
 	private final ChampionService championService;
 	private final QueueService queueService;
-	private final RiotLookUpService riotLookUpService;
-	private final MatchHistoryRepository matchHistoryRepository;
-	private SseEmitter sseEmitter;
+	private final ExportJobService exportJobService;
+	private final LiveSessionService liveSessionService;
 	public GameController(
 			GameService gameService,
 			LiveGameService liveGameService,
 			ChampionService championService,
 			QueueService queueService,
-			RiotLookUpService riotLookUpService,
-			MatchHistoryRepository matchHistoryRepository) {
+			ExportJobService exportJobService,
+			LiveSessionService liveSessionService) {
 		this.gameService = gameService;
 		this.liveGameService = liveGameService;
 		this.championService = championService;
 		this.queueService = queueService;
-		this.riotLookUpService = riotLookUpService;
-		this.matchHistoryRepository = matchHistoryRepository;
+		this.exportJobService = exportJobService;
+		this.liveSessionService = liveSessionService;
 	}
 
+	/**
+	 * Attaches the client to the running tracking session, or starts one.
+	 * A client reconnecting with the `Last-Event-ID` header is replayed the events it missed.
+	 */
 	@GetMapping(value = "live-game", consumes = MediaType.ALL_VALUE)
 	@ResponseStatus(HttpStatus.OK)
-	public SseEmitter trackLiveGame() throws IOException {
-		this.sseEmitter = new SseEmitter(Long.MAX_VALUE);
-		ServerSentEventSession sses = new ServerSentEventSession(sseEmitter);
-		sses.sseEmitter.send(SseEmitter.event().name("INIT").data("Connected"));
-		this.liveGameService.findLiveGame(
-				() -> {
-					CompletableFuture<AllEventsDTO> eventsFuture = this.riotLookUpService.getEventsAsync();
-					eventsFuture.thenAccept((events)->{
-						try {
-							EventInGameDTO endOfGame = new EventInGameDTO();
-							endOfGame.eventName = "GameEnd";
-							if(events.Events.contains(endOfGame)) {
-								this.liveGameService.setPlayerGameStatus(PlayerGameStatus.IDLE);
-								log.info("Game Ended");
-							}
-							getDeathEvent(sses, events, this.liveGameService.getActivePlayer().map(p-> p.summonerName));
-						} catch (IOException e) {
-							log.info("SSe Emitter removed. exception message: " + e.getMessage());
-						}
-					});
-				}
-		);
+	public SseEmitter trackLiveGame(
+			@RequestParam(defaultValue = "false") boolean liveState,
+			@RequestHeader(value = "Last-Event-ID", required = false) Optional<Long> lastEventId) throws IOException {
+		SseEmitter sseEmitter = new SseEmitter(Long.MAX_VALUE);
+		sseEmitter.send(SseEmitter.event().name("INIT").data("Connected"));
+		ServerSentEventSession sses = this.liveSessionService.getOrStartSession(liveState);
+		// the session keeps tracking while the client is away, until it is stopped or left detached for too long.
+		sseEmitter.onCompletion(() -> detach(sses, sseEmitter));
+		sseEmitter.onTimeout(() -> detach(sses, sseEmitter));
+		sseEmitter.onError(e -> detach(sses, sseEmitter));
+		sses.attach(sseEmitter, lastEventId);
 		return sseEmitter;
 	}
-    private void getDeathEvent(ServerSentEventSession sses, AllEventsDTO events, Optional<String> playerName) throws IOException {
-		EventInGameDTO temp;
-		for(int i = sses.lastCheckedIndex + 1; i < events.Events.size(); i++) {
-			temp = events.Events.get(i);
-			if(temp.eventName.equals("ChampionKill") &&
-					(playerName.isEmpty()  // Get all championKill events.
-						|| (playerName.isPresent() && playerName.equals(events.Events.get(i).victimName))
-					)
-			){
-				sses.sseEmitter.send(sseEmitter.event().name("New DeathEvent").data(events.Events.get(i)));
-			}
-		}
-		sses.lastCheckedIndex = events.Events.size() - 1;
-		events.Events.stream().filter(e -> e.eventName.equals("ChampionKill")).count();
+
+	private void detach(ServerSentEventSession sses, SseEmitter sseEmitter) {
+		sses.detach(sseEmitter);
+		this.liveSessionService.stopWhenLeftDetached(sses);
 	}
+
 	@GetMapping("/stop-track-live-games")
 	@ResponseStatus(HttpStatus.OK)
 	public void disableTracking() {
 		this.liveGameService.setGameTrackingStatus(GameTrackingStatus.DISABLED);
 	}
 
+	/**
+	 * Submits the export as a job, its progress and file are served under `games/export-jobs/{jobId}`.
+	 */
 	@GetMapping("/export-match-history")
-	@ResponseStatus(HttpStatus.OK)
-	public void exportMatchHistory(@RequestParam String summonerName, @RequestParam int queueId, @RequestParam int count){
-		this.riotLookUpService.getMatchHistory(summonerName, Optional.of(queueId), Optional.of(count)).thenAccept(matchHistoryRepository::exportMatchHistory);
+	@ResponseStatus(HttpStatus.ACCEPTED)
+	public ExportJobDTO exportMatchHistory(@RequestParam String summonerName, @RequestParam int queueId, @RequestParam int count){
+		return this.exportJobService.submit(summonerName, Optional.of(queueId), count, ExportFormat.CSV, false);
 	}
 	@GetMapping(produces = "application/json")
 	public Set<GameDTO> allGames(){
@@ -0,0 +1,220 @@
+package com.medkha.lol_notes.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.medkha.lol_notes.dto.LiveEventFrameDTO;
+import com.medkha.lol_notes.dto.LiveSocketMessageDTO;
+import com.medkha.lol_notes.dto.LiveSubscriptionDTO;
+import com.medkha.lol_notes.dto.enums.LiveEventFilter;
+import com.medkha.lol_notes.services.LiveGameService;
+import com.medkha.lol_notes.services.LiveSessionService;
+import com.medkha.lol_notes.util.CancellationToken;
+import com.medkha.lol_notes.util.ServerSentEventSession;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.AbstractWebSocketHandler;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.SessionLimitExceededException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Binary alternative to the SSE stream of {@link GameController#trackLiveGame}, registered on `/games/live-game/socket`.
+ * The client subscribes to one or several live sessions over the same connection with {@link LiveSubscriptionDTO}
+ * requests, the events are filtered server-side and sent CBOR encoded, one message per poll.
+ * Only one live session runs at a time: {@link LiveGameService#findLiveGame} cancels the tracking of the previous one,
+ * so a subscription names the running session and the session ids only tell it from the ones that ended.
+ */
+@Component
+public class LiveGameSocketHandler extends AbstractWebSocketHandler {
+    private static final Logger log = LoggerFactory.getLogger(LiveGameSocketHandler.class);
+
+    private final LiveSessionService liveSessionService;
+    private final LiveGameService liveGameService;
+    private final ObjectMapper jsonMapper;
+    private final ObjectMapper cborMapper;
+    private final int sendTimeLimit;
+    private final int bufferSizeLimit;
+    private final Map<String, Subscriber> subscribers = new ConcurrentHashMap<>();
+
+    public LiveGameSocketHandler(
+            LiveSessionService liveSessionService,
+            LiveGameService liveGameService,
+            Jackson2ObjectMapperBuilder objectMapperBuilder,
+            @Value("${lol_notes.live-socket.send-time-limit:5s}") Duration sendTimeLimit,
+            @Value("${lol_notes.live-socket.buffer-size-limit:512KB}") DataSize bufferSizeLimit) {
+        this.liveSessionService = liveSessionService;
+        this.liveGameService = liveGameService;
+        this.jsonMapper = objectMapperBuilder.build();
+        this.cborMapper = objectMapperBuilder.factory(new CBORFactory()).build();
+        this.sendTimeLimit = (int) sendTimeLimit.toMillis();
+        this.bufferSizeLimit = (int) bufferSizeLimit.toBytes();
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession socket) {
+        // the events are sent from the polling threads, a slow client gets its messages buffered up to the limits, then is closed.
+        subscribers.put(socket.getId(), new Subscriber(new ConcurrentWebSocketSessionDecorator(socket, sendTimeLimit, bufferSizeLimit)));
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession socket, TextMessage message) {
+        handleRequest(socket, () -> jsonMapper.readValue(message.getPayload(), LiveSubscriptionDTO.class));
+    }
+
+    @Override
+    protected void handleBinaryMessage(WebSocketSession socket, BinaryMessage message) {
+        ByteBuffer payload = message.getPayload();
+        byte[] request = new byte[payload.remaining()];
+        payload.get(request);
+        handleRequest(socket, () -> cborMapper.readValue(request, LiveSubscriptionDTO.class));
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession socket, CloseStatus status) {
+        Subscriber subscriber = subscribers.remove(socket.getId());
+        if (subscriber == null) {
+            return;
+        }
+        for (Long sessionId : subscriber.subscriptions.keySet()) {
+            unsubscribe(subscriber, sessionId);
+        }
+    }
+
+    private void handleRequest(WebSocketSession socket, SubscriptionReader reader) {
+        Subscriber subscriber = subscribers.get(socket.getId());
+        if (subscriber == null) {
+            return;
+        }
+        LiveSubscriptionDTO request;
+        try {
+            request = reader.read();
+        } catch (IOException e) {
+            sendError(subscriber, null, "Unreadable request: " + e.getMessage());
+            return;
+        }
+        if (LiveSubscriptionDTO.SUBSCRIBE.equals(request.action)) {
+            subscribe(subscriber, request);
+        } else if (LiveSubscriptionDTO.UNSUBSCRIBE.equals(request.action) && request.session != null) {
+            unsubscribe(subscriber, request.session);
+            send(subscriber, new LiveSocketMessageDTO(LiveSocketMessageDTO.UNSUBSCRIBED, request.session));
+        } else {
+            sendError(subscriber, request.session, "Unknown action: " + request.action);
+        }
+    }
+
+    private void subscribe(Subscriber subscriber, LiveSubscriptionDTO request) {
+        Optional<ServerSentEventSession> session = request.session == null
+                ? Optional.of(liveSessionService.getOrStartSession(false))
+                : liveSessionService.findSession(request.session);
+        if (session.isEmpty()) {
+            sendError(subscriber, request.session, "No running live session " + request.session);
+            return;
+        }
+        ServerSentEventSession sses = session.get();
+        Set<LiveEventFilter> filters = request.filters == null || request.filters.isEmpty()
+                ? EnumSet.of(LiveEventFilter.MY_DEATHS)
+                : EnumSet.copyOf(request.filters);
+        CancellationToken.Registration events = sses.subscribe(frames -> sendEvents(subscriber, sses.id, frames, filters));
+        CancellationToken.Registration ended = sses.tracking.onCancel(() -> {
+            if (closeSubscription(subscriber, sses.id)) {
+                send(subscriber, new LiveSocketMessageDTO(LiveSocketMessageDTO.ENDED, sses.id));
+            }
+        });
+        CancellationToken.Registration previous = subscriber.subscriptions.put(sses.id, () -> {
+            events.close();
+            ended.close();
+        });
+        if (previous != null) {
+            previous.close();
+        }
+        log.info("subscribe: the socket {} subscribed to the live session {} with {}.", subscriber.socket.getId(), sses.id, filters);
+        send(subscriber, new LiveSocketMessageDTO(LiveSocketMessageDTO.SUBSCRIBED, sses.id));
+        // stopped while subscribing, the cancel callback ran before the subscription was registered.
+        if (sses.tracking.isCancelled() && closeSubscription(subscriber, sses.id)) {
+            send(subscriber, new LiveSocketMessageDTO(LiveSocketMessageDTO.ENDED, sses.id));
+        }
+    }
+
+    private void unsubscribe(Subscriber subscriber, long sessionId) {
+        if (closeSubscription(subscriber, sessionId)) {
+            liveSessionService.findSession(sessionId).ifPresent(liveSessionService::stopWhenLeftDetached);
+        }
+    }
+
+    private boolean closeSubscription(Subscriber subscriber, long sessionId) {
+        CancellationToken.Registration subscription = subscriber.subscriptions.remove(sessionId);
+        if (subscription == null) {
+            return false;
+        }
+        subscription.close();
+        return true;
+    }
+
+    private void sendEvents(Subscriber subscriber, long sessionId, List<LiveEventFrameDTO> frames, Set<LiveEventFilter> filters) {
+        Optional<String> activePlayerName = liveGameService.getActivePlayer().map(p -> p.summonerName);
+        List<LiveEventFrameDTO> matchingFrames = frames.stream()
+                .filter(frame -> filters.stream().anyMatch(filter -> filter.matches(frame.event, activePlayerName)))
+                .map(frame -> {
+                    // the frames are shared with the other subscribers.
+                    LiveEventFrameDTO sentFrame = new LiveEventFrameDTO(frame.event, frame.receivedAt, frame.parsedAt);
+                    sentFrame.emittedAt = System.currentTimeMillis();
+                    return sentFrame;
+                })
+                .collect(Collectors.toList());
+        if (matchingFrames.isEmpty()) {
+            return;
+        }
+        LiveSocketMessageDTO message = new LiveSocketMessageDTO(LiveSocketMessageDTO.EVENTS, sessionId);
+        message.events = matchingFrames;
+        send(subscriber, message);
+    }
+
+    private void sendError(Subscriber subscriber, Long sessionId, String reason) {
+        LiveSocketMessageDTO message = new LiveSocketMessageDTO(LiveSocketMessageDTO.ERROR, sessionId);
+        message.message = reason;
+        send(subscriber, message);
+    }
+
+    private void send(Subscriber subscriber, LiveSocketMessageDTO message) {
+        try {
+            subscriber.socket.sendMessage(new BinaryMessage(cborMapper.writeValueAsBytes(message)));
+        } catch (IOException | SessionLimitExceededException e) {
+            log.error("LiveGameSocketHandler::send : failed to send to the socket " + subscriber.socket.getId() + ": [message: " + e.getMessage() + "]");
+        }
+    }
+
+    private static class Subscriber {
+        final WebSocketSession socket;
+        /**
+         * Per live session id, closed to unsubscribe.
+         */
+        final Map<Long, CancellationToken.Registration> subscriptions = new ConcurrentHashMap<>();
+
+        Subscriber(WebSocketSession socket) {
+            this.socket = socket;
+        }
+    }
+
+    @FunctionalInterface
+    private interface SubscriptionReader {
+        LiveSubscriptionDTO read() throws IOException;
+    }
+}
@@ -0,0 +1,40 @@
+package com.medkha.lol_notes.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.medkha.lol_notes.dto.enums.ExportCompression;
+import com.medkha.lol_notes.dto.enums.ExportFormat;
+import com.medkha.lol_notes.dto.enums.ExportJobStatus;
+
+import java.time.Instant;
+
+/**
+ * Status of a match history export job.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ExportJobDTO {
+    public long id;
+    public ExportJobStatus status;
+    public String summonerName;
+    public Integer queueId;
+    public int count;
+    public ExportFormat format;
+    public ExportCompression compression;
+    /**
+     * An incremental export appends to the file of the previous one, the file is kept when the job is dropped.
+     */
+    public boolean incremental;
+    public int matchesFetched;
+    /**
+     * The requested count until every id is listed, then the number of matches the summoner actually has.
+     * Missing while an incremental export lists the games since the previous one, their number isn't known yet.
+     */
+    public Integer matchesTotal;
+    /**
+     * Estimated from the fetch rate of the job so far, missing until a match is fetched or while the total is missing.
+     */
+    public Long etaSeconds;
+    public Instant submittedAt;
+    public Instant startedAt;
+    public Instant finishedAt;
+    public String error;
+}
@@ -144,9 +144,9 @@ public class GameFinishedDTO {
         return
                 "metadata_dataVersion,metadata_matchId,info_gameCreation,info_gameDuration,info_gameEndTimestamp,"+
                         "info_gameId,info_gameMode,info_gameName,info_gameStartTimestamp,info_gameType,info_gameVersion,info_mapId,"+
-                        "player_allInPings,player_assistMePings,player_assists,player_baitPings,player_baronKills,player_bountyLevel,player_champExperience,"+
+                        "player_allInPings,player_assistMePings,player_assists,player_baitPings,player_baronKills,player_basicPings,player_bountyLevel,player_champExperience,"+
                         "player_champLevel,player_championId,player_championName,player_commandPings,player_consumablesPurchased,player_damageDealtToBuildings,"+
-                        "player_damageDealtToObjectives,player_damageDealtToTurrets,player_damageDealtToTurrets,player_damageSelfMitigated,"+
+                        "player_damageDealtToObjectives,player_damageDealtToTurrets,player_damageSelfMitigated,"+
                         "player_dangerPings,player_deaths,player_detectorWardsPlaced,player_doubleKills,player_dragonKills,"+
                         "player_enemyMissingPings,player_enemyVisionPings,player_firstBloodAssist,player_firstBloodKill,"+
                         "player_firstTowerAssist,player_firstTowerKill,player_gameEndedInEarlySurrender,player_gameEndedInSurrender,"+
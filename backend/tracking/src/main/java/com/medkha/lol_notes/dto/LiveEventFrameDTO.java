@@ -0,0 +1,23 @@
+package com.medkha.lol_notes.dto;
+
+/**
+ * A game event sent over the SSE stream, with the server-side timestamps (epoch milliseconds) of its delivery:
+ * the client gets its delivery lag by comparing `emittedAt` with its own clock.
+ */
+public class LiveEventFrameDTO {
+    public EventInGameDTO event;
+    /**
+     * When the eventdata response holding the event was received from the game client.
+     */
+    public long receivedAt;
+    public long parsedAt;
+    public long emittedAt;
+
+    public LiveEventFrameDTO() {}
+
+    public LiveEventFrameDTO(EventInGameDTO event, long receivedAt, long parsedAt) {
+        this.event = event;
+        this.receivedAt = receivedAt;
+        this.parsedAt = parsedAt;
+    }
+}
@@ -5,5 +5,6 @@ public class LiveGameDTO {
     public String gameMode;
     public String gameStartTime;
     public String gameLength;
+    public String gameTime;
     public String mapId;
 }
@@ -0,0 +1,32 @@
+package com.medkha.lol_notes.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * A CBOR encoded message of the WebSocket channel. The events of one poll are sent in one `events` message.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class LiveSocketMessageDTO {
+    public static final String SUBSCRIBED = "subscribed";
+    public static final String UNSUBSCRIBED = "unsubscribed";
+    public static final String EVENTS = "events";
+    /**
+     * The session is stopped, the subscription to it is dropped.
+     */
+    public static final String ENDED = "ended";
+    public static final String ERROR = "error";
+
+    public String type;
+    public Long session;
+    public List<LiveEventFrameDTO> events;
+    public String message;
+
+    public LiveSocketMessageDTO() {}
+
+    public LiveSocketMessageDTO(String type, Long session) {
+        this.type = type;
+        this.session = session;
+    }
+}
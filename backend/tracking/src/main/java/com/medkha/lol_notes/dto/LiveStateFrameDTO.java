@@ -0,0 +1,29 @@
+package com.medkha.lol_notes.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * A frame of the live state channel: a keyframe carries the whole allgamedata snapshot,
+ * a delta carries the JSON Patch to apply on the state built from the previous frames.
+ */
+public class LiveStateFrameDTO {
+    public static final String KEYFRAME = "keyframe";
+    public static final String DELTA = "delta";
+
+    public String type;
+    public long sequence;
+    public JsonNode data;
+    /**
+     * Server-side timestamps (epoch milliseconds): when the allgamedata snapshot was received and when the frame was sent.
+     */
+    public long receivedAt;
+    public long emittedAt;
+
+    public LiveStateFrameDTO() {}
+
+    public LiveStateFrameDTO(String type, long sequence, JsonNode data) {
+        this.type = type;
+        this.sequence = sequence;
+        this.data = data;
+    }
+}
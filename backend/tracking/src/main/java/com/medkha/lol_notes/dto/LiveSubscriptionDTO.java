@@ -0,0 +1,23 @@
+package com.medkha.lol_notes.dto;
+
+import com.medkha.lol_notes.dto.enums.LiveEventFilter;
+
+import java.util.Set;
+
+/**
+ * A request of a WebSocket client, sent as JSON text or CBOR binary.
+ */
+public class LiveSubscriptionDTO {
+    public static final String SUBSCRIBE = "subscribe";
+    public static final String UNSUBSCRIBE = "unsubscribe";
+
+    public String action;
+    /**
+     * The live session, the running one (started if needed) when missing.
+     */
+    public Long session;
+    /**
+     * Defaults to {@link LiveEventFilter#MY_DEATHS}.
+     */
+    public Set<LiveEventFilter> filters;
+}
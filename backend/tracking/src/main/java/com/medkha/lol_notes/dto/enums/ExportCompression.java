@@ -0,0 +1,31 @@
+package com.medkha.lol_notes.dto.enums;
+
+/**
+ * Compression of the export files, applied to the whole file while it is written.
+ */
+public enum ExportCompression {
+    NONE("", null),
+    GZIP(".gz", "application/gzip");
+
+    private final String fileExtension;
+    private final String mediaType;
+
+    ExportCompression(String fileExtension, String mediaType) {
+        this.fileExtension = fileExtension;
+        this.mediaType = mediaType;
+    }
+
+    /**
+     * @return appended to the extension of the format, empty when the file isn't compressed.
+     */
+    public String getFileExtension() {
+        return fileExtension;
+    }
+
+    /**
+     * @return the media type of the compressed file whatever its format, the one of the format when it isn't compressed.
+     */
+    public String getMediaType(ExportFormat format) {
+        return mediaType != null ? mediaType : format.getMediaType();
+    }
+}
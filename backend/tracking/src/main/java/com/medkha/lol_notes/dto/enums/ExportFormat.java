@@ -0,0 +1,29 @@
+package com.medkha.lol_notes.dto.enums;
+
+/**
+ * The file format of a match history export.
+ */
+public enum ExportFormat {
+    CSV("csv", "text/csv"),
+    /**
+     * Typed and compressed columns in row groups, see {@link com.medkha.lol_notes.util.MatchColumnarFormat}.
+     * Its footer ends the file, its repository can't append to it.
+     */
+    COLUMNAR("mhcol", "application/octet-stream");
+
+    private final String fileExtension;
+    private final String mediaType;
+
+    ExportFormat(String fileExtension, String mediaType) {
+        this.fileExtension = fileExtension;
+        this.mediaType = mediaType;
+    }
+
+    public String getFileExtension() {
+        return fileExtension;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+}
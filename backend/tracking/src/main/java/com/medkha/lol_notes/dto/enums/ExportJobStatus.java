@@ -0,0 +1,13 @@
+package com.medkha.lol_notes.dto.enums;
+
+public enum ExportJobStatus {
+    QUEUED,
+    RUNNING,
+    DONE,
+    FAILED,
+    CANCELLED;
+
+    public boolean isFinished() {
+        return this == DONE || this == FAILED || this == CANCELLED;
+    }
+}
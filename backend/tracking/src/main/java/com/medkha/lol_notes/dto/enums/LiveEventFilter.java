@@ -0,0 +1,35 @@
+package com.medkha.lol_notes.dto.enums;
+
+import com.medkha.lol_notes.dto.EventInGameDTO;
+
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * The game events a WebSocket subscriber asks for, applied server-side before the events are encoded.
+ */
+public enum LiveEventFilter {
+    /**
+     * The ChampionKill events of the active player's deaths, all of them when the active player is unknown.
+     */
+    MY_DEATHS,
+    KILLS,
+    OBJECTIVES,
+    ALL;
+
+    private static final Set<String> OBJECTIVE_EVENTS = Set.of("DragonKill", "HeraldKill", "BaronKill", "TurretKilled", "InhibKilled");
+
+    public boolean matches(EventInGameDTO event, Optional<String> activePlayerName) {
+        switch (this) {
+            case MY_DEATHS:
+                return event.eventName.equals("ChampionKill")
+                        && (activePlayerName.isEmpty() || activePlayerName.equals(event.victimName));
+            case KILLS:
+                return event.eventName.equals("ChampionKill");
+            case OBJECTIVES:
+                return OBJECTIVE_EVENTS.contains(event.eventName);
+            default:
+                return true;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.medkha.lol_notes.exceptions;
+
+public class ExportJobConflictException extends RuntimeException {
+
+	/**
+	 * 
+	 */
+	private static final long serialVersionUID = 3319645306702848213L;
+
+	public ExportJobConflictException(String errorMessage) {
+		super(errorMessage);
+	}
+
+}
@@ -0,0 +1,68 @@
+package com.medkha.lol_notes.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latency of every stage of the live tracking, published as the `lol_notes.live.latency` timer tagged by `stage`:
+ * <ul>
+ *     <li>poll-wait: sleeping before polling the game client again.</li>
+ *     <li>fetch: from sending the eventdata request to receiving its response.</li>
+ *     <li>parse: reading the new events out of the response.</li>
+ *     <li>diff: encoding the live state frame against the previous one.</li>
+ *     <li>emit: writing a frame to the SSE stream.</li>
+ *     <li>total: from the in-game time of an event to having emitted its frame. The game clock is placed with the
+ *     game time the game client gave when the game was found, a paused game adds its pause.</li>
+ * </ul>
+ * The timers publish a histogram and the 50/95/99th percentiles, see `/actuator/metrics/lol_notes.live.latency?tag=stage:fetch`.
+ * The `lol_notes.live.poll-interval` gauge gives the wait chosen before the next poll of the game events.
+ */
+@Component
+public class LiveTrackingMetrics {
+    public static final String POLL_WAIT = "poll-wait";
+    public static final String FETCH = "fetch";
+    public static final String PARSE = "parse";
+    public static final String DIFF = "diff";
+    public static final String EMIT = "emit";
+    public static final String TOTAL = "total";
+
+    private final Map<String, Timer> timers = new HashMap<>();
+    private final AtomicLong pollIntervalMillis = new AtomicLong();
+
+    public LiveTrackingMetrics(MeterRegistry meterRegistry) {
+        for (String stage : new String[]{POLL_WAIT, FETCH, PARSE, DIFF, EMIT, TOTAL}) {
+            timers.put(stage, Timer.builder("lol_notes.live.latency")
+                    .description("Latency of a stage of the live tracking")
+                    .tag("stage", stage)
+                    .publishPercentileHistogram()
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(meterRegistry));
+        }
+        TimeGauge.builder("lol_notes.live.poll-interval", pollIntervalMillis, TimeUnit.MILLISECONDS, AtomicLong::get)
+                .description("Wait chosen before the next poll of the game events")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param startNanos {@link System#nanoTime()} when the stage started.
+     */
+    public void recordSince(String stage, long startNanos) {
+        timers.get(stage).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void record(String stage, Duration duration) {
+        timers.get(stage).record(duration);
+    }
+
+    public void pollInterval(Duration interval) {
+        pollIntervalMillis.set(interval.toMillis());
+    }
+}
@@ -0,0 +1,42 @@
+package com.medkha.lol_notes.ratelimit;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive counterpart of {@link RiotRateLimitInterceptor}: the WebClient calls to the riot api are delayed until
+ * their permit is due, without parking a thread, and a 429 is sent again after the `Retry-After`.
+ */
+public class RiotRateLimitExchangeFilter implements ExchangeFilterFunction {
+    private final RiotRateLimiter riotRateLimiter;
+    private final int maxRetries;
+
+    public RiotRateLimitExchangeFilter(RiotRateLimiter riotRateLimiter, int maxRetries) {
+        this.riotRateLimiter = riotRateLimiter;
+        this.maxRetries = maxRetries;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        if (!riotRateLimiter.appliesTo(request.url())) {
+            return next.exchange(request);
+        }
+        return exchange(request, next, 0);
+    }
+
+    private Mono<ClientResponse> exchange(ClientRequest request, ExchangeFunction next, int attempt) {
+        return Mono.defer(() -> Mono.delay(riotRateLimiter.reserve(request.url())))
+                .then(Mono.defer(() -> next.exchange(request)))
+                .flatMap(response -> {
+                    riotRateLimiter.update(request.url(), response.rawStatusCode(), response.headers().asHttpHeaders());
+                    if (response.rawStatusCode() != HttpStatus.TOO_MANY_REQUESTS.value() || attempt >= maxRetries) {
+                        return Mono.just(response);
+                    }
+                    return response.releaseBody().then(exchange(request, next, attempt + 1));
+                });
+    }
+}
@@ -0,0 +1,49 @@
+package com.medkha.lol_notes.ratelimit;
+
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+
+/**
+ * Makes the RestTemplate calls to the riot api wait for their permit of the {@link RiotRateLimiter},
+ * a call answered with a 429 is sent again after the `Retry-After`, up to `maxRetries` times.
+ */
+public class RiotRateLimitInterceptor implements ClientHttpRequestInterceptor {
+    private final RiotRateLimiter riotRateLimiter;
+    private final int maxRetries;
+
+    public RiotRateLimitInterceptor(RiotRateLimiter riotRateLimiter, int maxRetries) {
+        this.riotRateLimiter = riotRateLimiter;
+        this.maxRetries = maxRetries;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        if (!riotRateLimiter.appliesTo(request.getURI())) {
+            return execution.execute(request, body);
+        }
+        for (int attempt = 0; ; attempt++) {
+            Duration wait = riotRateLimiter.reserve(request.getURI());
+            if (!wait.isZero()) {
+                try {
+                    Thread.sleep(wait.toMillis());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while waiting for the riot rate limit.");
+                }
+            }
+            ClientHttpResponse response = execution.execute(request, body);
+            riotRateLimiter.update(request.getURI(), response.getRawStatusCode(), response.getHeaders());
+            if (response.getRawStatusCode() != HttpStatus.TOO_MANY_REQUESTS.value() || attempt >= maxRetries) {
+                return response;
+            }
+            response.close();
+        }
+    }
+}
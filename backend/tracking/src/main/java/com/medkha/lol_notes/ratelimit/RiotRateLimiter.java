@@ -0,0 +1,260 @@
+package com.medkha.lol_notes.ratelimit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Shared limiter of the calls to the riot api hosts, for both the rest and the reactive clients.
+ * Every host has its application windows, `lol_notes.riot-rate-limit.app-limits` until the `X-App-Rate-Limit` header
+ * tells otherwise, and every method (the path without its ids) has the windows of its `X-Method-Rate-Limit` header.
+ * A caller reserves the earliest permit free in all the windows of its call and waits until it is due: the callers
+ * are queued instead of sleeping blindly, and a call waiting on its method limit does not hold back the other methods.
+ * A 429 blocks the application or the method for its `Retry-After`.
+ * The windows keep the times of their permits, so no span of the window length ever holds more calls than allowed,
+ * wherever riot starts its own window.
+ */
+@Component
+public class RiotRateLimiter {
+    private static final Logger log = LoggerFactory.getLogger(RiotRateLimiter.class);
+    private static final Pattern METHOD_SEGMENT = Pattern.compile("[a-z]+(-[a-z]+)*|v\\d+");
+
+    private final List<Limit> defaultAppLimits;
+    private final Clock clock;
+    private final Map<String, RateLimitedKey> keys = new HashMap<>();
+
+    @Autowired
+    public RiotRateLimiter(@Value("${lol_notes.riot-rate-limit.app-limits:20:1,100:120}") String defaultAppLimits) {
+        this(defaultAppLimits, Clock.systemUTC());
+    }
+
+    public RiotRateLimiter(String defaultAppLimits, Clock clock) {
+        this.defaultAppLimits = Limit.parse(defaultAppLimits);
+        this.clock = clock;
+    }
+
+    public boolean appliesTo(URI uri) {
+        return uri.getHost() != null && uri.getHost().endsWith(".api.riotgames.com");
+    }
+
+    /**
+     * Reserves a permit for the call.
+     * @return how long the caller waits before sending it.
+     */
+    public synchronized Duration reserve(URI uri) {
+        long now = clock.millis();
+        RateLimitedKey app = key(appKey(uri), defaultAppLimits);
+        RateLimitedKey method = key(methodKey(uri), List.of());
+        List<Window> windows = new ArrayList<>(app.windows);
+        windows.addAll(method.windows);
+        windows.forEach(window -> window.prune(now));
+        long due = Math.max(now, Math.max(app.blockedUntil, method.blockedUntil));
+        long previousDue;
+        do {
+            previousDue = due;
+            for (Window window : windows) {
+                due = window.earliestFrom(due);
+            }
+        } while (due != previousDue);
+        for (Window window : windows) {
+            window.add(due);
+        }
+        return Duration.ofMillis(due - now);
+    }
+
+    /**
+     * Tunes the windows from the rate limit headers of the response, and blocks the limited key on a 429.
+     */
+    public synchronized void update(URI uri, int status, HttpHeaders headers) {
+        long now = clock.millis();
+        RateLimitedKey app = key(appKey(uri), defaultAppLimits);
+        RateLimitedKey method = key(methodKey(uri), List.of());
+        app.tune(headers.getFirst("X-App-Rate-Limit"), headers.getFirst("X-App-Rate-Limit-Count"), now);
+        method.tune(headers.getFirst("X-Method-Rate-Limit"), headers.getFirst("X-Method-Rate-Limit-Count"), now);
+        if (status == HttpStatus.TOO_MANY_REQUESTS.value()) {
+            String retryAfter = headers.getFirst(HttpHeaders.RETRY_AFTER);
+            long blockedFor = retryAfter == null ? 1000 : Long.parseLong(retryAfter.trim()) * 1000;
+            RateLimitedKey limited = "application".equals(headers.getFirst("X-Rate-Limit-Type")) ? app : method;
+            limited.blockedUntil = Math.max(limited.blockedUntil, now + blockedFor);
+            log.info("update: {} is rate limited for {}ms ({}).", uri.getPath(), blockedFor, headers.getFirst("X-Rate-Limit-Type"));
+        }
+    }
+
+    static String appKey(URI uri) {
+        return uri.getHost();
+    }
+
+    /**
+     * The host and the path with its ids replaced: the segments following a `by-*` one, and the ones that are not
+     * lowercase words or versions, e.g. `europe.api.riotgames.com/lol/match/v5/matches/{}`.
+     */
+    static String methodKey(URI uri) {
+        StringBuilder methodKey = new StringBuilder(uri.getHost());
+        boolean idExpected = false;
+        for (String segment : uri.getRawPath().split("/")) {
+            if (segment.isEmpty()) {
+                continue;
+            }
+            boolean id = idExpected || !METHOD_SEGMENT.matcher(segment).matches();
+            methodKey.append('/').append(id ? "{}" : segment);
+            idExpected = segment.startsWith("by-");
+        }
+        return methodKey.toString();
+    }
+
+    private RateLimitedKey key(String key, List<Limit> defaultLimits) {
+        return keys.computeIfAbsent(key, k -> new RateLimitedKey(defaultLimits));
+    }
+
+    static class Limit {
+        final int permits;
+        final long windowMillis;
+
+        Limit(int permits, long windowMillis) {
+            this.permits = permits;
+            this.windowMillis = windowMillis;
+        }
+
+        /**
+         * @param limits riot's format, `permits:seconds` separated by commas, e.g. `20:1,100:120`.
+         */
+        static List<Limit> parse(String limits) {
+            List<Limit> parsed = new ArrayList<>();
+            for (String limit : limits.split(",")) {
+                String[] permitsAndSeconds = limit.trim().split(":");
+                parsed.add(new Limit(Integer.parseInt(permitsAndSeconds[0]), Long.parseLong(permitsAndSeconds[1]) * 1000));
+            }
+            return parsed;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Limit && ((Limit) o).permits == permits && ((Limit) o).windowMillis == windowMillis;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(windowMillis) * 31 + permits;
+        }
+    }
+
+    private static class Window {
+        final Limit limit;
+        /**
+         * The times of the permits given or reserved, in order.
+         */
+        final List<Long> permits = new ArrayList<>();
+
+        Window(Limit limit) {
+            this.limit = limit;
+        }
+
+        void prune(long now) {
+            permits.subList(0, countUpTo(now - limit.windowMillis)).clear();
+        }
+
+        /**
+         * @return the earliest time from `due` where one more permit keeps every window of the limit length under its
+         * count, the permits reserved later included.
+         */
+        long earliestFrom(long due) {
+            while (!fits(due)) {
+                // a permit leaves the window ending at `due` at the earliest `windowMillis` after it was given.
+                due = permits.get(countUpTo(due - limit.windowMillis)) + limit.windowMillis;
+            }
+            return due;
+        }
+
+        void add(long permit) {
+            permits.add(countUpTo(permit), permit);
+        }
+
+        long countSince(long since) {
+            return permits.size() - countUpTo(since);
+        }
+
+        private boolean fits(long due) {
+            if (count(due) >= limit.permits) {
+                return false;
+            }
+            // the windows ending on a later permit also hold `due`.
+            for (int later = countUpTo(due - 1); later < permits.size() && permits.get(later) < due + limit.windowMillis; later++) {
+                if (count(permits.get(later)) >= limit.permits) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * @return the number of permits in the window ending at `end`.
+         */
+        private int count(long end) {
+            return countUpTo(end) - countUpTo(end - limit.windowMillis);
+        }
+
+        /**
+         * @return the number of permits given at `time` or before.
+         */
+        private int countUpTo(long time) {
+            int low = 0;
+            int high = permits.size();
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (permits.get(middle) <= time) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+    }
+
+    private static class RateLimitedKey {
+        List<Window> windows = new ArrayList<>();
+        long blockedUntil;
+
+        RateLimitedKey(List<Limit> limits) {
+            limits.forEach(limit -> windows.add(new Window(limit)));
+        }
+
+        /**
+         * Takes the limits riot gives, keeping the permits of the windows that did not change, and catches up with
+         * the counts riot has seen: calls made by another client with the same key.
+         */
+        void tune(String limitsHeader, String countsHeader, long now) {
+            if (limitsHeader != null) {
+                List<Limit> limits = Limit.parse(limitsHeader);
+                List<Window> tunedWindows = new ArrayList<>();
+                for (Limit limit : limits) {
+                    tunedWindows.add(windows.stream().filter(window -> window.limit.equals(limit)).findFirst().orElseGet(() -> new Window(limit)));
+                }
+                windows = tunedWindows;
+            }
+            if (countsHeader != null) {
+                for (Limit count : Limit.parse(countsHeader)) {
+                    windows.stream().filter(window -> window.limit.windowMillis == count.windowMillis).findFirst().ifPresent(window -> {
+                        long missing = count.permits - window.countSince(now - window.limit.windowMillis);
+                        for (long permit = 0; permit < missing; permit++) {
+                            window.add(now);
+                        }
+                    });
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.medkha.lol_notes.repositories;
+
+import com.medkha.lol_notes.util.MatchColumnarFormat.Column;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * A match history format whose export can be continued, the incremental exports are only offered for these formats.
+ */
+public interface AppendableMatchHistoryRepository extends MatchHistoryRepository {
+    /**
+     * @return the columns of the exports, an export is only continued with the columns it was started with.
+     */
+    List<Column> getColumns();
+
+    /**
+     * @param out follows the bytes of an export of the same format, only the matches are written to it.
+     */
+    MatchHistoryWriter appendExport(OutputStream out) throws IOException;
+}
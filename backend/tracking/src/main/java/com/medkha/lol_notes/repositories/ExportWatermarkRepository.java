@@ -0,0 +1,13 @@
+package com.medkha.lol_notes.repositories;
+
+import com.medkha.lol_notes.util.ExportWatermark;
+
+import java.util.Optional;
+
+public interface ExportWatermarkRepository {
+    /**
+     * @param exportKey the summoner, queue and format of the incremental export.
+     */
+    Optional<ExportWatermark> find(String exportKey);
+    void save(String exportKey, ExportWatermark watermark);
+}
@@ -0,0 +1,26 @@
+package com.medkha.lol_notes.repositories;
+
+import com.medkha.lol_notes.util.TimelineLogReader;
+import com.medkha.lol_notes.util.TimelineRecord;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Append-only log of the raw events and live state snapshots of every tracked game, to be analyzed after the game.
+ */
+public interface GameTimelineRepository {
+    /**
+     * Appends the records to the log of the game, created on the first append.
+     */
+    void append(long gameId, List<TimelineRecord> records);
+    /**
+     * Closes the log of the game once it ended, a later append reopens it.
+     */
+    void close(long gameId);
+    /**
+     * @return a sequential reader of the game log, to be closed. A log still being written is read up to its last complete record.
+     */
+    TimelineLogReader read(long gameId) throws IOException;
+    List<Long> findGameIds();
+}
@@ -0,0 +1,19 @@
+package com.medkha.lol_notes.repositories;
+
+import com.medkha.lol_notes.util.MatchHistoryCursor;
+
+import java.time.Instant;
+import java.util.Optional;
+
+public interface MatchHistoryCursorRepository {
+    /**
+     * @param startTime the cursors of a listing from a start time are kept apart from the ones of the whole history.
+     * @param createdAfter cursors created before this instant are considered stale and ignored.
+     */
+    Optional<MatchHistoryCursor> find(String puuid, Optional<Integer> queueId, Optional<Long> startTime, Instant createdAfter);
+    void save(MatchHistoryCursor cursor);
+    /**
+     * Called once the export of the cursor is done or failed, the next export of the summoner and queue starts over.
+     */
+    void delete(MatchHistoryCursor cursor);
+}
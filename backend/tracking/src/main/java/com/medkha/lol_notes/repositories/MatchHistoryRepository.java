@@ -1,10 +1,25 @@
 package com.medkha.lol_notes.repositories;
 
 import com.medkha.lol_notes.dto.GameFinishedDTO;
+import com.medkha.lol_notes.dto.enums.ExportFormat;
 
-import java.util.Collection;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
 
 public interface MatchHistoryRepository {
     // Is it the right thing to interact with a DTO object in a repo?
-    void exportMatchHistory(Collection<GameFinishedDTO> games);
+    /**
+     * The export jobs pick the repository of the format they are asked for.
+     */
+    ExportFormat getFormat();
+    /**
+     * @param out where the export is written, the caller chooses the file and its compression.
+     * @return a writer the matches are streamed to, one at a time, closing it writes the end of the export and closes `out`.
+     */
+    MatchHistoryWriter openExport(OutputStream out) throws IOException;
+
+    interface MatchHistoryWriter extends Closeable {
+        void write(GameFinishedDTO game) throws IOException;
+    }
 }
@@ -0,0 +1,18 @@
+package com.medkha.lol_notes.repositories;
+
+import java.util.Optional;
+
+/**
+ * Local copy of the match-v5 payloads, a finished match never changes so it is downloaded once.
+ */
+public interface MatchStoreRepository {
+    /**
+     * @return the raw json of the match, as it was returned by match-v5.
+     */
+    Optional<byte[]> find(String matchId);
+    boolean contains(String matchId);
+    /**
+     * Does nothing if the match is already stored.
+     */
+    void save(String matchId, byte[] matchJson);
+}
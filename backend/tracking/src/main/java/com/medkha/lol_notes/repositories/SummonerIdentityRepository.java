@@ -0,0 +1,14 @@
+package com.medkha.lol_notes.repositories;
+
+import com.medkha.lol_notes.dto.IdPlayerDTO;
+
+import java.time.Instant;
+import java.util.Optional;
+
+public interface SummonerIdentityRepository {
+    /**
+     * @param cachedAfter identities saved before this instant are considered stale and ignored.
+     */
+    Optional<IdPlayerDTO> findBySummonerName(String summonerName, Instant cachedAfter);
+    void save(String summonerName, IdPlayerDTO identity);
+}
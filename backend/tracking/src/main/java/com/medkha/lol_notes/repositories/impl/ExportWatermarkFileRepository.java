@@ -0,0 +1,75 @@
+package com.medkha.lol_notes.repositories.impl;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medkha.lol_notes.repositories.ExportWatermarkRepository;
+import com.medkha.lol_notes.util.ExportWatermark;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Keeps the watermarks of the incremental exports in a small json file, a sync after a restart still only fetches the new matches.
+ */
+@Repository
+public class ExportWatermarkFileRepository implements ExportWatermarkRepository {
+    private static final Logger log = LoggerFactory.getLogger(ExportWatermarkFileRepository.class);
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Path storePath;
+    private final Map<String, StoredWatermark> watermarks = new HashMap<>();
+
+    public ExportWatermarkFileRepository(@Value("${lol_notes.export.watermark-store-path:export-watermarks.json}") String storePath) {
+        this.storePath = Paths.get(storePath);
+    }
+
+    @PostConstruct
+    public void load() {
+        if (!Files.exists(storePath)) {
+            return;
+        }
+        try {
+            watermarks.putAll(objectMapper.readValue(storePath.toFile(), new TypeReference<Map<String, StoredWatermark>>() {}));
+            log.info("ExportWatermarkFileRepository::load : {} export watermarks loaded from {}", watermarks.size(), storePath);
+        } catch (IOException e) {
+            log.error("ExportWatermarkFileRepository::load : Couldn't read the watermarks store, the next syncs are full exports. exception message -> " + e.getMessage());
+        }
+    }
+
+    @Override
+    public synchronized Optional<ExportWatermark> find(String exportKey) {
+        return Optional.ofNullable(watermarks.get(exportKey))
+                .map(storedWatermark -> new ExportWatermark(storedWatermark.matchId, storedWatermark.gameEndTimestamp));
+    }
+
+    @Override
+    public synchronized void save(String exportKey, ExportWatermark watermark) {
+        StoredWatermark storedWatermark = new StoredWatermark();
+        storedWatermark.matchId = watermark.getMatchId();
+        storedWatermark.gameEndTimestamp = watermark.getGameEndTimestamp();
+        watermarks.put(exportKey, storedWatermark);
+        try {
+            Path temporaryFile = Files.createTempFile(storePath.toAbsolutePath().getParent(), "export-watermarks", ".tmp");
+            objectMapper.writeValue(temporaryFile.toFile(), watermarks);
+            Files.move(temporaryFile, storePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.error("ExportWatermarkFileRepository::save : Couldn't write the watermarks store, exception message -> " + e.getMessage());
+        }
+    }
+
+    static class StoredWatermark {
+        public String matchId;
+        public long gameEndTimestamp;
+    }
+}
@@ -0,0 +1,152 @@
+package com.medkha.lol_notes.repositories.impl;
+
+import com.medkha.lol_notes.repositories.GameTimelineRepository;
+import com.medkha.lol_notes.util.TimelineLogReader;
+import com.medkha.lol_notes.util.TimelineLogWriter;
+import com.medkha.lol_notes.util.TimelineRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+import org.springframework.util.unit.DataSize;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * One `game-<id>.timeline` file per game in `lol_notes.timeline.directory`. The open logs are forced to the disk every
+ * `lol_notes.timeline.fsync-interval`, and closed once nothing was appended to them for `lol_notes.timeline.idle-close`.
+ */
+@Repository
+public class GameTimelineFileRepository implements GameTimelineRepository {
+    private static final Logger log = LoggerFactory.getLogger(GameTimelineFileRepository.class);
+    private static final Pattern LOG_FILE_NAME = Pattern.compile("game-(\\d+)\\.timeline");
+
+    private final Path directory;
+    private final int bufferSize;
+    private final Duration idleClose;
+    private final Map<Long, TimelineLogWriter> writers = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService syncExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "game-timeline-sync");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public GameTimelineFileRepository(
+            @Value("${lol_notes.timeline.directory:timelines}") String directory,
+            @Value("${lol_notes.timeline.buffer-size:256KB}") DataSize bufferSize,
+            @Value("${lol_notes.timeline.fsync-interval:1s}") Duration fsyncInterval,
+            @Value("${lol_notes.timeline.idle-close:2m}") Duration idleClose) {
+        this.directory = Paths.get(directory);
+        this.bufferSize = (int) bufferSize.toBytes();
+        this.idleClose = idleClose;
+        this.syncExecutor.scheduleWithFixedDelay(
+                this::sync, fsyncInterval.toMillis(), fsyncInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void append(long gameId, List<TimelineRecord> records) {
+        try {
+            // the writer may be closed as idle in between, the records then go to a reopened one.
+            TimelineLogWriter writer = writer(gameId);
+            while (!writer.append(records)) {
+                writers.remove(gameId, writer);
+                writer = writer(gameId);
+            }
+        } catch (IOException | UncheckedIOException e) {
+            log.error("GameTimelineFileRepository::append : Couldn't append to the timeline of the game " + gameId + ", exception message -> " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void close(long gameId) {
+        TimelineLogWriter writer = writers.remove(gameId);
+        if (writer != null) {
+            closeWriter(gameId, writer);
+        }
+    }
+
+    @Override
+    public TimelineLogReader read(long gameId) throws IOException {
+        return TimelineLogReader.open(path(gameId), bufferSize);
+    }
+
+    @Override
+    public List<Long> findGameIds() {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> LOG_FILE_NAME.matcher(file.getFileName().toString()))
+                    .filter(Matcher::matches)
+                    .map(matcher -> Long.parseLong(matcher.group(1)))
+                    .sorted()
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            log.error("GameTimelineFileRepository::findGameIds : Couldn't list the timelines, exception message -> " + e.getMessage());
+            return List.of();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        syncExecutor.shutdown();
+        writers.keySet().forEach(this::close);
+    }
+
+    void sync() {
+        long idleSince = System.nanoTime() - idleClose.toNanos();
+        writers.forEach((gameId, writer) -> {
+            if (writer.getLastAppendNanos() - idleSince < 0) {
+                if (writers.remove(gameId, writer)) {
+                    log.info("sync: the timeline of the game {} is idle, it is closed.", gameId);
+                    closeWriter(gameId, writer);
+                }
+                return;
+            }
+            try {
+                writer.sync();
+            } catch (IOException e) {
+                log.error("GameTimelineFileRepository::sync : Couldn't sync the timeline of the game " + gameId + ", exception message -> " + e.getMessage());
+            }
+        });
+    }
+
+    private TimelineLogWriter writer(long gameId) {
+        return writers.computeIfAbsent(gameId, id -> {
+            try {
+                Files.createDirectories(directory);
+                return TimelineLogWriter.open(path(id), bufferSize);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private void closeWriter(long gameId, TimelineLogWriter writer) {
+        try {
+            writer.close();
+        } catch (IOException e) {
+            log.error("GameTimelineFileRepository::close : Couldn't close the timeline of the game " + gameId + ", exception message -> " + e.getMessage());
+        }
+    }
+
+    private Path path(long gameId) {
+        return directory.resolve("game-" + gameId + ".timeline");
+    }
+}
@@ -0,0 +1,245 @@
+package com.medkha.lol_notes.repositories.impl;
+
+import com.medkha.lol_notes.dto.GameFinishedDTO;
+import com.medkha.lol_notes.dto.PlayerMatchGameDTO;
+import com.medkha.lol_notes.dto.enums.ExportFormat;
+import com.medkha.lol_notes.repositories.MatchHistoryRepository;
+import com.medkha.lol_notes.util.MatchColumnarFormat;
+import com.medkha.lol_notes.util.MatchColumnarFormat.Column;
+import com.medkha.lol_notes.util.MatchProjectionReader;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.Deflater;
+
+/**
+ * Writes the participants in the columnar format of {@link MatchColumnarFormat}. The rows are kept by column until
+ * `lol_notes.export.columnar.row-group-size` of them are written, then every column of the row group is encoded,
+ * deflated and written, so an export holds one row group at most. The columns are the projected ones of the
+ * {@link MatchProjectionReader}, the footer names them.
+ */
+@Repository
+public class MatchHistoryColumnarRepository implements MatchHistoryRepository {
+    private final List<Column> columns;
+    private final int rowGroupSize;
+    private final int compressionLevel;
+
+    public MatchHistoryColumnarRepository(
+            MatchProjectionReader matchProjectionReader,
+            @Value("${lol_notes.export.columnar.row-group-size:8192}") int rowGroupSize,
+            @Value("${lol_notes.export.columnar.compression-level:6}") int compressionLevel) {
+        if (rowGroupSize <= 0) {
+            throw new IllegalArgumentException("The row group size must be positive, it is " + rowGroupSize);
+        }
+        this.columns = matchProjectionReader.getProjectedColumns();
+        this.rowGroupSize = rowGroupSize;
+        this.compressionLevel = compressionLevel;
+    }
+
+    @Override
+    public ExportFormat getFormat() {
+        return ExportFormat.COLUMNAR;
+    }
+
+    @Override
+    public MatchHistoryWriter openExport(OutputStream out) throws IOException {
+        DataOutputStream dataOut = new DataOutputStream(out);
+        try {
+            dataOut.write(MatchColumnarFormat.MAGIC);
+        } catch (IOException e) {
+            dataOut.close();
+            throw e;
+        }
+        return new ColumnarMatchHistoryWriter(dataOut, columns, rowGroupSize, compressionLevel);
+    }
+
+    private static class ColumnarMatchHistoryWriter implements MatchHistoryWriter {
+        private final List<Column> columns;
+        private final DataOutputStream out;
+        private final int rowGroupSize;
+        private final Deflater deflater;
+        // the booleans are kept as 0 or 1 with the ints, a column only has the array of its type.
+        private final int[][] intValues;
+        private final String[][] stringValues;
+        private final List<RowGroup> rowGroups = new ArrayList<>();
+        private final byte[] deflated = new byte[1 << 13];
+        private byte[] chunk = new byte[1 << 16];
+        private int chunkLength;
+        private int rows;
+        private long position = MatchColumnarFormat.MAGIC.length;
+
+        ColumnarMatchHistoryWriter(DataOutputStream out, List<Column> columns, int rowGroupSize, int compressionLevel) {
+            this.out = out;
+            this.columns = columns;
+            this.rowGroupSize = rowGroupSize;
+            this.deflater = new Deflater(compressionLevel);
+            this.intValues = new int[columns.size()][];
+            this.stringValues = new String[columns.size()][];
+            for (int column = 0; column < columns.size(); column++) {
+                if (columns.get(column).getType() == MatchColumnarFormat.ColumnType.STRING) {
+                    stringValues[column] = new String[rowGroupSize];
+                } else {
+                    intValues[column] = new int[rowGroupSize];
+                }
+            }
+        }
+
+        @Override
+        public void write(GameFinishedDTO game) throws IOException {
+            for (PlayerMatchGameDTO participant : game.info.participants) {
+                for (int column = 0; column < columns.size(); column++) {
+                    Column definition = columns.get(column);
+                    switch (definition.getType()) {
+                        case INT32:
+                            intValues[column][rows] = definition.getInt(game, participant);
+                            break;
+                        case BOOLEAN:
+                            intValues[column][rows] = definition.getBoolean(game, participant) ? 1 : 0;
+                            break;
+                        default:
+                            stringValues[column][rows] = definition.getString(game, participant);
+                    }
+                }
+                if (++rows == rowGroupSize) {
+                    writeRowGroup();
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                writeRowGroup();
+                writeFooter();
+            } finally {
+                deflater.end();
+                out.close();
+            }
+        }
+
+        private void writeRowGroup() throws IOException {
+            if (rows == 0) {
+                return;
+            }
+            RowGroup rowGroup = new RowGroup(rows, columns.size());
+            for (int column = 0; column < columns.size(); column++) {
+                encode(column);
+                rowGroup.offsets[column] = position;
+                rowGroup.inflatedLengths[column] = chunkLength;
+                rowGroup.deflatedLengths[column] = deflateChunk();
+                position += rowGroup.deflatedLengths[column];
+                if (stringValues[column] != null) {
+                    Arrays.fill(stringValues[column], 0, rows, null);
+                }
+            }
+            rowGroups.add(rowGroup);
+            rows = 0;
+        }
+
+        private void encode(int column) {
+            chunkLength = 0;
+            switch (columns.get(column).getType()) {
+                case INT32:
+                    for (int row = 0; row < rows; row++) {
+                        int value = intValues[column][row];
+                        varint((value << 1) ^ (value >> 31));
+                    }
+                    break;
+                case BOOLEAN:
+                    ensureCapacity((rows + 7) / 8);
+                    Arrays.fill(chunk, 0, (rows + 7) / 8, (byte) 0);
+                    for (int row = 0; row < rows; row++) {
+                        chunk[row >> 3] |= intValues[column][row] << (row & 7);
+                    }
+                    chunkLength = (rows + 7) / 8;
+                    break;
+                default:
+                    for (int row = 0; row < rows; row++) {
+                        String value = stringValues[column][row];
+                        if (value == null) {
+                            varint(0);
+                        } else {
+                            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                            varint(bytes.length + 1);
+                            ensureCapacity(bytes.length);
+                            System.arraycopy(bytes, 0, chunk, chunkLength, bytes.length);
+                            chunkLength += bytes.length;
+                        }
+                    }
+            }
+        }
+
+        private int deflateChunk() throws IOException {
+            deflater.reset();
+            deflater.setInput(chunk, 0, chunkLength);
+            deflater.finish();
+            int deflatedLength = 0;
+            while (!deflater.finished()) {
+                int count = deflater.deflate(deflated);
+                out.write(deflated, 0, count);
+                deflatedLength += count;
+            }
+            return deflatedLength;
+        }
+
+        private void writeFooter() throws IOException {
+            ByteArrayOutputStream footerBytes = new ByteArrayOutputStream();
+            DataOutputStream footer = new DataOutputStream(footerBytes);
+            footer.writeInt(MatchColumnarFormat.VERSION);
+            footer.writeInt(columns.size());
+            for (Column column : columns) {
+                footer.writeUTF(column.getName());
+                footer.writeByte(column.getType().ordinal());
+            }
+            footer.writeInt(rowGroups.size());
+            for (RowGroup rowGroup : rowGroups) {
+                footer.writeInt(rowGroup.rows);
+                for (int column = 0; column < columns.size(); column++) {
+                    footer.writeLong(rowGroup.offsets[column]);
+                    footer.writeInt(rowGroup.deflatedLengths[column]);
+                    footer.writeInt(rowGroup.inflatedLengths[column]);
+                }
+            }
+            footerBytes.writeTo(out);
+            out.writeInt(footerBytes.size());
+            out.write(MatchColumnarFormat.MAGIC);
+        }
+
+        private void varint(int value) {
+            ensureCapacity(5);
+            while ((value & ~0x7F) != 0) {
+                chunk[chunkLength++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            chunk[chunkLength++] = (byte) value;
+        }
+
+        private void ensureCapacity(int extraLength) {
+            if (chunkLength + extraLength > chunk.length) {
+                chunk = Arrays.copyOf(chunk, Math.max(2 * chunk.length, chunkLength + extraLength));
+            }
+        }
+    }
+
+    private static class RowGroup {
+        final int rows;
+        final long[] offsets;
+        final int[] deflatedLengths;
+        final int[] inflatedLengths;
+
+        RowGroup(int rows, int columns) {
+            this.rows = rows;
+            this.offsets = new long[columns];
+            this.deflatedLengths = new int[columns];
+            this.inflatedLengths = new int[columns];
+        }
+    }
+}
@@ -1,30 +1,82 @@
 package com.medkha.lol_notes.repositories.impl;
 
 import com.medkha.lol_notes.dto.GameFinishedDTO;
-import com.medkha.lol_notes.repositories.MatchHistoryRepository;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import com.medkha.lol_notes.dto.enums.ExportFormat;
+import com.medkha.lol_notes.repositories.AppendableMatchHistoryRepository;
+import com.medkha.lol_notes.util.MatchColumnarFormat.Column;
+import com.medkha.lol_notes.util.MatchCsvEncoder;
+import com.medkha.lol_notes.util.MatchProjectionReader;
 import org.springframework.stereotype.Repository;
 
-import java.io.FileNotFoundException;
-import java.io.PrintWriter;
-import java.io.UnsupportedEncodingException;
-import java.util.Collection;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 
+/**
+ * Writes one csv line per participant through a {@link MatchCsvEncoder}, a match is written as soon as it is given
+ * and nothing of it is kept. The columns are the projected ones of the {@link MatchProjectionReader}, the others aren't
+ * bound and would only hold defaults.
+ */
 @Repository
-public class MatchHistoryCsvRepository implements MatchHistoryRepository {
-    private static final Logger log = LoggerFactory.getLogger(MatchHistoryCsvRepository.class);
+public class MatchHistoryCsvRepository implements AppendableMatchHistoryRepository {
+    private final List<Column> columns;
+
+    public MatchHistoryCsvRepository(MatchProjectionReader matchProjectionReader) {
+        this.columns = matchProjectionReader.getProjectedColumns();
+    }
+
+    @Override
+    public ExportFormat getFormat() {
+        return ExportFormat.CSV;
+    }
+
     @Override
-    public void exportMatchHistory(Collection<GameFinishedDTO> games) {
-        try(PrintWriter pw = new PrintWriter("lol.csv", "UTF-8")){
-            pw.println(GameFinishedDTO.toCsvFormatHeader());
-            games.stream().flatMap(g -> g.toCsvFormat().stream()).forEach(pw::println);
-        } catch (FileNotFoundException e) {
-            log.error("MatchHistoryCsvRepository::exportMatchHistory : Couldn't find the file to export to.");
-        } catch (UnsupportedEncodingException e) {
-            log.error("MatchHistoryCsvRepository::exportMatchHistory : Unsupported Encoding, exception message -> " + e.getMessage());
+    public List<Column> getColumns() {
+        return columns;
+    }
+
+    @Override
+    public MatchHistoryWriter openExport(OutputStream out) throws IOException {
+        CsvMatchHistoryWriter writer = new CsvMatchHistoryWriter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)), columns);
+        try {
+            writer.writeHeader();
+        } catch (IOException e) {
+            writer.close();
+            throw e;
         }
+        return writer;
+    }
 
+    @Override
+    public MatchHistoryWriter appendExport(OutputStream out) {
+        return new CsvMatchHistoryWriter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)), columns);
     }
 
+    private static class CsvMatchHistoryWriter implements MatchHistoryWriter {
+        private final BufferedWriter writer;
+        private final MatchCsvEncoder encoder;
+
+        CsvMatchHistoryWriter(BufferedWriter writer, List<Column> columns) {
+            this.writer = writer;
+            this.encoder = new MatchCsvEncoder(columns);
+        }
+
+        void writeHeader() throws IOException {
+            writer.write(encoder.header());
+            writer.newLine();
+        }
+
+        @Override
+        public void write(GameFinishedDTO game) throws IOException {
+            encoder.encode(game, writer);
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+    }
 }
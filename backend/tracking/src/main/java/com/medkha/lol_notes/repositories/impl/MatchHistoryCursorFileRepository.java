@@ -0,0 +1,103 @@
+package com.medkha.lol_notes.repositories.impl;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medkha.lol_notes.repositories.MatchHistoryCursorRepository;
+import com.medkha.lol_notes.util.MatchHistoryCursor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Keeps the cursors of the unfinished match history exports in a small json file, so they resume after a restart.
+ */
+@Repository
+public class MatchHistoryCursorFileRepository implements MatchHistoryCursorRepository {
+    private static final Logger log = LoggerFactory.getLogger(MatchHistoryCursorFileRepository.class);
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Path storePath;
+    private final Map<String, StoredCursor> cursors = new HashMap<>();
+
+    public MatchHistoryCursorFileRepository(@Value("${lol_notes.match-history.cursor-store-path:match-history-cursors.json}") String storePath) {
+        this.storePath = Paths.get(storePath);
+    }
+
+    @PostConstruct
+    public void load() {
+        if (!Files.exists(storePath)) {
+            return;
+        }
+        try {
+            cursors.putAll(objectMapper.readValue(storePath.toFile(), new TypeReference<Map<String, StoredCursor>>() {}));
+            log.info("MatchHistoryCursorFileRepository::load : {} unfinished match history exports loaded from {}", cursors.size(), storePath);
+        } catch (IOException e) {
+            log.error("MatchHistoryCursorFileRepository::load : Couldn't read the cursors store, starting empty. exception message -> " + e.getMessage());
+        }
+    }
+
+    @Override
+    public synchronized Optional<MatchHistoryCursor> find(String puuid, Optional<Integer> queueId, Optional<Long> startTime, Instant createdAfter) {
+        return Optional.ofNullable(cursors.get(key(puuid, queueId, startTime)))
+                .filter(storedCursor -> storedCursor.createdAt > createdAfter.toEpochMilli())
+                .map(storedCursor -> new MatchHistoryCursor(puuid, queueId, startTime, storedCursor.size, storedCursor.start,
+                        storedCursor.lastMatchId, storedCursor.matchIds, storedCursor.complete, Instant.ofEpochMilli(storedCursor.createdAt)));
+    }
+
+    @Override
+    public synchronized void save(MatchHistoryCursor cursor) {
+        StoredCursor storedCursor = new StoredCursor();
+        storedCursor.size = cursor.getSize();
+        storedCursor.start = cursor.getStart();
+        storedCursor.lastMatchId = cursor.getLastMatchId();
+        storedCursor.matchIds = new ArrayList<>(cursor.getMatchIds());
+        storedCursor.complete = cursor.isComplete();
+        storedCursor.createdAt = cursor.getCreatedAt().toEpochMilli();
+        cursors.put(key(cursor.getPuuid(), cursor.getQueueId(), cursor.getStartTime()), storedCursor);
+        write();
+    }
+
+    @Override
+    public synchronized void delete(MatchHistoryCursor cursor) {
+        if (cursors.remove(key(cursor.getPuuid(), cursor.getQueueId(), cursor.getStartTime())) != null) {
+            write();
+        }
+    }
+
+    private void write() {
+        try {
+            Path temporaryFile = Files.createTempFile(storePath.toAbsolutePath().getParent(), "match-history-cursors", ".tmp");
+            objectMapper.writeValue(temporaryFile.toFile(), cursors);
+            Files.move(temporaryFile, storePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.error("MatchHistoryCursorFileRepository::write : Couldn't write the cursors store, exception message -> " + e.getMessage());
+        }
+    }
+
+    private static String key(String puuid, Optional<Integer> queueId, Optional<Long> startTime) {
+        return puuid + ":" + queueId.map(String::valueOf).orElse("all") + startTime.map(time -> ":since-" + time).orElse("");
+    }
+
+    static class StoredCursor {
+        public int size;
+        public int start;
+        public String lastMatchId;
+        public List<String> matchIds = new ArrayList<>();
+        public boolean complete;
+        public long createdAt;
+    }
+}
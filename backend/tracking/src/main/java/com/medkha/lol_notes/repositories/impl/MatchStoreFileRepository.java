@@ -0,0 +1,203 @@
+package com.medkha.lol_notes.repositories.impl;
+
+import com.medkha.lol_notes.repositories.MatchStoreRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Keeps the match-v5 payloads deflated in one append-only file, `directory`/matches.store, and their position
+ * in an in-memory index by matchId that is rebuilt by scanning the file on startup.
+ * A record is `[int body length][short matchId length][matchId][int json length][deflated json][int crc32 of the body]`,
+ * the incomplete or corrupted record a crash may have left at the end of the file is cut when it is opened.
+ * Nothing is forced to the disk: a match lost by a crash is downloaded again by the next export.
+ */
+@Repository
+public class MatchStoreFileRepository implements MatchStoreRepository {
+    private static final Logger log = LoggerFactory.getLogger(MatchStoreFileRepository.class);
+    private static final int HEADER_SIZE = Integer.BYTES;
+    private static final int TRAILER_SIZE = Integer.BYTES;
+
+    private final Path storePath;
+    private final int compressionLevel;
+    private final Map<String, StoredMatch> index = new ConcurrentHashMap<>();
+    private FileChannel channel;
+
+    public MatchStoreFileRepository(
+            @Value("${lol_notes.match-store.directory:matches}") String directory,
+            @Value("${lol_notes.match-store.compression-level:6}") int compressionLevel) {
+        this.storePath = Paths.get(directory).resolve("matches.store");
+        this.compressionLevel = compressionLevel;
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        Files.createDirectories(storePath.toAbsolutePath().getParent());
+        channel = FileChannel.open(storePath, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long validLength = 0;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        CRC32 crc = new CRC32();
+        while (true) {
+            header.clear();
+            if (readFully(header, validLength) < HEADER_SIZE) {
+                break;
+            }
+            int bodyLength = header.flip().getInt();
+            if (bodyLength <= Short.BYTES + Integer.BYTES || validLength + HEADER_SIZE + bodyLength + TRAILER_SIZE > channel.size()) {
+                break;
+            }
+            ByteBuffer record = ByteBuffer.allocate(bodyLength + TRAILER_SIZE);
+            readFully(record, validLength + HEADER_SIZE);
+            record.flip();
+            crc.reset();
+            crc.update(record.array(), 0, bodyLength);
+            if ((int) crc.getValue() != record.getInt(bodyLength)) {
+                break;
+            }
+            byte[] matchId = new byte[record.getShort()];
+            record.get(matchId);
+            int jsonLength = record.getInt();
+            long dataPosition = validLength + HEADER_SIZE + record.position();
+            index.put(new String(matchId, StandardCharsets.UTF_8), new StoredMatch(dataPosition, bodyLength - record.position(), jsonLength));
+            validLength += HEADER_SIZE + bodyLength + TRAILER_SIZE;
+        }
+        if (validLength < channel.size()) {
+            log.error("MatchStoreFileRepository::open : the store ends with a damaged record, cutting it at " + validLength + " bytes.");
+            channel.truncate(validLength);
+        }
+        log.info("MatchStoreFileRepository::open : {} matches stored in {}", index.size(), storePath);
+    }
+
+    @Override
+    public Optional<byte[]> find(String matchId) {
+        StoredMatch storedMatch = index.get(matchId);
+        if (storedMatch == null) {
+            return Optional.empty();
+        }
+        try {
+            ByteBuffer deflated = ByteBuffer.allocate(storedMatch.compressedLength);
+            readFully(deflated, storedMatch.position);
+            Inflater inflater = new Inflater();
+            try {
+                inflater.setInput(deflated.array());
+                byte[] matchJson = new byte[storedMatch.jsonLength];
+                int inflatedLength = 0;
+                while (inflatedLength < matchJson.length && !inflater.finished() && !inflater.needsInput()) {
+                    inflatedLength += inflater.inflate(matchJson, inflatedLength, matchJson.length - inflatedLength);
+                }
+                if (inflatedLength != matchJson.length) {
+                    throw new DataFormatException("inflated " + inflatedLength + " bytes out of " + matchJson.length);
+                }
+                return Optional.of(matchJson);
+            } finally {
+                inflater.end();
+            }
+        } catch (IOException | DataFormatException e) {
+            log.error("MatchStoreFileRepository::find : Couldn't read the match " + matchId + ", it is downloaded again. exception message -> " + e.getMessage());
+            index.remove(matchId, storedMatch);
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public boolean contains(String matchId) {
+        return index.containsKey(matchId);
+    }
+
+    @Override
+    public void save(String matchId, byte[] matchJson) {
+        if (index.containsKey(matchId)) {
+            return;
+        }
+        byte[] deflated = deflate(matchJson);
+        byte[] id = matchId.getBytes(StandardCharsets.UTF_8);
+        int bodyLength = Short.BYTES + id.length + Integer.BYTES + deflated.length;
+        ByteBuffer record = ByteBuffer.allocate(HEADER_SIZE + bodyLength + TRAILER_SIZE);
+        record.putInt(bodyLength).putShort((short) id.length).put(id).putInt(matchJson.length).put(deflated);
+        CRC32 crc = new CRC32();
+        crc.update(record.array(), HEADER_SIZE, bodyLength);
+        record.putInt((int) crc.getValue()).flip();
+        synchronized (this) {
+            if (index.containsKey(matchId)) {
+                return;
+            }
+            try {
+                long recordPosition = channel.size();
+                long position = recordPosition;
+                while (record.hasRemaining()) {
+                    position += channel.write(record, position);
+                }
+                index.put(matchId, new StoredMatch(recordPosition + HEADER_SIZE + Short.BYTES + id.length + Integer.BYTES, deflated.length, matchJson.length));
+            } catch (IOException e) {
+                log.error("MatchStoreFileRepository::save : Couldn't store the match " + matchId + ", exception message -> " + e.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    private byte[] deflate(byte[] matchJson) {
+        Deflater deflater = new Deflater(compressionLevel);
+        try {
+            deflater.setInput(matchJson);
+            deflater.finish();
+            ByteArrayOutputStream deflated = new ByteArrayOutputStream(matchJson.length / 4 + 64);
+            byte[] chunk = new byte[8192];
+            while (!deflater.finished()) {
+                deflated.write(chunk, 0, deflater.deflate(chunk));
+            }
+            return deflated.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private int readFully(ByteBuffer buffer, long position) throws IOException {
+        int read = 0;
+        while (buffer.hasRemaining()) {
+            int count = channel.read(buffer, position + read);
+            if (count < 0) {
+                break;
+            }
+            read += count;
+        }
+        return read;
+    }
+
+    private static class StoredMatch {
+        final long position;
+        final int compressedLength;
+        final int jsonLength;
+
+        StoredMatch(long position, int compressedLength, int jsonLength) {
+            this.position = position;
+            this.compressedLength = compressedLength;
+            this.jsonLength = jsonLength;
+        }
+    }
+}
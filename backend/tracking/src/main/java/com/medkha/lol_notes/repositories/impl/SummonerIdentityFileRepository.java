@@ -0,0 +1,84 @@
+package com.medkha.lol_notes.repositories.impl;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medkha.lol_notes.dto.IdPlayerDTO;
+import com.medkha.lol_notes.repositories.SummonerIdentityRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Keeps the summoner name → id/puuid lookups in a small json file, so they survive a restart.
+ */
+@Repository
+public class SummonerIdentityFileRepository implements SummonerIdentityRepository {
+    private static final Logger log = LoggerFactory.getLogger(SummonerIdentityFileRepository.class);
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Path storePath;
+    private final Map<String, StoredIdentity> identities = new HashMap<>();
+
+    public SummonerIdentityFileRepository(@Value("${lol_notes.summoner-identity.store-path:summoner-identities.json}") String storePath) {
+        this.storePath = Paths.get(storePath);
+    }
+
+    @PostConstruct
+    void load() {
+        if (!Files.exists(storePath)) {
+            return;
+        }
+        try {
+            identities.putAll(objectMapper.readValue(storePath.toFile(), new TypeReference<Map<String, StoredIdentity>>() {}));
+            log.info("SummonerIdentityFileRepository::load : {} summoner identities loaded from {}", identities.size(), storePath);
+        } catch (IOException e) {
+            log.error("SummonerIdentityFileRepository::load : Couldn't read the identities store, starting empty. exception message -> " + e.getMessage());
+        }
+    }
+
+    @Override
+    public synchronized Optional<IdPlayerDTO> findBySummonerName(String summonerName, Instant cachedAfter) {
+        return Optional.ofNullable(identities.get(summonerName))
+                .filter(storedIdentity -> storedIdentity.cachedAt > cachedAfter.toEpochMilli())
+                .map(storedIdentity -> {
+                    IdPlayerDTO identity = new IdPlayerDTO();
+                    identity.id = storedIdentity.id;
+                    identity.puuid = storedIdentity.puuid;
+                    return identity;
+                });
+    }
+
+    @Override
+    public synchronized void save(String summonerName, IdPlayerDTO identity) {
+        StoredIdentity storedIdentity = new StoredIdentity();
+        storedIdentity.id = identity.id;
+        storedIdentity.puuid = identity.puuid;
+        storedIdentity.cachedAt = Instant.now().toEpochMilli();
+        identities.put(summonerName, storedIdentity);
+        try {
+            Path temporaryFile = Files.createTempFile(storePath.toAbsolutePath().getParent(), "summoner-identities", ".tmp");
+            objectMapper.writeValue(temporaryFile.toFile(), identities);
+            Files.move(temporaryFile, storePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.error("SummonerIdentityFileRepository::save : Couldn't write the identities store, exception message -> " + e.getMessage());
+        }
+    }
+
+    static class StoredIdentity {
+        public String id;
+        public String puuid;
+        public long cachedAt;
+    }
+}
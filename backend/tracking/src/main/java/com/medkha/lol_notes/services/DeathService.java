@@ -1,11 +1,17 @@
 package com.medkha.lol_notes.services;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Set;
 
 import com.medkha.lol_notes.dto.DeathDTO;
 
 public interface DeathService {
 	public DeathDTO createDeath(DeathDTO death);
+	/**
+	 * Saves the deaths in one transaction, the inserts are sent in jdbc batches.
+	 */
+	public List<DeathDTO> createDeaths(Collection<DeathDTO> deaths);
 	public DeathDTO updateDeath(DeathDTO death);
 	public void deleteDeathById(Long id); 
 	public Set<DeathDTO> findAllDeaths();
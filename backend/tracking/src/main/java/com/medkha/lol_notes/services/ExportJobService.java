@@ -0,0 +1,29 @@
+package com.medkha.lol_notes.services;
+
+import com.medkha.lol_notes.dto.ExportJobDTO;
+import com.medkha.lol_notes.dto.enums.ExportFormat;
+
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Runs the match history exports as jobs on a bounded pool of workers, each job writes its own export file.
+ */
+public interface ExportJobService {
+    /**
+     * @param count bounds the matches of a full export, and of the first incremental one.
+     * @param incremental appends the matches played since the previous incremental export of the summoner, queue and
+     *                    format to its file, every one of them whatever the count.
+     * @return the job of an identical export that is still queued or running, or the new job.
+     */
+    ExportJobDTO submit(String summonerName, Optional<Integer> queueId, int count, ExportFormat format, boolean incremental);
+    ExportJobDTO findJob(long jobId);
+    /**
+     * A queued job is dropped, a running one stops listing and fetching, and keeps its cursor for the next export.
+     */
+    ExportJobDTO cancel(long jobId);
+    /**
+     * @return the file written by the job, once it is done.
+     */
+    Path findExportFile(long jobId);
+}
@@ -0,0 +1,19 @@
+package com.medkha.lol_notes.services;
+
+import com.medkha.lol_notes.dto.EventInGameDTO;
+import com.medkha.lol_notes.dto.GameDTO;
+
+/**
+ * Turns the deaths of the active player seen during the live tracking into Death notes.
+ * The deaths are buffered and written behind the polling loop, never on it.
+ */
+public interface LiveDeathRecorder {
+    /**
+     * Buffers the death, the minute is taken from the EventTime of the ChampionKill event.
+     */
+    void recordDeath(GameDTO game, EventInGameDTO championKill);
+    /**
+     * Asks for the buffered deaths to be written, without waiting for it.
+     */
+    void requestFlush();
+}
@@ -1,16 +1,32 @@
 package com.medkha.lol_notes.services;
 
+import com.medkha.lol_notes.dto.EventInGameDTO;
+import com.medkha.lol_notes.dto.GameDTO;
 import com.medkha.lol_notes.dto.PlayerDTO;
 import com.medkha.lol_notes.dto.enums.GameTrackingStatus;
 import com.medkha.lol_notes.dto.enums.PlayerGameStatus;
+import com.medkha.lol_notes.util.CancellationToken;
 import org.springframework.scheduling.annotation.Async;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 public interface LiveGameService {
+    /**
+     * Tracks the live games until the tracking is canceled, a previous tracking session is canceled first.
+     * @param tracking canceled to stop the tracking, the waits and the in-flight calls return right away.
+     * @param pollPlayerInGame called in a loop while the player is in game, it gives the new game events.
+     *                         The next poll waits for them, then for an interval adapted to their rate.
+     */
     @Async
-    void findLiveGame(Runnable runnablePlayerInGame);
+    void findLiveGame(CancellationToken tracking, Supplier<CompletableFuture<List<EventInGameDTO>>> pollPlayerInGame);
     void setPlayerGameStatus(PlayerGameStatus playerGameStatus);
+    /**
+     * Setting it to DISABLED cancels the running tracking session.
+     */
     void setGameTrackingStatus(GameTrackingStatus gameTrackingStatus);
     GameTrackingStatus getGameTrackingStatus();
     /**
@@ -18,4 +34,18 @@ public interface LiveGameService {
      * @return Gives the activePlayer if inGame, else it will just return an empty optional.
      */
     Optional<PlayerDTO> getActivePlayer();
+    /**
+     *
+     * @return Gives the game created for the live game being tracked, else it will just return an empty optional.
+     */
+    Optional<GameDTO> getCurrentGame();
+    /**
+     * @param eventTime the in-game time of an event, in seconds.
+     * @return when the event happened, placed on the game clock read when the current game was found, else an empty optional.
+     */
+    Optional<Instant> getEventInstant(String eventTime);
+    /**
+     * @return the cancellation of the running tracking session, already canceled if none is running.
+     */
+    CancellationToken getTracking();
 }
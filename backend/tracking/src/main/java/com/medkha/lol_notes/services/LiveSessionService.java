@@ -0,0 +1,24 @@
+package com.medkha.lol_notes.services;
+
+import com.medkha.lol_notes.util.ServerSentEventSession;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Owns the live tracking sessions: the SSE stream and the WebSocket channel attach to the same running session
+ * instead of each starting a tracking loop of their own.
+ */
+public interface LiveSessionService {
+    /**
+     * @param liveState whether a started session also sends the live state channel, ignored if one is running.
+     * @return the running session, started if there is none.
+     */
+    ServerSentEventSession getOrStartSession(boolean liveState);
+    Optional<ServerSentEventSession> findSession(long sessionId);
+    Collection<ServerSentEventSession> findRunningSessions();
+    /**
+     * Stops the session if no client is attached to it anymore after `lol_notes.live-game.detached-timeout`.
+     */
+    void stopWhenLeftDetached(ServerSentEventSession session);
+}
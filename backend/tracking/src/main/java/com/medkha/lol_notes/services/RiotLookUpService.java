@@ -1,23 +1,47 @@
 package com.medkha.lol_notes.services;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.medkha.lol_notes.dto.*;
-import org.springframework.scheduling.annotation.Async;
+import com.medkha.lol_notes.util.EventBatch;
+import com.medkha.lol_notes.util.IncrementalEventReader;
+import com.medkha.lol_notes.util.MatchHistoryProgress;
 
 import java.util.List;
 import java.util.Optional;
-import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
+/**
+ * The blocking implementation runs its methods with @Async, the reactive one completes the futures
+ * from the event loop, so the annotation is kept on the implementations and not here.
+ */
 public interface RiotLookUpService {
-    @Async
     CompletableFuture<PlayerDTO> getActivePlayerInLiveGameAsync();
-    @Async
     CompletableFuture<List<PlayerDTO>> getAllPlayersInLiveGameAsync();
-    @Async
     CompletableFuture<LiveGameDTO> getLiveGameAsync();
-    @Async
+    /**
+     * Same as {@link #getLiveGameAsync()} for an active player that was already looked up.
+     */
+    CompletableFuture<LiveGameDTO> getLiveGameAsync(PlayerDTO activePlayer);
     CompletableFuture<AllEventsDTO> getEventsAsync();
+    /**
+     * @param eventReader keeps the cursor of the tracking session, only the events after it are parsed.
+     * @return the events that happened since the last call with the same reader, with when they were received and parsed.
+     */
+    CompletableFuture<EventBatch> getNewEventsAsync(IncrementalEventReader eventReader);
+    /**
+     * @return the whole live state of the game (active player, players with their scores and items, events and stats),
+     * kept as a tree as the overlays only forward it.
+     */
+    CompletableFuture<JsonNode> getAllGameDataAsync();
 
-    @Async
-    CompletableFuture<Set<GameFinishedDTO>> getMatchHistory( String userName, Optional<Integer> queueId,  Optional<Integer> sizeOptional);
+    /**
+     * Streams the match history: the matches are handed to the consumer as they are fetched and aren't kept,
+     * the fetches wait for the consumer so an export holds a bounded number of matches whatever its size.
+     * @param startTime lists only the games started from then (epoch seconds), an incremental export passes the end of its last match.
+     * @param progress updated as the ids are listed and the matches fetched, cancelling it ends the export early.
+     * @param matchConsumer called by one thread at a time, an exception it throws fails the export.
+     * @return the number of matches given to the consumer.
+     */
+    CompletableFuture<Integer> streamMatchHistory( String userName, Optional<Integer> queueId,  Optional<Integer> sizeOptional, Optional<Long> startTime, MatchHistoryProgress progress, Consumer<GameFinishedDTO> matchConsumer);
 }
@@ -0,0 +1,16 @@
+package com.medkha.lol_notes.services;
+
+import com.medkha.lol_notes.dto.IdPlayerDTO;
+
+import java.util.Optional;
+
+/**
+ * Cache of the summoner-v4 by-name lookups, the id and puuid of a summoner almost never change.
+ */
+public interface SummonerIdentityService {
+    /**
+     * @return the cached identity, or an empty optional if it must be looked up from riot.
+     */
+    Optional<IdPlayerDTO> findIdentity(String summonerName);
+    IdPlayerDTO saveIdentity(String summonerName, IdPlayerDTO identity);
+}
@@ -1,8 +1,12 @@
 package com.medkha.lol_notes.services.impl;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 
 import javax.transaction.Transactional;
@@ -43,6 +47,24 @@ public class DeathServiceImpl implements DeathService{
 		}
 	}
 
+	@Override
+	@Transactional
+	public List<DeathDTO> createDeaths(Collection<DeathDTO> deaths) {
+		try {
+			List<Death> deathsToCreate = deaths.stream()
+					.map(death -> mapperService.convert(death, Death.class))
+					.collect(Collectors.toList());
+			List<DeathDTO> createdDeaths = new ArrayList<>();
+			this.deathRepository.saveAll(deathsToCreate)
+					.forEach(createdDeath -> createdDeaths.add(mapperService.convert(createdDeath, DeathDTO.class)));
+			log.info("createDeaths: {} deaths created successfully.", createdDeaths.size());
+			return createdDeaths;
+		} catch (InvalidDataAccessApiUsageException | NullPointerException err) {
+			log.error("createDeaths: Death Objects are null and cannot be proceed");
+			throw new IllegalArgumentException("Death Objects are null and cannot be processed", err);
+		}
+	}
+
 	@Override
 	@Transactional
 	public DeathDTO updateDeath(DeathDTO death){
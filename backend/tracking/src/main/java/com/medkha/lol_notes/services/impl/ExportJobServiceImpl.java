@@ -0,0 +1,389 @@
+package com.medkha.lol_notes.services.impl;
+
+import com.medkha.lol_notes.dto.ExportJobDTO;
+import com.medkha.lol_notes.dto.enums.ExportCompression;
+import com.medkha.lol_notes.dto.enums.ExportFormat;
+import com.medkha.lol_notes.dto.enums.ExportJobStatus;
+import com.medkha.lol_notes.exceptions.ExportJobConflictException;
+import com.medkha.lol_notes.exceptions.NoElementFoundException;
+import com.medkha.lol_notes.repositories.AppendableMatchHistoryRepository;
+import com.medkha.lol_notes.repositories.ExportWatermarkRepository;
+import com.medkha.lol_notes.repositories.MatchHistoryRepository;
+import com.medkha.lol_notes.services.ExportJobService;
+import com.medkha.lol_notes.services.RiotLookUpService;
+import com.medkha.lol_notes.util.ExportFileSink;
+import com.medkha.lol_notes.util.ExportWatermark;
+import com.medkha.lol_notes.util.MatchColumnarFormat;
+import com.medkha.lol_notes.util.MatchColumnarFormat.Column;
+import com.medkha.lol_notes.util.MatchHistoryProgress;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * The jobs run on `lol_notes.export.workers` threads, at most `lol_notes.export.queue-capacity` wait for one.
+ * An export identical to a queued or running one (same summoner, queue, count and format) joins it instead of starting over.
+ * The finished jobs and their files are dropped `lol_notes.export.retention` after they finished.
+ * A job writes to `lol_notes.export.directory`/`lol_notes.export.path-template`.extension, where the template may use
+ * {id}, {summoner}, {queue}, {date} and {time} (UTC, when the job was submitted) and must use {id} so no export
+ * replaces another. The file is compressed with `lol_notes.export.compression` and only appears once it is complete.
+ * An incremental export keeps one file per summoner, queue and format, `lol_notes.export.directory`/incremental/summoner-queue.extension,
+ * that isn't dropped with its job: each sync lists every game started after its watermark, whatever its count, and appends them to the file.
+ * A sync that couldn't list or fetch all of them fails and leaves the file and watermark as they were. A file is only
+ * continued with the columns it was started with: the watermark of a projected export is kept under its columns, and
+ * the first sync after the projection changed starts over with a full export.
+ */
+@Service
+public class ExportJobServiceImpl implements ExportJobService {
+    private static final Logger log = LoggerFactory.getLogger(ExportJobServiceImpl.class);
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd").withZone(ZoneOffset.UTC);
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH-mm-ss").withZone(ZoneOffset.UTC);
+
+    private final RiotLookUpService riotLookUpService;
+    private final Map<ExportFormat, MatchHistoryRepository> matchHistoryRepositories = new EnumMap<>(ExportFormat.class);
+    private final ExportWatermarkRepository exportWatermarkRepository;
+    private final Path exportDirectory;
+    private final String pathTemplate;
+    private final ExportCompression compression;
+    private final int bufferSize;
+    private final Duration retention;
+    private final ThreadPoolExecutor workers;
+    private final AtomicLong jobIds = new AtomicLong();
+    private final Map<Long, ExportJob> jobs = new ConcurrentHashMap<>();
+    private final Map<String, ExportJob> activeJobs = new HashMap<>();
+
+    public ExportJobServiceImpl(
+            RiotLookUpService riotLookUpService,
+            List<MatchHistoryRepository> matchHistoryRepositories,
+            ExportWatermarkRepository exportWatermarkRepository,
+            @Value("${lol_notes.export.directory:exports}") String exportDirectory,
+            @Value("${lol_notes.export.path-template:{summoner}/export-{date}-{time}-{id}}") String pathTemplate,
+            @Value("${lol_notes.export.compression:NONE}") ExportCompression compression,
+            @Value("${lol_notes.export.buffer-size:1MB}") DataSize bufferSize,
+            @Value("${lol_notes.export.workers:2}") int workers,
+            @Value("${lol_notes.export.queue-capacity:16}") int queueCapacity,
+            @Value("${lol_notes.export.retention:1h}") Duration retention) {
+        this.riotLookUpService = riotLookUpService;
+        matchHistoryRepositories.forEach(repository -> this.matchHistoryRepositories.put(repository.getFormat(), repository));
+        this.exportWatermarkRepository = exportWatermarkRepository;
+        if (!pathTemplate.contains("{id}")) {
+            throw new IllegalArgumentException("The export path template " + pathTemplate + " doesn't use {id}, an export would replace another.");
+        }
+        this.exportDirectory = Paths.get(exportDirectory);
+        this.pathTemplate = pathTemplate;
+        this.compression = compression;
+        this.bufferSize = Math.toIntExact(bufferSize.toBytes());
+        this.retention = retention;
+        AtomicInteger workerThreads = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, "export-job-" + workerThreads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public synchronized ExportJobDTO submit(String summonerName, Optional<Integer> queueId, int count, ExportFormat format, boolean incremental) {
+        if (!matchHistoryRepositories.containsKey(format)) {
+            throw new IllegalArgumentException("The export format " + format + " isn't supported.");
+        }
+        if (incremental && !(matchHistoryRepositories.get(format) instanceof AppendableMatchHistoryRepository)) {
+            throw new IllegalArgumentException("The " + format + " exports can't be incremental, their file can't be appended to.");
+        }
+        dropExpiredJobs();
+        // two syncs of the same file would append to it at once, the second one joins the first whatever its count.
+        String key = watermarkKey(summonerName, queueId, format) + (incremental ? ":incremental" : ":" + count);
+        ExportJob activeJob = activeJobs.get(key);
+        if (activeJob != null) {
+            log.info("submit: the export of {} joins the job {}", summonerName, activeJob.id);
+            return toDTO(activeJob);
+        }
+        ExportJob job = new ExportJob(jobIds.incrementAndGet(), key, summonerName, queueId, count, format, incremental);
+        try {
+            job.task = workers.submit(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            log.error("ExportJobServiceImpl::submit : the export queue is full, the export of " + summonerName + " is rejected.");
+            throw new ExportJobConflictException("Too many exports are waiting, try again later.");
+        }
+        jobs.put(job.id, job);
+        activeJobs.put(key, job);
+        log.info("submit: export job {} queued for {}", job.id, summonerName);
+        return toDTO(job);
+    }
+
+    @Override
+    public ExportJobDTO findJob(long jobId) {
+        return toDTO(job(jobId));
+    }
+
+    @Override
+    public synchronized ExportJobDTO cancel(long jobId) {
+        ExportJob job = job(jobId);
+        if (job.status == ExportJobStatus.QUEUED) {
+            job.task.cancel(false);
+            workers.purge();
+            finish(job, ExportJobStatus.CANCELLED, null);
+        } else if (job.status == ExportJobStatus.RUNNING) {
+            // the job is finished by its worker once the look up stopped.
+            job.progress.getCancellation().cancel();
+        }
+        log.info("cancel: export job {} is {}", jobId, job.status);
+        return toDTO(job);
+    }
+
+    @Override
+    public Path findExportFile(long jobId) {
+        ExportJob job = job(jobId);
+        if (job.status != ExportJobStatus.DONE) {
+            throw new ExportJobConflictException("The export job " + jobId + " is " + job.status + ", its file is only available once it is DONE.");
+        }
+        return job.file;
+    }
+
+    private void run(ExportJob job) {
+        synchronized (this) {
+            if (job.status != ExportJobStatus.QUEUED) {
+                return;
+            }
+            job.status = ExportJobStatus.RUNNING;
+            job.startedAt = Instant.now();
+        }
+        Path file = job.incremental ? incrementalExportFile(job) : exportFile(job);
+        String watermarkKey = job.incremental ? incrementalWatermarkKey(job) : null;
+        // without its file the watermark is useless, the sync starts over with a full export.
+        Optional<ExportWatermark> watermark = job.incremental && Files.exists(file) ? exportWatermarkRepository.find(watermarkKey) : Optional.empty();
+        AtomicReference<ExportWatermark> latestMatch = new AtomicReference<>(watermark.orElse(null));
+        ExportFileSink sink = null;
+        try {
+            Files.createDirectories(file.getParent());
+            sink = ExportFileSink.open(file, compression, bufferSize, watermark.map(previousSync -> file));
+            MatchHistoryRepository matchHistoryRepository = matchHistoryRepositories.get(job.format);
+            job.syncing = watermark.isPresent();
+            watermark.ifPresent(previousSync -> log.info("run: export job {} appends the games started after {} to {}", job.id, previousSync.getMatchId(), file));
+            // the matches go to the file as they are fetched, the job never holds the whole history.
+            try (MatchHistoryRepository.MatchHistoryWriter writer = watermark.isPresent()
+                    ? ((AppendableMatchHistoryRepository) matchHistoryRepository).appendExport(sink.getOutputStream())
+                    : matchHistoryRepository.openExport(sink.getOutputStream())) {
+                // a sync lists every game since its watermark, a capped listing would leave the older ones behind the new watermark.
+                Optional<Integer> size = Optional.of(watermark.isPresent() ? Integer.MAX_VALUE : job.count);
+                riotLookUpService.streamMatchHistory(job.summonerName, job.queueId, size, watermark.map(ExportWatermark::nextStartTime), job.progress, match -> {
+                    if (watermark.isPresent() && watermark.get().getMatchId().equals(match.metadata.matchId)) {
+                        // the start time is in seconds, the last match of the previous sync can be listed again.
+                        return;
+                    }
+                    try {
+                        writer.write(match);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    if (job.incremental) {
+                        ExportWatermark.of(match).ifPresent(matchWatermark -> latestMatch.accumulateAndGet(matchWatermark, (latest, next) -> next.max(latest)));
+                    }
+                }).join();
+            }
+            if (job.progress.getCancellation().isCancelled()) {
+                sink.abort();
+                finish(job, ExportJobStatus.CANCELLED, null);
+                return;
+            }
+            if (job.incremental && (!job.progress.isListingComplete() || job.progress.getSkippedMatches() > 0)) {
+                // the watermark would move past the missing games, the file and watermark are kept and the next sync lists them again.
+                sink.abort();
+                log.error("ExportJobServiceImpl::run : the sync " + job.id + " is incomplete, " + job.progress.getSkippedMatches() + " matches were skipped, the file is unchanged.");
+                finish(job, ExportJobStatus.FAILED, "The match history couldn't be fully synced, the file is unchanged.");
+                return;
+            }
+            sink.commit();
+            // saved once the file is replaced: a crash in between appends the last matches twice rather than never.
+            if (job.incremental && latestMatch.get() != null) {
+                exportWatermarkRepository.save(watermarkKey, latestMatch.get());
+            }
+            job.file = file;
+            finish(job, ExportJobStatus.DONE, null);
+        } catch (IOException | RuntimeException e) {
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            log.error("ExportJobServiceImpl::run : the export job " + job.id + " failed: [message: " + cause.getMessage() + "]");
+            abort(sink);
+            finish(job, ExportJobStatus.FAILED, cause.getMessage());
+        }
+    }
+
+    private Path exportFile(ExportJob job) {
+        String path = pathTemplate
+                .replace("{id}", String.valueOf(job.id))
+                .replace("{summoner}", fileNameSummoner(job))
+                .replace("{queue}", job.queueId.map(String::valueOf).orElse("all"))
+                .replace("{date}", DATE_FORMAT.format(job.submittedAt))
+                .replace("{time}", TIME_FORMAT.format(job.submittedAt));
+        return exportDirectory.toAbsolutePath().resolve(path + "." + job.format.getFileExtension() + compression.getFileExtension()).normalize();
+    }
+
+    private Path incrementalExportFile(ExportJob job) {
+        String fileName = fileNameSummoner(job) + "-" + job.queueId.map(String::valueOf).orElse("all");
+        return exportDirectory.toAbsolutePath().resolve("incremental").resolve(fileName + "." + job.format.getFileExtension() + compression.getFileExtension());
+    }
+
+    private static String fileNameSummoner(ExportJob job) {
+        String summoner = job.summonerName.replaceAll("[^\\p{L}\\p{N}_-]", "_");
+        return summoner.isEmpty() ? "_" : summoner;
+    }
+
+    private static String watermarkKey(String summonerName, Optional<Integer> queueId, ExportFormat format) {
+        return summonerName.toLowerCase().replace(" ", "") + ":" + queueId.map(String::valueOf).orElse("all") + ":" + format;
+    }
+
+    private String incrementalWatermarkKey(ExportJob job) {
+        List<Column> columns = ((AppendableMatchHistoryRepository) matchHistoryRepositories.get(job.format)).getColumns();
+        String watermarkKey = watermarkKey(job.summonerName, job.queueId, job.format);
+        if (columns.equals(MatchColumnarFormat.COLUMNS)) {
+            return watermarkKey;
+        }
+        return watermarkKey + ":" + columns.stream().map(Column::getName).collect(Collectors.joining(","));
+    }
+
+    private void abort(ExportFileSink sink) {
+        if (sink == null) {
+            return;
+        }
+        try {
+            sink.abort();
+        } catch (IOException e) {
+            log.error("ExportJobServiceImpl::abort : Couldn't delete the unfinished " + sink.getFile() + ", exception message -> " + e.getMessage());
+        }
+    }
+
+    private synchronized void finish(ExportJob job, ExportJobStatus status, String error) {
+        job.status = status;
+        job.error = error;
+        job.finishedAt = Instant.now();
+        activeJobs.remove(job.key, job);
+        log.info("finish: export job {} is {} with {} matches", job.id, status, job.progress.getFetchedMatches());
+    }
+
+    private void dropExpiredJobs() {
+        Instant expiredBefore = Instant.now().minus(retention);
+        Iterator<ExportJob> iterator = jobs.values().iterator();
+        while (iterator.hasNext()) {
+            ExportJob job = iterator.next();
+            if (job.status.isFinished() && job.finishedAt.isBefore(expiredBefore)) {
+                iterator.remove();
+                // the file of an incremental export is kept for the next sync.
+                if (job.file != null && !job.incremental) {
+                    deleteExportFile(job.file);
+                }
+            }
+        }
+    }
+
+    private void deleteExportFile(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.error("ExportJobServiceImpl::deleteExportFile : Couldn't delete " + file + ", exception message -> " + e.getMessage());
+        }
+    }
+
+    private ExportJob job(long jobId) {
+        ExportJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new NoElementFoundException("No export job with id " + jobId + " is found.");
+        }
+        return job;
+    }
+
+    private ExportJobDTO toDTO(ExportJob job) {
+        ExportJobDTO jobDTO = new ExportJobDTO();
+        jobDTO.id = job.id;
+        jobDTO.status = job.status;
+        jobDTO.summonerName = job.summonerName;
+        jobDTO.queueId = job.queueId.orElse(null);
+        jobDTO.count = job.count;
+        jobDTO.format = job.format;
+        jobDTO.compression = compression;
+        jobDTO.incremental = job.incremental;
+        jobDTO.matchesFetched = job.progress.getFetchedMatches();
+        if (job.progress.isListingComplete()) {
+            jobDTO.matchesTotal = job.progress.getListedMatches();
+        } else if (!job.syncing) {
+            jobDTO.matchesTotal = job.count;
+        }
+        jobDTO.submittedAt = job.submittedAt;
+        jobDTO.startedAt = job.startedAt;
+        jobDTO.finishedAt = job.finishedAt;
+        jobDTO.error = job.error;
+        if (job.status == ExportJobStatus.RUNNING && jobDTO.matchesFetched > 0 && jobDTO.matchesTotal != null) {
+            long elapsedMillis = Duration.between(job.startedAt, Instant.now()).toMillis();
+            long remainingMatches = Math.max(0, jobDTO.matchesTotal - jobDTO.matchesFetched);
+            jobDTO.etaSeconds = elapsedMillis * remainingMatches / jobDTO.matchesFetched / 1000;
+        }
+        return jobDTO;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobs.values().forEach(job -> job.progress.getCancellation().cancel());
+        workers.shutdownNow();
+    }
+
+    private static class ExportJob {
+        final long id;
+        final String key;
+        final String summonerName;
+        final Optional<Integer> queueId;
+        final int count;
+        final ExportFormat format;
+        final boolean incremental;
+        final MatchHistoryProgress progress = new MatchHistoryProgress();
+        final Instant submittedAt = Instant.now();
+        volatile ExportJobStatus status = ExportJobStatus.QUEUED;
+        volatile Instant startedAt;
+        volatile Instant finishedAt;
+        volatile String error;
+        volatile Path file;
+        /**
+         * A sync lists every game since its watermark, `count` doesn't bound it.
+         */
+        volatile boolean syncing;
+        Future<?> task;
+
+        ExportJob(long id, String key, String summonerName, Optional<Integer> queueId, int count, ExportFormat format, boolean incremental) {
+            this.id = id;
+            this.key = key;
+            this.summonerName = summonerName;
+            this.queueId = queueId;
+            this.count = count;
+            this.format = format;
+            this.incremental = incremental;
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.medkha.lol_notes.services.impl;
+
+import com.medkha.lol_notes.dto.DeathDTO;
+import com.medkha.lol_notes.dto.EventInGameDTO;
+import com.medkha.lol_notes.dto.GameDTO;
+import com.medkha.lol_notes.dto.ReasonDTO;
+import com.medkha.lol_notes.services.DeathService;
+import com.medkha.lol_notes.services.LiveDeathRecorder;
+import com.medkha.lol_notes.services.ReasonService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Write-behind buffer of the live deaths: they are flushed in one transaction every
+ * `lol_notes.live-deaths.flush-interval`, as soon as `lol_notes.live-deaths.batch-size` deaths are pending,
+ * and when the game ends. The flushes run one at a time on a dedicated thread.
+ * A batch that can't be saved is queued again for the next flush, a death that failed
+ * `lol_notes.live-deaths.max-attempts` saves is dropped and logged with its game and minute.
+ * Every death gets the reason titled `lol_notes.live-deaths.reason-title`, created if missing, to be reviewed later.
+ */
+@Service
+public class LiveDeathRecorderImpl implements LiveDeathRecorder {
+    private static final Logger log = LoggerFactory.getLogger(LiveDeathRecorderImpl.class);
+
+    private final DeathService deathService;
+    private final ReasonService reasonService;
+    private final String reasonTitle;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Queue<PendingDeath> pendingDeaths = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final ScheduledExecutorService flushExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "live-deaths-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public LiveDeathRecorderImpl(
+            DeathService deathService,
+            ReasonService reasonService,
+            @Value("${lol_notes.live-deaths.reason-title:To review}") String reasonTitle,
+            @Value("${lol_notes.live-deaths.batch-size:20}") int batchSize,
+            @Value("${lol_notes.live-deaths.flush-interval:30s}") Duration flushInterval,
+            @Value("${lol_notes.live-deaths.max-attempts:5}") int maxAttempts) {
+        this.deathService = deathService;
+        this.reasonService = reasonService;
+        this.reasonTitle = reasonTitle;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.flushExecutor.scheduleWithFixedDelay(
+                this::flush, flushInterval.toMillis(), flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void recordDeath(GameDTO game, EventInGameDTO championKill) {
+        Optional<Double> eventTime = parseEventTime(championKill.eventTime);
+        if (eventTime.isEmpty()) {
+            // runs on the polling thread, a malformed event must not stop the tracking of the game.
+            log.error("LiveDeathRecorderImpl::recordDeath : the death of the event {} of the game {} is skipped, its time isn't a number: {}",
+                    championKill.eventId, game.getId(), championKill.eventTime);
+            return;
+        }
+        DeathDTO death = new DeathDTO();
+        death.setGame(game);
+        death.setMinute((int) (eventTime.get() / 60));
+        pendingDeaths.add(new PendingDeath(death));
+        if (pendingCount.incrementAndGet() >= batchSize) {
+            requestFlush();
+        }
+    }
+
+    private static Optional<Double> parseEventTime(String eventTime) {
+        if (eventTime == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(Double.parseDouble(eventTime));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void requestFlush() {
+        flushExecutor.execute(this::flush);
+    }
+
+    /**
+     * Writes the pending deaths on the calling thread.
+     */
+    public void flush() {
+        List<PendingDeath> batch = new ArrayList<>();
+        PendingDeath pendingDeath;
+        while ((pendingDeath = pendingDeaths.poll()) != null) {
+            batch.add(pendingDeath);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        pendingCount.addAndGet(-batch.size());
+        try {
+            ReasonDTO reason = findOrCreateReason();
+            List<DeathDTO> deaths = new ArrayList<>(batch.size());
+            batch.forEach(pending -> {
+                pending.death.setReason(reason);
+                deaths.add(pending.death);
+            });
+            this.deathService.createDeaths(deaths);
+            log.info("flush: {} live deaths saved.", deaths.size());
+        } catch (RuntimeException e) {
+            log.error("LiveDeathRecorderImpl::flush : {} live deaths couldn't be saved, they are kept for the next flush. exception message: {}", batch.size(), e.getMessage());
+            requeue(batch);
+        }
+    }
+
+    private void requeue(List<PendingDeath> batch) {
+        int requeued = 0;
+        for (PendingDeath pending : batch) {
+            if (++pending.attempts >= maxAttempts) {
+                logDroppedDeath(pending);
+            } else {
+                pendingDeaths.add(pending);
+                requeued++;
+            }
+        }
+        pendingCount.addAndGet(requeued);
+    }
+
+    private void logDroppedDeath(PendingDeath pending) {
+        log.error("LiveDeathRecorderImpl::flush : the live death of the game {} at minute {} is dropped after {} failed saves.",
+                pending.death.getGame() == null ? null : pending.death.getGame().getId(), pending.death.getMinute(), pending.attempts);
+    }
+
+    /**
+     * Looked up on every flush, the user may have renamed or deleted the reason since the last one.
+     */
+    private ReasonDTO findOrCreateReason() {
+        return this.reasonService.findAllReasons().stream()
+                .filter(reason -> reasonTitle.equals(reason.getTitle()))
+                .findFirst()
+                .orElseGet(() -> {
+                    ReasonDTO reason = new ReasonDTO();
+                    reason.setTitle(reasonTitle);
+                    reason.setDescription("Death recorded during the live tracking.");
+                    return this.reasonService.createReason(reason);
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        flushExecutor.shutdown();
+        flushExecutor.awaitTermination(5, TimeUnit.SECONDS);
+        flush();
+        // nothing flushes after the last attempt, what it couldn't save is only left in the log.
+        PendingDeath pendingDeath;
+        while ((pendingDeath = pendingDeaths.poll()) != null) {
+            logDroppedDeath(pendingDeath);
+        }
+    }
+
+    private static class PendingDeath {
+        final DeathDTO death;
+        int attempts;
+
+        PendingDeath(DeathDTO death) {
+            this.death = death;
+        }
+    }
+}
@@ -4,51 +4,72 @@ import com.medkha.lol_notes.dto.*;
 import com.medkha.lol_notes.dto.enums.GameTrackingStatus;
 import com.medkha.lol_notes.dto.enums.PlayerGameStatus;
 import com.medkha.lol_notes.exceptions.NoElementFoundException;
+import com.medkha.lol_notes.metrics.LiveTrackingMetrics;
 import com.medkha.lol_notes.services.*;
+import com.medkha.lol_notes.util.AdaptivePollInterval;
+import com.medkha.lol_notes.util.CancellationToken;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.stereotype.Service;
 
 import java.text.MessageFormat;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
-@Service
+/**
+ * Built by {@link com.medkha.lol_notes.configuration.ServiceConfiguration#liveGameService}.
+ * The game client is looked up again every `lol_notes.live-game.search-interval` between two games. It still serves
+ * a game for a while after its GameEnd, that game isn't created again: it is recognized by its game id, or by its game
+ * clock that never goes back below the time of its last event.
+ */
 public class LiveGameServiceImpl implements LiveGameService {
     private static final Logger log = LoggerFactory.getLogger(LiveGameServiceImpl.class);
     private final RiotLookUpService riotLookUpService;
     private final GameService gameService;
     private final ChampionService championService;
     private final QueueService queueService;
+    private final LiveTrackingMetrics liveTrackingMetrics;
+    private final Supplier<AdaptivePollInterval> pollIntervals;
+    private final Duration searchInterval;
     //TODO: this is Temporary and we considering this project in its current version that is runnable only
     // in the client computer, as it's close to the client's machine [usage of localhost to interact with the game]
     // , further modules could be deployed in a server.
     private PlayerGameStatus playerGameStatus;
-    private GameTrackingStatus gameTrackingStatus;
+    private volatile CancellationToken tracking = CancellationToken.cancelled();
     private PlayerDTO activePlayer;
+    private GameDTO currentGame;
+    private volatile Instant gameClockStart;
+    private LiveGameDTO endedGame;
+    private double endedGameTime;
 
     public LiveGameServiceImpl(
             RiotLookUpService riotLookUpService,
             GameService gameService,
             ChampionService championService,
-            QueueService queueService){
+            QueueService queueService,
+            LiveTrackingMetrics liveTrackingMetrics,
+            Supplier<AdaptivePollInterval> pollIntervals,
+            Duration searchInterval){
         this.riotLookUpService = riotLookUpService;
         this.gameService = gameService;
         this.championService = championService;
         this.queueService = queueService;
-        this.gameTrackingStatus = GameTrackingStatus.DISABLED;
+        this.liveTrackingMetrics = liveTrackingMetrics;
+        this.pollIntervals = pollIntervals;
+        this.searchInterval = searchInterval;
         this.playerGameStatus = PlayerGameStatus.IDLE;
     }
 
     @Override
-    public void findLiveGame(Runnable runnablePlayerInGame) {
-        this.gameTrackingStatus = GameTrackingStatus.ENABLED;
-        while(this.gameTrackingStatus.equals(GameTrackingStatus.ENABLED)){
+    public void findLiveGame(CancellationToken tracking, Supplier<CompletableFuture<List<EventInGameDTO>>> pollPlayerInGame) {
+        this.tracking.cancel();
+        this.tracking = tracking;
+        while(!tracking.isCancelled()){
             CompletableFuture<LiveGameDTO> liveGameStatsFuture = riotLookUpService.getLiveGameAsync();
             CompletableFuture<PlayerDTO> activePlayerFuture = riotLookUpService.getActivePlayerInLiveGameAsync();
             CompletableFuture<List<PlayerDTO>> allPlayersFuture = riotLookUpService.getAllPlayersInLiveGameAsync();
@@ -57,33 +78,116 @@ public class LiveGameServiceImpl implements LiveGameService {
             try {
                 CompletableFuture.allOf(liveGameStatsFuture, activePlayerFuture, allPlayersFuture);
                 LiveGameDTO liveGameStats = liveGameStatsFuture.get();
-                this.activePlayer= activePlayerFuture.get();
+                PlayerDTO activePlayerLookUp = activePlayerFuture.get();
                 List<PlayerDTO> players = allPlayersFuture.get();
 
                 // Tracking is canceled.
-                if(liveGameStats == null || activePlayer == null || players == null) {
+                if(liveGameStats == null || activePlayerLookUp == null || players == null) {
                     break;
                 }
+                if(isEndedGame(liveGameStats)) {
+                    log.info("findLiveGame: the game client still shows the game that ended, waiting for the next one.");
+                    tracking.sleep(searchInterval);
+                    continue;
+                }
 
-                GameDTO game = fillGameDTO(activePlayer, players, liveGameStats);
+                // the look ups are shared with the other callers while they are coalesced, they are copied rather than changed.
+                this.activePlayer = activePlayerInGame(activePlayerLookUp, players);
+                GameDTO game = fillGameDTO(activePlayer, liveGameStats);
                 log.info("Active player info: " + activePlayer);
-                this.gameService.createGame(game);
+                this.currentGame = this.gameService.createGame(game);
+                this.gameClockStart = gameClockStart(liveGameStats);
                 this.playerGameStatus = PlayerGameStatus.IN_GAME;
-                while (this.playerGameStatus.equals(PlayerGameStatus.IN_GAME)) {
-                    runnablePlayerInGame.run();
-                    TimeUnit.SECONDS.sleep(3);
+                AdaptivePollInterval pollInterval = this.pollIntervals.get();
+                double lastEventTime = 0;
+                while (this.playerGameStatus.equals(PlayerGameStatus.IN_GAME) && !tracking.isCancelled()) {
+                    List<EventInGameDTO> newEvents = poll(pollPlayerInGame);
+                    for (EventInGameDTO event : newEvents) {
+                        lastEventTime = Math.max(lastEventTime, eventTime(event));
+                    }
+                    Duration interval = pollInterval.next(newEvents);
+                    liveTrackingMetrics.pollInterval(interval);
+                    long waitStart = System.nanoTime();
+                    tracking.sleep(interval);
+                    liveTrackingMetrics.recordSince(LiveTrackingMetrics.POLL_WAIT, waitStart);
                 }
                 this.activePlayer = null ;
+                this.currentGame = null;
+                this.gameClockStart = null;
+                this.endedGame = liveGameStats;
+                this.endedGameTime = lastEventTime;
+                tracking.sleep(searchInterval);
             } catch (InterruptedException e) {
-                log.error("A thread is interrupted, exception stack: " + e.getStackTrace() );
+                log.info("findLiveGame: the tracking thread is interrupted, the tracking is canceled.");
+                tracking.cancel();
+                Thread.currentThread().interrupt();
             } catch (ExecutionException e) {
                 log.error("Couldn't retrieve the result from the one of the futures, exception stack: " + e.getStackTrace());
+                pace(tracking);
             }
         }
+        this.activePlayer = null;
+        this.currentGame = null;
+        this.gameClockStart = null;
+        this.playerGameStatus = PlayerGameStatus.IDLE;
         log.info("No more searching for a game.");
 
     }
 
+    /**
+     * @return the new game events, empty if the poll failed or the tracking is canceled.
+     */
+    private List<EventInGameDTO> poll(Supplier<CompletableFuture<List<EventInGameDTO>>> pollPlayerInGame) throws InterruptedException {
+        try {
+            List<EventInGameDTO> newEvents = pollPlayerInGame.get().get();
+            return newEvents == null ? List.of() : newEvents;
+        } catch (ExecutionException e) {
+            log.error("LiveGameServiceImpl::poll : failed to poll the game events: [message: " + e.getMessage() + "]");
+            return List.of();
+        }
+    }
+
+    private boolean isEndedGame(LiveGameDTO liveGameStats) {
+        if(endedGame == null) {
+            return false;
+        }
+        if(liveGameStats.gameId != null && endedGame.gameId != null) {
+            return liveGameStats.gameId.equals(endedGame.gameId);
+        }
+        // the live client has no game id, its clock only starts over in a new game.
+        return liveGameStats.gameTime != null && Double.parseDouble(liveGameStats.gameTime) >= endedGameTime;
+    }
+
+    private static double eventTime(EventInGameDTO event) {
+        try {
+            return event.eventTime == null ? 0 : Double.parseDouble(event.eventTime);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * @return when the in-game clock was at 0, from the game time the game client gave when the game was found.
+     */
+    private static Instant gameClockStart(LiveGameDTO liveGameStats) {
+        try {
+            return liveGameStats.gameTime == null ? null
+                    : Instant.now().minusMillis(Math.round(Double.parseDouble(liveGameStats.gameTime) * 1000));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private void pace(CancellationToken tracking) {
+        try {
+            tracking.sleep(searchInterval);
+        } catch (InterruptedException e) {
+            log.info("findLiveGame: the tracking thread is interrupted, the tracking is canceled.");
+            tracking.cancel();
+            Thread.currentThread().interrupt();
+        }
+    }
+
     @Override
     public void setPlayerGameStatus(PlayerGameStatus playerGameStatus) {
         this.playerGameStatus = playerGameStatus;
@@ -91,12 +195,19 @@ public class LiveGameServiceImpl implements LiveGameService {
 
     @Override
     public void setGameTrackingStatus(GameTrackingStatus gameTrackingStatus) {
-        this.gameTrackingStatus = gameTrackingStatus;
+        if(gameTrackingStatus.equals(GameTrackingStatus.DISABLED)) {
+            this.tracking.cancel();
+        }
     }
 
     @Override
     public GameTrackingStatus getGameTrackingStatus() {
-        return this.gameTrackingStatus;
+        return this.tracking.isCancelled() ? GameTrackingStatus.DISABLED : GameTrackingStatus.ENABLED;
+    }
+
+    @Override
+    public CancellationToken getTracking() {
+        return this.tracking;
     }
 
     @Override
@@ -104,8 +215,34 @@ public class LiveGameServiceImpl implements LiveGameService {
         return Optional.ofNullable(this.activePlayer);
     }
 
-    private GameDTO fillGameDTO(PlayerDTO activePlayer, List<PlayerDTO> players, LiveGameDTO liveGameStats) {
-        GameDTO game = new GameDTO();
+    @Override
+    public Optional<GameDTO> getCurrentGame() {
+        return Optional.ofNullable(this.currentGame);
+    }
+
+    @Override
+    public Optional<Instant> getEventInstant(String eventTime) {
+        Instant clockStart = this.gameClockStart;
+        if(clockStart == null || eventTime == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(clockStart.plusMillis(Math.round(Double.parseDouble(eventTime) * 1000)));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * @return a copy of the active player with the champion it plays in the player list.
+     */
+    private PlayerDTO activePlayerInGame(PlayerDTO activePlayerLookUp, List<PlayerDTO> players) {
+        PlayerDTO activePlayer = new PlayerDTO();
+        activePlayer.id = activePlayerLookUp.id;
+        activePlayer.summonerName = activePlayerLookUp.summonerName;
+        activePlayer.level = activePlayerLookUp.level;
+        activePlayer.championName = activePlayerLookUp.championName;
+        activePlayer.playerGameStatus = activePlayerLookUp.playerGameStatus;
         players.forEach( p ->{
             if(p.summonerName.equals(activePlayer.summonerName)) {
                 activePlayer.championName = p.championName;
@@ -115,18 +252,21 @@ public class LiveGameServiceImpl implements LiveGameService {
                     p.summonerName,
                     p.summonerName.equals(activePlayer.summonerName) ?  ": [activePlayer]" : ""));
         });
+        return activePlayer;
+    }
+
+    private GameDTO fillGameDTO(PlayerDTO activePlayer, LiveGameDTO liveGameStats) {
+        GameDTO game = new GameDTO();
         ChampionEssentielsDto champion = championService.getChampionByName(activePlayer.championName);
         game.setChampionId(champion.getId());
-        if(liveGameStats.gameMode.equals("PRACTICETOOL")) {
-            liveGameStats.gameMode = "CUSTOM";
-        }
+        String queueName = liveGameStats.gameMode.equals("PRACTICETOOL") ? "CUSTOM" : liveGameStats.gameMode;
         QueueDTO queue = this.queueService.getAllQueuesWithoutDeprecate().stream().filter(
-                q -> q.getQueueName().equals(liveGameStats.gameMode)
-        ).findFirst().orElseThrow(() -> new NoElementFoundException("Couldn't find queue of name " + liveGameStats.gameMode));
+                q -> q.getQueueName().equals(queueName)
+        ).findFirst().orElseThrow(() -> new NoElementFoundException("Couldn't find queue of name " + queueName));
         game.setQueueId(queue.getId());
         // TODO: Fix the the time diff with timezones.
         // TODO: Fix the gameStart getting from api , remove the 3 last digits.
-        if(!liveGameStats.gameMode.equals("CUSTOM"))
+        if(!queueName.equals("CUSTOM"))
             game.setCreatedOn(Date.from(Instant.now().minusSeconds(Long.parseLong(liveGameStats.gameLength))));
         return game;
     }
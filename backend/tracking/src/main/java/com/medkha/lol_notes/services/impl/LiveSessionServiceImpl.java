@@ -0,0 +1,217 @@
+package com.medkha.lol_notes.services.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medkha.lol_notes.dto.EventInGameDTO;
+import com.medkha.lol_notes.dto.GameDTO;
+import com.medkha.lol_notes.dto.LiveEventFrameDTO;
+import com.medkha.lol_notes.dto.LiveStateFrameDTO;
+import com.medkha.lol_notes.dto.enums.PlayerGameStatus;
+import com.medkha.lol_notes.metrics.LiveTrackingMetrics;
+import com.medkha.lol_notes.repositories.GameTimelineRepository;
+import com.medkha.lol_notes.services.LiveDeathRecorder;
+import com.medkha.lol_notes.services.LiveGameService;
+import com.medkha.lol_notes.services.LiveSessionService;
+import com.medkha.lol_notes.services.RiotLookUpService;
+import com.medkha.lol_notes.util.EventBatch;
+import com.medkha.lol_notes.util.LiveStateEncoder;
+import com.medkha.lol_notes.util.ServerSentEventSession;
+import com.medkha.lol_notes.util.TimelineRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Each poll of a session reads the new game events once, records the deaths of the active player, sends them over
+ * the SSE stream and publishes every new event to the session subscribers, which filter them on their own.
+ * The events and the live state snapshots of the current game are also appended to its timeline log.
+ */
+@Service
+public class LiveSessionServiceImpl implements LiveSessionService {
+    private static final Logger log = LoggerFactory.getLogger(LiveSessionServiceImpl.class);
+
+    private final LiveGameService liveGameService;
+    private final RiotLookUpService riotLookUpService;
+    private final LiveDeathRecorder liveDeathRecorder;
+    private final LiveTrackingMetrics liveTrackingMetrics;
+    private final GameTimelineRepository gameTimelineRepository;
+    private final ObjectMapper objectMapper;
+    private final int liveStateKeyframeInterval;
+    private final int liveEventReplayCapacity;
+    private final Duration liveSessionDetachedTimeout;
+    private final AtomicLong sessionIds = new AtomicLong();
+    private final Map<Long, ServerSentEventSession> runningSessions = new ConcurrentHashMap<>();
+    private volatile ServerSentEventSession liveSession;
+
+    public LiveSessionServiceImpl(
+            LiveGameService liveGameService,
+            RiotLookUpService riotLookUpService,
+            LiveDeathRecorder liveDeathRecorder,
+            LiveTrackingMetrics liveTrackingMetrics,
+            GameTimelineRepository gameTimelineRepository,
+            ObjectMapper objectMapper,
+            @Value("${lol_notes.live-state.keyframe-interval:20}") int liveStateKeyframeInterval,
+            @Value("${lol_notes.live-game.replay-capacity:512}") int liveEventReplayCapacity,
+            @Value("${lol_notes.live-game.detached-timeout:5m}") Duration liveSessionDetachedTimeout) {
+        this.liveGameService = liveGameService;
+        this.riotLookUpService = riotLookUpService;
+        this.liveDeathRecorder = liveDeathRecorder;
+        this.liveTrackingMetrics = liveTrackingMetrics;
+        this.gameTimelineRepository = gameTimelineRepository;
+        this.objectMapper = objectMapper;
+        this.liveStateKeyframeInterval = liveStateKeyframeInterval;
+        this.liveEventReplayCapacity = liveEventReplayCapacity;
+        this.liveSessionDetachedTimeout = liveSessionDetachedTimeout;
+    }
+
+    @Override
+    public ServerSentEventSession getOrStartSession(boolean liveState) {
+        ServerSentEventSession sses = this.liveSession;
+        if(sses != null && !sses.tracking.isCancelled()) {
+            return sses;
+        }
+        return startSession(liveState);
+    }
+
+    @Override
+    public Optional<ServerSentEventSession> findSession(long sessionId) {
+        return Optional.ofNullable(runningSessions.get(sessionId));
+    }
+
+    @Override
+    public Collection<ServerSentEventSession> findRunningSessions() {
+        return new ArrayList<>(runningSessions.values());
+    }
+
+    @Override
+    public void stopWhenLeftDetached(ServerSentEventSession sses) {
+        CompletableFuture.delayedExecutor(liveSessionDetachedTimeout.toMillis(), TimeUnit.MILLISECONDS).execute(() -> {
+            if(!sses.isAttached() && !sses.tracking.isCancelled()) {
+                log.info("stopWhenLeftDetached: no client came back for {}, the tracking is stopped.", liveSessionDetachedTimeout);
+                sses.tracking.cancel();
+            }
+        });
+    }
+
+    private synchronized ServerSentEventSession startSession(boolean liveState) {
+        if(this.liveSession != null && !this.liveSession.tracking.isCancelled()) {
+            return this.liveSession;
+        }
+        ServerSentEventSession sses = new ServerSentEventSession(sessionIds.incrementAndGet(), liveEventReplayCapacity,
+                liveState ? Optional.of(new LiveStateEncoder(liveStateKeyframeInterval)) : Optional.empty());
+        runningSessions.put(sses.id, sses);
+        sses.tracking.onCancel(() -> runningSessions.remove(sses.id, sses));
+        sses.tracking.onCancel(this.liveDeathRecorder::requestFlush);
+        this.liveSession = sses;
+        log.info("startSession: live session {} started.", sses.id);
+        this.liveGameService.findLiveGame(sses.tracking,
+                () -> {
+                    sses.liveStateEncoder.ifPresent(liveStateEncoder -> sendLiveState(sses, liveStateEncoder));
+                    return this.riotLookUpService.getNewEventsAsync(sses.eventReader).thenApply((eventBatch)->{
+                        // Tracking is canceled.
+                        if(eventBatch == null || sses.tracking.isCancelled()) {
+                            return null;
+                        }
+                        List<EventInGameDTO> newEvents = eventBatch.getEvents();
+                        handleNewEvents(sses, eventBatch, this.liveGameService.getActivePlayer().map(p-> p.summonerName));
+                        if(sses.eventReader.hasSeen("GameEnd")) {
+                            this.liveGameService.setPlayerGameStatus(PlayerGameStatus.IDLE);
+                            this.liveDeathRecorder.requestFlush();
+                            this.liveGameService.getCurrentGame().map(GameDTO::getId).ifPresent(this.gameTimelineRepository::close);
+                            sses.eventReader.reset();
+                            sses.liveStateEncoder.ifPresent(LiveStateEncoder::reset);
+                            log.info("Game Ended");
+                        }
+                        return newEvents;
+                    });
+                }
+        );
+        return sses;
+    }
+
+    private void sendLiveState(ServerSentEventSession sses, LiveStateEncoder liveStateEncoder) {
+        this.riotLookUpService.getAllGameDataAsync().thenAccept(snapshot -> {
+            // Tracking is canceled.
+            if(snapshot == null || sses.tracking.isCancelled()) {
+                return;
+            }
+            Instant receivedAt = Instant.now();
+            recordTimeline(TimelineRecord.Type.SNAPSHOT, List.of(snapshot), receivedAt);
+            long diffStart = System.nanoTime();
+            Optional<LiveStateFrameDTO> frame = liveStateEncoder.nextFrame(snapshot);
+            this.liveTrackingMetrics.recordSince(LiveTrackingMetrics.DIFF, diffStart);
+            if(frame.isPresent()) {
+                frame.get().receivedAt = receivedAt.toEpochMilli();
+                frame.get().emittedAt = System.currentTimeMillis();
+                emit(sses, "Live State", frame.get(), snapshot.path("gameData").path("gameTime").asText(null));
+            }
+        });
+    }
+
+    private void handleNewEvents(ServerSentEventSession sses, EventBatch eventBatch, Optional<String> playerName) {
+        List<EventInGameDTO> newEvents = eventBatch.getEvents();
+        Instant receivedAt = eventBatch.getReceivedAt();
+        Instant parsedAt = eventBatch.getParsedAt();
+        recordTimeline(TimelineRecord.Type.EVENT, newEvents, receivedAt);
+        List<LiveEventFrameDTO> frames = new ArrayList<>(newEvents.size());
+        for(EventInGameDTO event : newEvents) {
+            LiveEventFrameDTO frame = new LiveEventFrameDTO(event, receivedAt.toEpochMilli(), parsedAt.toEpochMilli());
+            frames.add(frame);
+            if(event.eventName.equals("ChampionKill") &&
+                    (playerName.isEmpty()  // Get all championKill events.
+                        || (playerName.isPresent() && playerName.equals(event.victimName))
+                    )
+            ){
+                if(playerName.isPresent()) {
+                    this.liveGameService.getCurrentGame().ifPresent(game -> this.liveDeathRecorder.recordDeath(game, event));
+                }
+                frame.emittedAt = System.currentTimeMillis();
+                emit(sses, "New DeathEvent", frame, event.eventTime);
+            }
+        }
+        if(!frames.isEmpty()) {
+            sses.publish(frames);
+        }
+    }
+
+    private void recordTimeline(TimelineRecord.Type type, List<?> payloads, Instant receivedAt) {
+        Optional<Long> gameId = this.liveGameService.getCurrentGame().map(GameDTO::getId);
+        if(gameId.isEmpty() || payloads.isEmpty()) {
+            return;
+        }
+        List<TimelineRecord> records = new ArrayList<>(payloads.size());
+        try {
+            for(Object payload : payloads) {
+                records.add(new TimelineRecord(type, receivedAt.toEpochMilli(), this.objectMapper.writeValueAsBytes(payload)));
+            }
+        } catch (JsonProcessingException e) {
+            log.error("LiveSessionServiceImpl::recordTimeline : Couldn't serialize the timeline record, exception message -> " + e.getMessage());
+            return;
+        }
+        this.gameTimelineRepository.append(gameId.get(), records);
+    }
+
+    /**
+     * @param eventTime the in-game time of what the frame shows, the total latency is measured from it.
+     */
+    private void emit(ServerSentEventSession sses, String eventName, Object frame, String eventTime) {
+        long emitStart = System.nanoTime();
+        sses.send(eventName, frame);
+        this.liveTrackingMetrics.recordSince(LiveTrackingMetrics.EMIT, emitStart);
+        this.liveGameService.getEventInstant(eventTime).ifPresent(happenedAt ->
+                this.liveTrackingMetrics.record(LiveTrackingMetrics.TOTAL, Duration.between(happenedAt, Instant.now())));
+    }
+}
@@ -0,0 +1,122 @@
+package com.medkha.lol_notes.services.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.medkha.lol_notes.dto.*;
+import com.medkha.lol_notes.services.RiotLookUpService;
+import com.medkha.lol_notes.util.ExpiringCache;
+import com.medkha.lol_notes.util.EventBatch;
+import com.medkha.lol_notes.util.IncrementalEventReader;
+import com.medkha.lol_notes.util.MatchHistoryProgress;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Sits in front of the {@link RiotLookUpService} implementation and coalesces the identical lookups:
+ * concurrent callers asking for the same resource share one in-flight future, and the result is
+ * reused for `lol_notes.riot-look-up.coalescing-ttl` afterwards.
+ * The live game lookup goes through the coalesced active player lookup, so a poll asking for both
+ * only calls the game client and the riot api once.
+ */
+public class RiotLookUpCoalescingServiceImpl implements RiotLookUpService {
+    private static final Logger log = LoggerFactory.getLogger(RiotLookUpCoalescingServiceImpl.class);
+
+    private final RiotLookUpService riotLookUpService;
+    private final Map<String, CompletableFuture<?>> inFlightLookUps = new ConcurrentHashMap<>();
+    private final ExpiringCache<String, Object> recentResults;
+
+    public RiotLookUpCoalescingServiceImpl(RiotLookUpService riotLookUpService, Duration resultTimeToLive) {
+        this.riotLookUpService = riotLookUpService;
+        this.recentResults = new ExpiringCache<>(resultTimeToLive);
+    }
+
+    @Override
+    public CompletableFuture<PlayerDTO> getActivePlayerInLiveGameAsync() {
+        return coalesce("activeplayer", true, riotLookUpService::getActivePlayerInLiveGameAsync);
+    }
+
+    @Override
+    public CompletableFuture<List<PlayerDTO>> getAllPlayersInLiveGameAsync() {
+        return coalesce("playerlist", true, riotLookUpService::getAllPlayersInLiveGameAsync);
+    }
+
+    @Override
+    public CompletableFuture<LiveGameDTO> getLiveGameAsync() {
+        return coalesce("livegame", true,
+                () -> getActivePlayerInLiveGameAsync().thenCompose(riotLookUpService::getLiveGameAsync));
+    }
+
+    @Override
+    public CompletableFuture<LiveGameDTO> getLiveGameAsync(PlayerDTO activePlayer) {
+        return riotLookUpService.getLiveGameAsync(activePlayer);
+    }
+
+    @Override
+    public CompletableFuture<AllEventsDTO> getEventsAsync() {
+        return coalesce("eventdata", true, riotLookUpService::getEventsAsync);
+    }
+
+    /**
+     * Not coalesced, the result depends on the cursor of the reader.
+     */
+    @Override
+    public CompletableFuture<EventBatch> getNewEventsAsync(IncrementalEventReader eventReader) {
+        return riotLookUpService.getNewEventsAsync(eventReader);
+    }
+
+    /**
+     * Only the in-flight lookup is shared, every poll must see a fresh state.
+     */
+    @Override
+    public CompletableFuture<JsonNode> getAllGameDataAsync() {
+        return coalesce("allgamedata", false, riotLookUpService::getAllGameDataAsync);
+    }
+
+    /**
+     * Not coalesced, every export reports its own progress and the export jobs already share the identical ones.
+     */
+    @Override
+    public CompletableFuture<Integer> streamMatchHistory(String userName, Optional<Integer> queueId, Optional<Integer> sizeOptional, Optional<Long> startTime, MatchHistoryProgress progress, Consumer<GameFinishedDTO> matchConsumer) {
+        return riotLookUpService.streamMatchHistory(userName, queueId, sizeOptional, startTime, progress, matchConsumer);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> CompletableFuture<T> coalesce(String key, boolean keepResult, Supplier<CompletableFuture<T>> lookUp) {
+        Optional<Object> recentResult = recentResults.get(key);
+        if (recentResult.isPresent()) {
+            return CompletableFuture.completedFuture((T) recentResult.get());
+        }
+        CompletableFuture<T> sharedLookUp = new CompletableFuture<>();
+        CompletableFuture<?> inFlightLookUp = inFlightLookUps.putIfAbsent(key, sharedLookUp);
+        if (inFlightLookUp != null) {
+            log.debug("coalesce: joining the in-flight look up of {}", key);
+            return (CompletableFuture<T>) inFlightLookUp;
+        }
+        try {
+            lookUp.get().whenComplete((result, error) -> {
+                // a null result means the tracking was canceled, it is not worth keeping.
+                if (error == null && result != null && keepResult) {
+                    recentResults.put(key, result);
+                }
+                inFlightLookUps.remove(key, sharedLookUp);
+                if (error != null) {
+                    sharedLookUp.completeExceptionally(error);
+                } else {
+                    sharedLookUp.complete(result);
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlightLookUps.remove(key, sharedLookUp);
+            sharedLookUp.completeExceptionally(e);
+        }
+        return sharedLookUp;
+    }
+}
@@ -0,0 +1,352 @@
+package com.medkha.lol_notes.services.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.medkha.lol_notes.dto.*;
+import com.medkha.lol_notes.metrics.LiveTrackingMetrics;
+import com.medkha.lol_notes.repositories.MatchHistoryCursorRepository;
+import com.medkha.lol_notes.repositories.MatchStoreRepository;
+import com.medkha.lol_notes.services.LiveGameService;
+import com.medkha.lol_notes.services.RiotLookUpService;
+import com.medkha.lol_notes.services.SummonerIdentityService;
+import com.medkha.lol_notes.util.CancellationToken;
+import com.medkha.lol_notes.util.EventBatch;
+import com.medkha.lol_notes.util.IncrementalEventReader;
+import com.medkha.lol_notes.util.MatchHistoryCursor;
+import com.medkha.lol_notes.util.MatchHistoryProgress;
+import com.medkha.lol_notes.util.MatchProjectionReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
+
+import javax.annotation.PostConstruct;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Non-blocking implementation of {@link RiotLookUpService} built on {@link WebClient}.
+ * The calls are composed on the Reactor Netty event loop, no thread is parked while waiting
+ * for the game client or the riot api, so one event loop can serve many tracking sessions.
+ * Enabled with `lol_notes.riot-look-up.client=reactive`.
+ */
+public class RiotLookUpReactiveServiceImpl implements RiotLookUpService {
+
+    private static final Logger log = LoggerFactory.getLogger(RiotLookUpReactiveServiceImpl.class);
+    private static final Duration __RETRY_PERIOD__ = Duration.ofSeconds(4);
+    private final LiveGameService liveGameService;
+
+    @Value("${lol_notes.dev-key}")
+    private Resource devKeyResource;
+    @Value("${lol_notes.live-client.base-url:https://127.0.0.1:2999}")
+    private String liveClientUrl;
+    private String devKey;
+    private final WebClient liveClientWebClient;
+    private final WebClient riotApiWebClient;
+    private final SummonerIdentityService summonerIdentityService;
+    private final LiveTrackingMetrics liveTrackingMetrics;
+    private final MatchHistoryCursorRepository matchHistoryCursorRepository;
+    private final MatchStoreRepository matchStoreRepository;
+    private final MatchProjectionReader matchProjectionReader;
+    private final int matchFetchConcurrency;
+    private final Duration matchHistoryCursorTtl;
+    public RiotLookUpReactiveServiceImpl(
+            WebClient liveClientWebClient,
+            WebClient riotApiWebClient,
+            SummonerIdentityService summonerIdentityService,
+            LiveGameService liveGameService,
+            LiveTrackingMetrics liveTrackingMetrics,
+            MatchHistoryCursorRepository matchHistoryCursorRepository,
+            MatchStoreRepository matchStoreRepository,
+            MatchProjectionReader matchProjectionReader,
+            int matchFetchConcurrency,
+            Duration matchHistoryCursorTtl) {
+        this.liveClientWebClient = liveClientWebClient;
+        this.riotApiWebClient = riotApiWebClient;
+        this.summonerIdentityService = summonerIdentityService;
+        this.liveGameService = liveGameService;
+        this.liveTrackingMetrics = liveTrackingMetrics;
+        this.matchHistoryCursorRepository = matchHistoryCursorRepository;
+        this.matchStoreRepository = matchStoreRepository;
+        this.matchProjectionReader = matchProjectionReader;
+        this.matchFetchConcurrency = matchFetchConcurrency;
+        this.matchHistoryCursorTtl = matchHistoryCursorTtl;
+    }
+
+    @PostConstruct
+    private void postConstruct() {
+        try {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(devKeyResource.getInputStream()));
+            this.devKey = reader.readLine();
+        } catch (IOException e) {
+            throw new IllegalStateException("Couldn't read the file specified in the property `lol_notes.dev-key`");
+        }
+    }
+
+    @Override
+    public CompletableFuture<PlayerDTO> getActivePlayerInLiveGameAsync() {
+        log.info("Looking up active Player in the live game");
+        return liveCall(activePlayer()).toFuture();
+    }
+
+    @Override
+    public CompletableFuture<List<PlayerDTO>> getAllPlayersInLiveGameAsync() {
+        log.info("Looking up for all players in the live game");
+        return liveCall(
+                liveClientWebClient.get().uri(liveClientUrl + "/liveclientdata/playerlist")
+                        .retrieve()
+                        .bodyToMono(new ParameterizedTypeReference<List<PlayerDTO>>() {})
+        ).toFuture();
+    }
+
+    @Override
+    public CompletableFuture<LiveGameDTO> getLiveGameAsync() {
+        log.info("looking up for live game general information");
+        return liveCall(activePlayer().flatMap(this::liveGame)).toFuture();
+    }
+
+    @Override
+    public CompletableFuture<LiveGameDTO> getLiveGameAsync(PlayerDTO activePlayer) {
+        // Tracking is canceled.
+        if(activePlayer == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return liveCall(liveGame(activePlayer)).toFuture();
+    }
+
+    @Override
+    public CompletableFuture<AllEventsDTO> getEventsAsync() {
+        return liveCall(get(liveClientWebClient, liveClientUrl + "/liveclientdata/eventdata", AllEventsDTO.class)).toFuture();
+    }
+
+    @Override
+    public CompletableFuture<JsonNode> getAllGameDataAsync() {
+        return liveCall(get(liveClientWebClient, liveClientUrl + "/liveclientdata/allgamedata", JsonNode.class)).toFuture();
+    }
+
+    @Override
+    public CompletableFuture<EventBatch> getNewEventsAsync(IncrementalEventReader eventReader) {
+        return liveCall(Mono.defer(() -> {
+            long fetchStart = System.nanoTime();
+            return DataBufferUtils.join(
+                    liveClientWebClient.get().uri(liveClientUrl + "/liveclientdata/eventdata")
+                            .retrieve()
+                            .bodyToFlux(DataBuffer.class)
+            ).map(eventData -> {
+                liveTrackingMetrics.recordSince(LiveTrackingMetrics.FETCH, fetchStart);
+                try (InputStream in = eventData.asInputStream(true)) {
+                    EventBatch newEvents = eventReader.readNewEvents(in);
+                    liveTrackingMetrics.record(LiveTrackingMetrics.PARSE,
+                            Duration.between(newEvents.getReceivedAt(), newEvents.getParsedAt()));
+                    return newEvents;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        })).toFuture();
+    }
+
+    /**
+     * @see RiotLookUpServiceImpl#streamMatchHistory(String, Optional, Optional, Optional, MatchHistoryProgress, Consumer)
+     */
+    @Override
+    public CompletableFuture<Integer> streamMatchHistory(String userName, Optional<Integer> queueId, Optional<Integer> sizeOptional, Optional<Long> startTime, MatchHistoryProgress progress, Consumer<GameFinishedDTO> matchConsumer) {
+        // the riot rate limits are enforced by the riotApiWebClient, the calls wait for their turn.
+        final int size = sizeOptional.orElse(20);
+        final long exportStart = System.nanoTime();
+
+        return summonerIdentity(userName)
+                .flatMap(idPlayer -> Mono.justOrEmpty(matchHistoryCursorRepository.find(idPlayer.puuid, queueId, startTime, Instant.now().minus(matchHistoryCursorTtl))
+                                .filter(unfinishedCursor -> unfinishedCursor.getSize() == size))
+                        .filterWhen(this::isResumable)
+                        .defaultIfEmpty(new MatchHistoryCursor(idPlayer.puuid, queueId, startTime, size)))
+                .doOnNext(cursor -> {
+                    if(cursor.getStart() > 0) {
+                        log.info("streamMatchHistory: resuming the export of " + userName + " at " + cursor.getStart() + ", " + cursor.getMatchIds().size() + " matches were already listed");
+                    }
+                    progress.matchesListed(cursor.getMatchIds().size());
+                })
+                // keeps `lol_notes.riot-look-up.match-fetch-concurrency` match details in flight, the next pages are listed as the ids run out.
+                .flatMap(cursor -> Flux.fromIterable(List.copyOf(cursor.getMatchIds()))
+                        .concatWith(matchIdPages(cursor, progress))
+                        // a cancelled export stops listing, and the matches that weren't fetched yet are skipped.
+                        .takeWhile(matchId -> !progress.getCancellation().isCancelled())
+                        .flatMap(matchId ->
+                                Mono.defer(() -> progress.getCancellation().isCancelled() ? Mono.<GameFinishedDTO>empty() : match(matchId))
+                                        .doOnNext(match -> progress.matchFetched())
+                                        .onErrorResume(e -> {
+                                            log.error("RiotLookUpReactiveServiceImpl::streamMatchHistory : the match " + matchId + " is skipped: [message: " + e.getMessage() + "]");
+                                            progress.matchSkipped();
+                                            return Mono.empty();
+                                        }),
+                                matchFetchConcurrency)
+                        // the consumer writes the matches, it runs away from the event loop and only asks for
+                        // as many matches as the fetches in flight, a slow consumer slows the fetches down.
+                        .publishOn(Schedulers.boundedElastic(), matchFetchConcurrency)
+                        .doOnNext(matchConsumer)
+                        .count()
+                        .doOnError(e -> {
+                            log.error("RiotLookUpReactiveServiceImpl::streamMatchHistory : the export stopped: [message: " + e.getMessage() + "]");
+                            // the listed matches weren't all consumed, the next export lists them again.
+                            matchHistoryCursorRepository.delete(cursor);
+                        })
+                        .doOnNext(consumedMatches -> {
+                            if(cursor.isComplete()) {
+                                progress.listingComplete();
+                            }
+                            if(progress.getCancellation().isCancelled()) {
+                                log.info("RiotLookUpReactiveServiceImpl::streamMatchHistory : the export was cancelled, the next export resumes at " + cursor.getStart());
+                            } else if(cursor.isComplete()) {
+                                log.info("RiotLookUpReactiveServiceImpl::streamMatchHistory : final match history request, there are no more games.");
+                                matchHistoryCursorRepository.delete(cursor);
+                            }
+                        }))
+                .doOnNext(consumedMatches -> log.info("The size of the get MatchHistory list is : " + consumedMatches + ", fetched in " + Duration.ofNanos(System.nanoTime() - exportStart).toMillis() + "ms"))
+                .map(Long::intValue)
+                .toFuture();
+    }
+
+    /**
+     * The match is read from the match store when it was already downloaded, a finished match never changes.
+     * The store is a file, it is read and written away from the event loop.
+     */
+    private Mono<GameFinishedDTO> match(String matchId) {
+        return Mono.fromCallable(() -> matchStoreRepository.find(matchId))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(storedMatch -> storedMatch.map(Mono::just).orElseGet(() ->
+                        get(riotApiWebClient, "https://europe.api.riotgames.com/lol/match/v5/matches/" + matchId + "?api_key=" + devKey, byte[].class)
+                                .publishOn(Schedulers.boundedElastic())))
+                .map(matchJson -> {
+                    try {
+                        GameFinishedDTO match = matchProjectionReader.read(matchJson);
+                        matchStoreRepository.save(matchId, matchJson);
+                        return match;
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
+    /**
+     * Lists the newest ids again, a cursor is only resumed when the games played since it was saved don't come first.
+     */
+    private Mono<Boolean> isResumable(MatchHistoryCursor unfinishedCursor) {
+        return riotApiWebClient.get()
+                .uri("https://europe.api.riotgames.com/lol/match/v5/matches/by-puuid/" + unfinishedCursor.getPuuid() + "/ids?" + unfinishedCursor.headQuery() + "&api_key="+ devKey)
+                .retrieve()
+                .bodyToMono(new ParameterizedTypeReference<List<String>>() {})
+                .map(headMatchIds -> {
+                    boolean resumable = unfinishedCursor.hasHead(headMatchIds);
+                    if(!resumable) {
+                        log.info("streamMatchHistory: games were played since the export of " + unfinishedCursor.getPuuid() + " was cut short, it starts over");
+                    }
+                    return resumable;
+                })
+                .onErrorResume(WebClientException.class, e -> {
+                    log.error("RiotLookUpReactiveServiceImpl::isResumable : the newest match ids couldn't be listed, the export starts over: [message: " + e.getMessage() + "]");
+                    return Mono.just(false);
+                });
+    }
+
+    /**
+     * Lists the next page of the cursor and persists it, then chains the following page until the cursor is complete.
+     * A page that can't be listed ends the export, the next one resumes from the cursor.
+     */
+    private Flux<String> matchIdPages(MatchHistoryCursor cursor, MatchHistoryProgress progress) {
+        return Flux.defer(() -> {
+            if(cursor.isComplete()) {
+                return Flux.empty();
+            }
+            return riotApiWebClient.get()
+                    .uri("https://europe.api.riotgames.com/lol/match/v5/matches/by-puuid/" + cursor.getPuuid() + "/ids?" + cursor.nextPageQuery() + "&api_key="+ devKey)
+                    .retrieve()
+                    .bodyToMono(new ParameterizedTypeReference<List<String>>() {})
+                    // the cursor store is a file, it is written away from the event loop.
+                    .publishOn(Schedulers.boundedElastic())
+                    .flatMapMany(matchIdList -> {
+                        List<String> newMatchIds = cursor.advance(matchIdList);
+                        matchHistoryCursorRepository.save(cursor);
+                        progress.matchesListed(newMatchIds.size());
+                        return Flux.fromIterable(newMatchIds).concatWith(matchIdPages(cursor, progress));
+                    })
+                    .onErrorResume(WebClientException.class, e -> {
+                        log.error("RiotLookUpReactiveServiceImpl::streamMatchHistory : the match history is cut short, the next export resumes at " + cursor.getStart() + ": [message: " + e.getMessage() + "]");
+                        return Flux.empty();
+                    });
+        });
+    }
+
+    private Mono<PlayerDTO> activePlayer() {
+        return get(liveClientWebClient, liveClientUrl + "/liveclientdata/activeplayer", PlayerDTO.class)
+                .flatMap(playerDTO ->
+                        summonerIdentity(playerDTO.summonerName)
+                                .map(idPlayer -> {
+                                    playerDTO.id = idPlayer.id;
+                                    return playerDTO;
+                                })
+                );
+    }
+
+    private Mono<IdPlayerDTO> summonerIdentity(String summonerName) {
+        return Mono.defer(() -> Mono.justOrEmpty(summonerIdentityService.findIdentity(summonerName)))
+                .switchIfEmpty(Mono.defer(() ->
+                        get(riotApiWebClient, "https://euw1.api.riotgames.com/lol/summoner/v4/summoners/by-name/" + summonerName + "?api_key=" + devKey, IdPlayerDTO.class)
+                                // saving writes the identities file, keep it off the event loop.
+                                .publishOn(Schedulers.boundedElastic())
+                                .map(identity -> summonerIdentityService.saveIdentity(summonerName, identity))
+                ));
+    }
+
+    private Mono<LiveGameDTO> liveGame(PlayerDTO activePlayer) {
+        return get(liveClientWebClient, liveClientUrl + "/liveclientdata/gamestats", LiveGameDTO.class)
+                .flatMap(liveGame -> {
+                    if(liveGame.gameMode.equals("PRACTICETOOL") || liveGame.gameMode.equals("CUSTOM")) {
+                        //TODO remove this after test, i don't want to save practicetool games.
+                        return Mono.just(liveGame);
+                    }
+                    return get(riotApiWebClient, "https://euw1.api.riotgames.com/lol/spectator/v4/active-games/by-summoner/" + activePlayer.id + "?api_key=" + devKey, LiveGameDTO.class);
+                });
+    }
+
+    private static <T> Mono<T> get(WebClient webClient, String uri, Class<T> type) {
+        return webClient.get().uri(uri).retrieve().bodyToMono(type);
+    }
+
+    /**
+     * Reactive counterpart of {@link RiotLookUpServiceImpl}'s getCall: the call is retried every
+     * {@link #__RETRY_PERIOD__} until the game answers, or completes empty when the tracking is canceled.
+     * Canceling the tracking disposes the pending delay or the in-flight request, which closes its connection.
+     */
+    private <T> Mono<T> liveCall(Mono<T> call) {
+        CancellationToken tracking = this.liveGameService.getTracking();
+        return Mono.defer(() -> tracking.isCancelled() ? Mono.<T>empty() : call)
+                .doOnError(e -> log.info("[LIVE GAME TRACK] Waiting for a Game to start, exception message is : " + e.getMessage()))
+                .retryWhen(Retry.fixedDelay(Long.MAX_VALUE, __RETRY_PERIOD__).filter(e -> e instanceof WebClientException && !tracking.isCancelled()))
+                .onErrorResume(e -> tracking.isCancelled(), e -> Mono.empty())
+                .takeUntilOther(cancellation(tracking));
+    }
+
+    private static Mono<Void> cancellation(CancellationToken tracking) {
+        return Mono.create(sink -> {
+            CancellationToken.Registration registration = tracking.onCancel(sink::success);
+            sink.onDispose(registration::close);
+        });
+    }
+}
@@ -1,11 +1,23 @@
 package com.medkha.lol_notes.services.impl;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.medkha.lol_notes.dto.*;
-import com.medkha.lol_notes.dto.enums.GameTrackingStatus;
+import com.medkha.lol_notes.configuration.AbortableHttpComponentsClientHttpRequestFactory;
+import com.medkha.lol_notes.metrics.LiveTrackingMetrics;
+import com.medkha.lol_notes.repositories.MatchHistoryCursorRepository;
+import com.medkha.lol_notes.repositories.MatchStoreRepository;
 import com.medkha.lol_notes.services.LiveGameService;
 import com.medkha.lol_notes.services.RiotLookUpService;
+import com.medkha.lol_notes.services.SummonerIdentityService;
+import com.medkha.lol_notes.util.CancellationToken;
+import com.medkha.lol_notes.util.EventBatch;
+import com.medkha.lol_notes.util.IncrementalEventReader;
+import com.medkha.lol_notes.util.MatchHistoryCursor;
+import com.medkha.lol_notes.util.MatchHistoryProgress;
+import com.medkha.lol_notes.util.MatchProjectionReader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.core.ParameterizedTypeReference;
@@ -13,25 +25,30 @@ import org.springframework.core.io.Resource;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
 import org.springframework.scheduling.annotation.Async;
-import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
-import java.util.HashSet;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
-import java.util.Set;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 
-@Service
+/**
+ * Built by {@link com.medkha.lol_notes.configuration.ServiceConfiguration#riotLookUpServiceDelegate}.
+ */
 public class RiotLookUpServiceImpl implements RiotLookUpService {
 
     private static final Logger log = LoggerFactory.getLogger(RiotLookUpServiceImpl.class);
@@ -40,11 +57,46 @@ public class RiotLookUpServiceImpl implements RiotLookUpService {
 
     @Value("${lol_notes.dev-key}")
     private Resource devKeyResource;
+    @Value("${lol_notes.live-client.base-url:https://127.0.0.1:2999}")
+    private String liveClientUrl;
     private String devKey;
-    private final RestTemplate restTemplate;
-    public RiotLookUpServiceImpl(RestTemplate restTemplate, @Lazy LiveGameService liveGameService) {
-        this.restTemplate = restTemplate;
+    private final RestTemplate liveClientRestTemplate;
+    private final RestTemplate riotApiRestTemplate;
+    private final SummonerIdentityService summonerIdentityService;
+    private final LiveTrackingMetrics liveTrackingMetrics;
+    private final MatchHistoryCursorRepository matchHistoryCursorRepository;
+    private final MatchStoreRepository matchStoreRepository;
+    private final MatchProjectionReader matchProjectionReader;
+    private final int matchFetchConcurrency;
+    private final Duration matchHistoryCursorTtl;
+    private final ExecutorService matchFetchExecutor;
+    public RiotLookUpServiceImpl(
+            @Qualifier("liveClientRestTemplate") RestTemplate liveClientRestTemplate,
+            @Qualifier("riotApiRestTemplate") RestTemplate riotApiRestTemplate,
+            SummonerIdentityService summonerIdentityService,
+            @Lazy LiveGameService liveGameService,
+            LiveTrackingMetrics liveTrackingMetrics,
+            MatchHistoryCursorRepository matchHistoryCursorRepository,
+            MatchStoreRepository matchStoreRepository,
+            MatchProjectionReader matchProjectionReader,
+            int matchFetchConcurrency,
+            Duration matchHistoryCursorTtl) {
+        this.liveClientRestTemplate = liveClientRestTemplate;
+        this.riotApiRestTemplate = riotApiRestTemplate;
+        this.summonerIdentityService = summonerIdentityService;
         this.liveGameService = liveGameService;
+        this.liveTrackingMetrics = liveTrackingMetrics;
+        this.matchHistoryCursorRepository = matchHistoryCursorRepository;
+        this.matchStoreRepository = matchStoreRepository;
+        this.matchProjectionReader = matchProjectionReader;
+        this.matchFetchConcurrency = matchFetchConcurrency;
+        this.matchHistoryCursorTtl = matchHistoryCursorTtl;
+        AtomicInteger matchFetchThreads = new AtomicInteger();
+        this.matchFetchExecutor = Executors.newFixedThreadPool(matchFetchConcurrency, runnable -> {
+            Thread thread = new Thread(runnable, "match-fetch-" + matchFetchThreads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 
     @PostConstruct
@@ -63,8 +115,8 @@ public class RiotLookUpServiceImpl implements RiotLookUpService {
 
         return getCall(
                 () -> {
-                    PlayerDTO playerDTO = restTemplate.getForObject("https://localhost:2999/liveclientdata/activeplayer", PlayerDTO.class);
-                    playerDTO.id = restTemplate.getForObject("https://euw1.api.riotgames.com/lol/summoner/v4/summoners/by-name/" + playerDTO.summonerName + "?api_key=" + devKey, IdPlayerDTO.class).id;
+                    PlayerDTO playerDTO = liveClientRestTemplate.getForObject(liveClientUrl + "/liveclientdata/activeplayer", PlayerDTO.class);
+                    playerDTO.id = getSummonerIdentity(playerDTO.summonerName).id;
                     return playerDTO;
                 }
         );
@@ -77,7 +129,7 @@ public class RiotLookUpServiceImpl implements RiotLookUpService {
         return getCall(
                 () -> {
                     ResponseEntity<List<PlayerDTO>> playerListResponse =
-                            restTemplate.exchange("https://localhost:2999/liveclientdata/playerlist",
+                            liveClientRestTemplate.exchange(liveClientUrl + "/liveclientdata/playerlist",
                                     HttpMethod.GET, null, new ParameterizedTypeReference<List<PlayerDTO>>() {
                                     });
                     return  playerListResponse.getBody();
@@ -89,34 +141,33 @@ public class RiotLookUpServiceImpl implements RiotLookUpService {
     @Async
     public CompletableFuture<LiveGameDTO> getLiveGameAsync() {
         log.info("looking up for live game general information");
-        return  getActivePlayerInLiveGameAsync().thenApply(
-                activePlayer ->
-                {
-                    try {
-                        return getCall(
-                            () ->{
-                                LiveGameDTO liveGame = restTemplate.getForObject("https://localhost:2999/liveclientdata/gamestats", LiveGameDTO.class);
-                                if(liveGame.gameMode.equals("PRACTICETOOL") || liveGame.gameMode.equals("CUSTOM")) {
-                                    //TODO remove this after test, i don't want to save practicetool games.
-                                    return liveGame;
-                                }
-                                return restTemplate.getForObject("https://euw1.api.riotgames.com/lol/spectator/v4/active-games/by-summoner/" + activePlayer.id + "?api_key=" + devKey, LiveGameDTO.class);
-                            }
-
-                        ).get();
-                    } catch (InterruptedException| ExecutionException e) {
-                        log.error(e.getMessage() + " [stack] : " + e.getStackTrace() );
-                        throw new IllegalStateException(e.getMessage());
+        return getActivePlayerInLiveGameAsync().thenCompose(this::getLiveGameAsync);
+    }
+
+    @Override
+    @Async
+    public CompletableFuture<LiveGameDTO> getLiveGameAsync(PlayerDTO activePlayer) {
+        // Tracking is canceled.
+        if(activePlayer == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return getCall(
+                () ->{
+                    LiveGameDTO liveGame = liveClientRestTemplate.getForObject(liveClientUrl + "/liveclientdata/gamestats", LiveGameDTO.class);
+                    if(liveGame.gameMode.equals("PRACTICETOOL") || liveGame.gameMode.equals("CUSTOM")) {
+                        //TODO remove this after test, i don't want to save practicetool games.
+                        return liveGame;
                     }
+                    return riotApiRestTemplate.getForObject("https://euw1.api.riotgames.com/lol/spectator/v4/active-games/by-summoner/" + activePlayer.id + "?api_key=" + devKey, LiveGameDTO.class);
                 }
         );
-
     }
 
     @Override
+    @Async
     public CompletableFuture<AllEventsDTO> getEventsAsync() {
         CompletableFuture<AllEventsDTO> allEventsFuture = getCall( () ->
-                restTemplate.getForObject("https://127.0.0.1:2999/liveclientdata/eventdata", AllEventsDTO.class)
+                liveClientRestTemplate.getForObject(liveClientUrl + "/liveclientdata/eventdata", AllEventsDTO.class)
         );
 //        if(isEndOfGame(allEventsFuture)) {
 //            throw new EndOfGameException("Game Ends.");
@@ -124,65 +175,249 @@ public class RiotLookUpServiceImpl implements RiotLookUpService {
         return allEventsFuture;
     }
 
+    @Override
+    @Async
+    public CompletableFuture<EventBatch> getNewEventsAsync(IncrementalEventReader eventReader) {
+        return getCall( () -> {
+            long fetchStart = System.nanoTime();
+            return liveClientRestTemplate.execute(liveClientUrl + "/liveclientdata/eventdata", HttpMethod.GET, null,
+                    response -> {
+                        liveTrackingMetrics.recordSince(LiveTrackingMetrics.FETCH, fetchStart);
+                        EventBatch newEvents = eventReader.readNewEvents(response.getBody());
+                        liveTrackingMetrics.record(LiveTrackingMetrics.PARSE,
+                                Duration.between(newEvents.getReceivedAt(), newEvents.getParsedAt()));
+                        return newEvents;
+                    });
+        });
+    }
+
+    @Override
+    @Async
+    public CompletableFuture<JsonNode> getAllGameDataAsync() {
+        return getCall( () ->
+                liveClientRestTemplate.getForObject(liveClientUrl + "/liveclientdata/allgamedata", JsonNode.class)
+        );
+    }
+
     /**
      *
      * @param userName
-     * @param sizeOptional (default is 20, max is 100 if it exceeds the max, it is considered 20.) TODO: MAKE it possible to exceeds 1000
-     * @return
+     * @param sizeOptional (default is 20), the ids are listed 100 at a time until the size is reached or there are no more games.
+     * @param startTime epoch seconds, the games started before aren't listed.
+     * @param matchConsumer called with every match as soon as it is fetched, by one thread at a time.
+     * @return the number of matches given to the consumer.
      */
     @Override
-    public CompletableFuture<Set<GameFinishedDTO>> getMatchHistory( String userName, Optional<Integer> queueId,  Optional<Integer> sizeOptional) {
-        //TODO: take in consideration the amount of data to get.
-        //20 requests every 1 seconds(s)
-        //100 requests every 2 minutes(s)
+    @Async
+    public CompletableFuture<Integer> streamMatchHistory( String userName, Optional<Integer> queueId,  Optional<Integer> sizeOptional, Optional<Long> startTime, MatchHistoryProgress progress, Consumer<GameFinishedDTO> matchConsumer) {
+        // the riot rate limits are enforced by the riotApiRestTemplate, the calls wait for their turn.
         int size = sizeOptional.orElse(20);
-        final int __TIME_LIMIT__ = (size<100)? 80: 1300;
+        long exportStart = System.nanoTime();
 
-        Set<GameFinishedDTO> matchHistory = new HashSet<>(size,1);
-        String puuid = restTemplate.getForObject("https://euw1.api.riotgames.com/lol/summoner/v4/summoners/by-name/" + userName + "?api_key=" + devKey , IdPlayerDTO.class).puuid;
-        do{
+        String puuid = getSummonerIdentity(userName).puuid;
+        MatchHistoryCursor cursor = matchHistoryCursorRepository.find(puuid, queueId, startTime, Instant.now().minus(matchHistoryCursorTtl))
+                .filter(unfinishedCursor -> unfinishedCursor.getSize() == size)
+                .filter(this::isResumable)
+                .orElseGet(() -> new MatchHistoryCursor(puuid, queueId, startTime, size));
+        if(cursor.getStart() > 0) {
+            log.info("streamMatchHistory: resuming the export of " + userName + " at " + cursor.getStart() + ", " + cursor.getMatchIds().size() + " matches were already listed");
+        }
+
+        // the details are fetched `lol_notes.riot-look-up.match-fetch-concurrency` at a time while the next pages are listed,
+        // the listing waits for a fetched match to be consumed before the next fetch starts.
+        MatchFetchWindow matchFetchWindow = new MatchFetchWindow(progress, matchConsumer);
+        progress.matchesListed(cursor.getMatchIds().size());
+        matchFetchWindow.fetch(cursor.getMatchIds());
+        while(!cursor.isComplete() && !progress.getCancellation().isCancelled()){
             try{
-                ResponseEntity<Set<String>> matchIdList =
-                        restTemplate.exchange("https://europe.api.riotgames.com/lol/match/v5/matches/by-puuid/" + puuid + "/ids?start=" + (sizeOptional.orElse(20) - size) + "&count=" + ((size>=100)?100:size) + queueId.map(id->"&queue=" + id).orElse("") + "&api_key="+ devKey,
-                                HttpMethod.GET, null, new ParameterizedTypeReference<Set<String>>() {
+                ResponseEntity<List<String>> matchIdList =
+                        riotApiRestTemplate.exchange("https://europe.api.riotgames.com/lol/match/v5/matches/by-puuid/" + puuid + "/ids?" + cursor.nextPageQuery() + "&api_key="+ devKey,
+                                HttpMethod.GET, null, new ParameterizedTypeReference<List<String>>() {
                                 });
-                // stream optimization ruins the call limit rate. Opted for 'for_loop'.
-                for(String matchId : matchIdList.getBody()){
-                    matchHistory.add(restTemplate.getForObject("https://europe.api.riotgames.com/lol/match/v5/matches/"+ matchId+"?api_key="+devKey, GameFinishedDTO.class));
-                    TimeUnit.MILLISECONDS.sleep(__TIME_LIMIT__);
-                }
-                if(matchIdList.getBody().size()<100 && matchIdList.getBody().size()< sizeOptional.orElse(20)){
-                    log.info("RiotLookUpServiceImpl::getMatchHistory : final match history request, there are no more games.");
-                    break;
+                List<String> newMatchIds = cursor.advance(matchIdList.getBody());
+                matchHistoryCursorRepository.save(cursor);
+                progress.matchesListed(newMatchIds.size());
+                matchFetchWindow.fetch(newMatchIds);
+            }catch (RestClientException e) {
+                log.error("RiotLookUpServiceImpl::streamMatchHistory : the match history is cut short, the next export resumes at " + cursor.getStart() + ": [message: " + e.getMessage() + "]");
+                break;
+            }
+        }
+        matchFetchWindow.awaitFetches();
+        if(matchFetchWindow.consumerError != null) {
+            log.error("RiotLookUpServiceImpl::streamMatchHistory : the export stopped, the match consumer failed: [message: " + matchFetchWindow.consumerError.getMessage() + "]");
+            // the listed matches weren't all consumed, the next export lists them again.
+            matchHistoryCursorRepository.delete(cursor);
+            return CompletableFuture.failedFuture(matchFetchWindow.consumerError);
+        }
+        if(cursor.isComplete()) {
+            progress.listingComplete();
+        }
+        if(progress.getCancellation().isCancelled()) {
+            log.info("RiotLookUpServiceImpl::streamMatchHistory : the export was cancelled, the next export resumes at " + cursor.getStart());
+        } else if(cursor.isComplete()) {
+            log.info("RiotLookUpServiceImpl::streamMatchHistory : final match history request, there are no more games.");
+            matchHistoryCursorRepository.delete(cursor);
+        }
+        log.info("The size of the get MatchHistory list is : " + matchFetchWindow.consumedMatches + ", fetched in " + Duration.ofNanos(System.nanoTime() - exportStart).toMillis() + "ms");
+        return CompletableFuture.completedFuture(matchFetchWindow.consumedMatches);
+    }
+
+    /**
+     * Lists the newest ids again, a cursor is only resumed when the games played since it was saved don't come first.
+     */
+    private boolean isResumable(MatchHistoryCursor unfinishedCursor) {
+        try {
+            ResponseEntity<List<String>> headMatchIds =
+                    riotApiRestTemplate.exchange("https://europe.api.riotgames.com/lol/match/v5/matches/by-puuid/" + unfinishedCursor.getPuuid() + "/ids?" + unfinishedCursor.headQuery() + "&api_key="+ devKey,
+                            HttpMethod.GET, null, new ParameterizedTypeReference<List<String>>() {
+                            });
+            if(unfinishedCursor.hasHead(headMatchIds.getBody())) {
+                return true;
+            }
+            log.info("streamMatchHistory: games were played since the export of " + unfinishedCursor.getPuuid() + " was cut short, it starts over");
+        }catch (RestClientException e) {
+            log.error("RiotLookUpServiceImpl::isResumable : the newest match ids couldn't be listed, the export starts over: [message: " + e.getMessage() + "]");
+        }
+        return false;
+    }
+
+    /**
+     * Bounds the matches of an export held in memory: a fetch only starts once one of the
+     * `lol_notes.riot-look-up.match-fetch-concurrency` permits is free, and the permit is released once
+     * the fetched match went through the consumer.
+     */
+    private class MatchFetchWindow {
+        private final Semaphore permits = new Semaphore(matchFetchConcurrency);
+        private final MatchHistoryProgress progress;
+        private final Consumer<GameFinishedDTO> matchConsumer;
+        private int consumedMatches;
+        private volatile RuntimeException consumerError;
+
+        MatchFetchWindow(MatchHistoryProgress progress, Consumer<GameFinishedDTO> matchConsumer) {
+            this.progress = progress;
+            this.matchConsumer = matchConsumer;
+        }
+
+        void fetch(List<String> matchIds) {
+            for(String matchId : matchIds) {
+                if(progress.getCancellation().isCancelled()) {
+                    return;
                 }
-            }catch (HttpClientErrorException.TooManyRequests e) {
-                log.error("RiotLookUpServiceImpl::getMatchHistory : failed in getting all match history: [message: " + e.getMessage() + "]");
-            }catch(InterruptedException e){
-                log.error("RiotLookUpServiceImpl::getMatchHistory : interrupted sleep.");
+                permits.acquireUninterruptibly();
+                matchFetchExecutor.execute(() -> {
+                    try {
+                        GameFinishedDTO match = getMatch(matchId, progress);
+                        if(match != null) {
+                            consume(match);
+                        }
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+        }
+
+        private synchronized void consume(GameFinishedDTO match) {
+            if(consumerError != null) {
+                return;
+            }
+            try {
+                matchConsumer.accept(match);
+                consumedMatches++;
+            } catch (RuntimeException e) {
+                // nothing more can be written, the export stops like a cancelled one.
+                consumerError = e;
+                progress.getCancellation().cancel();
+            }
+        }
+
+        void awaitFetches() {
+            permits.acquireUninterruptibly(matchFetchConcurrency);
+            permits.release(matchFetchConcurrency);
+        }
+    }
+
+    /**
+     * The match is read from the match store when it was already downloaded, a finished match never changes.
+     * @return null if the match couldn't be fetched or the export was cancelled, the rest of the match history is still exported.
+     */
+    private GameFinishedDTO getMatch(String matchId, MatchHistoryProgress progress) {
+        if(progress.getCancellation().isCancelled()) {
+            return null;
+        }
+        try {
+            GameFinishedDTO match;
+            Optional<byte[]> storedMatch = matchStoreRepository.find(matchId);
+            if(storedMatch.isPresent()) {
+                match = matchProjectionReader.read(storedMatch.get());
+            } else {
+                byte[] matchJson = riotApiRestTemplate.getForObject("https://europe.api.riotgames.com/lol/match/v5/matches/"+ matchId+"?api_key="+devKey, byte[].class);
+                match = matchProjectionReader.read(matchJson);
+                matchStoreRepository.save(matchId, matchJson);
             }
-        }while((size-=100) > 0);
-        log.info("The size of the get MatchHistory list is : " + matchHistory.size());
-        return CompletableFuture.completedFuture(matchHistory);
+            progress.matchFetched();
+            return match;
+        } catch (RestClientException | IOException e) {
+            log.error("RiotLookUpServiceImpl::getMatch : the match " + matchId + " is skipped: [message: " + e.getMessage() + "]");
+            progress.matchSkipped();
+            return null;
+        }
+    }
+
+    @PreDestroy
+    private void shutdown() {
+        matchFetchExecutor.shutdownNow();
     }
 
+    private IdPlayerDTO getSummonerIdentity(String summonerName) {
+        return summonerIdentityService.findIdentity(summonerName).orElseGet(() ->
+                summonerIdentityService.saveIdentity(summonerName,
+                        riotApiRestTemplate.getForObject("https://euw1.api.riotgames.com/lol/summoner/v4/summoners/by-name/" + summonerName + "?api_key=" + devKey, IdPlayerDTO.class))
+        );
+    }
 
+    /**
+     * Retries the call every {@link #__RETRY_PERIOD__} seconds until the game answers, the first attempt is not delayed:
+     * the polling loop paces the calls. The wait and the blocked call return as soon as the tracking is canceled, with a null result.
+     */
     private <T> CompletableFuture<T> getCall( Supplier<T> supplier) {
-        boolean inGame = false;
-        T result = null;
-        while (!inGame && this.liveGameService.getGameTrackingStatus().equals(GameTrackingStatus.ENABLED)) {
-            try {
-                TimeUnit.SECONDS.sleep(__RETRY_PERIOD__);
-                result = supplier.get();
-                inGame = true;
-            } catch (RestClientException | InterruptedException e) {
+        CancellationToken tracking = this.liveGameService.getTracking();
+        CancellationToken.Registration abortOnCancel = tracking.onCancel(this::abortLiveClientRequests);
+        try {
+            while (!tracking.isCancelled()) {
+                try {
+                    return CompletableFuture.completedFuture(supplier.get());
+                } catch (RestClientException e) {
+                    if (tracking.isCancelled()) {
+                        break;
+                    }
                     log.info("[LIVE GAME TRACK] Waiting for a Game to start");
                     log.info("Exception message is : " + e.getMessage() + ", [stack] : " + e.getStackTrace().toString());
                     for(StackTraceElement stackTraceElement: e.getStackTrace()){
                         log.info("* " + stackTraceElement.getClassName() + "::" + stackTraceElement.getClassName() +" line: " + stackTraceElement.getLineNumber());
                     }
+                }
+                try {
+                    if (!tracking.sleep(Duration.ofSeconds(__RETRY_PERIOD__))) {
+                        break;
+                    }
+                } catch (InterruptedException e) {
+                    log.info("getCall: the thread is interrupted, the call is abandoned.");
+                    Thread.currentThread().interrupt();
+                    break;
+                }
             }
+        } finally {
+            abortOnCancel.close();
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
+    private void abortLiveClientRequests() {
+        if (liveClientRestTemplate.getRequestFactory() instanceof AbortableHttpComponentsClientHttpRequestFactory) {
+            ((AbortableHttpComponentsClientHttpRequestFactory) liveClientRestTemplate.getRequestFactory()).abortRequests();
         }
-        return CompletableFuture.completedFuture(result);
     }
 
 }
@@ -0,0 +1,68 @@
+package com.medkha.lol_notes.services.impl;
+
+import com.medkha.lol_notes.dto.IdPlayerDTO;
+import com.medkha.lol_notes.repositories.SummonerIdentityRepository;
+import com.medkha.lol_notes.services.SummonerIdentityService;
+import com.medkha.lol_notes.util.ExpiringCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Looks up the identities in memory first, then in the persistent store.
+ * The in-memory entries expire after `lol_notes.summoner-identity.ttl`,
+ * the stored ones after `lol_notes.summoner-identity.store-ttl`.
+ */
+@Service
+public class SummonerIdentityServiceImpl implements SummonerIdentityService {
+    private static final Logger log = LoggerFactory.getLogger(SummonerIdentityServiceImpl.class);
+
+    private final SummonerIdentityRepository summonerIdentityRepository;
+    private final ExpiringCache<String, IdPlayerDTO> identities;
+    private final Duration storeTimeToLive;
+
+    public SummonerIdentityServiceImpl(
+            SummonerIdentityRepository summonerIdentityRepository,
+            @Value("${lol_notes.summoner-identity.ttl:1h}") Duration timeToLive,
+            @Value("${lol_notes.summoner-identity.store-ttl:7d}") Duration storeTimeToLive) {
+        this.summonerIdentityRepository = summonerIdentityRepository;
+        this.identities = new ExpiringCache<>(timeToLive);
+        this.storeTimeToLive = storeTimeToLive;
+    }
+
+    @Override
+    public Optional<IdPlayerDTO> findIdentity(String summonerName) {
+        String key = normalize(summonerName);
+        Optional<IdPlayerDTO> identity = identities.get(key);
+        if (identity.isPresent()) {
+            return identity;
+        }
+        identity = summonerIdentityRepository.findBySummonerName(key, Instant.now().minus(storeTimeToLive));
+        identity.ifPresent(storedIdentity -> {
+            log.info("findIdentity: identity of {} found in the store.", summonerName);
+            identities.put(key, storedIdentity);
+        });
+        return identity;
+    }
+
+    @Override
+    public IdPlayerDTO saveIdentity(String summonerName, IdPlayerDTO identity) {
+        String key = normalize(summonerName);
+        identities.put(key, identity);
+        summonerIdentityRepository.save(key, identity);
+        return identity;
+    }
+
+    /**
+     * Riot ignores the case and the spaces of a summoner name.
+     */
+    private static String normalize(String summonerName) {
+        return summonerName.replace(" ", "").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,137 @@
+package com.medkha.lol_notes.simulator;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * What a simulated game replays: the players and the events ordered by their EventTime.
+ * It comes either from an allgamedata payload recorded during a real game, or is generated from a seed.
+ */
+public class GameTimeline {
+    private static final String[] CHAMPIONS = {
+            "Draven", "Ahri", "Garen", "Lee Sin", "Thresh", "Jinx", "Darius", "Lux", "Vi", "Leona"
+    };
+
+    private final ObjectNode activePlayer;
+    private final ArrayNode allPlayers;
+    private final ObjectNode gameData;
+    private final List<JsonNode> events;
+    private final double gameLength;
+
+    private GameTimeline(ObjectNode activePlayer, ArrayNode allPlayers, ObjectNode gameData, List<JsonNode> events, double gameLength) {
+        this.activePlayer = activePlayer;
+        this.allPlayers = allPlayers;
+        this.gameData = gameData;
+        this.events = events;
+        this.gameLength = gameLength;
+    }
+
+    /**
+     * @param allGameData the `liveclientdata/allgamedata` payload saved at the end of a game.
+     */
+    public static GameTimeline fromRecording(JsonNode allGameData) {
+        List<JsonNode> events = new ArrayList<>();
+        allGameData.path("events").path("Events").forEach(events::add);
+        events.sort(Comparator.comparingDouble(event -> event.path("EventTime").asDouble()));
+        double gameLength = Math.max(
+                allGameData.path("gameData").path("gameTime").asDouble(),
+                events.isEmpty() ? 0 : events.get(events.size() - 1).path("EventTime").asDouble());
+        return new GameTimeline(
+                (ObjectNode) allGameData.get("activePlayer"),
+                (ArrayNode) allGameData.get("allPlayers"),
+                (ObjectNode) allGameData.get("gameData"),
+                events,
+                gameLength);
+    }
+
+    /**
+     * Generates a game of ten players where a champion dies every 20 to 90 seconds, ending with a GameEnd event.
+     * The same seed gives the same game.
+     */
+    public static GameTimeline synthetic(long seed, String summonerName, Duration gameLength) {
+        Random random = new Random(seed);
+        JsonNodeFactory json = JsonNodeFactory.instance;
+        ArrayNode allPlayers = json.arrayNode();
+        for (int i = 0; i < CHAMPIONS.length; i++) {
+            ObjectNode player = allPlayers.addObject()
+                    .put("summonerName", i == 0 ? summonerName : "Simulated Player " + i)
+                    .put("championName", CHAMPIONS[(i + (int) seed) % CHAMPIONS.length])
+                    .put("team", i < 5 ? "ORDER" : "CHAOS")
+                    .put("level", 1)
+                    .put("isBot", false)
+                    .put("isDead", false);
+            player.putArray("items");
+            player.putObject("scores")
+                    .put("kills", 0).put("deaths", 0).put("assists", 0).put("creepScore", 0).put("wardScore", 0.0);
+        }
+        ObjectNode activePlayer = json.objectNode()
+                .put("summonerName", summonerName)
+                .put("level", 1)
+                .put("currentGold", 500.0);
+        ObjectNode gameData = json.objectNode()
+                .put("gameMode", "PRACTICETOOL")
+                .put("gameTime", 0.0)
+                .put("mapName", "Map11")
+                .put("mapNumber", 11)
+                .put("mapTerrain", "Default");
+
+        double length = gameLength.getSeconds();
+        List<JsonNode> events = new ArrayList<>();
+        events.add(event(events.size(), "GameStart", 0.0));
+        events.add(event(events.size(), "MinionsSpawning", 65.0));
+        for (double time = 90 + random.nextInt(70); time < length; time += 20 + random.nextInt(70)) {
+            int killer = random.nextInt(CHAMPIONS.length);
+            // the victim is on the other team.
+            int victim = (killer < 5 ? 5 : 0) + random.nextInt(5);
+            ObjectNode kill = event(events.size(), "ChampionKill", time + random.nextInt(1000) / 1000.0)
+                    .put("KillerName", allPlayers.get(killer).get("summonerName").asText())
+                    .put("VictimName", allPlayers.get(victim).get("summonerName").asText());
+            ArrayNode assisters = kill.putArray("Assisters");
+            int assister = (killer < 5 ? 0 : 5) + random.nextInt(5);
+            if (assister != killer) {
+                assisters.add(allPlayers.get(assister).get("summonerName").asText());
+            }
+            events.add(kill);
+        }
+        events.add(event(events.size(), "GameEnd", length).put("Result", random.nextBoolean() ? "Win" : "Lose"));
+        return new GameTimeline(activePlayer, allPlayers, gameData, events, length);
+    }
+
+    private static ObjectNode event(int eventId, String eventName, double eventTime) {
+        return JsonNodeFactory.instance.objectNode()
+                .put("EventID", eventId)
+                .put("EventName", eventName)
+                .put("EventTime", eventTime);
+    }
+
+    public ObjectNode getActivePlayer() {
+        return activePlayer;
+    }
+
+    public ArrayNode getAllPlayers() {
+        return allPlayers;
+    }
+
+    public ObjectNode getGameData() {
+        return gameData;
+    }
+
+    public List<JsonNode> getEvents() {
+        return events;
+    }
+
+    /**
+     * @return the game time in seconds of the end of the game.
+     */
+    public double getGameLength() {
+        return gameLength;
+    }
+}
@@ -0,0 +1,103 @@
+package com.medkha.lol_notes.simulator;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpsConfigurator;
+import com.sun.net.httpserver.HttpsServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.net.ssl.SSLContext;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+/**
+ * Serves the Live Client Data API of the simulated games over https, one game per port starting at `port`,
+ * the same way the game client serves the real one on `127.0.0.1:2999`.
+ * Every request is counted in `lol_notes.simulator.requests`, tagged with the endpoint and the port.
+ */
+public class LiveClientSimulator {
+    private static final Logger log = LoggerFactory.getLogger(LiveClientSimulator.class);
+    private static final Map<String, Function<SimulatedGame, JsonNode>> ENDPOINTS = Map.of(
+            "/liveclientdata/activeplayer", SimulatedGame::activePlayer,
+            "/liveclientdata/playerlist", SimulatedGame::playerList,
+            "/liveclientdata/gamestats", SimulatedGame::gameStats,
+            "/liveclientdata/eventdata", SimulatedGame::eventData,
+            "/liveclientdata/allgamedata", SimulatedGame::allGameData
+    );
+
+    private final List<SimulatedGame> games;
+    private final int port;
+    private final SSLContext sslContext;
+    private final int threads;
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<HttpsServer> servers = new ArrayList<>();
+    private ExecutorService executor;
+
+    public LiveClientSimulator(List<SimulatedGame> games, int port, SSLContext sslContext, int threads, MeterRegistry meterRegistry) {
+        this.games = games;
+        this.port = port;
+        this.sslContext = sslContext;
+        this.threads = threads;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public synchronized void start() throws IOException {
+        executor = Executors.newFixedThreadPool(threads);
+        for (int i = 0; i < games.size(); i++) {
+            SimulatedGame game = games.get(i);
+            int gamePort = port + i;
+            HttpsServer server = HttpsServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), gamePort), 0);
+            server.setHttpsConfigurator(new HttpsConfigurator(sslContext));
+            server.setExecutor(executor);
+            server.createContext("/", exchange -> handle(exchange, game, gamePort));
+            server.start();
+            servers.add(server);
+        }
+        log.info("start: {} simulated games served on 127.0.0.1:{}-{}.", games.size(), port, port + games.size() - 1);
+    }
+
+    public synchronized void stop() {
+        servers.forEach(server -> server.stop(0));
+        servers.clear();
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        log.info("stop: simulated games stopped.");
+    }
+
+    private void handle(HttpExchange exchange, SimulatedGame game, int gamePort) throws IOException {
+        try {
+            String path = exchange.getRequestURI().getPath();
+            Function<SimulatedGame, JsonNode> endpoint = ENDPOINTS.get(path);
+            meterRegistry.counter("lol_notes.simulator.requests",
+                    "endpoint", endpoint == null ? "unknown" : path, "port", String.valueOf(gamePort)).increment();
+            if (endpoint == null || !exchange.getRequestMethod().equals("GET")) {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+            byte[] body = objectMapper.writeValueAsBytes(endpoint.apply(game));
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream responseBody = exchange.getResponseBody()) {
+                responseBody.write(body);
+            }
+        } catch (IOException | UncheckedIOException e) {
+            log.error("LiveClientSimulator::handle : couldn't answer {}, exception message: {}", exchange.getRequestURI(), e.getMessage());
+        } finally {
+            exchange.close();
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.medkha.lol_notes.simulator;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A game replaying a {@link GameTimeline}, `speed` game seconds pass every second.
+ * Once ended, the game is still served for `endHold` so the tracker can see its GameEnd event,
+ * then it starts over when `loop` is set.
+ */
+public class SimulatedGame {
+    private static final int[] ITEMS = {1055, 3031, 3006, 3046, 3036, 3072};
+    private static final double GOLD_PER_SECOND = 2.0;
+    private static final double ITEM_COST = 3000.0;
+
+    private final GameTimeline timeline;
+    private final double speed;
+    private final Duration endHold;
+    private final boolean loop;
+    private final Clock clock;
+    private Instant startedAt;
+
+    public SimulatedGame(GameTimeline timeline, double speed, Duration endHold, boolean loop, Clock clock) {
+        this.timeline = timeline;
+        this.speed = speed;
+        this.endHold = endHold;
+        this.loop = loop;
+        this.clock = clock;
+        this.startedAt = clock.instant();
+    }
+
+    /**
+     * @return the current game time in seconds.
+     */
+    public synchronized double gameTime() {
+        Duration elapsed = Duration.between(startedAt, clock.instant());
+        Duration gameDuration = Duration.ofMillis((long) (timeline.getGameLength() * 1000 / speed));
+        if (loop && elapsed.compareTo(gameDuration.plus(endHold)) > 0) {
+            startedAt = clock.instant();
+            return 0.0;
+        }
+        return Math.min(elapsed.toMillis() * speed / 1000.0, timeline.getGameLength());
+    }
+
+    public JsonNode activePlayer() {
+        return activePlayer(gameTime());
+    }
+
+    public JsonNode playerList() {
+        return playerList(gameTime());
+    }
+
+    public JsonNode gameStats() {
+        return gameStats(gameTime());
+    }
+
+    public JsonNode eventData() {
+        return eventData(gameTime());
+    }
+
+    public JsonNode allGameData() {
+        double gameTime = gameTime();
+        ObjectNode allGameData = JsonNodeFactory.instance.objectNode();
+        allGameData.set("activePlayer", activePlayer(gameTime));
+        allGameData.set("allPlayers", playerList(gameTime));
+        allGameData.set("events", eventData(gameTime));
+        allGameData.set("gameData", gameStats(gameTime));
+        return allGameData;
+    }
+
+    private ObjectNode activePlayer(double gameTime) {
+        double earnedGold = gameTime * GOLD_PER_SECOND;
+        return timeline.getActivePlayer().deepCopy()
+                .put("level", level(gameTime))
+                .put("currentGold", 500.0 + earnedGold - itemCount(gameTime) * ITEM_COST);
+    }
+
+    private ArrayNode playerList(double gameTime) {
+        Map<String, int[]> scores = scores(gameTime);
+        ArrayNode players = timeline.getAllPlayers().deepCopy();
+        players.forEach(player -> {
+            ObjectNode playerNode = (ObjectNode) player;
+            int[] score = scores.getOrDefault(player.path("summonerName").asText(), new int[3]);
+            playerNode.put("level", level(gameTime));
+            playerNode.with("scores")
+                    .put("kills", score[0])
+                    .put("deaths", score[1])
+                    .put("assists", score[2])
+                    .put("creepScore", (int) (gameTime / 10));
+            ArrayNode items = playerNode.putArray("items");
+            for (int slot = 0; slot < itemCount(gameTime); slot++) {
+                items.addObject().put("itemID", ITEMS[slot]).put("slot", slot).put("count", 1);
+            }
+        });
+        return players;
+    }
+
+    private ObjectNode gameStats(double gameTime) {
+        return timeline.getGameData().deepCopy().put("gameTime", gameTime);
+    }
+
+    private ObjectNode eventData(double gameTime) {
+        ObjectNode eventData = JsonNodeFactory.instance.objectNode();
+        ArrayNode events = eventData.putArray("Events");
+        for (JsonNode event : timeline.getEvents()) {
+            if (event.path("EventTime").asDouble() > gameTime) {
+                break;
+            }
+            events.add(event);
+        }
+        return eventData;
+    }
+
+    /**
+     * kills, deaths and assists of every summoner, from the ChampionKill events that already happened.
+     */
+    private Map<String, int[]> scores(double gameTime) {
+        Map<String, int[]> scores = new HashMap<>();
+        for (JsonNode event : timeline.getEvents()) {
+            if (event.path("EventTime").asDouble() > gameTime) {
+                break;
+            }
+            if (event.path("EventName").asText().equals("ChampionKill")) {
+                scores.computeIfAbsent(event.path("KillerName").asText(), name -> new int[3])[0]++;
+                scores.computeIfAbsent(event.path("VictimName").asText(), name -> new int[3])[1]++;
+                event.path("Assisters").forEach(assister -> scores.computeIfAbsent(assister.asText(), name -> new int[3])[2]++);
+            }
+        }
+        return scores;
+    }
+
+    private static int level(double gameTime) {
+        return Math.min(18, 1 + (int) (gameTime / 100));
+    }
+
+    private static int itemCount(double gameTime) {
+        return Math.min(ITEMS.length, (int) (gameTime * GOLD_PER_SECOND / ITEM_COST));
+    }
+}
@@ -0,0 +1,28 @@
+package com.medkha.lol_notes.simulator;
+
+import com.medkha.lol_notes.dto.IdPlayerDTO;
+import com.medkha.lol_notes.services.SummonerIdentityService;
+
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Gives every summoner an identity derived from its name, so the tracking of a simulated game never calls
+ * summoner-v4: the simulated players don't exist there, and the simulator must run offline.
+ */
+public class SimulatedSummonerIdentityService implements SummonerIdentityService {
+
+    @Override
+    public Optional<IdPlayerDTO> findIdentity(String summonerName) {
+        String key = summonerName.replace(" ", "").toLowerCase(Locale.ROOT);
+        IdPlayerDTO identity = new IdPlayerDTO();
+        identity.id = "simulated-id-" + key;
+        identity.puuid = "simulated-puuid-" + key;
+        return Optional.of(identity);
+    }
+
+    @Override
+    public IdPlayerDTO saveIdentity(String summonerName, IdPlayerDTO identity) {
+        return identity;
+    }
+}
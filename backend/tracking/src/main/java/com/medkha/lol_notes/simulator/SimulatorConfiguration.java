@@ -0,0 +1,76 @@
+package com.medkha.lol_notes.simulator;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medkha.lol_notes.services.SummonerIdentityService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.GeneralSecurityException;
+import java.security.cert.X509Certificate;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Starts the live client simulator with the `simulator` profile, to track fake games without running the game.
+ * The https key pair of the simulator is generated when it starts, its certificate is a bean so the http clients
+ * trust it on top of their trust store. The summoner identities are answered locally, the simulated players don't
+ * exist on the riot api.
+ */
+@Configuration
+@Profile("simulator")
+public class SimulatorConfiguration {
+
+    @Bean
+    public SimulatorKeyStore simulatorKeyStore() throws IOException, GeneralSecurityException {
+        return SimulatorKeyStore.generate();
+    }
+
+    @Bean
+    public X509Certificate liveClientSimulatorCertificate(SimulatorKeyStore simulatorKeyStore) throws GeneralSecurityException {
+        return simulatorKeyStore.getCertificate();
+    }
+
+    @Bean
+    @Primary
+    public SummonerIdentityService simulatedSummonerIdentityService() {
+        return new SimulatedSummonerIdentityService();
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public LiveClientSimulator liveClientSimulator(
+            @Value("${lol_notes.simulator.port:2999}") int port,
+            @Value("${lol_notes.simulator.games:1}") int gameCount,
+            @Value("${lol_notes.simulator.speed:1}") double speed,
+            @Value("${lol_notes.simulator.timeline:#{null}}") Resource recordedTimeline,
+            @Value("${lol_notes.simulator.game-length:30m}") Duration gameLength,
+            @Value("${lol_notes.simulator.end-hold:15s}") Duration endHold,
+            @Value("${lol_notes.simulator.loop:true}") boolean loop,
+            @Value("${lol_notes.simulator.summoner-name:Simulated Player}") String summonerName,
+            @Value("${lol_notes.simulator.threads:4}") int threads,
+            SimulatorKeyStore simulatorKeyStore,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) throws IOException, GeneralSecurityException {
+        List<SimulatedGame> games = new ArrayList<>();
+        for (int i = 0; i < gameCount; i++) {
+            GameTimeline timeline;
+            if (recordedTimeline != null) {
+                try (InputStream timelineStream = recordedTimeline.getInputStream()) {
+                    timeline = GameTimeline.fromRecording(objectMapper.readTree(timelineStream));
+                }
+            } else {
+                timeline = GameTimeline.synthetic(i, summonerName, gameLength);
+            }
+            games.add(new SimulatedGame(timeline, speed, endHold, loop, Clock.systemUTC()));
+        }
+        return new LiveClientSimulator(games, port, simulatorKeyStore.sslContext(), threads, meterRegistry);
+    }
+}
@@ -0,0 +1,80 @@
+package com.medkha.lol_notes.simulator;
+
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.security.SecureRandom;
+import java.security.cert.X509Certificate;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The https key pair of the simulator, a self-signed certificate for 127.0.0.1 and localhost generated with the
+ * keytool of the running JDK each time the simulator starts. The key only lives in memory, nothing is written to the
+ * trust store of the http clients: they are given the certificate to trust instead.
+ */
+public class SimulatorKeyStore {
+    private static final String ALIAS = "lol-notes-simulator";
+
+    private final KeyStore keyStore;
+    private final char[] password;
+
+    private SimulatorKeyStore(KeyStore keyStore, char[] password) {
+        this.keyStore = keyStore;
+        this.password = password;
+    }
+
+    public static SimulatorKeyStore generate() throws IOException, GeneralSecurityException {
+        byte[] passwordBytes = new byte[24];
+        new SecureRandom().nextBytes(passwordBytes);
+        char[] password = Base64.getEncoder().withoutPadding().encodeToString(passwordBytes).toCharArray();
+        Path directory = Files.createTempDirectory("lol-notes-simulator");
+        Path keyStoreFile = directory.resolve("simulator.p12");
+        try {
+            ProcessBuilder keytoolCommand = new ProcessBuilder(
+                    Paths.get(System.getProperty("java.home"), "bin", "keytool").toString(),
+                    "-genkeypair", "-alias", ALIAS, "-keyalg", "RSA", "-keysize", "2048", "-validity", "30",
+                    "-dname", "CN=localhost", "-ext", "SAN=ip:127.0.0.1,dns:localhost",
+                    "-storetype", "PKCS12", "-keystore", keyStoreFile.toString(), "-storepass:env", "SIMULATOR_STORE_PASSWORD")
+                    .redirectErrorStream(true);
+            // the password is given through the environment, it doesn't show in the process list.
+            keytoolCommand.environment().put("SIMULATOR_STORE_PASSWORD", new String(password));
+            Process keytool = keytoolCommand.start();
+            String output = new String(keytool.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+            if (!keytool.waitFor(1, TimeUnit.MINUTES) || keytool.exitValue() != 0) {
+                keytool.destroyForcibly();
+                throw new IOException("keytool couldn't generate the simulator key pair: " + output);
+            }
+            KeyStore keyStore = KeyStore.getInstance("PKCS12");
+            try (InputStream keyStoreStream = Files.newInputStream(keyStoreFile)) {
+                keyStore.load(keyStoreStream, password);
+            }
+            return new SimulatorKeyStore(keyStore, password);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("The simulator key pair generation was interrupted.", e);
+        } finally {
+            Files.deleteIfExists(keyStoreFile);
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    public X509Certificate getCertificate() throws GeneralSecurityException {
+        return (X509Certificate) keyStore.getCertificate(ALIAS);
+    }
+
+    public SSLContext sslContext() throws GeneralSecurityException {
+        KeyManagerFactory keyManagerFactory = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+        keyManagerFactory.init(keyStore, password);
+        SSLContext sslContext = SSLContext.getInstance("TLS");
+        sslContext.init(keyManagerFactory.getKeyManagers(), null, null);
+        return sslContext;
+    }
+}
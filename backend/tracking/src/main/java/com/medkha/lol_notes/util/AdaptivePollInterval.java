@@ -0,0 +1,75 @@
+package com.medkha.lol_notes.util;
+
+import com.medkha.lol_notes.dto.EventInGameDTO;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Chooses the wait between two polls of the game events of one game. A poll bringing ChampionKill events drops it
+ * to `min`, a fight is likely going on. Every quiet poll then multiplies it by `backoffFactor`, up to the ceiling of
+ * the game phase: `max` during the laning phase, `lateGameMax` once the game time passes `laningPhaseEnd`.
+ * The game time is the time of the last event seen, moved forward with the clock since.
+ * Not thread safe, it belongs to the polling loop.
+ */
+public class AdaptivePollInterval {
+    private final Duration min;
+    private final Duration max;
+    private final Duration lateGameMax;
+    private final Duration laningPhaseEnd;
+    private final double backoffFactor;
+    private final Clock clock;
+    private Duration interval;
+    private Duration lastEventTime = Duration.ZERO;
+    private Instant lastEventSeenAt;
+
+    public AdaptivePollInterval(Duration min, Duration max, Duration lateGameMax, Duration laningPhaseEnd,
+                                double backoffFactor, Clock clock) {
+        if (min.compareTo(max) > 0 || min.compareTo(lateGameMax) > 0 || backoffFactor < 1) {
+            throw new IllegalArgumentException("The poll interval needs min <= max, min <= late game max and a backoff factor >= 1.");
+        }
+        this.min = min;
+        this.max = max;
+        this.lateGameMax = lateGameMax;
+        this.laningPhaseEnd = laningPhaseEnd;
+        this.backoffFactor = backoffFactor;
+        this.clock = clock;
+        this.lastEventSeenAt = clock.instant();
+        this.interval = max;
+    }
+
+    /**
+     * @param newEvents the events brought by the poll that just finished.
+     * @return the wait before the next poll.
+     */
+    public Duration next(List<EventInGameDTO> newEvents) {
+        boolean kills = false;
+        for (EventInGameDTO event : newEvents) {
+            kills |= "ChampionKill".equals(event.eventName);
+            if (event.eventTime != null) {
+                lastEventTime = Duration.ofMillis((long) (Double.parseDouble(event.eventTime) * 1000));
+                lastEventSeenAt = clock.instant();
+            }
+        }
+        Duration ceiling = gameTime().compareTo(laningPhaseEnd) < 0 ? max : lateGameMax;
+        if (kills) {
+            interval = min;
+        } else {
+            interval = Duration.ofMillis((long) (interval.toMillis() * backoffFactor));
+        }
+        if (interval.compareTo(ceiling) > 0) {
+            interval = ceiling;
+        }
+        return interval;
+    }
+
+    public Duration current() {
+        return interval;
+    }
+
+    public Duration gameTime() {
+        return lastEventTime.plus(Duration.between(lastEventSeenAt, clock.instant()));
+    }
+}
@@ -0,0 +1,87 @@
+package com.medkha.lol_notes.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cancellation of a tracking session: waits on the token return as soon as it is cancelled,
+ * and the callbacks registered on it (aborting the in-flight requests, completing the emitter...) run once on cancel.
+ */
+public class CancellationToken {
+    private static final Logger log = LoggerFactory.getLogger(CancellationToken.class);
+
+    private final CountDownLatch cancelled = new CountDownLatch(1);
+    private final Set<Runnable> callbacks = new LinkedHashSet<>();
+
+    /**
+     * @return a token that is already cancelled, for when no session is running.
+     */
+    public static CancellationToken cancelled() {
+        CancellationToken token = new CancellationToken();
+        token.cancel();
+        return token;
+    }
+
+    public void cancel() {
+        List<Runnable> callbacksToRun;
+        synchronized (this) {
+            if (isCancelled()) {
+                return;
+            }
+            cancelled.countDown();
+            callbacksToRun = new ArrayList<>(callbacks);
+            callbacks.clear();
+        }
+        for (Runnable callback : callbacksToRun) {
+            try {
+                callback.run();
+            } catch (RuntimeException e) {
+                log.error("CancellationToken::cancel : a cancel callback failed, exception message: {}", e.getMessage());
+            }
+        }
+    }
+
+    public boolean isCancelled() {
+        return cancelled.getCount() == 0;
+    }
+
+    /**
+     * Sleeps for the duration, unless the token is cancelled before.
+     * @return false if the token was cancelled.
+     */
+    public boolean sleep(Duration duration) throws InterruptedException {
+        return !cancelled.await(duration.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Runs the callback on cancel, or right away if the token is already cancelled.
+     * @return closing the registration removes the callback, once the resource it protects is released.
+     */
+    public Registration onCancel(Runnable callback) {
+        synchronized (this) {
+            if (!isCancelled()) {
+                callbacks.add(callback);
+                return () -> {
+                    synchronized (this) {
+                        callbacks.remove(callback);
+                    }
+                };
+            }
+        }
+        callback.run();
+        return () -> {};
+    }
+
+    public interface Registration extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,34 @@
+package com.medkha.lol_notes.util;
+
+import com.medkha.lol_notes.dto.EventInGameDTO;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * The new events of one read of the eventdata payload, with when its response was received and parsed. The
+ * timestamps travel with the events: the reader is shared by the polls of a session and may already be reading the next one.
+ */
+public class EventBatch {
+    private final List<EventInGameDTO> events;
+    private final Instant receivedAt;
+    private final Instant parsedAt;
+
+    public EventBatch(List<EventInGameDTO> events, Instant receivedAt, Instant parsedAt) {
+        this.events = events;
+        this.receivedAt = receivedAt;
+        this.parsedAt = parsedAt;
+    }
+
+    public List<EventInGameDTO> getEvents() {
+        return events;
+    }
+
+    public Instant getReceivedAt() {
+        return receivedAt;
+    }
+
+    public Instant getParsedAt() {
+        return parsedAt;
+    }
+}
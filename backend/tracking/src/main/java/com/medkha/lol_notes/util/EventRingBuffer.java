@@ -0,0 +1,59 @@
+package com.medkha.lol_notes.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps the last `capacity` items, each one numbered with an id increasing by one from 1.
+ * Not thread safe, the owner synchronizes the access.
+ */
+public class EventRingBuffer<T> {
+    private final Object[] items;
+    private long lastId;
+
+    public EventRingBuffer(int capacity) {
+        this.items = new Object[capacity];
+    }
+
+    /**
+     * @return the id given to the item.
+     */
+    public long add(T item) {
+        lastId++;
+        items[(int) (lastId % items.length)] = item;
+        return lastId;
+    }
+
+    /**
+     * @return the items added after `id`, in order, as far as they are still kept.
+     */
+    @SuppressWarnings("unchecked")
+    public List<Entry<T>> since(long id) {
+        List<Entry<T>> entries = new ArrayList<>();
+        for (long next = Math.max(id, oldestId() - 1) + 1; next <= lastId; next++) {
+            entries.add(new Entry<>(next, (T) items[(int) (next % items.length)]));
+        }
+        return entries;
+    }
+
+    /**
+     * @return the id of the oldest item kept, or the id the next item will get if the buffer is empty.
+     */
+    public long oldestId() {
+        return Math.max(1, lastId - items.length + 1);
+    }
+
+    public long getLastId() {
+        return lastId;
+    }
+
+    public static class Entry<T> {
+        public final long id;
+        public final T item;
+
+        public Entry(long id, T item) {
+            this.id = id;
+            this.item = item;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.medkha.lol_notes.util;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Small thread-safe in-memory cache where every entry expires `timeToLive` after it was put.
+ * Expired entries are dropped lazily when they are read.
+ */
+public class ExpiringCache<K, V> {
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final Duration timeToLive;
+    private final Clock clock;
+
+    public ExpiringCache(Duration timeToLive) {
+        this(timeToLive, Clock.systemUTC());
+    }
+
+    public ExpiringCache(Duration timeToLive, Clock clock) {
+        this.timeToLive = timeToLive;
+        this.clock = clock;
+    }
+
+    public Optional<V> get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        if (entry.expiresAt <= clock.millis()) {
+            entries.remove(key, entry);
+            return Optional.empty();
+        }
+        return Optional.of(entry.value);
+    }
+
+    public void put(K key, V value) {
+        entries.put(key, new Entry<>(value, clock.millis() + timeToLive.toMillis()));
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long expiresAt;
+
+        private Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
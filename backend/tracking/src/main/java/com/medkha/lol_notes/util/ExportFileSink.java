@@ -0,0 +1,133 @@
+package com.medkha.lol_notes.util;
+
+import com.medkha.lol_notes.dto.enums.ExportCompression;
+
+import java.io.BufferedOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The file an export is written to. The bytes go through a large buffer, then the compression, to a FileChannel
+ * on `file`.part next to the file; {@link #commit()} forces it to the disk then renames it to the file in one atomic
+ * move, so the file is either missing or complete even after a crash, and {@link #abort()} deletes it.
+ * A sink that appends first copies the current file into the part file, the file is only replaced on commit.
+ */
+public class ExportFileSink {
+    private static final String PART_SUFFIX = ".part";
+
+    private final Path file;
+    private final Path partFile;
+    private final FileChannel channel;
+    private final OutputStream outputStream;
+    private final OutputStream exportStream;
+    private boolean closed;
+
+    private ExportFileSink(Path file, Path partFile, FileChannel channel, OutputStream outputStream) {
+        this.file = file;
+        this.partFile = partFile;
+        this.channel = channel;
+        this.outputStream = outputStream;
+        this.exportStream = new FilterOutputStream(outputStream) {
+            @Override
+            public void write(byte[] bytes, int offset, int length) throws IOException {
+                out.write(bytes, offset, length);
+            }
+
+            @Override
+            public void close() throws IOException {
+                closeOutputStream(true);
+            }
+        };
+    }
+
+    public static ExportFileSink open(Path file, ExportCompression compression, int bufferSize) throws IOException {
+        return open(file, compression, bufferSize, Optional.empty());
+    }
+
+    /**
+     * @param appendTo the file the export continues, written with the same compression: a gzip file is followed by a new gzip member.
+     */
+    public static ExportFileSink open(Path file, ExportCompression compression, int bufferSize, Optional<Path> appendTo) throws IOException {
+        Path partFile = file.resolveSibling(file.getFileName() + PART_SUFFIX);
+        FileChannel channel = FileChannel.open(partFile, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        try {
+            if (appendTo.isPresent()) {
+                try (FileChannel previousExport = FileChannel.open(appendTo.get(), StandardOpenOption.READ)) {
+                    long size = previousExport.size();
+                    long copied = 0;
+                    while (copied < size) {
+                        long transferred = channel.transferFrom(previousExport, copied, size - copied);
+                        if (transferred == 0) {
+                            throw new IOException(appendTo.get() + " got shorter while it was copied.");
+                        }
+                        copied += transferred;
+                    }
+                    channel.position(size);
+                }
+            }
+            OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel), bufferSize);
+            if (compression == ExportCompression.GZIP) {
+                // gzip sits before the buffer, the channel is written in large blocks of compressed bytes.
+                out = new GZIPOutputStream(out, 1 << 13);
+            }
+            return new ExportFileSink(file, partFile, channel, out);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            Files.deleteIfExists(partFile);
+            throw e;
+        }
+    }
+
+    /**
+     * @return the stream of the export, closing it doesn't complete the file, {@link #commit()} does.
+     */
+    public OutputStream getOutputStream() {
+        return exportStream;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public void commit() throws IOException {
+        closeOutputStream(true);
+        Files.move(partFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public void abort() throws IOException {
+        try {
+            closeOutputStream(false);
+        } finally {
+            Files.deleteIfExists(partFile);
+        }
+    }
+
+    /**
+     * @param force writes the part file to the disk before it is closed, a rename reaching the disk first would name a truncated file.
+     */
+    private synchronized void closeOutputStream(boolean force) throws IOException {
+        if (!closed) {
+            closed = true;
+            try {
+                if (force) {
+                    if (outputStream instanceof GZIPOutputStream) {
+                        ((GZIPOutputStream) outputStream).finish();
+                    }
+                    outputStream.flush();
+                    channel.force(true);
+                }
+            } finally {
+                outputStream.close();
+            }
+        }
+    }
+}
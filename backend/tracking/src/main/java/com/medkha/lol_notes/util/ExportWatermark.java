@@ -0,0 +1,55 @@
+package com.medkha.lol_notes.util;
+
+import com.medkha.lol_notes.dto.GameFinishedDTO;
+
+import java.util.Optional;
+
+/**
+ * The latest match of an incremental export, the next sync only lists the games started after it ended.
+ */
+public class ExportWatermark {
+    private final String matchId;
+    private final long gameEndTimestamp;
+
+    public ExportWatermark(String matchId, long gameEndTimestamp) {
+        this.matchId = matchId;
+        this.gameEndTimestamp = gameEndTimestamp;
+    }
+
+    /**
+     * @return the watermark of the match, empty when match-v5 gave it no end (games before patch 11.20) nor creation time.
+     */
+    public static Optional<ExportWatermark> of(GameFinishedDTO match) {
+        String timestamp = match.info.gameEndTimestamp != null ? match.info.gameEndTimestamp : match.info.gameCreation;
+        if (timestamp == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(new ExportWatermark(match.metadata.matchId, Long.parseLong(timestamp)));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * @return the later of the two watermarks.
+     */
+    public ExportWatermark max(ExportWatermark other) {
+        return other == null || gameEndTimestamp >= other.gameEndTimestamp ? this : other;
+    }
+
+    /**
+     * @return the match-v5 startTime of the next sync, in epoch seconds.
+     */
+    public long nextStartTime() {
+        return gameEndTimestamp / 1000;
+    }
+
+    public String getMatchId() {
+        return matchId;
+    }
+
+    public long getGameEndTimestamp() {
+        return gameEndTimestamp;
+    }
+}
@@ -0,0 +1,165 @@
+package com.medkha.lol_notes.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.medkha.lol_notes.dto.EventInGameDTO;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Reads the `/liveclientdata/eventdata` payload incrementally.
+ * The reader remembers the last EventID it returned, events that were already seen are skipped
+ * by the streaming parser without being bound to an {@link EventInGameDTO}.
+ * It also keeps a count of every event name seen in the current game, so checking for an event
+ * like `GameEnd` does not require to rescan the whole history.
+ */
+public class IncrementalEventReader {
+    private static final JsonFactory jsonFactory = new JsonFactory();
+
+    private int lastEventId = -1;
+    private int highestEventIdInPayload = -1;
+    private final Map<String, Integer> eventCountByName = new HashMap<>();
+
+    /**
+     * A payload without events, like the error the game client answers while a game loads or ends, leaves the cursor as it is.
+     * @param eventData body of the eventdata endpoint, the read starts when its response was received.
+     * @return the events that are newer than the last one read, in the order of the payload.
+     */
+    public synchronized EventBatch readNewEvents(InputStream eventData) throws IOException {
+        Instant receivedAt = Instant.now();
+        // kept to read the payload again when it is the one of a new game.
+        byte[] payload = eventData.readAllBytes();
+        List<EventInGameDTO> newEvents = readEvents(payload);
+        if (highestEventIdInPayload >= 0 && highestEventIdInPayload < lastEventId) {
+            // The history is shorter than our cursor, a new game started without us seeing the GameEnd,
+            // its events were skipped as already read.
+            reset();
+            newEvents = readEvents(payload);
+        }
+        if (highestEventIdInPayload >= 0) {
+            newEvents.forEach(event -> eventCountByName.merge(event.eventName, 1, Integer::sum));
+            lastEventId = highestEventIdInPayload;
+        }
+        return new EventBatch(newEvents, receivedAt, Instant.now());
+    }
+
+    private List<EventInGameDTO> readEvents(byte[] eventData) throws IOException {
+        List<EventInGameDTO> newEvents = new ArrayList<>();
+        highestEventIdInPayload = -1;
+        try (JsonParser parser = jsonFactory.createParser(eventData)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return newEvents;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if (!"Events".equals(fieldName) || value != JsonToken.START_ARRAY) {
+                    parser.skipChildren();
+                    continue;
+                }
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    EventInGameDTO event = readEventIfNew(parser);
+                    if (event != null) {
+                        newEvents.add(event);
+                    }
+                }
+            }
+        }
+        return newEvents;
+    }
+
+    /**
+     * O(1) lookup on the events seen since the last reset.
+     */
+    public synchronized boolean hasSeen(String eventName) {
+        return eventCountByName.containsKey(eventName);
+    }
+
+    public synchronized int countOf(String eventName) {
+        return eventCountByName.getOrDefault(eventName, 0);
+    }
+
+    public synchronized int getLastEventId() {
+        return lastEventId;
+    }
+
+    /**
+     * The EventIDs restart from 0 on every game, so the cursor must be reset when a game ends.
+     */
+    public synchronized void reset() {
+        lastEventId = -1;
+        eventCountByName.clear();
+    }
+
+    private EventInGameDTO readEventIfNew(JsonParser parser) throws IOException {
+        String eventId = null;
+        String eventName = null;
+        String eventTime = null;
+        String killerName = null;
+        String victimName = null;
+        List<String> assisters = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            switch (fieldName) {
+                case "EventID":
+                    int id = parser.getValueAsInt(-1);
+                    highestEventIdInPayload = Math.max(highestEventIdInPayload, id);
+                    if (id <= lastEventId) {
+                        skipRestOfObject(parser);
+                        return null;
+                    }
+                    eventId = parser.getText();
+                    break;
+                case "EventName":
+                    eventName = parser.getValueAsString();
+                    break;
+                case "EventTime":
+                    eventTime = parser.getText();
+                    break;
+                case "KillerName":
+                    killerName = parser.getValueAsString();
+                    break;
+                case "VictimName":
+                    victimName = parser.getValueAsString();
+                    break;
+                case "Assisters":
+                    if (value == JsonToken.START_ARRAY) {
+                        assisters = new ArrayList<>();
+                        while (parser.nextToken() != JsonToken.END_ARRAY) {
+                            assisters.add(parser.getValueAsString());
+                        }
+                    }
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+        if (eventId == null) {
+            return null;
+        }
+        EventInGameDTO event = new EventInGameDTO();
+        event.eventId = eventId;
+        event.eventName = eventName;
+        event.eventTime = eventTime;
+        event.killerName = Optional.ofNullable(killerName);
+        event.victimName = Optional.ofNullable(victimName);
+        event.assisters = assisters == null ? null : assisters.toArray(new String[0]);
+        return event;
+    }
+
+    private static void skipRestOfObject(JsonParser parser) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            parser.nextToken();
+            parser.skipChildren();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.medkha.lol_notes.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Computes the RFC 6902 JSON Patch turning one tree into another, with only add, remove and replace operations.
+ * Arrays are compared index by index, which suits the live client data where the lists only grow at the end
+ * (events) or keep their order (players, items).
+ */
+public final class JsonPatchDiff {
+
+    private JsonPatchDiff() {}
+
+    public static ArrayNode diff(JsonNode source, JsonNode target) {
+        ArrayNode patch = JsonNodeFactory.instance.arrayNode();
+        diff(patch, "", source, target);
+        return patch;
+    }
+
+    private static void diff(ArrayNode patch, String path, JsonNode source, JsonNode target) {
+        if (source.equals(target)) {
+            return;
+        }
+        if (source.isObject() && target.isObject()) {
+            diffObjects(patch, path, source, target);
+        } else if (source.isArray() && target.isArray()) {
+            diffArrays(patch, path, source, target);
+        } else {
+            addOperation(patch, "replace", path).set("value", target);
+        }
+    }
+
+    private static void diffObjects(ArrayNode patch, String path, JsonNode source, JsonNode target) {
+        Iterator<Map.Entry<String, JsonNode>> sourceFields = source.fields();
+        while (sourceFields.hasNext()) {
+            Map.Entry<String, JsonNode> field = sourceFields.next();
+            String fieldPath = path + "/" + escape(field.getKey());
+            JsonNode targetValue = target.get(field.getKey());
+            if (targetValue == null) {
+                addOperation(patch, "remove", fieldPath);
+            } else {
+                diff(patch, fieldPath, field.getValue(), targetValue);
+            }
+        }
+        Iterator<Map.Entry<String, JsonNode>> targetFields = target.fields();
+        while (targetFields.hasNext()) {
+            Map.Entry<String, JsonNode> field = targetFields.next();
+            if (!source.has(field.getKey())) {
+                addOperation(patch, "add", path + "/" + escape(field.getKey())).set("value", field.getValue());
+            }
+        }
+    }
+
+    private static void diffArrays(ArrayNode patch, String path, JsonNode source, JsonNode target) {
+        int commonSize = Math.min(source.size(), target.size());
+        for (int i = 0; i < commonSize; i++) {
+            diff(patch, path + "/" + i, source.get(i), target.get(i));
+        }
+        for (int i = commonSize; i < target.size(); i++) {
+            addOperation(patch, "add", path + "/" + i).set("value", target.get(i));
+        }
+        // removed from the end, so the indexes of the next operations still point to the same elements.
+        for (int i = source.size() - 1; i >= commonSize; i--) {
+            addOperation(patch, "remove", path + "/" + i);
+        }
+    }
+
+    private static ObjectNode addOperation(ArrayNode patch, String op, String path) {
+        return patch.addObject().put("op", op).put("path", path);
+    }
+
+    /**
+     * JSON Pointer escaping (RFC 6901).
+     */
+    private static String escape(String fieldName) {
+        return fieldName.replace("~", "~0").replace("/", "~1");
+    }
+}
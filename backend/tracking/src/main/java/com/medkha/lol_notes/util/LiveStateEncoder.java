@@ -0,0 +1,48 @@
+package com.medkha.lol_notes.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.medkha.lol_notes.dto.LiveStateFrameDTO;
+
+import java.util.Optional;
+
+/**
+ * Keeps the last live state sent to a session and turns the next snapshots into delta frames.
+ * A keyframe is sent first and then every `keyframeInterval` frames, so a client that missed a delta recovers.
+ */
+public class LiveStateEncoder {
+    private final int keyframeInterval;
+    private JsonNode previousSnapshot;
+    private long sequence;
+    private int framesSinceKeyframe;
+
+    public LiveStateEncoder(int keyframeInterval) {
+        this.keyframeInterval = keyframeInterval;
+    }
+
+    /**
+     * @return the frame to send, or an empty optional if nothing changed since the last frame.
+     */
+    public synchronized Optional<LiveStateFrameDTO> nextFrame(JsonNode snapshot) {
+        if (previousSnapshot == null || framesSinceKeyframe >= keyframeInterval) {
+            previousSnapshot = snapshot;
+            framesSinceKeyframe = 0;
+            return Optional.of(new LiveStateFrameDTO(LiveStateFrameDTO.KEYFRAME, ++sequence, snapshot));
+        }
+        ArrayNode patch = JsonPatchDiff.diff(previousSnapshot, snapshot);
+        if (patch.isEmpty()) {
+            return Optional.empty();
+        }
+        previousSnapshot = snapshot;
+        framesSinceKeyframe++;
+        return Optional.of(new LiveStateFrameDTO(LiveStateFrameDTO.DELTA, ++sequence, patch));
+    }
+
+    /**
+     * The next snapshot is sent as a keyframe, e.g. when a new game starts.
+     */
+    public synchronized void reset() {
+        previousSnapshot = null;
+        framesSinceKeyframe = 0;
+    }
+}
@@ -0,0 +1,133 @@
+package com.medkha.lol_notes.util;
+
+import com.medkha.lol_notes.dto.GameFinishedDTO;
+import com.medkha.lol_notes.dto.GameFinishedInfoDTO;
+import com.medkha.lol_notes.dto.MetaDataGameDTO;
+import com.medkha.lol_notes.dto.PlayerMatchGameDTO;
+
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Columnar match history file, one row per participant in the columns of {@link GameFinishedDTO#toCsvFormatHeader()}
+ * or the projected ones of {@link MatchProjectionReader}.
+ * <pre>
+ * file       = MAGIC rowGroup* footer int(footer length) MAGIC
+ * rowGroup   = one deflated chunk per column, in the column order
+ * footer     = int(VERSION) int(column count) (utf(name) byte(type))*
+ *              int(row group count) (int(row count) (long(chunk offset) int(deflated length) int(inflated length))*)*
+ * </pre>
+ * The numbers are big-endian and the names use {@link java.io.DataOutput#writeUTF(String)}. An inflated chunk holds
+ * the values of its rows: {@link ColumnType#INT32} as zigzag varints, {@link ColumnType#BOOLEAN} as one bit per row
+ * (lowest bit first) and {@link ColumnType#STRING} as a varint of the utf-8 length plus one, 0 being null, followed by
+ * the bytes. The footer gives the place of every chunk, so a reader only reads the columns it needs.
+ */
+public final class MatchColumnarFormat {
+    public static final byte[] MAGIC = "LNMHCOL1".getBytes(StandardCharsets.US_ASCII);
+    public static final int VERSION = 1;
+    /**
+     * Built from the csv header, a header name without its field fails the class loading rather than an export.
+     */
+    public static final List<Column> COLUMNS = columns();
+
+    private MatchColumnarFormat() {
+    }
+
+    public enum ColumnType {
+        INT32,
+        BOOLEAN,
+        STRING
+    }
+
+    public static class Column {
+        private final String name;
+        private final ColumnType type;
+        private final Field field;
+
+        Column(String name, ColumnType type, Field field) {
+            this.name = name;
+            this.type = type;
+            this.field = field;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public ColumnType getType() {
+            return type;
+        }
+
+        Field getField() {
+            return field;
+        }
+
+        public int getInt(GameFinishedDTO game, PlayerMatchGameDTO participant) {
+            try {
+                return field.getInt(owner(game, participant));
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        public boolean getBoolean(GameFinishedDTO game, PlayerMatchGameDTO participant) {
+            try {
+                return field.getBoolean(owner(game, participant));
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        public String getString(GameFinishedDTO game, PlayerMatchGameDTO participant) {
+            try {
+                return (String) field.get(owner(game, participant));
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private Object owner(GameFinishedDTO game, PlayerMatchGameDTO participant) {
+            Class<?> owner = field.getDeclaringClass();
+            if (owner == MetaDataGameDTO.class) {
+                return game.metadata;
+            }
+            return owner == GameFinishedInfoDTO.class ? game.info : participant;
+        }
+    }
+
+    private static List<Column> columns() {
+        List<Column> columns = new ArrayList<>();
+        for (String name : GameFinishedDTO.toCsvFormatHeader().split(",")) {
+            Field field = field(name);
+            ColumnType type;
+            if (field.getType() == int.class) {
+                type = ColumnType.INT32;
+            } else if (field.getType() == boolean.class) {
+                type = ColumnType.BOOLEAN;
+            } else if (field.getType() == String.class) {
+                type = ColumnType.STRING;
+            } else {
+                throw new IllegalStateException("The column " + name + " has the unsupported type " + field.getType());
+            }
+            columns.add(new Column(name, type, field));
+        }
+        return Collections.unmodifiableList(columns);
+    }
+
+    private static Field field(String columnName) {
+        try {
+            if (columnName.startsWith("metadata_")) {
+                return MetaDataGameDTO.class.getField(columnName.substring("metadata_".length()));
+            }
+            if (columnName.startsWith("info_")) {
+                return GameFinishedInfoDTO.class.getField(columnName.substring("info_".length()));
+            }
+            return PlayerMatchGameDTO.class.getField(columnName.startsWith("player_") ? columnName.substring("player_".length()) : columnName);
+        } catch (NoSuchFieldException e) {
+            throw new IllegalStateException("The column " + columnName + " has no field to read it from.", e);
+        }
+    }
+}
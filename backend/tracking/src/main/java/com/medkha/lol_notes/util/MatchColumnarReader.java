@@ -0,0 +1,216 @@
+package com.medkha.lol_notes.util;
+
+import com.medkha.lol_notes.util.MatchColumnarFormat.ColumnType;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Reads a file of {@link MatchColumnarFormat} column by column: only the footer is read on opening, and a column
+ * only reads its own chunks.
+ */
+public class MatchColumnarReader implements Closeable {
+    private static final int TRAILER_SIZE = Integer.BYTES + MatchColumnarFormat.MAGIC.length;
+
+    private final FileChannel channel;
+    private final List<String> columnNames = new ArrayList<>();
+    private final List<ColumnType> columnTypes = new ArrayList<>();
+    private final List<ChunkPlace[]> rowGroups = new ArrayList<>();
+    private final List<Integer> rowGroupRows = new ArrayList<>();
+    private int rowCount;
+
+    public MatchColumnarReader(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            readFooter(file);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public List<String> getColumnNames() {
+        return Collections.unmodifiableList(columnNames);
+    }
+
+    public ColumnType getColumnType(String columnName) {
+        return columnTypes.get(column(columnName));
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public int getRowGroupCount() {
+        return rowGroups.size();
+    }
+
+    public int[] readInts(String columnName) throws IOException {
+        int column = column(columnName, ColumnType.INT32);
+        int[] values = new int[rowCount];
+        int row = 0;
+        for (int rowGroup = 0; rowGroup < rowGroups.size(); rowGroup++) {
+            ByteBuffer chunk = ByteBuffer.wrap(readChunk(rowGroup, column));
+            for (int index = 0; index < rowGroupRows.get(rowGroup); index++) {
+                int value = varint(chunk);
+                values[row++] = (value >>> 1) ^ -(value & 1);
+            }
+        }
+        return values;
+    }
+
+    public boolean[] readBooleans(String columnName) throws IOException {
+        int column = column(columnName, ColumnType.BOOLEAN);
+        boolean[] values = new boolean[rowCount];
+        int row = 0;
+        for (int rowGroup = 0; rowGroup < rowGroups.size(); rowGroup++) {
+            byte[] chunk = readChunk(rowGroup, column);
+            for (int index = 0; index < rowGroupRows.get(rowGroup); index++) {
+                values[row++] = (chunk[index >> 3] & (1 << (index & 7))) != 0;
+            }
+        }
+        return values;
+    }
+
+    public String[] readStrings(String columnName) throws IOException {
+        int column = column(columnName, ColumnType.STRING);
+        String[] values = new String[rowCount];
+        int row = 0;
+        for (int rowGroup = 0; rowGroup < rowGroups.size(); rowGroup++) {
+            ByteBuffer chunk = ByteBuffer.wrap(readChunk(rowGroup, column));
+            for (int index = 0; index < rowGroupRows.get(rowGroup); index++) {
+                int length = varint(chunk) - 1;
+                if (length >= 0) {
+                    values[row] = new String(chunk.array(), chunk.position(), length, StandardCharsets.UTF_8);
+                    chunk.position(chunk.position() + length);
+                }
+                row++;
+            }
+        }
+        return values;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void readFooter(Path file) throws IOException {
+        long size = channel.size();
+        if (size < MatchColumnarFormat.MAGIC.length + TRAILER_SIZE) {
+            throw new IOException(file + " is too short to be a columnar match history file.");
+        }
+        ByteBuffer trailer = read(size - TRAILER_SIZE, TRAILER_SIZE);
+        int footerLength = trailer.getInt();
+        byte[] magic = new byte[MatchColumnarFormat.MAGIC.length];
+        trailer.get(magic);
+        if (!Arrays.equals(magic, MatchColumnarFormat.MAGIC) || footerLength < 0 || footerLength > size - TRAILER_SIZE) {
+            throw new IOException(file + " is not a columnar match history file.");
+        }
+        DataInputStream footer = new DataInputStream(new ByteArrayInputStream(read(size - TRAILER_SIZE - footerLength, footerLength).array()));
+        int version = footer.readInt();
+        if (version != MatchColumnarFormat.VERSION) {
+            throw new IOException(file + " has the unsupported version " + version);
+        }
+        int columns = footer.readInt();
+        for (int column = 0; column < columns; column++) {
+            columnNames.add(footer.readUTF());
+            columnTypes.add(ColumnType.values()[footer.readByte()]);
+        }
+        int rowGroupCount = footer.readInt();
+        for (int rowGroup = 0; rowGroup < rowGroupCount; rowGroup++) {
+            int rows = footer.readInt();
+            ChunkPlace[] chunks = new ChunkPlace[columns];
+            for (int column = 0; column < columns; column++) {
+                chunks[column] = new ChunkPlace(footer.readLong(), footer.readInt(), footer.readInt());
+            }
+            rowGroupRows.add(rows);
+            rowGroups.add(chunks);
+            rowCount += rows;
+        }
+    }
+
+    private byte[] readChunk(int rowGroup, int column) throws IOException {
+        ChunkPlace chunkPlace = rowGroups.get(rowGroup)[column];
+        byte[] deflated = read(chunkPlace.offset, chunkPlace.deflatedLength).array();
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(deflated);
+            byte[] chunk = new byte[chunkPlace.inflatedLength];
+            int inflatedLength = 0;
+            while (inflatedLength < chunk.length && !inflater.finished() && !inflater.needsInput()) {
+                inflatedLength += inflater.inflate(chunk, inflatedLength, chunk.length - inflatedLength);
+            }
+            if (inflatedLength != chunk.length) {
+                throw new IOException("The chunk of " + columnNames.get(column) + " in the row group " + rowGroup + " is damaged.");
+            }
+            return chunk;
+        } catch (DataFormatException e) {
+            throw new IOException("The chunk of " + columnNames.get(column) + " in the row group " + rowGroup + " is damaged.", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private ByteBuffer read(long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("The file ends before the " + length + " bytes at " + position);
+            }
+        }
+        return buffer.flip();
+    }
+
+    private int column(String columnName) {
+        int column = columnNames.indexOf(columnName);
+        if (column < 0) {
+            throw new IllegalArgumentException("No column " + columnName + " in the file.");
+        }
+        return column;
+    }
+
+    private int column(String columnName, ColumnType type) {
+        int column = column(columnName);
+        if (columnTypes.get(column) != type) {
+            throw new IllegalArgumentException("The column " + columnName + " is " + columnTypes.get(column) + ", not " + type);
+        }
+        return column;
+    }
+
+    private static int varint(ByteBuffer chunk) {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte part = chunk.get();
+            value |= (part & 0x7F) << shift;
+            if (part >= 0) {
+                return value;
+            }
+        }
+    }
+
+    private static class ChunkPlace {
+        final long offset;
+        final int deflatedLength;
+        final int inflatedLength;
+
+        ChunkPlace(long offset, int deflatedLength, int inflatedLength) {
+            this.offset = offset;
+            this.deflatedLength = deflatedLength;
+            this.inflatedLength = inflatedLength;
+        }
+    }
+}
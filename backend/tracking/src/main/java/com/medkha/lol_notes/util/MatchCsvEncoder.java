@@ -0,0 +1,299 @@
+package com.medkha.lol_notes.util;
+
+import com.medkha.lol_notes.dto.GameFinishedDTO;
+import com.medkha.lol_notes.dto.GameFinishedInfoDTO;
+import com.medkha.lol_notes.dto.PlayerMatchGameDTO;
+import com.medkha.lol_notes.util.MatchColumnarFormat.Column;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Encodes the participants of a match as csv rows, in the columns of {@link GameFinishedDTO#toCsvFormatHeader()} or
+ * the ones of a match projection. The fields are written straight into a char buffer that is reused from row to row:
+ * the numbers are printed without being boxed or turned into strings, and with every column the match columns are
+ * encoded once and shared by its ten rows. The projected columns are read through their {@link Column}.
+ * Strings containing a separator, a quote or a line break are quoted (RFC 4180), a null string is an empty field.
+ * An encoder is not thread-safe, each export writer keeps its own.
+ */
+public class MatchCsvEncoder {
+    private static final char SEPARATOR = ',';
+    private static final char QUOTE = '"';
+    private static final char[] LINE_SEPARATOR = System.lineSeparator().toCharArray();
+    private static final char[] TRUE = "true".toCharArray();
+    private static final char[] FALSE = "false".toCharArray();
+    private static final char[] MIN_INT = String.valueOf(Integer.MIN_VALUE).toCharArray();
+
+    private final List<Column> columns;
+    private char[] buffer = new char[4096];
+    private int length;
+
+    public MatchCsvEncoder() {
+        this(MatchColumnarFormat.COLUMNS);
+    }
+
+    /**
+     * @param columns the columns of the rows, in the order of {@link MatchColumnarFormat#COLUMNS}.
+     */
+    public MatchCsvEncoder(List<Column> columns) {
+        this.columns = columns;
+    }
+
+    /**
+     * @return the csv header of the columns.
+     */
+    public String header() {
+        return columns.stream().map(Column::getName).collect(Collectors.joining(String.valueOf(SEPARATOR)));
+    }
+
+    /**
+     * Writes one row per participant of the game.
+     */
+    public void encode(GameFinishedDTO game, Writer out) throws IOException {
+        if (columns != MatchColumnarFormat.COLUMNS) {
+            encodeProjection(game, out);
+            return;
+        }
+        GameFinishedInfoDTO info = game.info;
+        length = 0;
+        field(game.metadata.dataVersion);
+        field(game.metadata.matchId);
+        field(info.gameCreation);
+        field(info.gameDuration);
+        field(info.gameEndTimestamp);
+        field(info.gameId);
+        field(info.gameMode);
+        field(info.gameName);
+        field(info.gameStartTimestamp);
+        field(info.gameType);
+        field(info.gameVersion);
+        field(info.mapId);
+        int gameColumnsLength = length;
+        for (PlayerMatchGameDTO participant : info.participants) {
+            length = gameColumnsLength;
+            participant(participant);
+            // the last field doesn't take a separator.
+            length--;
+            append(LINE_SEPARATOR);
+            out.write(buffer, 0, length);
+        }
+    }
+
+    private void encodeProjection(GameFinishedDTO game, Writer out) throws IOException {
+        for (PlayerMatchGameDTO participant : game.info.participants) {
+            length = 0;
+            for (Column column : columns) {
+                switch (column.getType()) {
+                    case INT32:
+                        field(column.getInt(game, participant));
+                        break;
+                    case BOOLEAN:
+                        field(column.getBoolean(game, participant));
+                        break;
+                    default:
+                        field(column.getString(game, participant));
+                }
+            }
+            length--;
+            append(LINE_SEPARATOR);
+            out.write(buffer, 0, length);
+        }
+    }
+
+    private void participant(PlayerMatchGameDTO p) {
+        field(p.allInPings);
+        field(p.assistMePings);
+        field(p.assists);
+        field(p.baitPings);
+        field(p.baronKills);
+        field(p.basicPings);
+        field(p.bountyLevel);
+        field(p.champExperience);
+        field(p.champLevel);
+        field(p.championId);
+        field(p.championName);
+        field(p.commandPings);
+        field(p.consumablesPurchased);
+        field(p.damageDealtToBuildings);
+        field(p.damageDealtToObjectives);
+        field(p.damageDealtToTurrets);
+        field(p.damageSelfMitigated);
+        field(p.dangerPings);
+        field(p.deaths);
+        field(p.detectorWardsPlaced);
+        field(p.doubleKills);
+        field(p.dragonKills);
+        field(p.enemyMissingPings);
+        field(p.enemyVisionPings);
+        field(p.firstBloodAssist);
+        field(p.firstBloodKill);
+        field(p.firstTowerAssist);
+        field(p.firstTowerKill);
+        field(p.gameEndedInEarlySurrender);
+        field(p.gameEndedInSurrender);
+        field(p.getBackPings);
+        field(p.goldEarned);
+        field(p.goldSpent);
+        field(p.holdPings);
+        field(p.individualPosition);
+        field(p.inhibitorKills);
+        field(p.inhibitorTakedowns);
+        field(p.inhibitorsLost);
+        field(p.item0);
+        field(p.item1);
+        field(p.item2);
+        field(p.item3);
+        field(p.item4);
+        field(p.item5);
+        field(p.item6);
+        field(p.itemsPurchased);
+        field(p.killingSprees);
+        field(p.kills);
+        field(p.lane);
+        field(p.largestCriticalStrike);
+        field(p.largestKillingSpree);
+        field(p.largestMultiKill);
+        field(p.longestTimeSpentLiving);
+        field(p.magicDamageDealt);
+        field(p.magicDamageDealtToChampions);
+        field(p.magicDamageTaken);
+        field(p.needVisionPings);
+        field(p.neutralMinionsKilled);
+        field(p.nexusKills);
+        field(p.nexusLost);
+        field(p.nexusTakedowns);
+        field(p.objectivesStolen);
+        field(p.objectivesStolenAssists);
+        field(p.onMyWayPings);
+        field(p.participantId);
+        field(p.pentaKills);
+        field(p.physicalDamageDealt);
+        field(p.physicalDamageDealtToChampions);
+        field(p.physicalDamageTaken);
+        field(p.pushPings);
+        field(p.puuid);
+        field(p.role);
+        field(p.sightWardsBoughtInGame);
+        field(p.spell1Casts);
+        field(p.spell2Casts);
+        field(p.spell3Casts);
+        field(p.spell4Casts);
+        field(p.summoner1Casts);
+        field(p.summoner1Id);
+        field(p.summoner2Casts);
+        field(p.summoner2Id);
+        field(p.summonerId);
+        field(p.summonerLevel);
+        field(p.summonerName);
+        field(p.teamEarlySurrendered);
+        field(p.teamId);
+        field(p.teamPosition);
+        field(p.timeCCingOthers);
+        field(p.timePlayed);
+        field(p.totalAllyJungleMinionsKilled);
+        field(p.totalDamageDealt);
+        field(p.totalDamageDealtToChampions);
+        field(p.totalDamageShieldedOnTeammates);
+        field(p.totalDamageTaken);
+        field(p.totalEnemyJungleMinionsKilled);
+        field(p.totalHeal);
+        field(p.totalHealsOnTeammates);
+        field(p.totalMinionsKilled);
+        field(p.totalTimeCCDealt);
+        field(p.totalTimeSpentDead);
+        field(p.totalUnitsHealed);
+        field(p.tripleKills);
+        field(p.trueDamageDealt);
+        field(p.trueDamageDealtToChampions);
+        field(p.trueDamageTaken);
+        field(p.turretKills);
+        field(p.turretTakedowns);
+        field(p.turretsLost);
+        field(p.unrealKills);
+        field(p.visionClearedPings);
+        field(p.visionScore);
+        field(p.visionWardsBoughtInGame);
+        field(p.wardsKilled);
+        field(p.wardsPlaced);
+        field(p.win);
+    }
+
+    private void field(int value) {
+        ensureCapacity(MIN_INT.length + 1);
+        if (value == Integer.MIN_VALUE) {
+            append(MIN_INT);
+        } else {
+            if (value < 0) {
+                buffer[length++] = '-';
+                value = -value;
+            }
+            int digits = 1;
+            for (int remaining = value / 10; remaining != 0; remaining /= 10) {
+                digits++;
+            }
+            for (int position = length + digits - 1; position >= length; position--) {
+                buffer[position] = (char) ('0' + value % 10);
+                value /= 10;
+            }
+            length += digits;
+        }
+        buffer[length++] = SEPARATOR;
+    }
+
+    private void field(boolean value) {
+        append(value ? TRUE : FALSE);
+        ensureCapacity(1);
+        buffer[length++] = SEPARATOR;
+    }
+
+    private void field(String value) {
+        if (value != null) {
+            int valueLength = value.length();
+            if (needsQuotes(value)) {
+                // every char may be a doubled quote, plus the two enclosing ones.
+                ensureCapacity(2 * valueLength + 2);
+                buffer[length++] = QUOTE;
+                for (int index = 0; index < valueLength; index++) {
+                    char c = value.charAt(index);
+                    if (c == QUOTE) {
+                        buffer[length++] = QUOTE;
+                    }
+                    buffer[length++] = c;
+                }
+                buffer[length++] = QUOTE;
+            } else {
+                ensureCapacity(valueLength);
+                value.getChars(0, valueLength, buffer, length);
+                length += valueLength;
+            }
+        }
+        ensureCapacity(1);
+        buffer[length++] = SEPARATOR;
+    }
+
+    private static boolean needsQuotes(String value) {
+        for (int index = 0; index < value.length(); index++) {
+            char c = value.charAt(index);
+            if (c == SEPARATOR || c == QUOTE || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void append(char[] chars) {
+        ensureCapacity(chars.length);
+        System.arraycopy(chars, 0, buffer, length, chars.length);
+        length += chars.length;
+    }
+
+    private void ensureCapacity(int extraLength) {
+        if (length + extraLength > buffer.length) {
+            char[] grownBuffer = new char[Math.max(2 * buffer.length, length + extraLength)];
+            System.arraycopy(buffer, 0, grownBuffer, 0, length);
+            buffer = grownBuffer;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.medkha.lol_notes.util;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Position of a match history export in the match-v5 ids of a summoner and queue.
+ * The ids are listed newest first, so a game played while the export runs shifts every offset by one:
+ * the page that follows the cursor then starts with ids that were already listed, they are skipped
+ * up to the last match id of the cursor.
+ * The cursor is persisted after every page, an export that failed or was interrupted resumes from it
+ * as long as the newest ids it listed are still the newest ones, see {@link #hasHead(List)}.
+ * With a start time, only the ids of the games started from then (epoch seconds) are listed.
+ */
+public class MatchHistoryCursor {
+    public static final int PAGE_SIZE = 100;
+
+    private final String puuid;
+    private final Optional<Integer> queueId;
+    private final Optional<Long> startTime;
+    private final int size;
+    private int start;
+    private String lastMatchId;
+    private final List<String> matchIds;
+    private final Set<String> listedMatchIds;
+    private boolean complete;
+    private final Instant createdAt;
+
+    public MatchHistoryCursor(String puuid, Optional<Integer> queueId, int size) {
+        this(puuid, queueId, Optional.empty(), size);
+    }
+
+    public MatchHistoryCursor(String puuid, Optional<Integer> queueId, Optional<Long> startTime, int size) {
+        this(puuid, queueId, startTime, size, 0, null, new ArrayList<>(), false, Instant.now());
+    }
+
+    public MatchHistoryCursor(String puuid, Optional<Integer> queueId, Optional<Long> startTime, int size, int start, String lastMatchId, List<String> matchIds, boolean complete, Instant createdAt) {
+        this.puuid = puuid;
+        this.queueId = queueId;
+        this.startTime = startTime;
+        this.size = size;
+        this.start = start;
+        this.lastMatchId = lastMatchId;
+        this.matchIds = new ArrayList<>(matchIds);
+        this.listedMatchIds = new HashSet<>(matchIds);
+        this.complete = complete;
+        this.createdAt = createdAt;
+    }
+
+    /**
+     * @return the count to ask for in the next page, it never exceeds the page size of match-v5.
+     */
+    public int nextCount() {
+        return Math.min(PAGE_SIZE, size - matchIds.size());
+    }
+
+    /**
+     * @return the query of the next page of match-v5 ids.
+     */
+    public String nextPageQuery() {
+        return "start=" + start + "&count=" + nextCount()
+                + queueId.map(id -> "&queue=" + id).orElse("")
+                + startTime.map(time -> "&startTime=" + time).orElse("");
+    }
+
+    /**
+     * @return the query of the newest ids listed by the cursor, to check with {@link #hasHead(List)} before resuming it.
+     */
+    public String headQuery() {
+        return "start=0&count=" + headCount()
+                + queueId.map(id -> "&queue=" + id).orElse("")
+                + startTime.map(time -> "&startTime=" + time).orElse("");
+    }
+
+    /**
+     * A game played since the cursor was saved shows up first in the ids, the listed ids then aren't the newest games anymore.
+     * @param page the ids listed with {@link #headQuery()}.
+     * @return true when the page starts with the ids the cursor listed first, the cursor can be resumed.
+     */
+    public boolean hasHead(List<String> page) {
+        return !matchIds.isEmpty() && page.equals(matchIds.subList(0, headCount()));
+    }
+
+    private int headCount() {
+        return Math.min(PAGE_SIZE, matchIds.size());
+    }
+
+    /**
+     * Moves the cursor past a page listed at {@link #getStart()} with {@link #nextCount()}.
+     * @return the ids of the page that weren't listed before, in the order of the page.
+     */
+    public List<String> advance(List<String> page) {
+        int requestedCount = nextCount();
+        int firstNewId = lastMatchId == null ? 0 : page.indexOf(lastMatchId) + 1;
+        List<String> newMatchIds = new ArrayList<>(page.size() - firstNewId);
+        for (String matchId : page.subList(firstNewId, page.size())) {
+            if (matchIds.size() + newMatchIds.size() < size && listedMatchIds.add(matchId)) {
+                newMatchIds.add(matchId);
+            }
+        }
+        matchIds.addAll(newMatchIds);
+        start += page.size();
+        if (!page.isEmpty()) {
+            lastMatchId = page.get(page.size() - 1);
+        }
+        complete = page.size() < requestedCount || matchIds.size() >= size;
+        return newMatchIds;
+    }
+
+    public String getPuuid() {
+        return puuid;
+    }
+
+    public Optional<Integer> getQueueId() {
+        return queueId;
+    }
+
+    public Optional<Long> getStartTime() {
+        return startTime;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getStart() {
+        return start;
+    }
+
+    public String getLastMatchId() {
+        return lastMatchId;
+    }
+
+    /**
+     * @return every id listed so far, the matches of a resumed export are fetched again from them.
+     */
+    public List<String> getMatchIds() {
+        return Collections.unmodifiableList(matchIds);
+    }
+
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * @return when the first page of the cursor was listed, it isn't changed by a resumed export.
+     */
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -0,0 +1,59 @@
+package com.medkha.lol_notes.util;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Progress of a match history export, updated by the look up service as the ids are listed and the matches fetched.
+ * Cancelling it stops the listing and skips the matches that weren't fetched yet, the cursor of the export is kept
+ * so the next export resumes from it.
+ */
+public class MatchHistoryProgress {
+    private final AtomicInteger listedMatches = new AtomicInteger();
+    private final AtomicInteger fetchedMatches = new AtomicInteger();
+    private final AtomicInteger skippedMatches = new AtomicInteger();
+    private final AtomicBoolean listingComplete = new AtomicBoolean();
+    private final CancellationToken cancellation = new CancellationToken();
+
+    public void matchesListed(int count) {
+        listedMatches.addAndGet(count);
+    }
+
+    /**
+     * Called once every id of the export is listed, {@link #getListedMatches()} is then the total.
+     */
+    public void listingComplete() {
+        listingComplete.set(true);
+    }
+
+    public void matchFetched() {
+        fetchedMatches.incrementAndGet();
+    }
+
+    /**
+     * Called for a listed match that couldn't be fetched, the export goes on without it.
+     */
+    public void matchSkipped() {
+        skippedMatches.incrementAndGet();
+    }
+
+    public int getListedMatches() {
+        return listedMatches.get();
+    }
+
+    public int getFetchedMatches() {
+        return fetchedMatches.get();
+    }
+
+    public int getSkippedMatches() {
+        return skippedMatches.get();
+    }
+
+    public boolean isListingComplete() {
+        return listingComplete.get();
+    }
+
+    public CancellationToken getCancellation() {
+        return cancellation;
+    }
+}
@@ -0,0 +1,144 @@
+package com.medkha.lol_notes.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.medkha.lol_notes.dto.GameFinishedDTO;
+import com.medkha.lol_notes.dto.GameFinishedInfoDTO;
+import com.medkha.lol_notes.dto.MetaDataGameDTO;
+import com.medkha.lol_notes.dto.PlayerMatchGameDTO;
+import com.medkha.lol_notes.util.MatchColumnarFormat.Column;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Reads a match-v5 payload with the streaming parser and only binds the projected export columns, named as in
+ * {@link GameFinishedDTO#toCsvFormatHeader()}. Everything else, the challenges and perks of the participants, the
+ * teams and the unprojected fields, is skipped token by token without being turned into strings or objects, and the
+ * unprojected fields of the DTOs are left to their defaults, so the exports only write the
+ * {@link #getProjectedColumns() projected columns}.
+ * The match id and the timestamps the incremental exports need are always bound. The win of a participant is the
+ * column {@code win}, the csv header never gave it the {@code player_} prefix, {@code player_win} is read as its alias.
+ */
+public class MatchProjectionReader {
+    private static final Set<String> ALWAYS_PROJECTED = Set.of("metadata_matchId", "info_gameCreation", "info_gameEndTimestamp");
+    private static final Map<String, String> ALIASES = Map.of("player_win", "win");
+
+    private final JsonFactory jsonFactory;
+    private final Map<String, Column> metadataColumns = new HashMap<>();
+    private final Map<String, Column> infoColumns = new HashMap<>();
+    private final Map<String, Column> participantColumns = new HashMap<>();
+    private final List<Column> projectedColumns;
+
+    /**
+     * @param projectedColumns the export columns to bind, every one of them when it is empty.
+     */
+    public MatchProjectionReader(JsonFactory jsonFactory, Collection<String> projectedColumns) {
+        this.jsonFactory = jsonFactory;
+        Set<String> columnNames = MatchColumnarFormat.COLUMNS.stream().map(Column::getName).collect(Collectors.toSet());
+        Set<String> projectedNames = projectedColumns.stream().map(columnName -> ALIASES.getOrDefault(columnName, columnName)).collect(Collectors.toSet());
+        for (String columnName : projectedNames) {
+            if (!columnNames.contains(columnName)) {
+                throw new IllegalArgumentException("The match projection has the unknown column " + columnName);
+            }
+        }
+        this.projectedColumns = projectedNames.isEmpty() ? MatchColumnarFormat.COLUMNS : Collections.unmodifiableList(MatchColumnarFormat.COLUMNS.stream()
+                .filter(column -> projectedNames.contains(column.getName()) || ALWAYS_PROJECTED.contains(column.getName()))
+                .collect(Collectors.toList()));
+        for (Column column : this.projectedColumns) {
+            Class<?> owner = column.getField().getDeclaringClass();
+            Map<String, Column> ownerColumns = owner == MetaDataGameDTO.class ? metadataColumns
+                    : owner == GameFinishedInfoDTO.class ? infoColumns : participantColumns;
+            // the fields of the DTOs are named as the match-v5 properties.
+            ownerColumns.put(column.getField().getName(), column);
+        }
+    }
+
+    /**
+     * @return the bound columns in the order of {@link MatchColumnarFormat#COLUMNS}, the exports only write these.
+     */
+    public List<Column> getProjectedColumns() {
+        return projectedColumns;
+    }
+
+    public GameFinishedDTO read(byte[] matchJson) throws IOException {
+        GameFinishedDTO match = new GameFinishedDTO();
+        match.metadata = new MetaDataGameDTO();
+        match.info = new GameFinishedInfoDTO();
+        match.info.participants = new ArrayList<>(10);
+        try (JsonParser parser = jsonFactory.createParser(matchJson)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("The match payload isn't a json object.");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String property = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if (value == JsonToken.START_OBJECT && property.equals("metadata")) {
+                    readObject(parser, match.metadata, metadataColumns);
+                } else if (value == JsonToken.START_OBJECT && property.equals("info")) {
+                    readInfo(parser, match.info);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return match;
+    }
+
+    private void readInfo(JsonParser parser, GameFinishedInfoDTO info) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String property = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if (value == JsonToken.START_ARRAY && property.equals("participants")) {
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    PlayerMatchGameDTO participant = new PlayerMatchGameDTO();
+                    readObject(parser, participant, participantColumns);
+                    info.participants.add(participant);
+                }
+            } else {
+                readValue(parser, info, infoColumns.get(property));
+            }
+        }
+    }
+
+    /**
+     * Reads the properties of the object the parser is at the start of, up to its end.
+     */
+    private void readObject(JsonParser parser, Object target, Map<String, Column> columns) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            Column column = columns.get(parser.getCurrentName());
+            parser.nextToken();
+            readValue(parser, target, column);
+        }
+    }
+
+    private void readValue(JsonParser parser, Object target, Column column) throws IOException {
+        if (column == null || !parser.currentToken().isScalarValue()) {
+            parser.skipChildren();
+            return;
+        }
+        try {
+            switch (column.getType()) {
+                case INT32:
+                    column.getField().setInt(target, parser.getValueAsInt());
+                    break;
+                case BOOLEAN:
+                    column.getField().setBoolean(target, parser.getValueAsBoolean());
+                    break;
+                default:
+                    // match-v5 gives the timestamps and ids as numbers, the DTOs keep them as their text.
+                    column.getField().set(target, parser.getValueAsString());
+            }
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -1,12 +1,132 @@
 package com.medkha.lol_notes.util;
 
+import com.medkha.lol_notes.dto.LiveEventFrameDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * A live tracking session, it outlives the SSE connections: a client that reconnects is attached to the running
+ * session and replayed the events it missed.
+ * Every event sent gets an id increasing by one, the last `replayCapacity` events are kept for the replay.
+ * Besides the SSE stream, subscribers are given every new game event read by the session.
+ */
 public class ServerSentEventSession{
-    public SseEmitter sseEmitter;
-    public int lastCheckedIndex = -1;
+    private static final Logger log = LoggerFactory.getLogger(ServerSentEventSession.class);
+
+    public final long id;
+    public final IncrementalEventReader eventReader = new IncrementalEventReader();
+    /**
+     * Canceled when the tracking is stopped, it completes the attached emitter.
+     */
+    public final CancellationToken tracking = new CancellationToken();
+    /**
+     * Present when the session subscribed to the live state channel.
+     */
+    public final Optional<LiveStateEncoder> liveStateEncoder;
+    private final EventRingBuffer<Map.Entry<String, Object>> sentEvents;
+    private final List<Consumer<List<LiveEventFrameDTO>>> eventSubscribers = new CopyOnWriteArrayList<>();
+    private SseEmitter sseEmitter;
+
+    public ServerSentEventSession(long id, int replayCapacity, Optional<LiveStateEncoder> liveStateEncoder) {
+        this.id = id;
+        this.sentEvents = new EventRingBuffer<>(replayCapacity);
+        this.liveStateEncoder = liveStateEncoder;
+        this.tracking.onCancel(this::close);
+    }
+
+    /**
+     * Attaches the emitter in place of the previous one, after replaying the events sent after `lastEventId`.
+     * The ids restart with every session, an id this session didn't reach yet was sent by a previous one:
+     * every event of this session is replayed.
+     * If some of them are not kept anymore, a `Replay Gap` event gives how many were lost.
+     */
+    public synchronized void attach(SseEmitter emitter, Optional<Long> lastEventId) throws IOException {
+        if (this.sseEmitter != null) {
+            this.sseEmitter.complete();
+        }
+        this.sseEmitter = emitter;
+        if (lastEventId.isEmpty()) {
+            return;
+        }
+        long replayedAfter = lastEventId.get() > sentEvents.getLastId() ? 0 : lastEventId.get();
+        long lostEvents = sentEvents.oldestId() - replayedAfter - 1;
+        if (lostEvents > 0) {
+            emitter.send(SseEmitter.event().name("Replay Gap").data(lostEvents));
+        }
+        List<EventRingBuffer.Entry<Map.Entry<String, Object>>> replayedEvents = sentEvents.since(replayedAfter);
+        for (EventRingBuffer.Entry<Map.Entry<String, Object>> sentEvent : replayedEvents) {
+            emitter.send(event(sentEvent.id, sentEvent.item.getKey(), sentEvent.item.getValue()));
+        }
+        log.info("attach: {} events replayed after the event {} of the session {}.", replayedEvents.size(), replayedAfter, id);
+    }
+
+    /**
+     * Detaches the emitter if it is still the attached one, the events keep being buffered for its reconnection.
+     */
+    public synchronized void detach(SseEmitter emitter) {
+        if (this.sseEmitter == emitter) {
+            this.sseEmitter = null;
+        }
+    }
+
+    /**
+     * @return whether an SSE client or a subscriber is attached.
+     */
+    public synchronized boolean isAttached() {
+        return this.sseEmitter != null || !this.eventSubscribers.isEmpty();
+    }
+
+    /**
+     * @param subscriber given the frames of the new game events of every poll, on the polling thread.
+     * @return closed to unsubscribe.
+     */
+    public CancellationToken.Registration subscribe(Consumer<List<LiveEventFrameDTO>> subscriber) {
+        eventSubscribers.add(subscriber);
+        return () -> eventSubscribers.remove(subscriber);
+    }
+
+    public void publish(List<LiveEventFrameDTO> newEvents) {
+        for (Consumer<List<LiveEventFrameDTO>> subscriber : eventSubscribers) {
+            try {
+                subscriber.accept(newEvents);
+            } catch (RuntimeException e) {
+                log.error("ServerSentEventSession::publish : a subscriber failed: [message: " + e.getMessage() + "]");
+            }
+        }
+    }
+
+    /**
+     * Buffers the event and sends it to the attached emitter, if any.
+     */
+    public synchronized void send(String eventName, Object data) {
+        long id = sentEvents.add(Map.entry(eventName, data));
+        if (this.sseEmitter == null) {
+            return;
+        }
+        try {
+            this.sseEmitter.send(event(id, eventName, data));
+        } catch (IOException | IllegalStateException e) {
+            log.info("SSe Emitter removed. exception message: " + e.getMessage());
+            this.sseEmitter = null;
+        }
+    }
+
+    private synchronized void close() {
+        if (this.sseEmitter != null) {
+            this.sseEmitter.complete();
+            this.sseEmitter = null;
+        }
+    }
 
-    public ServerSentEventSession(SseEmitter sseEmitter) {
-        this.sseEmitter = sseEmitter;
+    private static SseEmitter.SseEventBuilder event(long id, String eventName, Object data) {
+        return SseEmitter.event().id(String.valueOf(id)).name(eventName).data(data);
     }
 }
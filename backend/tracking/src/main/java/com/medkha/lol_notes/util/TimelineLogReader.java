@@ -0,0 +1,141 @@
+package com.medkha.lol_notes.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.zip.CRC32;
+
+/**
+ * Scans a timeline log sequentially through a large direct buffer. The scan stops at the first record that is
+ * incomplete or fails its checksum: the tail a crash left behind, or the record being written right now.
+ * A record is `[int length][byte type][long recordedAt][payload][int crc32]`, the length and the checksum covering
+ * the type, the time and the payload.
+ */
+public class TimelineLogReader implements Iterator<TimelineRecord>, Closeable {
+    static final int HEADER_SIZE = Integer.BYTES;
+    static final int TRAILER_SIZE = Integer.BYTES;
+    static final int BODY_PREFIX_SIZE = Byte.BYTES + Long.BYTES;
+    static final int MAX_BODY_SIZE = 64 * 1024 * 1024;
+
+    private final FileChannel channel;
+    private final CRC32 crc = new CRC32();
+    private ByteBuffer buffer;
+    private long validLength;
+    private TimelineRecord next;
+    private boolean ended;
+
+    private TimelineLogReader(FileChannel channel, int bufferSize) {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocateDirect(bufferSize);
+        this.buffer.flip();
+    }
+
+    public static TimelineLogReader open(Path path, int bufferSize) throws IOException {
+        return new TimelineLogReader(FileChannel.open(path, StandardOpenOption.READ), bufferSize);
+    }
+
+    /**
+     * @return the length of the log up to the end of its last valid record.
+     */
+    public static long validLength(Path path, int bufferSize) throws IOException {
+        try (TimelineLogReader reader = open(path, bufferSize)) {
+            while (reader.hasNext()) {
+                reader.next();
+            }
+            return reader.getValidLength();
+        }
+    }
+
+    /**
+     * @return the offset after the last record read.
+     */
+    public long getValidLength() {
+        return validLength;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null && !ended) {
+            try {
+                next = readRecord();
+            } catch (IOException e) {
+                throw new IllegalStateException("Couldn't read the timeline log", e);
+            }
+            ended = next == null;
+        }
+        return next != null;
+    }
+
+    @Override
+    public TimelineRecord next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        TimelineRecord record = next;
+        next = null;
+        return record;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private TimelineRecord readRecord() throws IOException {
+        if (!fill(HEADER_SIZE)) {
+            return null;
+        }
+        int bodySize = buffer.getInt(buffer.position());
+        if (bodySize < BODY_PREFIX_SIZE || bodySize > MAX_BODY_SIZE || !fill(HEADER_SIZE + bodySize + TRAILER_SIZE)) {
+            return null;
+        }
+        ByteBuffer body = buffer.duplicate();
+        body.position(buffer.position() + HEADER_SIZE);
+        body.limit(buffer.position() + HEADER_SIZE + bodySize);
+        crc.reset();
+        crc.update(body);
+        if ((int) crc.getValue() != buffer.getInt(buffer.position() + HEADER_SIZE + bodySize)) {
+            return null;
+        }
+        buffer.getInt();
+        TimelineRecord.Type type = TimelineRecord.Type.fromCode(buffer.get());
+        long recordedAt = buffer.getLong();
+        byte[] payload = new byte[bodySize - BODY_PREFIX_SIZE];
+        buffer.get(payload);
+        buffer.getInt();
+        if (type == null) {
+            return null;
+        }
+        validLength += HEADER_SIZE + bodySize + TRAILER_SIZE;
+        return new TimelineRecord(type, recordedAt, payload);
+    }
+
+    /**
+     * @return whether `size` bytes are available in the buffer, read from the file if needed.
+     */
+    private boolean fill(int size) throws IOException {
+        if (buffer.remaining() >= size) {
+            return true;
+        }
+        if (buffer.capacity() < size) {
+            ByteBuffer larger = ByteBuffer.allocateDirect(Math.max(size, buffer.capacity() * 2));
+            larger.put(buffer);
+            buffer = larger;
+        } else {
+            buffer.compact();
+        }
+        while (buffer.position() < size) {
+            if (channel.read(buffer) < 0) {
+                buffer.flip();
+                return false;
+            }
+        }
+        buffer.flip();
+        return true;
+    }
+}
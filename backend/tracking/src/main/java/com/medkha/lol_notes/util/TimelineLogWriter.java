@@ -0,0 +1,101 @@
+package com.medkha.lol_notes.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Appends records to a timeline log through a direct buffer and a FileChannel: every {@link #append} is one write
+ * to the file, so a crash of the process loses nothing, and {@link #sync} forces the file to the disk.
+ * Opening an existing log cuts the incomplete record a crash may have left at its end, then appends after the last
+ * valid one. See {@link TimelineLogReader} for the record layout.
+ */
+public class TimelineLogWriter implements Closeable {
+    private final FileChannel channel;
+    private final CRC32 crc = new CRC32();
+    private ByteBuffer buffer;
+    private boolean dirty;
+    private boolean closed;
+    private long lastAppendNanos = System.nanoTime();
+
+    private TimelineLogWriter(FileChannel channel, int bufferSize) {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocateDirect(bufferSize);
+    }
+
+    public static TimelineLogWriter open(Path path, int bufferSize) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long validLength = TimelineLogReader.validLength(path, bufferSize);
+        channel.truncate(validLength);
+        channel.position(validLength);
+        return new TimelineLogWriter(channel, bufferSize);
+    }
+
+    /**
+     * @return false if the writer is already closed, nothing is written then.
+     */
+    public synchronized boolean append(List<TimelineRecord> records) throws IOException {
+        if (closed) {
+            return false;
+        }
+        for (TimelineRecord record : records) {
+            int bodySize = TimelineLogReader.BODY_PREFIX_SIZE + record.payload.length;
+            int recordSize = TimelineLogReader.HEADER_SIZE + bodySize + TimelineLogReader.TRAILER_SIZE;
+            if (buffer.remaining() < recordSize) {
+                drain();
+                if (buffer.capacity() < recordSize) {
+                    buffer = ByteBuffer.allocateDirect(recordSize);
+                }
+            }
+            int bodyStart = buffer.position() + TimelineLogReader.HEADER_SIZE;
+            buffer.putInt(bodySize).put(record.type.code).putLong(record.recordedAt).put(record.payload);
+            ByteBuffer body = buffer.duplicate();
+            body.position(bodyStart);
+            body.limit(buffer.position());
+            crc.reset();
+            crc.update(body);
+            buffer.putInt((int) crc.getValue());
+        }
+        drain();
+        lastAppendNanos = System.nanoTime();
+        return true;
+    }
+
+    /**
+     * Forces the appended records to the disk, if any since the last sync.
+     */
+    public synchronized void sync() throws IOException {
+        if (dirty && !closed) {
+            channel.force(false);
+            dirty = false;
+        }
+    }
+
+    public synchronized long getLastAppendNanos() {
+        return lastAppendNanos;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        sync();
+        closed = true;
+        channel.close();
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+        dirty = true;
+    }
+}
@@ -0,0 +1,39 @@
+package com.medkha.lol_notes.util;
+
+/**
+ * A record of a game timeline log: the JSON payload of a game event or of a live state snapshot.
+ */
+public class TimelineRecord {
+    public enum Type {
+        EVENT((byte) 1),
+        SNAPSHOT((byte) 2);
+
+        final byte code;
+
+        Type(byte code) {
+            this.code = code;
+        }
+
+        static Type fromCode(byte code) {
+            for (Type type : values()) {
+                if (type.code == code) {
+                    return type;
+                }
+            }
+            return null;
+        }
+    }
+
+    public final Type type;
+    /**
+     * Epoch milliseconds.
+     */
+    public final long recordedAt;
+    public final byte[] payload;
+
+    public TimelineRecord(Type type, long recordedAt, byte[] payload) {
+        this.type = type;
+        this.recordedAt = recordedAt;
+        this.payload = payload;
+    }
+}
@@ -0,0 +1,82 @@
+package com.medkha.lol_notes.controllers;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.medkha.lol_notes.dto.ExportJobDTO;
+import com.medkha.lol_notes.dto.enums.ExportFormat;
+import com.medkha.lol_notes.dto.enums.ExportJobStatus;
+import com.medkha.lol_notes.exceptions.ExportJobConflictException;
+import com.medkha.lol_notes.exceptions.NoElementFoundException;
+import com.medkha.lol_notes.services.ExportJobService;
+
+@ExtendWith(SpringExtension.class)
+@WebMvcTest(ExportJobController.class)
+public class ExportJobControllerTest {
+
+	@Autowired
+	MockMvc mockMvc;
+	@MockBean
+	private ExportJobService exportJobService;
+
+	@Test
+	public void whenExportIsSubmitted_thenReturns202WithTheJob() throws Exception {
+		ExportJobDTO job = new ExportJobDTO();
+		job.id = 3;
+		job.status = ExportJobStatus.QUEUED;
+		when(exportJobService.submit("Atay Ch3ra", Optional.of(420), 100, ExportFormat.CSV, false)).thenReturn(job);
+
+		mockMvc.perform(post("/games/export-jobs")
+				.param("summonerName", "Atay Ch3ra")
+				.param("queueId", "420")
+				.param("count", "100"))
+			.andExpect(status().isAccepted())
+			.andExpect(jsonPath("$.id").value(3))
+			.andExpect(jsonPath("$.status").value("QUEUED"));
+	}
+
+	@Test
+	public void whenColumnarExportIsSubmitted_thenFormatIsPassedOn() throws Exception {
+		ExportJobDTO job = new ExportJobDTO();
+		job.id = 4;
+		job.status = ExportJobStatus.QUEUED;
+		job.format = ExportFormat.COLUMNAR;
+		when(exportJobService.submit("Atay Ch3ra", Optional.empty(), 100, ExportFormat.COLUMNAR, false)).thenReturn(job);
+
+		mockMvc.perform(post("/games/export-jobs")
+				.param("summonerName", "Atay Ch3ra")
+				.param("count", "100")
+				.param("format", "COLUMNAR"))
+			.andExpect(status().isAccepted())
+			.andExpect(jsonPath("$.format").value("COLUMNAR"));
+	}
+
+	@Test
+	public void whenJobIsUnknown_thenReturns403() throws Exception {
+		when(exportJobService.findJob(7)).thenThrow(new NoElementFoundException("No export job with id 7 is found."));
+
+		mockMvc.perform(get("/games/export-jobs/7"))
+			.andExpect(status().isForbidden());
+	}
+
+	@Test
+	public void whenJobIsNotDone_thenDownloadReturns409() throws Exception {
+		when(exportJobService.findExportFile(3)).thenThrow(new ExportJobConflictException("The export job 3 is RUNNING"));
+
+		mockMvc.perform(get("/games/export-jobs/3/file"))
+			.andExpect(status().isConflict());
+	}
+}
@@ -9,7 +9,6 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
-import com.medkha.lol_notes.repositories.MatchHistoryRepository;
 import com.medkha.lol_notes.services.*;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -47,7 +46,9 @@ public class GameControllerTest {
 	@MockBean
 	private  LiveGameService liveGameService;
 	@MockBean
-	private MatchHistoryRepository matchHistoryRepository;
+	private ExportJobService exportJobService;
+	@MockBean
+	private LiveSessionService liveSessionService;
 
 
 
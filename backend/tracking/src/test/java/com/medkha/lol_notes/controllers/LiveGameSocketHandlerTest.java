@@ -0,0 +1,143 @@
+package com.medkha.lol_notes.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.medkha.lol_notes.dto.EventInGameDTO;
+import com.medkha.lol_notes.dto.LiveEventFrameDTO;
+import com.medkha.lol_notes.dto.LiveSocketMessageDTO;
+import com.medkha.lol_notes.dto.PlayerDTO;
+import com.medkha.lol_notes.services.LiveGameService;
+import com.medkha.lol_notes.services.LiveSessionService;
+import com.medkha.lol_notes.util.ServerSentEventSession;
+
+public class LiveGameSocketHandlerTest {
+
+	private final ObjectMapper cborMapper = Jackson2ObjectMapperBuilder.json().factory(new CBORFactory()).build();
+	private LiveSessionService liveSessionServiceMock;
+	private LiveGameService liveGameServiceMock;
+	private WebSocketSession socketMock;
+	private LiveGameSocketHandler liveGameSocketHandler;
+	private ServerSentEventSession liveSession;
+
+	private LiveEventFrameDTO frame(String eventName, String victimName) {
+		EventInGameDTO event = new EventInGameDTO();
+		event.eventName = eventName;
+		event.victimName = Optional.ofNullable(victimName);
+		event.killerName = Optional.empty();
+		return new LiveEventFrameDTO(event, 1L, 2L);
+	}
+
+	private List<LiveSocketMessageDTO> sentMessages() throws Exception {
+		@SuppressWarnings("unchecked")
+		ArgumentCaptor<WebSocketMessage<?>> sent = ArgumentCaptor.forClass(WebSocketMessage.class);
+		verify(socketMock, atLeastOnce()).sendMessage(sent.capture());
+		return sent.getAllValues().stream()
+				.map(message -> {
+					try {
+						return cborMapper.readValue(((BinaryMessage) message).getPayload().array(), LiveSocketMessageDTO.class);
+					} catch (Exception e) {
+						throw new IllegalStateException(e);
+					}
+				})
+				.collect(Collectors.toList());
+	}
+
+	@BeforeEach
+	void setup() {
+		this.liveSessionServiceMock = mock(LiveSessionService.class);
+		this.liveGameServiceMock = mock(LiveGameService.class);
+		this.socketMock = mock(WebSocketSession.class);
+		when(socketMock.getId()).thenReturn("socket-1");
+		this.liveSession = new ServerSentEventSession(7, 8, Optional.empty());
+		when(liveSessionServiceMock.findSession(anyLong())).thenReturn(Optional.empty());
+		when(liveSessionServiceMock.findSession(7)).thenReturn(Optional.of(liveSession));
+		this.liveGameSocketHandler = new LiveGameSocketHandler(liveSessionServiceMock, liveGameServiceMock,
+				Jackson2ObjectMapperBuilder.json(), Duration.ofSeconds(1), DataSize.ofKilobytes(64));
+		liveGameSocketHandler.afterConnectionEstablished(socketMock);
+	}
+
+	@Test
+	public void whenSubscribedToKills_thenOnlyKillsAreSent() throws Exception {
+		liveGameSocketHandler.handleMessage(socketMock,
+				new TextMessage("{\"action\":\"subscribe\",\"session\":7,\"filters\":[\"KILLS\"]}"));
+
+		liveSession.publish(List.of(frame("ChampionKill", "atay ch3ra"), frame("DragonKill", null)));
+
+		List<LiveSocketMessageDTO> messages = sentMessages();
+		assertAll(
+				() -> assertEquals(LiveSocketMessageDTO.SUBSCRIBED, messages.get(0).type),
+				() -> assertEquals(LiveSocketMessageDTO.EVENTS, messages.get(1).type),
+				() -> assertEquals(7L, messages.get(1).session),
+				() -> assertEquals(1, messages.get(1).events.size()),
+				() -> assertEquals("ChampionKill", messages.get(1).events.get(0).event.eventName)
+		);
+	}
+
+	@Test
+	public void whenSubscribedToMyDeaths_thenOtherDeathsAreFiltered() throws Exception {
+		PlayerDTO activePlayer = new PlayerDTO();
+		activePlayer.summonerName = "atay ch3ra";
+		when(liveGameServiceMock.getActivePlayer()).thenReturn(Optional.of(activePlayer));
+		liveGameSocketHandler.handleMessage(socketMock, new TextMessage("{\"action\":\"subscribe\",\"session\":7}"));
+
+		liveSession.publish(List.of(frame("ChampionKill", "someone else"), frame("ChampionKill", "atay ch3ra")));
+
+		List<LiveSocketMessageDTO> messages = sentMessages();
+		assertAll(
+				() -> assertEquals(2, messages.size()),
+				() -> assertEquals(Optional.of("atay ch3ra"), messages.get(1).events.get(0).event.victimName)
+		);
+	}
+
+	@Test
+	public void whenSessionIsStopped_thenSubscriberIsToldAndDropped() throws Exception {
+		liveGameSocketHandler.handleMessage(socketMock,
+				new TextMessage("{\"action\":\"subscribe\",\"session\":7,\"filters\":[\"ALL\"]}"));
+
+		liveSession.tracking.cancel();
+
+		assertAll(
+				() -> assertEquals(LiveSocketMessageDTO.ENDED, sentMessages().get(1).type),
+				() -> assertFalse(liveSession.isAttached())
+		);
+	}
+
+	@Test
+	public void whenSessionIsUnknown_thenErrorIsSent() throws Exception {
+		liveGameSocketHandler.handleMessage(socketMock,
+				new BinaryMessage(cborMapper.writeValueAsBytes(Map.of("action", "subscribe", "session", 42))));
+
+		LiveSocketMessageDTO error = sentMessages().get(0);
+		assertAll(
+				() -> assertEquals(LiveSocketMessageDTO.ERROR, error.type),
+				() -> verify(liveSessionServiceMock, never()).getOrStartSession(anyBoolean())
+		);
+	}
+}
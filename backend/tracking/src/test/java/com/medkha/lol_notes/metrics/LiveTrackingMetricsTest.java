@@ -0,0 +1,42 @@
+package com.medkha.lol_notes.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class LiveTrackingMetricsTest {
+
+	@Test
+	public void whenStageIsRecorded_thenItsTimerIsUpdated() {
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		LiveTrackingMetrics liveTrackingMetrics = new LiveTrackingMetrics(meterRegistry);
+
+		liveTrackingMetrics.record(LiveTrackingMetrics.FETCH, Duration.ofMillis(40));
+		liveTrackingMetrics.record(LiveTrackingMetrics.FETCH, Duration.ofMillis(60));
+
+		Timer fetchTimer = meterRegistry.get("lol_notes.live.latency").tag("stage", LiveTrackingMetrics.FETCH).timer();
+		Timer parseTimer = meterRegistry.get("lol_notes.live.latency").tag("stage", LiveTrackingMetrics.PARSE).timer();
+		assertAll(
+				() -> assertEquals(2, fetchTimer.count()),
+				() -> assertEquals(100.0, fetchTimer.totalTime(TimeUnit.MILLISECONDS)),
+				() -> assertEquals(0, parseTimer.count())
+		);
+	}
+
+	@Test
+	public void whenPollIntervalIsChosen_thenGaugeGivesIt() {
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		LiveTrackingMetrics liveTrackingMetrics = new LiveTrackingMetrics(meterRegistry);
+
+		liveTrackingMetrics.pollInterval(Duration.ofMillis(750));
+
+		assertEquals(750, meterRegistry.get("lol_notes.live.poll-interval").timeGauge().value(TimeUnit.MILLISECONDS));
+	}
+}
@@ -0,0 +1,36 @@
+package com.medkha.lol_notes.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.ExpectedCount;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+public class RiotRateLimitInterceptorTest {
+
+	private static final String MATCH = "https://europe.api.riotgames.com/lol/match/v5/matches/EUW1_5012345678";
+
+	@Test
+	public void whenRateLimited_thenCallIsSentAgainAfterRetryAfter() {
+		RestTemplate restTemplate = new RestTemplate();
+		restTemplate.getInterceptors().add(new RiotRateLimitInterceptor(new RiotRateLimiter("20:1,100:120"), 3));
+		MockRestServiceServer server = MockRestServiceServer.bindTo(restTemplate).build();
+		HttpHeaders rateLimited = new HttpHeaders();
+		rateLimited.add(HttpHeaders.RETRY_AFTER, "0");
+		rateLimited.add("X-Rate-Limit-Type", "method");
+		server.expect(ExpectedCount.once(), requestTo(MATCH)).andRespond(withStatus(HttpStatus.TOO_MANY_REQUESTS).headers(rateLimited));
+		server.expect(ExpectedCount.once(), requestTo(MATCH)).andRespond(withSuccess("\"match\"", MediaType.APPLICATION_JSON));
+
+		String match = restTemplate.getForObject(MATCH, String.class);
+
+		server.verify();
+		assertEquals("\"match\"", match);
+	}
+}
@@ -0,0 +1,103 @@
+package com.medkha.lol_notes.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+public class RiotRateLimiterTest {
+
+	private static final URI MATCH = URI.create("https://europe.api.riotgames.com/lol/match/v5/matches/EUW1_5012345678?api_key=key");
+	private static final URI OTHER_MATCH = URI.create("https://europe.api.riotgames.com/lol/match/v5/matches/EUW1_5087654321?api_key=key");
+	private static final URI MATCH_IDS = URI.create("https://europe.api.riotgames.com/lol/match/v5/matches/by-puuid/aB3-x_Yz/ids?start=0&count=20");
+
+	private static class MovingClock extends Clock {
+		private Instant now = Instant.parse("2026-01-01T00:00:00Z");
+
+		void advance(Duration duration) {
+			now = now.plus(duration);
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+
+		@Override
+		public Instant instant() {
+			return now;
+		}
+	}
+
+	private final MovingClock clock = new MovingClock();
+
+	@Test
+	public void whenAppWindowIsFull_thenCallersAreQueued() {
+		RiotRateLimiter riotRateLimiter = new RiotRateLimiter("2:1,3:10", clock);
+
+		Duration first = riotRateLimiter.reserve(MATCH);
+		Duration second = riotRateLimiter.reserve(MATCH);
+		Duration third = riotRateLimiter.reserve(MATCH);
+		Duration fourth = riotRateLimiter.reserve(MATCH);
+
+		assertAll(
+				() -> assertEquals(Duration.ZERO, first),
+				() -> assertEquals(Duration.ZERO, second),
+				() -> assertEquals(Duration.ofSeconds(1), third),
+				() -> assertEquals(Duration.ofSeconds(10), fourth)
+		);
+	}
+
+	@Test
+	public void whenMethodLimitIsGivenByHeaders_thenOnlyThatMethodIsLimited() {
+		RiotRateLimiter riotRateLimiter = new RiotRateLimiter("100:1", clock);
+		HttpHeaders headers = new HttpHeaders();
+		headers.add("X-Method-Rate-Limit", "1:10");
+		headers.add("X-Method-Rate-Limit-Count", "1:10");
+
+		riotRateLimiter.reserve(MATCH);
+		riotRateLimiter.update(MATCH, 200, headers);
+
+		assertAll(
+				() -> assertEquals(Duration.ofSeconds(10), riotRateLimiter.reserve(OTHER_MATCH)),
+				() -> assertEquals(Duration.ZERO, riotRateLimiter.reserve(MATCH_IDS))
+		);
+	}
+
+	@Test
+	public void whenRateLimited_thenRetryAfterIsRespected() {
+		RiotRateLimiter riotRateLimiter = new RiotRateLimiter("100:1", clock);
+		HttpHeaders headers = new HttpHeaders();
+		headers.add(HttpHeaders.RETRY_AFTER, "3");
+		headers.add("X-Rate-Limit-Type", "application");
+
+		riotRateLimiter.reserve(MATCH);
+		riotRateLimiter.update(MATCH, 429, headers);
+		clock.advance(Duration.ofSeconds(1));
+
+		assertEquals(Duration.ofSeconds(2), riotRateLimiter.reserve(MATCH_IDS));
+	}
+
+	@Test
+	public void whenPathHasIds_thenMethodKeyHidesThem() {
+		assertAll(
+				() -> assertEquals("europe.api.riotgames.com/lol/match/v5/matches/{}", RiotRateLimiter.methodKey(MATCH)),
+				() -> assertEquals("europe.api.riotgames.com/lol/match/v5/matches/by-puuid/{}/ids", RiotRateLimiter.methodKey(MATCH_IDS)),
+				() -> assertEquals("euw1.api.riotgames.com/lol/summoner/v4/summoners/by-name/{}",
+						RiotRateLimiter.methodKey(URI.create("https://euw1.api.riotgames.com/lol/summoner/v4/summoners/by-name/atay")))
+		);
+	}
+}
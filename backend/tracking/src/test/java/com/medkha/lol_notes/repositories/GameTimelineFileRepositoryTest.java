@@ -0,0 +1,63 @@
+package com.medkha.lol_notes.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import com.medkha.lol_notes.repositories.impl.GameTimelineFileRepository;
+import com.medkha.lol_notes.util.TimelineLogReader;
+import com.medkha.lol_notes.util.TimelineRecord;
+
+public class GameTimelineFileRepositoryTest {
+
+	@TempDir
+	Path directory;
+	private GameTimelineFileRepository gameTimelineRepository;
+
+	private TimelineRecord event(String eventName) {
+		return new TimelineRecord(TimelineRecord.Type.EVENT, 1000, ("{\"EventName\":\"" + eventName + "\"}").getBytes(StandardCharsets.UTF_8));
+	}
+
+	@BeforeEach
+	void setup() {
+		this.gameTimelineRepository = new GameTimelineFileRepository(
+				directory.resolve("timelines").toString(), DataSize.ofKilobytes(4), Duration.ofMinutes(1), Duration.ofMinutes(2));
+	}
+
+	@AfterEach
+	void teardown() {
+		gameTimelineRepository.shutdown();
+	}
+
+	@Test
+	public void whenGameIsClosedAndAppendedAgain_thenLogIsContinued() throws Exception {
+		gameTimelineRepository.append(7, List.of(event("GameStart")));
+		gameTimelineRepository.close(7);
+		gameTimelineRepository.append(7, List.of(event("GameEnd")));
+		gameTimelineRepository.append(8, List.of(event("GameStart")));
+
+		int records = 0;
+		try (TimelineLogReader reader = gameTimelineRepository.read(7)) {
+			while (reader.hasNext()) {
+				reader.next();
+				records++;
+			}
+		}
+		int readRecords = records;
+
+		assertAll(
+				() -> assertEquals(2, readRecords),
+				() -> assertEquals(List.of(7L, 8L), gameTimelineRepository.findGameIds())
+		);
+	}
+}
@@ -0,0 +1,74 @@
+package com.medkha.lol_notes.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medkha.lol_notes.dto.GameFinishedDTO;
+import com.medkha.lol_notes.repositories.impl.MatchHistoryColumnarRepository;
+import com.medkha.lol_notes.util.MatchColumnarFormat.ColumnType;
+import com.medkha.lol_notes.util.MatchColumnarReader;
+import com.medkha.lol_notes.util.MatchProjectionReader;
+
+public class MatchHistoryColumnarRepositoryTest {
+
+	@TempDir
+	Path directory;
+
+	private GameFinishedDTO sampleMatch(String matchId, int kills) throws Exception {
+		String match = "{\"metadata\":{\"dataVersion\":\"2\",\"matchId\":\"" + matchId + "\"},"
+				+ "\"info\":{\"gameMode\":\"CLASSIC\",\"participants\":["
+				+ "{\"championName\":\"Ahri\",\"kills\":" + kills + ",\"totalDamageDealt\":-300000,\"win\":true,\"challenges\":{}},"
+				+ "{\"championName\":\"Kai'Sa\",\"kills\":" + (kills + 1000000) + ",\"win\":false,\"challenges\":{}}]}}";
+		return new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false).readValue(match, GameFinishedDTO.class);
+	}
+
+	private Path exportMatches(int rowGroupSize) throws Exception {
+		Path file = directory.resolve("export.mhcol");
+		try (MatchHistoryRepository.MatchHistoryWriter writer = new MatchHistoryColumnarRepository(new MatchProjectionReader(new ObjectMapper().getFactory(), List.of()), rowGroupSize, 6).openExport(Files.newOutputStream(file))) {
+			writer.write(sampleMatch("EUW1_1", 3));
+			writer.write(sampleMatch("EUW1_2", 12));
+		}
+		return file;
+	}
+
+	@Test
+	public void whenMatchesAreWritten_thenEachColumnIsReadBackWithItsType() throws Exception {
+		try (MatchColumnarReader reader = new MatchColumnarReader(exportMatches(3))) {
+			assertAll(
+					() -> assertEquals(Arrays.asList(GameFinishedDTO.toCsvFormatHeader().split(",")), reader.getColumnNames()),
+					() -> assertEquals(4, reader.getRowCount()),
+					() -> assertEquals(2, reader.getRowGroupCount()),
+					() -> assertEquals(ColumnType.INT32, reader.getColumnType("player_kills")),
+					() -> assertArrayEquals(new int[] {3, 1000003, 12, 1000012}, reader.readInts("player_kills")),
+					() -> assertArrayEquals(new int[] {-300000, 0, -300000, 0}, reader.readInts("player_totalDamageDealt")),
+					() -> assertArrayEquals(new boolean[] {true, false, true, false}, reader.readBooleans("win")),
+					() -> assertArrayEquals(new String[] {"Ahri", "Kai'Sa", "Ahri", "Kai'Sa"}, reader.readStrings("player_championName")),
+					() -> assertArrayEquals(new String[] {"EUW1_1", "EUW1_1", "EUW1_2", "EUW1_2"}, reader.readStrings("metadata_matchId")),
+					() -> assertArrayEquals(new String[4], reader.readStrings("player_lane"))
+			);
+		}
+	}
+
+	@Test
+	public void whenColumnIsReadAsAnotherType_thenIllegalArgumentExceptionIsThrown() throws Exception {
+		try (MatchColumnarReader reader = new MatchColumnarReader(exportMatches(8192))) {
+			assertAll(
+					() -> assertEquals(1, reader.getRowGroupCount()),
+					() -> assertThrows(IllegalArgumentException.class, () -> reader.readInts("win")),
+					() -> assertThrows(IllegalArgumentException.class, () -> reader.readStrings("player_unknown"))
+			);
+		}
+	}
+}
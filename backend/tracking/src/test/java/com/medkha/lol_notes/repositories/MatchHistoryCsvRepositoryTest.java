@@ -0,0 +1,67 @@
+package com.medkha.lol_notes.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medkha.lol_notes.dto.GameFinishedDTO;
+import com.medkha.lol_notes.repositories.impl.MatchHistoryCsvRepository;
+import com.medkha.lol_notes.util.MatchProjectionReader;
+
+public class MatchHistoryCsvRepositoryTest {
+
+	@TempDir
+	Path directory;
+
+	private GameFinishedDTO sampleMatch(String matchId) throws Exception {
+		String match = "{\"metadata\":{\"dataVersion\":\"2\",\"matchId\":\"" + matchId + "\"},"
+				+ "\"info\":{\"gameMode\":\"CLASSIC\",\"participants\":[{\"championName\":\"Ahri\",\"challenges\":{}},{\"championName\":\"Zed\",\"challenges\":{}}]}}";
+		return new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false).readValue(match, GameFinishedDTO.class);
+	}
+
+	@Test
+	public void whenMatchesAreStreamed_thenOneLinePerParticipantIsWritten() throws Exception {
+		Path file = directory.resolve("export.csv");
+
+		try (MatchHistoryRepository.MatchHistoryWriter writer = new MatchHistoryCsvRepository(new MatchProjectionReader(new ObjectMapper().getFactory(), List.of())).openExport(Files.newOutputStream(file))) {
+			writer.write(sampleMatch("EUW1_1"));
+			writer.write(sampleMatch("EUW1_2"));
+		}
+		List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+
+		assertAll(
+				() -> assertEquals(5, lines.size()),
+				() -> assertEquals(GameFinishedDTO.toCsvFormatHeader(), lines.get(0)),
+				() -> assertTrue(lines.get(1).startsWith("2,EUW1_1,")),
+				() -> assertTrue(lines.get(4).startsWith("2,EUW1_2,"))
+		);
+	}
+
+	@Test
+	public void whenColumnsAreProjected_thenOnlyTheyAreWritten() throws Exception {
+		Path file = directory.resolve("export.csv");
+		MatchProjectionReader matchProjectionReader = new MatchProjectionReader(new ObjectMapper().getFactory(), List.of("player_championName", "player_win"));
+
+		try (MatchHistoryRepository.MatchHistoryWriter writer = new MatchHistoryCsvRepository(matchProjectionReader).openExport(Files.newOutputStream(file))) {
+			writer.write(sampleMatch("EUW1_1"));
+		}
+		List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+
+		assertAll(
+				() -> assertEquals(3, lines.size()),
+				() -> assertEquals("metadata_matchId,info_gameCreation,info_gameEndTimestamp,player_championName,win", lines.get(0)),
+				() -> assertEquals("EUW1_1,,,Ahri,false", lines.get(1)),
+				() -> assertEquals("EUW1_1,,,Zed,false", lines.get(2))
+		);
+	}
+}
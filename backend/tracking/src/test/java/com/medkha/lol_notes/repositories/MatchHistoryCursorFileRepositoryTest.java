@@ -0,0 +1,84 @@
+package com.medkha.lol_notes.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.medkha.lol_notes.repositories.impl.MatchHistoryCursorFileRepository;
+import com.medkha.lol_notes.util.MatchHistoryCursor;
+
+public class MatchHistoryCursorFileRepositoryTest {
+
+	@TempDir
+	Path directory;
+
+	private MatchHistoryCursorFileRepository openRepository() {
+		MatchHistoryCursorFileRepository repository = new MatchHistoryCursorFileRepository(directory.resolve("cursors.json").toString());
+		repository.load();
+		return repository;
+	}
+
+	@Test
+	public void whenCursorIsSaved_thenItIsFoundAfterARestart() {
+		MatchHistoryCursor cursor = new MatchHistoryCursor("summoner-puuid", Optional.of(420), 1000);
+		cursor.advance(List.of("EUW1_3", "EUW1_2", "EUW1_1"));
+		openRepository().save(cursor);
+
+		MatchHistoryCursorFileRepository restartedRepository = openRepository();
+		MatchHistoryCursor resumedCursor = restartedRepository.find("summoner-puuid", Optional.of(420), Optional.empty(), Instant.EPOCH).orElseThrow();
+
+		assertAll(
+				() -> assertEquals(3, resumedCursor.getStart()),
+				() -> assertEquals("EUW1_1", resumedCursor.getLastMatchId()),
+				() -> assertEquals(List.of("EUW1_3", "EUW1_2", "EUW1_1"), resumedCursor.getMatchIds()),
+				() -> assertEquals(1000, resumedCursor.getSize()),
+				() -> assertTrue(restartedRepository.find("summoner-puuid", Optional.empty(), Optional.empty(), Instant.EPOCH).isEmpty())
+		);
+	}
+
+	@Test
+	public void whenCursorIsDeleted_thenNextExportStartsOver() {
+		MatchHistoryCursorFileRepository repository = openRepository();
+		MatchHistoryCursor cursor = new MatchHistoryCursor("summoner-puuid", Optional.empty(), 20);
+		repository.save(cursor);
+
+		repository.delete(cursor);
+
+		assertTrue(openRepository().find("summoner-puuid", Optional.empty(), Optional.empty(), Instant.EPOCH).isEmpty());
+	}
+
+	@Test
+	public void whenCursorHasStartTime_thenItIsKeptApartFromTheWholeHistory() {
+		MatchHistoryCursorFileRepository repository = openRepository();
+		MatchHistoryCursor cursor = new MatchHistoryCursor("summoner-puuid", Optional.of(420), Optional.of(1672998166L), 20);
+		repository.save(cursor);
+
+		assertAll(
+				() -> assertTrue(repository.find("summoner-puuid", Optional.of(420), Optional.empty(), Instant.EPOCH).isEmpty()),
+				() -> assertEquals(Optional.of(1672998166L), repository.find("summoner-puuid", Optional.of(420), Optional.of(1672998166L), Instant.EPOCH).orElseThrow().getStartTime())
+		);
+	}
+
+	@Test
+	public void whenCursorIsOlderThanTheTtl_thenItIsNotFound() {
+		MatchHistoryCursorFileRepository repository = openRepository();
+		MatchHistoryCursor cursor = new MatchHistoryCursor("summoner-puuid", Optional.empty(), Optional.empty(), 20, 1, "EUW1_1", List.of("EUW1_1"), false,
+				Instant.now().minus(Duration.ofDays(2)));
+		repository.save(cursor);
+
+		assertAll(
+				() -> assertTrue(openRepository().find("summoner-puuid", Optional.empty(), Optional.empty(), Instant.now().minus(Duration.ofDays(1))).isEmpty()),
+				() -> assertEquals(cursor.getCreatedAt().toEpochMilli(),
+						openRepository().find("summoner-puuid", Optional.empty(), Optional.empty(), Instant.now().minus(Duration.ofDays(3))).orElseThrow().getCreatedAt().toEpochMilli())
+		);
+	}
+}
@@ -0,0 +1,86 @@
+package com.medkha.lol_notes.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.medkha.lol_notes.repositories.impl.MatchStoreFileRepository;
+
+public class MatchStoreFileRepositoryTest {
+
+	@TempDir
+	Path directory;
+
+	private MatchStoreFileRepository openRepository() throws Exception {
+		MatchStoreFileRepository repository = new MatchStoreFileRepository(directory.toString(), 6);
+		repository.open();
+		return repository;
+	}
+
+	private byte[] sampleMatch(String matchId) {
+		StringBuilder participants = new StringBuilder();
+		for (int participant = 0; participant < 10; participant++) {
+			participants.append("{\"championName\":\"Ahri\",\"kills\":").append(participant).append("},");
+		}
+		return ("{\"metadata\":{\"matchId\":\"" + matchId + "\"},\"info\":{\"participants\":[" + participants + "{}]}}")
+				.getBytes(StandardCharsets.UTF_8);
+	}
+
+	@Test
+	public void whenMatchIsSaved_thenItIsFoundAfterARestart() throws Exception {
+		MatchStoreFileRepository repository = openRepository();
+		repository.save("EUW1_1", sampleMatch("EUW1_1"));
+		repository.save("EUW1_2", sampleMatch("EUW1_2"));
+		repository.close();
+
+		MatchStoreFileRepository restartedRepository = openRepository();
+
+		assertAll(
+				() -> assertArrayEquals(sampleMatch("EUW1_1"), restartedRepository.find("EUW1_1").orElseThrow()),
+				() -> assertArrayEquals(sampleMatch("EUW1_2"), restartedRepository.find("EUW1_2").orElseThrow()),
+				() -> assertTrue(restartedRepository.find("EUW1_3").isEmpty()),
+				() -> assertTrue(Files.size(directory.resolve("matches.store")) < 2 * sampleMatch("EUW1_1").length)
+		);
+		restartedRepository.close();
+	}
+
+	@Test
+	public void whenMatchIsSavedTwice_thenItIsStoredOnce() throws Exception {
+		MatchStoreFileRepository repository = openRepository();
+		repository.save("EUW1_1", sampleMatch("EUW1_1"));
+		long storeSize = Files.size(directory.resolve("matches.store"));
+
+		repository.save("EUW1_1", sampleMatch("EUW1_1"));
+
+		assertEquals(storeSize, Files.size(directory.resolve("matches.store")));
+		repository.close();
+	}
+
+	@Test
+	public void whenLastRecordIsTorn_thenItIsCutAndTheOthersAreKept() throws Exception {
+		MatchStoreFileRepository repository = openRepository();
+		repository.save("EUW1_1", sampleMatch("EUW1_1"));
+		repository.close();
+		long validSize = Files.size(directory.resolve("matches.store"));
+		Files.write(directory.resolve("matches.store"), new byte[] {0, 0, 1, 0, 0, 8}, StandardOpenOption.APPEND);
+
+		MatchStoreFileRepository restartedRepository = openRepository();
+
+		assertAll(
+				() -> assertTrue(restartedRepository.contains("EUW1_1")),
+				() -> assertFalse(restartedRepository.contains("EUW1_2")),
+				() -> assertEquals(validSize, Files.size(directory.resolve("matches.store")))
+		);
+		restartedRepository.close();
+	}
+}
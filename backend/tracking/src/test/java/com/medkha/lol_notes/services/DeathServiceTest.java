@@ -6,6 +6,7 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.util.List;
 import java.util.Optional;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -112,6 +113,19 @@ public class DeathServiceTest {
 		assertEquals(sampleDeathDTOWithId(), result);
 	}
 	
+	@Test
+	public void shouldcreateDeaths() {
+		when(this.mapperServiceMock.convert(sampleDeathDTOWithoutId(), Death.class)).thenReturn(sampleDeathWithouId());
+		when(this.deathRepositoryMock.saveAll(List.of(sampleDeathWithouId(), sampleDeathWithouId())))
+				.thenReturn(List.of(sampleDeathWithId(), sampleDeathWithId()));
+		when(this.mapperServiceMock.convert(sampleDeathWithId(), DeathDTO.class)).thenReturn(sampleDeathDTOWithId());
+		// when
+		List<DeathDTO> result = this.deathService.createDeaths(List.of(sampleDeathDTOWithoutId(), sampleDeathDTOWithoutId()));
+
+		// then
+		assertEquals(List.of(sampleDeathDTOWithId(), sampleDeathDTOWithId()), result);
+	}
+
 	@Test 
 	public void shouldThrowIllegalArgumentException_When_DeathIsNull() {
 		when(this.deathRepositoryMock.save(null)).thenThrow(InvalidDataAccessApiUsageException.class);
@@ -0,0 +1,413 @@
+package com.medkha.lol_notes.services;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medkha.lol_notes.dto.ExportJobDTO;
+import com.medkha.lol_notes.dto.GameFinishedDTO;
+import com.medkha.lol_notes.dto.enums.ExportCompression;
+import com.medkha.lol_notes.dto.enums.ExportFormat;
+import com.medkha.lol_notes.dto.enums.ExportJobStatus;
+import com.medkha.lol_notes.exceptions.ExportJobConflictException;
+import com.medkha.lol_notes.exceptions.NoElementFoundException;
+import com.medkha.lol_notes.repositories.ExportWatermarkRepository;
+import com.medkha.lol_notes.repositories.MatchHistoryRepository;
+import com.medkha.lol_notes.repositories.impl.ExportWatermarkFileRepository;
+import com.medkha.lol_notes.repositories.impl.MatchHistoryCsvRepository;
+import com.medkha.lol_notes.services.impl.ExportJobServiceImpl;
+import com.medkha.lol_notes.util.MatchHistoryProgress;
+import com.medkha.lol_notes.util.MatchProjectionReader;
+
+public class ExportJobServiceTest {
+
+	@TempDir
+	Path directory;
+	private RiotLookUpService riotLookUpServiceMock;
+	private MatchHistoryRepository matchHistoryRepositoryMock;
+	private MatchHistoryRepository.MatchHistoryWriter matchHistoryWriterMock;
+	private ExportWatermarkRepository exportWatermarkRepositoryMock;
+	private ExportJobServiceImpl exportJobService;
+
+	@BeforeEach
+	void setup() throws Exception {
+		this.riotLookUpServiceMock = mock(RiotLookUpService.class);
+		this.matchHistoryRepositoryMock = mock(MatchHistoryRepository.class);
+		this.matchHistoryWriterMock = mock(MatchHistoryRepository.MatchHistoryWriter.class);
+		this.exportWatermarkRepositoryMock = mock(ExportWatermarkRepository.class);
+		when(matchHistoryRepositoryMock.getFormat()).thenReturn(ExportFormat.CSV);
+		when(matchHistoryRepositoryMock.openExport(any())).thenReturn(matchHistoryWriterMock);
+		this.exportJobService = new ExportJobServiceImpl(riotLookUpServiceMock, List.of(matchHistoryRepositoryMock), exportWatermarkRepositoryMock,
+				directory.toString(), "export-{id}", ExportCompression.NONE, DataSize.ofKilobytes(64), 1, 4, Duration.ofHours(1));
+	}
+
+	@AfterEach
+	void teardown() {
+		exportJobService.shutdown();
+	}
+
+	private ExportJobDTO awaitFinished(long jobId) throws InterruptedException {
+		for (int attempt = 0; attempt < 500; attempt++) {
+			ExportJobDTO job = exportJobService.findJob(jobId);
+			if (job.status.isFinished()) {
+				return job;
+			}
+			Thread.sleep(10);
+		}
+		throw new AssertionError("the export job " + jobId + " didn't finish");
+	}
+
+	@Test
+	public void whenIdenticalExportIsSubmitted_thenItJoinsTheRunningJob() throws Exception {
+		CompletableFuture<Integer> matchHistory = new CompletableFuture<>();
+		when(riotLookUpServiceMock.streamMatchHistory(eq("Atay Ch3ra"), eq(Optional.of(420)), eq(Optional.of(50)), eq(Optional.empty()), any(MatchHistoryProgress.class), any()))
+				.thenAnswer(invocation -> {
+					Consumer<GameFinishedDTO> matchConsumer = invocation.getArgument(5);
+					return matchHistory.thenApply(consumedMatches -> {
+						matchConsumer.accept(new GameFinishedDTO());
+						return consumedMatches;
+					});
+				});
+
+		ExportJobDTO firstJob = exportJobService.submit("Atay Ch3ra", Optional.of(420), 50, ExportFormat.CSV, false);
+		ExportJobDTO secondJob = exportJobService.submit("atay ch3ra", Optional.of(420), 50, ExportFormat.CSV, false);
+		matchHistory.complete(1);
+		ExportJobDTO finishedJob = awaitFinished(firstJob.id);
+
+		assertAll(
+				() -> assertEquals(firstJob.id, secondJob.id),
+				() -> assertEquals(ExportJobStatus.DONE, finishedJob.status),
+				() -> assertEquals(directory.resolve("export-" + firstJob.id + ".csv"), exportJobService.findExportFile(firstJob.id)),
+				() -> verify(riotLookUpServiceMock, times(1)).streamMatchHistory(any(), any(), any(), any(), any(), any()),
+				() -> verify(matchHistoryRepositoryMock).openExport(any(OutputStream.class)),
+				() -> verify(matchHistoryWriterMock).write(any(GameFinishedDTO.class)),
+				() -> verify(matchHistoryWriterMock).close()
+		);
+	}
+
+	@Test
+	public void whenRunningJobIsCancelled_thenLookUpIsStoppedAndNoFileIsWritten() throws Exception {
+		when(riotLookUpServiceMock.streamMatchHistory(any(), any(), any(), any(), any(MatchHistoryProgress.class), any())).thenAnswer(invocation -> {
+			MatchHistoryProgress progress = invocation.getArgument(4);
+			Consumer<GameFinishedDTO> matchConsumer = invocation.getArgument(5);
+			progress.matchesListed(100);
+			// enough rows to go past the buffer of the csv writer.
+			for (int match = 1; match <= 50; match++) {
+				matchConsumer.accept(sampleMatch("EUW1_" + match, 1_000_500));
+				progress.matchFetched();
+			}
+			CompletableFuture<Integer> matchHistory = new CompletableFuture<>();
+			progress.getCancellation().onCancel(() -> matchHistory.complete(1));
+			return matchHistory;
+		});
+		exportJobService.shutdown();
+		// a real repository writes the matches to the part file, the cancel must delete it.
+		exportJobService = new ExportJobServiceImpl(riotLookUpServiceMock, List.of(new MatchHistoryCsvRepository(new MatchProjectionReader(new ObjectMapper().getFactory(), List.of()))), exportWatermarkRepositoryMock,
+				directory.toString(), "export-{id}", ExportCompression.NONE, DataSize.ofBytes(16), 1, 4, Duration.ofHours(1));
+		ExportJobDTO job = exportJobService.submit("Atay Ch3ra", Optional.empty(), 100, ExportFormat.CSV, false);
+		for (int attempt = 0; attempt < 500 && exportJobService.findJob(job.id).matchesFetched < 50; attempt++) {
+			Thread.sleep(10);
+		}
+		ExportJobDTO runningJob = exportJobService.findJob(job.id);
+		Path partFile = directory.resolve("export-" + job.id + ".csv.part");
+		long partFileSize = Files.size(partFile);
+
+		exportJobService.cancel(job.id);
+		ExportJobDTO cancelledJob = awaitFinished(job.id);
+
+		assertAll(
+				() -> assertEquals(ExportJobStatus.RUNNING, runningJob.status),
+				() -> assertEquals(100, runningJob.matchesTotal),
+				() -> assertTrue(partFileSize > 0),
+				() -> assertEquals(ExportJobStatus.CANCELLED, cancelledJob.status),
+				() -> assertThrows(ExportJobConflictException.class, () -> exportJobService.findExportFile(job.id)),
+				() -> assertFalse(Files.exists(directory.resolve("export-" + job.id + ".csv"))),
+				() -> assertFalse(Files.exists(partFile))
+		);
+	}
+
+	@Test
+	public void whenExportIsCompressed_thenItIsWrittenToItsTemplatePathOnceComplete() throws Exception {
+		when(matchHistoryRepositoryMock.openExport(any())).thenAnswer(invocation -> {
+			OutputStream out = invocation.getArgument(0);
+			return new MatchHistoryRepository.MatchHistoryWriter() {
+				@Override
+				public void write(GameFinishedDTO game) throws IOException {
+					out.write("match\n".getBytes(StandardCharsets.UTF_8));
+				}
+
+				@Override
+				public void close() throws IOException {
+					out.close();
+				}
+			};
+		});
+		when(riotLookUpServiceMock.streamMatchHistory(any(), any(), any(), any(), any(MatchHistoryProgress.class), any())).thenAnswer(invocation -> {
+			Consumer<GameFinishedDTO> matchConsumer = invocation.getArgument(5);
+			matchConsumer.accept(new GameFinishedDTO());
+			matchConsumer.accept(new GameFinishedDTO());
+			return CompletableFuture.completedFuture(2);
+		});
+		exportJobService.shutdown();
+		exportJobService = new ExportJobServiceImpl(riotLookUpServiceMock, List.of(matchHistoryRepositoryMock), exportWatermarkRepositoryMock,
+				directory.toString(), "{summoner}/{queue}/export-{id}", ExportCompression.GZIP, DataSize.ofKilobytes(64), 1, 4, Duration.ofHours(1));
+
+		ExportJobDTO job = awaitFinished(exportJobService.submit("Atay Ch3ra", Optional.of(420), 2, ExportFormat.CSV, false).id);
+
+		Path file = directory.resolve("Atay_Ch3ra").resolve("420").resolve("export-" + job.id + ".csv.gz");
+		try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+			String content = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+			assertAll(
+					() -> assertEquals(ExportJobStatus.DONE, job.status),
+					() -> assertEquals(ExportCompression.GZIP, job.compression),
+					() -> assertEquals(file, exportJobService.findExportFile(job.id)),
+					() -> assertEquals("match\nmatch\n", content),
+					() -> assertFalse(Files.exists(file.resolveSibling(file.getFileName() + ".part")))
+			);
+		}
+	}
+
+	private GameFinishedDTO sampleMatch(String matchId, long gameEndTimestamp) throws Exception {
+		String match = "{\"metadata\":{\"dataVersion\":\"2\",\"matchId\":\"" + matchId + "\"},"
+				+ "\"info\":{\"gameEndTimestamp\":" + gameEndTimestamp + ",\"participants\":[{\"championName\":\"Ahri\",\"challenges\":{}}]}}";
+		return new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false).readValue(match, GameFinishedDTO.class);
+	}
+
+	@Test
+	public void whenExportIsIncremental_thenNextSyncOnlyAppendsTheGamesAfterTheWatermark() throws Exception {
+		when(riotLookUpServiceMock.streamMatchHistory(any(), any(), any(), eq(Optional.empty()), any(MatchHistoryProgress.class), any())).thenAnswer(invocation -> {
+			Consumer<GameFinishedDTO> matchConsumer = invocation.getArgument(5);
+			matchConsumer.accept(sampleMatch("EUW1_2", 2_000_500));
+			matchConsumer.accept(sampleMatch("EUW1_1", 1_000_500));
+			((MatchHistoryProgress) invocation.getArgument(4)).listingComplete();
+			return CompletableFuture.completedFuture(2);
+		});
+		when(riotLookUpServiceMock.streamMatchHistory(any(), any(), any(), eq(Optional.of(2_000L)), any(MatchHistoryProgress.class), any())).thenAnswer(invocation -> {
+			Consumer<GameFinishedDTO> matchConsumer = invocation.getArgument(5);
+			matchConsumer.accept(sampleMatch("EUW1_3", 3_000_500));
+			matchConsumer.accept(sampleMatch("EUW1_2", 2_000_500));
+			((MatchHistoryProgress) invocation.getArgument(4)).listingComplete();
+			return CompletableFuture.completedFuture(2);
+		});
+		ExportWatermarkRepository exportWatermarkRepository = new ExportWatermarkFileRepository(directory.resolve("export-watermarks.json").toString());
+		exportJobService.shutdown();
+		exportJobService = new ExportJobServiceImpl(riotLookUpServiceMock, List.of(new MatchHistoryCsvRepository(new MatchProjectionReader(new ObjectMapper().getFactory(), List.of()))), exportWatermarkRepository,
+				directory.toString(), "export-{id}", ExportCompression.NONE, DataSize.ofKilobytes(64), 1, 4, Duration.ofHours(1));
+
+		ExportJobDTO firstSync = awaitFinished(exportJobService.submit("Atay Ch3ra", Optional.of(420), 100, ExportFormat.CSV, true).id);
+		ExportJobDTO secondSync = awaitFinished(exportJobService.submit("Atay Ch3ra", Optional.of(420), 100, ExportFormat.CSV, true).id);
+
+		Path file = directory.resolve("incremental").resolve("Atay_Ch3ra-420.csv");
+		List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+		assertAll(
+				() -> assertEquals(ExportJobStatus.DONE, firstSync.status),
+				() -> assertEquals(ExportJobStatus.DONE, secondSync.status),
+				() -> assertEquals(file, exportJobService.findExportFile(secondSync.id)),
+				() -> assertEquals(4, lines.size()),
+				() -> assertEquals(GameFinishedDTO.toCsvFormatHeader(), lines.get(0)),
+				() -> assertTrue(lines.get(1).startsWith("2,EUW1_2,")),
+				() -> assertTrue(lines.get(2).startsWith("2,EUW1_1,")),
+				() -> assertTrue(lines.get(3).startsWith("2,EUW1_3,")),
+				() -> assertEquals("EUW1_3", exportWatermarkRepository.find("ataych3ra:420:CSV").orElseThrow().getMatchId())
+		);
+	}
+
+	/**
+	 * Lists the games of the sync newest first, capped by the size the export asked for, as match-v5 does.
+	 */
+	private void givenMatchHistorySince(Optional<Long> startTime, List<GameFinishedDTO> matches) {
+		when(riotLookUpServiceMock.streamMatchHistory(any(), any(), any(), eq(startTime), any(MatchHistoryProgress.class), any())).thenAnswer(invocation -> {
+			Optional<Integer> size = invocation.getArgument(2);
+			Consumer<GameFinishedDTO> matchConsumer = invocation.getArgument(5);
+			List<GameFinishedDTO> listedMatches = matches.subList(0, Math.min(size.orElse(20), matches.size()));
+			listedMatches.forEach(matchConsumer);
+			((MatchHistoryProgress) invocation.getArgument(4)).listingComplete();
+			return CompletableFuture.completedFuture(listedMatches.size());
+		});
+	}
+
+	@Test
+	public void whenMoreGamesThanCountWerePlayedSinceTheWatermark_thenSyncAppendsAllOfThem() throws Exception {
+		givenMatchHistorySince(Optional.empty(), List.of(sampleMatch("EUW1_2", 2_000_500), sampleMatch("EUW1_1", 1_000_500)));
+		givenMatchHistorySince(Optional.of(2_000L), List.of(sampleMatch("EUW1_5", 5_000_500), sampleMatch("EUW1_4", 4_000_500),
+				sampleMatch("EUW1_3", 3_000_500), sampleMatch("EUW1_2", 2_000_500)));
+		ExportWatermarkRepository exportWatermarkRepository = new ExportWatermarkFileRepository(directory.resolve("export-watermarks.json").toString());
+		exportJobService.shutdown();
+		exportJobService = new ExportJobServiceImpl(riotLookUpServiceMock, List.of(new MatchHistoryCsvRepository(new MatchProjectionReader(new ObjectMapper().getFactory(), List.of()))), exportWatermarkRepository,
+				directory.toString(), "export-{id}", ExportCompression.NONE, DataSize.ofKilobytes(64), 1, 4, Duration.ofHours(1));
+
+		awaitFinished(exportJobService.submit("Atay Ch3ra", Optional.of(420), 2, ExportFormat.CSV, true).id);
+		ExportJobDTO secondSync = awaitFinished(exportJobService.submit("Atay Ch3ra", Optional.of(420), 2, ExportFormat.CSV, true).id);
+
+		List<String> lines = Files.readAllLines(directory.resolve("incremental").resolve("Atay_Ch3ra-420.csv"), StandardCharsets.UTF_8);
+		assertAll(
+				() -> assertEquals(ExportJobStatus.DONE, secondSync.status),
+				() -> assertEquals(6, lines.size()),
+				() -> assertTrue(lines.get(3).startsWith("2,EUW1_5,")),
+				() -> assertTrue(lines.get(4).startsWith("2,EUW1_4,")),
+				() -> assertTrue(lines.get(5).startsWith("2,EUW1_3,")),
+				() -> assertEquals("EUW1_5", exportWatermarkRepository.find("ataych3ra:420:CSV").orElseThrow().getMatchId())
+		);
+	}
+
+	@Test
+	public void whenSyncSkipsAMatch_thenFileAndWatermarkAreUnchanged() throws Exception {
+		givenMatchHistorySince(Optional.empty(), List.of(sampleMatch("EUW1_1", 1_000_500)));
+		when(riotLookUpServiceMock.streamMatchHistory(any(), any(), any(), eq(Optional.of(1_000L)), any(MatchHistoryProgress.class), any())).thenAnswer(invocation -> {
+			MatchHistoryProgress progress = invocation.getArgument(4);
+			Consumer<GameFinishedDTO> matchConsumer = invocation.getArgument(5);
+			matchConsumer.accept(sampleMatch("EUW1_3", 3_000_500));
+			progress.matchSkipped();
+			progress.listingComplete();
+			return CompletableFuture.completedFuture(1);
+		});
+		ExportWatermarkRepository exportWatermarkRepository = new ExportWatermarkFileRepository(directory.resolve("export-watermarks.json").toString());
+		exportJobService.shutdown();
+		exportJobService = new ExportJobServiceImpl(riotLookUpServiceMock, List.of(new MatchHistoryCsvRepository(new MatchProjectionReader(new ObjectMapper().getFactory(), List.of()))), exportWatermarkRepository,
+				directory.toString(), "export-{id}", ExportCompression.NONE, DataSize.ofKilobytes(64), 1, 4, Duration.ofHours(1));
+
+		awaitFinished(exportJobService.submit("Atay Ch3ra", Optional.of(420), 20, ExportFormat.CSV, true).id);
+		ExportJobDTO secondSync = awaitFinished(exportJobService.submit("Atay Ch3ra", Optional.of(420), 20, ExportFormat.CSV, true).id);
+
+		Path file = directory.resolve("incremental").resolve("Atay_Ch3ra-420.csv");
+		List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+		assertAll(
+				() -> assertEquals(ExportJobStatus.FAILED, secondSync.status),
+				() -> assertEquals(2, lines.size()),
+				() -> assertTrue(lines.get(1).startsWith("2,EUW1_1,")),
+				() -> assertFalse(Files.exists(file.resolveSibling(file.getFileName() + ".part"))),
+				() -> assertEquals("EUW1_1", exportWatermarkRepository.find("ataych3ra:420:CSV").orElseThrow().getMatchId())
+		);
+	}
+
+	@Test
+	public void whenSyncIsListing_thenItsTotalIsUnknown() throws Exception {
+		givenMatchHistorySince(Optional.empty(), List.of(sampleMatch("EUW1_1", 1_000_500)));
+		CountDownLatch listing = new CountDownLatch(1);
+		when(riotLookUpServiceMock.streamMatchHistory(any(), any(), any(), eq(Optional.of(1_000L)), any(MatchHistoryProgress.class), any())).thenAnswer(invocation -> {
+			MatchHistoryProgress progress = invocation.getArgument(4);
+			Consumer<GameFinishedDTO> matchConsumer = invocation.getArgument(5);
+			progress.matchesListed(1);
+			matchConsumer.accept(sampleMatch("EUW1_2", 2_000_500));
+			progress.matchFetched();
+			listing.await(5, TimeUnit.SECONDS);
+			progress.listingComplete();
+			return CompletableFuture.completedFuture(1);
+		});
+		ExportWatermarkRepository exportWatermarkRepository = new ExportWatermarkFileRepository(directory.resolve("export-watermarks.json").toString());
+		exportJobService.shutdown();
+		exportJobService = new ExportJobServiceImpl(riotLookUpServiceMock, List.of(new MatchHistoryCsvRepository(new MatchProjectionReader(new ObjectMapper().getFactory(), List.of()))), exportWatermarkRepository,
+				directory.toString(), "export-{id}", ExportCompression.NONE, DataSize.ofKilobytes(64), 1, 4, Duration.ofHours(1));
+		awaitFinished(exportJobService.submit("Atay Ch3ra", Optional.of(420), 20, ExportFormat.CSV, true).id);
+
+		long secondSyncId = exportJobService.submit("Atay Ch3ra", Optional.of(420), 20, ExportFormat.CSV, true).id;
+		for (int attempt = 0; attempt < 500 && exportJobService.findJob(secondSyncId).matchesFetched < 1; attempt++) {
+			Thread.sleep(10);
+		}
+		ExportJobDTO listingSync = exportJobService.findJob(secondSyncId);
+		listing.countDown();
+		ExportJobDTO secondSync = awaitFinished(secondSyncId);
+
+		assertAll(
+				() -> assertEquals(ExportJobStatus.RUNNING, listingSync.status),
+				() -> assertNull(listingSync.matchesTotal),
+				() -> assertNull(listingSync.etaSeconds),
+				() -> assertEquals(1, secondSync.matchesTotal)
+		);
+	}
+
+	@Test
+	public void whenProjectionChangedSinceTheLastSync_thenSyncStartsOverWithTheNewColumns() throws Exception {
+		givenMatchHistorySince(Optional.empty(), List.of(sampleMatch("EUW1_2", 2_000_500), sampleMatch("EUW1_1", 1_000_500)));
+		ExportWatermarkRepository exportWatermarkRepository = new ExportWatermarkFileRepository(directory.resolve("export-watermarks.json").toString());
+		exportJobService.shutdown();
+		exportJobService = new ExportJobServiceImpl(riotLookUpServiceMock, List.of(new MatchHistoryCsvRepository(new MatchProjectionReader(new ObjectMapper().getFactory(), List.of()))), exportWatermarkRepository,
+				directory.toString(), "export-{id}", ExportCompression.NONE, DataSize.ofKilobytes(64), 1, 4, Duration.ofHours(1));
+		awaitFinished(exportJobService.submit("Atay Ch3ra", Optional.of(420), 2, ExportFormat.CSV, true).id);
+		exportJobService.shutdown();
+		exportJobService = new ExportJobServiceImpl(riotLookUpServiceMock, List.of(new MatchHistoryCsvRepository(new MatchProjectionReader(new ObjectMapper().getFactory(), List.of("player_kills")))), exportWatermarkRepository,
+				directory.toString(), "export-{id}", ExportCompression.NONE, DataSize.ofKilobytes(64), 1, 4, Duration.ofHours(1));
+
+		ExportJobDTO projectedSync = awaitFinished(exportJobService.submit("Atay Ch3ra", Optional.of(420), 2, ExportFormat.CSV, true).id);
+
+		List<String> lines = Files.readAllLines(directory.resolve("incremental").resolve("Atay_Ch3ra-420.csv"), StandardCharsets.UTF_8);
+		assertAll(
+				() -> assertEquals(ExportJobStatus.DONE, projectedSync.status),
+				() -> assertEquals(3, lines.size()),
+				() -> assertEquals("metadata_matchId,info_gameCreation,info_gameEndTimestamp,player_kills", lines.get(0)),
+				() -> assertTrue(lines.get(1).startsWith("EUW1_2,")),
+				() -> assertEquals("EUW1_2", exportWatermarkRepository.find("ataych3ra:420:CSV:metadata_matchId,info_gameCreation,info_gameEndTimestamp,player_kills").orElseThrow().getMatchId())
+		);
+	}
+
+	@Test
+	public void whenColumnarExportIsIncremental_thenIllegalArgumentExceptionIsThrown() {
+		when(matchHistoryRepositoryMock.getFormat()).thenReturn(ExportFormat.COLUMNAR);
+		exportJobService.shutdown();
+		exportJobService = new ExportJobServiceImpl(riotLookUpServiceMock, List.of(matchHistoryRepositoryMock), exportWatermarkRepositoryMock,
+				directory.toString(), "export-{id}", ExportCompression.NONE, DataSize.ofKilobytes(64), 1, 4, Duration.ofHours(1));
+
+		assertThrows(IllegalArgumentException.class, () -> exportJobService.submit("Atay Ch3ra", Optional.empty(), 20, ExportFormat.COLUMNAR, true));
+	}
+
+	@Test
+	public void whenPathTemplateHasNoId_thenIllegalArgumentExceptionIsThrown() {
+		assertThrows(IllegalArgumentException.class, () -> new ExportJobServiceImpl(riotLookUpServiceMock, List.of(matchHistoryRepositoryMock), exportWatermarkRepositoryMock,
+				directory.toString(), "{summoner}/export", ExportCompression.NONE, DataSize.ofKilobytes(64), 1, 4, Duration.ofHours(1)));
+	}
+
+	@Test
+	public void whenLookUpFails_thenJobIsFailedWithItsCause() throws Exception {
+		when(riotLookUpServiceMock.streamMatchHistory(any(), any(), any(), any(), any(MatchHistoryProgress.class), any()))
+				.thenReturn(CompletableFuture.failedFuture(new IllegalArgumentException("unknown summoner")));
+
+		ExportJobDTO failedJob = awaitFinished(exportJobService.submit("nobody", Optional.empty(), 20, ExportFormat.CSV, false).id);
+
+		assertAll(
+				() -> assertEquals(ExportJobStatus.FAILED, failedJob.status),
+				() -> assertEquals("unknown summoner", failedJob.error)
+		);
+	}
+
+	@Test
+	public void whenFormatHasNoRepository_thenIllegalArgumentExceptionIsThrown() {
+		assertThrows(IllegalArgumentException.class, () -> exportJobService.submit("Atay Ch3ra", Optional.empty(), 20, ExportFormat.COLUMNAR, false));
+	}
+
+	@Test
+	public void whenJobIsUnknown_thenNoElementFoundExceptionIsThrown() {
+		assertThrows(NoElementFoundException.class, () -> exportJobService.findJob(42));
+	}
+}
@@ -0,0 +1,157 @@
+package com.medkha.lol_notes.services;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import com.medkha.lol_notes.dto.DeathDTO;
+import com.medkha.lol_notes.dto.EventInGameDTO;
+import com.medkha.lol_notes.dto.GameDTO;
+import com.medkha.lol_notes.dto.ReasonDTO;
+import com.medkha.lol_notes.services.impl.LiveDeathRecorderImpl;
+
+public class LiveDeathRecorderTest {
+
+	private DeathService deathServiceMock;
+	private ReasonService reasonServiceMock;
+	private LiveDeathRecorderImpl liveDeathRecorder;
+
+	private GameDTO sampleGame() {
+		GameDTO game = new GameDTO();
+		game.setId((long) 1);
+		return game;
+	}
+
+	private EventInGameDTO sampleChampionKill(String eventTime) {
+		EventInGameDTO event = new EventInGameDTO();
+		event.eventName = "ChampionKill";
+		event.eventTime = eventTime;
+		return event;
+	}
+
+	private ReasonDTO sampleReason() {
+		ReasonDTO reason = new ReasonDTO();
+		reason.setId((long) 1);
+		reason.setTitle("To review");
+		return reason;
+	}
+
+	@BeforeEach
+	void setup() {
+		this.deathServiceMock = mock(DeathService.class);
+		this.reasonServiceMock = mock(ReasonService.class);
+		this.liveDeathRecorder = new LiveDeathRecorderImpl(
+				deathServiceMock, reasonServiceMock, "To review", 20, Duration.ofHours(1), 2);
+	}
+
+	@AfterEach
+	void tearDown() throws InterruptedException {
+		this.liveDeathRecorder.shutdown();
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void whenDeathsAreFlushed_thenTheyAreSavedInOneBatch() {
+		when(reasonServiceMock.findAllReasons()).thenReturn(Set.of(sampleReason()));
+
+		liveDeathRecorder.recordDeath(sampleGame(), sampleChampionKill("125.72"));
+		liveDeathRecorder.recordDeath(sampleGame(), sampleChampionKill("1801.0"));
+		liveDeathRecorder.flush();
+
+		ArgumentCaptor<Collection<DeathDTO>> savedDeaths = ArgumentCaptor.forClass(Collection.class);
+		verify(deathServiceMock, times(1)).createDeaths(savedDeaths.capture());
+		DeathDTO[] deaths = savedDeaths.getValue().toArray(new DeathDTO[0]);
+		assertAll(
+				() -> assertEquals(2, deaths.length),
+				() -> assertEquals(2, deaths[0].getMinute()),
+				() -> assertEquals(30, deaths[1].getMinute()),
+				() -> assertEquals(sampleReason().getId(), deaths[1].getReason().getId()),
+				() -> verify(reasonServiceMock, times(0)).createReason(any())
+		);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void whenDeathHasNoEventTime_thenItIsSkipped() {
+		when(reasonServiceMock.findAllReasons()).thenReturn(Set.of(sampleReason()));
+
+		liveDeathRecorder.recordDeath(sampleGame(), sampleChampionKill(null));
+		liveDeathRecorder.recordDeath(sampleGame(), sampleChampionKill("not a time"));
+		liveDeathRecorder.recordDeath(sampleGame(), sampleChampionKill("125.72"));
+		liveDeathRecorder.flush();
+
+		ArgumentCaptor<Collection<DeathDTO>> savedDeaths = ArgumentCaptor.forClass(Collection.class);
+		verify(deathServiceMock, times(1)).createDeaths(savedDeaths.capture());
+		assertAll(
+				() -> assertEquals(1, savedDeaths.getValue().size()),
+				() -> assertEquals(2, savedDeaths.getValue().iterator().next().getMinute())
+		);
+	}
+
+	@Test
+	public void whenReasonIsMissing_thenItIsCreated() {
+		when(reasonServiceMock.findAllReasons()).thenReturn(Set.of());
+		when(reasonServiceMock.createReason(any())).thenReturn(sampleReason());
+
+		liveDeathRecorder.recordDeath(sampleGame(), sampleChampionKill("60.0"));
+		liveDeathRecorder.flush();
+
+		verify(reasonServiceMock, times(1)).createReason(any());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void whenSaveFails_thenDeathsAreKeptForTheNextFlush() {
+		when(reasonServiceMock.findAllReasons()).thenReturn(Set.of(sampleReason()));
+		when(deathServiceMock.createDeaths(anyCollection()))
+				.thenThrow(new DataAccessResourceFailureException("the database is down"))
+				.thenReturn(List.of());
+
+		liveDeathRecorder.recordDeath(sampleGame(), sampleChampionKill("125.72"));
+		liveDeathRecorder.flush();
+		liveDeathRecorder.flush();
+
+		ArgumentCaptor<Collection<DeathDTO>> savedDeaths = ArgumentCaptor.forClass(Collection.class);
+		verify(deathServiceMock, times(2)).createDeaths(savedDeaths.capture());
+		assertAll(
+				() -> assertEquals(1, savedDeaths.getAllValues().get(1).size()),
+				() -> assertEquals(2, savedDeaths.getAllValues().get(1).iterator().next().getMinute())
+		);
+	}
+
+	@Test
+	public void whenSaveFailsTooOften_thenDeathIsDropped() {
+		when(reasonServiceMock.findAllReasons()).thenReturn(Set.of(sampleReason()));
+		when(deathServiceMock.createDeaths(anyCollection())).thenThrow(new DataAccessResourceFailureException("the database is down"));
+
+		liveDeathRecorder.recordDeath(sampleGame(), sampleChampionKill("125.72"));
+		liveDeathRecorder.flush();
+		liveDeathRecorder.flush();
+		liveDeathRecorder.flush();
+
+		verify(deathServiceMock, times(2)).createDeaths(anyCollection());
+	}
+
+	@Test
+	public void whenNothingIsPending_thenNothingIsSaved() {
+		liveDeathRecorder.flush();
+
+		verify(deathServiceMock, times(0)).createDeaths(anyCollection());
+	}
+}
@@ -0,0 +1,152 @@
+package com.medkha.lol_notes.services;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.medkha.lol_notes.dto.ChampionEssentielsDto;
+import com.medkha.lol_notes.dto.EventInGameDTO;
+import com.medkha.lol_notes.dto.GameDTO;
+import com.medkha.lol_notes.dto.LiveGameDTO;
+import com.medkha.lol_notes.dto.PlayerDTO;
+import com.medkha.lol_notes.dto.QueueDTO;
+import com.medkha.lol_notes.dto.enums.PlayerGameStatus;
+import com.medkha.lol_notes.metrics.LiveTrackingMetrics;
+import com.medkha.lol_notes.services.impl.LiveGameServiceImpl;
+import com.medkha.lol_notes.util.AdaptivePollInterval;
+import com.medkha.lol_notes.util.CancellationToken;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class LiveGameServiceTest {
+
+	private RiotLookUpService riotLookUpServiceMock;
+	private GameService gameServiceMock;
+	private LiveGameServiceImpl liveGameService;
+
+	@BeforeEach
+	void setup() {
+		this.riotLookUpServiceMock = mock(RiotLookUpService.class);
+		this.gameServiceMock = mock(GameService.class);
+		ChampionService championServiceMock = mock(ChampionService.class);
+		QueueService queueServiceMock = mock(QueueService.class);
+		when(championServiceMock.getChampionByName(anyString())).thenReturn(new ChampionEssentielsDto(1, "Ahri", ""));
+		when(queueServiceMock.getAllQueuesWithoutDeprecate()).thenReturn(Set.of(new QueueDTO(0, "CUSTOM")));
+		when(gameServiceMock.createGame(any())).thenAnswer(invocation -> invocation.getArgument(0));
+		this.liveGameService = new LiveGameServiceImpl(riotLookUpServiceMock, gameServiceMock, championServiceMock, queueServiceMock,
+				new LiveTrackingMetrics(new SimpleMeterRegistry()),
+				() -> new AdaptivePollInterval(Duration.ofMillis(1), Duration.ofMillis(1), Duration.ofMillis(1), Duration.ofMinutes(14), 1.5, Clock.systemUTC()),
+				Duration.ofMillis(1));
+	}
+
+	private PlayerDTO samplePlayer() {
+		PlayerDTO player = new PlayerDTO();
+		player.summonerName = "atay ch3ra";
+		player.championName = "Ahri";
+		return player;
+	}
+
+	private LiveGameDTO sampleGameStats(String gameTime) {
+		LiveGameDTO liveGame = new LiveGameDTO();
+		liveGame.gameMode = "CUSTOM";
+		liveGame.gameTime = gameTime;
+		return liveGame;
+	}
+
+	private EventInGameDTO sampleGameEnd(String eventTime) {
+		EventInGameDTO event = new EventInGameDTO();
+		event.eventName = "GameEnd";
+		event.eventTime = eventTime;
+		return event;
+	}
+
+	@Test
+	public void whenGameIsCreated_thenTheLookedUpPlayerAndStatsAreNotChanged() {
+		CancellationToken tracking = new CancellationToken();
+		PlayerDTO activePlayer = samplePlayer();
+		activePlayer.championName = null;
+		LiveGameDTO liveGameStats = sampleGameStats("10.0");
+		liveGameStats.gameMode = "PRACTICETOOL";
+		when(riotLookUpServiceMock.getActivePlayerInLiveGameAsync()).thenReturn(CompletableFuture.completedFuture(activePlayer));
+		when(riotLookUpServiceMock.getAllPlayersInLiveGameAsync()).thenReturn(CompletableFuture.completedFuture(List.of(samplePlayer())));
+		when(riotLookUpServiceMock.getLiveGameAsync()).thenReturn(CompletableFuture.completedFuture(liveGameStats));
+
+		liveGameService.findLiveGame(tracking, () -> {
+			assertEquals("Ahri", liveGameService.getActivePlayer().orElseThrow().championName);
+			tracking.cancel();
+			return CompletableFuture.completedFuture(null);
+		});
+
+		assertAll(
+				() -> verify(gameServiceMock, times(1)).createGame(any(GameDTO.class)),
+				() -> assertNull(activePlayer.championName),
+				() -> assertEquals("PRACTICETOOL", liveGameStats.gameMode)
+		);
+	}
+
+	@Test
+	public void whenGameIsFound_thenEventTimesArePlacedOnItsClock() {
+		CancellationToken tracking = new CancellationToken();
+		when(riotLookUpServiceMock.getActivePlayerInLiveGameAsync()).thenReturn(CompletableFuture.completedFuture(samplePlayer()));
+		when(riotLookUpServiceMock.getAllPlayersInLiveGameAsync()).thenReturn(CompletableFuture.completedFuture(List.of(samplePlayer())));
+		when(riotLookUpServiceMock.getLiveGameAsync()).thenReturn(CompletableFuture.completedFuture(sampleGameStats("600.0")));
+		List<Duration> eventDelays = new ArrayList<>();
+
+		liveGameService.findLiveGame(tracking, () -> {
+			eventDelays.add(Duration.between(Instant.now(), liveGameService.getEventInstant("630.5").orElseThrow()));
+			tracking.cancel();
+			return CompletableFuture.completedFuture(null);
+		});
+
+		assertAll(
+				() -> assertEquals(1, eventDelays.size()),
+				() -> assertTrue(eventDelays.get(0).compareTo(Duration.ofSeconds(29)) > 0),
+				() -> assertTrue(eventDelays.get(0).compareTo(Duration.ofMillis(30_500)) <= 0),
+				() -> assertTrue(liveGameService.getEventInstant("630.5").isEmpty())
+		);
+	}
+
+	@Test
+	public void whenGameClientStillShowsTheEndedGame_thenItIsNotCreatedAgain() {
+		CancellationToken tracking = new CancellationToken();
+		when(riotLookUpServiceMock.getActivePlayerInLiveGameAsync()).thenAnswer(invocation -> CompletableFuture.completedFuture(samplePlayer()));
+		when(riotLookUpServiceMock.getAllPlayersInLiveGameAsync()).thenAnswer(invocation -> CompletableFuture.completedFuture(List.of(samplePlayer())));
+		when(riotLookUpServiceMock.getLiveGameAsync())
+				.thenReturn(CompletableFuture.completedFuture(sampleGameStats("10.0")))
+				// the post game screen, the clock of the ended game went on.
+				.thenReturn(CompletableFuture.completedFuture(sampleGameStats("1805.0")))
+				.thenReturn(CompletableFuture.completedFuture(sampleGameStats("1810.0")))
+				// the next game.
+				.thenReturn(CompletableFuture.completedFuture(sampleGameStats("3.0")))
+				.thenAnswer(invocation -> {
+					tracking.cancel();
+					return CompletableFuture.completedFuture(null);
+				});
+
+		liveGameService.findLiveGame(tracking, () -> {
+			liveGameService.setPlayerGameStatus(PlayerGameStatus.IDLE);
+			List<EventInGameDTO> gameEnd = List.of(sampleGameEnd("1800.0"));
+			return CompletableFuture.completedFuture(gameEnd);
+		});
+
+		verify(gameServiceMock, times(2)).createGame(any(GameDTO.class));
+	}
+}
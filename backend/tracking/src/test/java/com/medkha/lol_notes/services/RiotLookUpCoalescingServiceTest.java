@@ -0,0 +1,101 @@
+package com.medkha.lol_notes.services;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.medkha.lol_notes.dto.LiveGameDTO;
+import com.medkha.lol_notes.dto.PlayerDTO;
+import com.medkha.lol_notes.services.impl.RiotLookUpCoalescingServiceImpl;
+
+public class RiotLookUpCoalescingServiceTest {
+
+	private RiotLookUpService riotLookUpServiceMock;
+	private RiotLookUpService riotLookUpService;
+
+	private PlayerDTO samplePlayer() {
+		PlayerDTO player = new PlayerDTO();
+		player.id = "summoner-id";
+		player.summonerName = "atay ch3ra";
+		return player;
+	}
+
+	@BeforeEach
+	void setup() {
+		this.riotLookUpServiceMock = mock(RiotLookUpService.class);
+		this.riotLookUpService = new RiotLookUpCoalescingServiceImpl(riotLookUpServiceMock, Duration.ofMinutes(1));
+	}
+
+	@Test
+	public void whenLookUpIsInFlight_thenConcurrentCallersShareIt() {
+		CompletableFuture<PlayerDTO> activePlayerLookUp = new CompletableFuture<>();
+		when(riotLookUpServiceMock.getActivePlayerInLiveGameAsync()).thenReturn(activePlayerLookUp);
+
+		CompletableFuture<PlayerDTO> firstCaller = riotLookUpService.getActivePlayerInLiveGameAsync();
+		CompletableFuture<PlayerDTO> secondCaller = riotLookUpService.getActivePlayerInLiveGameAsync();
+		activePlayerLookUp.complete(samplePlayer());
+
+		assertAll(
+				() -> assertSame(firstCaller, secondCaller),
+				() -> assertEquals("summoner-id", secondCaller.get().id),
+				() -> verify(riotLookUpServiceMock, times(1)).getActivePlayerInLiveGameAsync()
+		);
+	}
+
+	@Test
+	public void whenLookUpIsRecent_thenResultIsReused() throws Exception {
+		when(riotLookUpServiceMock.getActivePlayerInLiveGameAsync()).thenReturn(CompletableFuture.completedFuture(samplePlayer()));
+
+		riotLookUpService.getActivePlayerInLiveGameAsync().get();
+		PlayerDTO reusedPlayer = riotLookUpService.getActivePlayerInLiveGameAsync().get();
+
+		assertAll(
+				() -> assertEquals("summoner-id", reusedPlayer.id),
+				() -> verify(riotLookUpServiceMock, times(1)).getActivePlayerInLiveGameAsync()
+		);
+	}
+
+	@Test
+	public void whenLiveGameIsLookedUp_thenActivePlayerLookUpIsShared() throws Exception {
+		LiveGameDTO liveGame = new LiveGameDTO();
+		liveGame.gameMode = "CLASSIC";
+		when(riotLookUpServiceMock.getActivePlayerInLiveGameAsync()).thenReturn(CompletableFuture.completedFuture(samplePlayer()));
+		when(riotLookUpServiceMock.getLiveGameAsync(any(PlayerDTO.class))).thenReturn(CompletableFuture.completedFuture(liveGame));
+
+		LiveGameDTO foundLiveGame = riotLookUpService.getLiveGameAsync().get();
+		PlayerDTO activePlayer = riotLookUpService.getActivePlayerInLiveGameAsync().get();
+
+		assertAll(
+				() -> assertEquals("CLASSIC", foundLiveGame.gameMode),
+				() -> assertEquals("summoner-id", activePlayer.id),
+				() -> verify(riotLookUpServiceMock, times(1)).getActivePlayerInLiveGameAsync()
+		);
+	}
+
+	@Test
+	public void whenLookUpFails_thenNextCallRetries() {
+		when(riotLookUpServiceMock.getActivePlayerInLiveGameAsync())
+				.thenReturn(CompletableFuture.failedFuture(new IllegalStateException("game not started")))
+				.thenReturn(CompletableFuture.completedFuture(samplePlayer()));
+
+		CompletableFuture<PlayerDTO> failedLookUp = riotLookUpService.getActivePlayerInLiveGameAsync();
+		CompletableFuture<PlayerDTO> retriedLookUp = riotLookUpService.getActivePlayerInLiveGameAsync();
+
+		assertAll(
+				() -> assertTrue(failedLookUp.isCompletedExceptionally()),
+				() -> assertEquals("summoner-id", retriedLookUp.get().id)
+		);
+	}
+}
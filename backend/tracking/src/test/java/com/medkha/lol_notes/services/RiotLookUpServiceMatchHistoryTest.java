@@ -0,0 +1,241 @@
+package com.medkha.lol_notes.services;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medkha.lol_notes.dto.GameFinishedDTO;
+import com.medkha.lol_notes.dto.IdPlayerDTO;
+import com.medkha.lol_notes.metrics.LiveTrackingMetrics;
+import com.medkha.lol_notes.repositories.MatchHistoryCursorRepository;
+import com.medkha.lol_notes.repositories.MatchStoreRepository;
+import com.medkha.lol_notes.services.impl.RiotLookUpServiceImpl;
+import com.medkha.lol_notes.util.MatchHistoryCursor;
+import com.medkha.lol_notes.util.MatchHistoryProgress;
+import com.medkha.lol_notes.util.MatchProjectionReader;
+
+public class RiotLookUpServiceMatchHistoryTest {
+
+	private RestTemplate riotApiRestTemplateMock;
+	private MatchHistoryCursorRepository matchHistoryCursorRepositoryMock;
+	private MatchStoreRepository matchStoreRepositoryMock;
+	private RiotLookUpService riotLookUpService;
+
+	private byte[] sampleMatch(String matchId) {
+		return ("{\"metadata\":{\"dataVersion\":\"2\",\"matchId\":\"" + matchId + "\"},\"info\":{}}").getBytes(StandardCharsets.UTF_8);
+	}
+
+	private byte[] sampleMatchFromUrl(String url) {
+		return sampleMatch(url.substring(url.indexOf("EUW1_"), url.indexOf('?')));
+	}
+
+	@BeforeEach
+	void setup() {
+		this.riotApiRestTemplateMock = mock(RestTemplate.class);
+		SummonerIdentityService summonerIdentityServiceMock = mock(SummonerIdentityService.class);
+		IdPlayerDTO identity = new IdPlayerDTO();
+		identity.puuid = "summoner-puuid";
+		when(summonerIdentityServiceMock.findIdentity("atay ch3ra")).thenReturn(Optional.of(identity));
+		this.matchHistoryCursorRepositoryMock = mock(MatchHistoryCursorRepository.class);
+		when(matchHistoryCursorRepositoryMock.find(any(), any(), any(), any())).thenReturn(Optional.empty());
+		this.matchStoreRepositoryMock = mock(MatchStoreRepository.class);
+		when(matchStoreRepositoryMock.find(any())).thenReturn(Optional.empty());
+		this.riotLookUpService = new RiotLookUpServiceImpl(
+				mock(RestTemplate.class), riotApiRestTemplateMock, summonerIdentityServiceMock,
+				mock(LiveGameService.class), mock(LiveTrackingMetrics.class), matchHistoryCursorRepositoryMock,
+				matchStoreRepositoryMock, new MatchProjectionReader(new ObjectMapper().getFactory(), List.of()), 3, Duration.ofDays(1));
+	}
+
+	private Set<GameFinishedDTO> exportMatchHistory(String summonerName, Optional<Integer> queueId, Optional<Integer> size) throws Exception {
+		Set<GameFinishedDTO> matchHistory = ConcurrentHashMap.newKeySet();
+		int consumedMatches = riotLookUpService.streamMatchHistory(summonerName, queueId, size, Optional.empty(), new MatchHistoryProgress(), matchHistory::add).get();
+		assertEquals(matchHistory.size(), consumedMatches);
+		return matchHistory;
+	}
+
+	@SuppressWarnings("unchecked")
+	private void givenMatchIds(List<String> matchIds) {
+		when(riotApiRestTemplateMock.exchange(contains("/ids?"), eq(HttpMethod.GET), any(), any(ParameterizedTypeReference.class)))
+				.thenReturn(ResponseEntity.ok(matchIds));
+	}
+
+	@Test
+	public void whenMatchHistoryIsExported_thenMatchDetailsAreFetchedConcurrently() throws Exception {
+		givenMatchIds(List.of("EUW1_1", "EUW1_2", "EUW1_3"));
+		// every fetch waits for the two others, a serial fetcher would never get past the first one.
+		CountDownLatch inFlight = new CountDownLatch(3);
+		when(riotApiRestTemplateMock.getForObject(contains("/matches/EUW1_"), eq(byte[].class))).thenAnswer(invocation -> {
+			inFlight.countDown();
+			if (!inFlight.await(5, TimeUnit.SECONDS)) {
+				throw new IllegalStateException("the match details were fetched one at a time");
+			}
+			return sampleMatchFromUrl(invocation.getArgument(0));
+		});
+
+		Set<GameFinishedDTO> matchHistory = exportMatchHistory("atay ch3ra", Optional.of(420), Optional.of(3));
+
+		assertEquals(Set.of("EUW1_1", "EUW1_2", "EUW1_3"),
+				matchHistory.stream().map(match -> match.metadata.matchId).collect(Collectors.toSet()));
+	}
+
+	@Test
+	public void whenOneMatchFails_thenTheRestOfTheHistoryIsKept() throws Exception {
+		givenMatchIds(List.of("EUW1_1", "EUW1_2"));
+		when(riotApiRestTemplateMock.getForObject(anyString(), eq(byte[].class))).thenAnswer(invocation -> {
+			String url = invocation.getArgument(0);
+			if (url.contains("EUW1_2")) {
+				throw new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE);
+			}
+			return sampleMatch("EUW1_1");
+		});
+
+		Set<GameFinishedDTO> matchHistory = exportMatchHistory("atay ch3ra", Optional.empty(), Optional.of(2));
+
+		assertAll(
+				() -> assertEquals(1, matchHistory.size()),
+				() -> assertTrue(matchHistory.stream().allMatch(match -> match.metadata.matchId.equals("EUW1_1")))
+		);
+	}
+
+	@SuppressWarnings("unchecked")
+	private void givenNewestMatchIds(List<String> matchIds) {
+		when(riotApiRestTemplateMock.exchange(contains("/ids?start=0&count=1&"), eq(HttpMethod.GET), any(), any(ParameterizedTypeReference.class)))
+				.thenReturn(ResponseEntity.ok(matchIds));
+	}
+
+	private MatchHistoryCursor givenUnfinishedCursor() {
+		MatchHistoryCursor unfinishedCursor = new MatchHistoryCursor("summoner-puuid", Optional.of(420), Optional.empty(), 3, 1, "EUW1_1", List.of("EUW1_1"), false, Instant.now());
+		when(matchHistoryCursorRepositoryMock.find(eq("summoner-puuid"), eq(Optional.of(420)), eq(Optional.empty()), any())).thenReturn(Optional.of(unfinishedCursor));
+		return unfinishedCursor;
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void whenExportWasCutShort_thenItResumesFromTheCursor() throws Exception {
+		MatchHistoryCursor unfinishedCursor = givenUnfinishedCursor();
+		givenMatchIds(List.of("EUW1_2"));
+		givenNewestMatchIds(List.of("EUW1_1"));
+		when(riotApiRestTemplateMock.getForObject(anyString(), eq(byte[].class))).thenAnswer(invocation -> {
+			return sampleMatchFromUrl(invocation.getArgument(0));
+		});
+
+		Set<GameFinishedDTO> matchHistory = exportMatchHistory("atay ch3ra", Optional.of(420), Optional.of(3));
+
+		assertAll(
+				() -> assertEquals(Set.of("EUW1_1", "EUW1_2"),
+						matchHistory.stream().map(match -> match.metadata.matchId).collect(Collectors.toSet())),
+				() -> verify(riotApiRestTemplateMock).exchange(contains("/ids?start=1&count=2&queue=420"), eq(HttpMethod.GET), any(), any(ParameterizedTypeReference.class)),
+				() -> verify(matchHistoryCursorRepositoryMock).delete(unfinishedCursor)
+		);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void whenGamesWerePlayedSinceTheExportWasCutShort_thenItStartsOver() throws Exception {
+		givenUnfinishedCursor();
+		givenMatchIds(List.of("EUW1_9", "EUW1_1", "EUW1_0"));
+		givenNewestMatchIds(List.of("EUW1_9"));
+		when(riotApiRestTemplateMock.getForObject(anyString(), eq(byte[].class))).thenAnswer(invocation -> sampleMatchFromUrl(invocation.getArgument(0)));
+
+		Set<GameFinishedDTO> matchHistory = exportMatchHistory("atay ch3ra", Optional.of(420), Optional.of(3));
+
+		assertAll(
+				() -> assertEquals(Set.of("EUW1_9", "EUW1_1", "EUW1_0"),
+						matchHistory.stream().map(match -> match.metadata.matchId).collect(Collectors.toSet())),
+				() -> verify(riotApiRestTemplateMock).exchange(contains("/ids?start=0&count=3&queue=420"), eq(HttpMethod.GET), any(), any(ParameterizedTypeReference.class))
+		);
+	}
+
+	@Test
+	public void whenMatchConsumerFails_thenTheCursorIsDeleted() {
+		givenMatchIds(List.of("EUW1_1", "EUW1_2"));
+		when(riotApiRestTemplateMock.getForObject(anyString(), eq(byte[].class))).thenAnswer(invocation -> sampleMatchFromUrl(invocation.getArgument(0)));
+
+		CompletableFuture<Integer> export = riotLookUpService.streamMatchHistory("atay ch3ra", Optional.empty(), Optional.of(2), Optional.empty(), new MatchHistoryProgress(), match -> {
+			throw new UncheckedIOException(new IOException("disk full"));
+		});
+
+		assertAll(
+				() -> assertThrows(ExecutionException.class, export::get),
+				() -> verify(matchHistoryCursorRepositoryMock).delete(any(MatchHistoryCursor.class))
+		);
+	}
+
+	@Test
+	public void whenMatchIsStored_thenItIsNotDownloadedAgain() throws Exception {
+		givenMatchIds(List.of("EUW1_1", "EUW1_2"));
+		when(matchStoreRepositoryMock.find("EUW1_1")).thenReturn(Optional.of(sampleMatch("EUW1_1")));
+		when(riotApiRestTemplateMock.getForObject(anyString(), eq(byte[].class))).thenAnswer(invocation -> sampleMatchFromUrl(invocation.getArgument(0)));
+
+		Set<GameFinishedDTO> matchHistory = exportMatchHistory("atay ch3ra", Optional.empty(), Optional.of(2));
+
+		assertAll(
+				() -> assertEquals(2, matchHistory.size()),
+				() -> verify(riotApiRestTemplateMock, never()).getForObject(contains("EUW1_1"), eq(byte[].class)),
+				() -> verify(matchStoreRepositoryMock).save(eq("EUW1_2"), any(byte[].class))
+		);
+	}
+
+	@Test
+	public void whenConsumerIsSlow_thenFetchesWaitForIt() throws Exception {
+		givenMatchIds(IntStream.range(0, 20).mapToObj(id -> "EUW1_" + id).collect(Collectors.toList()));
+		AtomicInteger fetchedMatches = new AtomicInteger();
+		when(riotApiRestTemplateMock.getForObject(anyString(), eq(byte[].class))).thenAnswer(invocation -> {
+			fetchedMatches.incrementAndGet();
+			return sampleMatchFromUrl(invocation.getArgument(0));
+		});
+		AtomicInteger consumedMatches = new AtomicInteger();
+		AtomicInteger mostMatchesHeld = new AtomicInteger();
+
+		riotLookUpService.streamMatchHistory("atay ch3ra", Optional.empty(), Optional.of(20), Optional.empty(), new MatchHistoryProgress(), match -> {
+			mostMatchesHeld.accumulateAndGet(fetchedMatches.get() - consumedMatches.get(), Math::max);
+			try {
+				Thread.sleep(5);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			consumedMatches.incrementAndGet();
+		}).get();
+
+		assertAll(
+				() -> assertEquals(20, consumedMatches.get()),
+				() -> assertTrue(mostMatchesHeld.get() <= 3, "at most 3 matches should be held, " + mostMatchesHeld.get() + " were")
+		);
+	}
+}
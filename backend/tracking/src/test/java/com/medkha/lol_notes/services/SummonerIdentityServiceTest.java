@@ -0,0 +1,75 @@
+package com.medkha.lol_notes.services;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.medkha.lol_notes.dto.IdPlayerDTO;
+import com.medkha.lol_notes.repositories.SummonerIdentityRepository;
+import com.medkha.lol_notes.services.impl.SummonerIdentityServiceImpl;
+
+public class SummonerIdentityServiceTest {
+
+	private SummonerIdentityRepository summonerIdentityRepositoryMock;
+	private SummonerIdentityService summonerIdentityService;
+
+	private IdPlayerDTO sampleIdentity() {
+		IdPlayerDTO identity = new IdPlayerDTO();
+		identity.id = "summoner-id";
+		identity.puuid = "summoner-puuid";
+		return identity;
+	}
+
+	@BeforeEach
+	void setup() {
+		this.summonerIdentityRepositoryMock = mock(SummonerIdentityRepository.class);
+		this.summonerIdentityService = new SummonerIdentityServiceImpl(
+				summonerIdentityRepositoryMock, Duration.ofHours(1), Duration.ofDays(7));
+	}
+
+	@Test
+	public void whenIdentityIsSaved_thenItIsFoundInMemory() {
+		summonerIdentityService.saveIdentity("Atay Ch3ra", sampleIdentity());
+
+		Optional<IdPlayerDTO> identity = summonerIdentityService.findIdentity("atay ch3ra");
+
+		assertAll(
+				() -> assertEquals("summoner-puuid", identity.orElseThrow().puuid),
+				() -> verify(summonerIdentityRepositoryMock).save(eq("ataych3ra"), any(IdPlayerDTO.class)),
+				() -> verify(summonerIdentityRepositoryMock, times(0)).findBySummonerName(any(), any())
+		);
+	}
+
+	@Test
+	public void whenIdentityIsOnlyStored_thenItIsLoadedFromTheRepository() {
+		when(summonerIdentityRepositoryMock.findBySummonerName(eq("ataych3ra"), any())).thenReturn(Optional.of(sampleIdentity()));
+
+		Optional<IdPlayerDTO> firstLookUp = summonerIdentityService.findIdentity("AtayCh3ra");
+		Optional<IdPlayerDTO> secondLookUp = summonerIdentityService.findIdentity("AtayCh3ra");
+
+		assertAll(
+				() -> assertEquals("summoner-id", firstLookUp.orElseThrow().id),
+				() -> assertTrue(secondLookUp.isPresent()),
+				() -> verify(summonerIdentityRepositoryMock, times(1)).findBySummonerName(eq("ataych3ra"), any())
+		);
+	}
+
+	@Test
+	public void whenIdentityIsUnknown_thenEmptyIsReturned() {
+		when(summonerIdentityRepositoryMock.findBySummonerName(any(), any())).thenReturn(Optional.empty());
+
+		assertTrue(summonerIdentityService.findIdentity("unknown").isEmpty());
+	}
+}
@@ -0,0 +1,82 @@
+package com.medkha.lol_notes.simulator;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.security.KeyStore;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManagerFactory;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class LiveClientSimulatorTest {
+
+	private LiveClientSimulator liveClientSimulator;
+	private HttpClient httpClient;
+	private int port;
+
+	@BeforeEach
+	void setup() throws Exception {
+		SimulatorKeyStore simulatorKeyStore = SimulatorKeyStore.generate();
+		try (ServerSocket freePort = new ServerSocket(0)) {
+			port = freePort.getLocalPort();
+		}
+		GameTimeline timeline = GameTimeline.synthetic(1, "atay ch3ra", Duration.ofMinutes(30));
+		liveClientSimulator = new LiveClientSimulator(
+				List.of(new SimulatedGame(timeline, 1, Duration.ofSeconds(15), true, Clock.systemUTC())),
+				port, simulatorKeyStore.sslContext(), 2, new SimpleMeterRegistry());
+		liveClientSimulator.start();
+
+		// the client trusts the generated certificate the same way the tracker does.
+		KeyStore trustStore = KeyStore.getInstance(KeyStore.getDefaultType());
+		trustStore.load(null, null);
+		trustStore.setCertificateEntry("lol-notes-simulator", simulatorKeyStore.getCertificate());
+		TrustManagerFactory trustManagerFactory = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+		trustManagerFactory.init(trustStore);
+		SSLContext clientContext = SSLContext.getInstance("TLS");
+		clientContext.init(null, trustManagerFactory.getTrustManagers(), null);
+		httpClient = HttpClient.newBuilder().sslContext(clientContext).build();
+	}
+
+	@AfterEach
+	void tearDown() {
+		liveClientSimulator.stop();
+	}
+
+	private HttpResponse<String> get(String path) throws Exception {
+		return httpClient.send(HttpRequest.newBuilder(URI.create("https://127.0.0.1:" + port + path)).build(),
+				HttpResponse.BodyHandlers.ofString());
+	}
+
+	@Test
+	public void whenActivePlayerIsRequested_thenItIsServedOverHttps() throws Exception {
+		HttpResponse<String> response = get("/liveclientdata/activeplayer");
+		JsonNode activePlayer = new ObjectMapper().readTree(response.body());
+
+		assertAll(
+				() -> assertEquals(200, response.statusCode()),
+				() -> assertEquals("atay ch3ra", activePlayer.path("summonerName").asText())
+		);
+	}
+
+	@Test
+	public void whenEndpointIsUnknown_thenNotFoundIsReturned() throws Exception {
+		assertEquals(404, get("/liveclientdata/unknown").statusCode());
+	}
+}
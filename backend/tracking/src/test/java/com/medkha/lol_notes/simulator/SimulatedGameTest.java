@@ -0,0 +1,104 @@
+package com.medkha.lol_notes.simulator;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class SimulatedGameTest {
+
+	private MovingClock clock;
+
+	private static class MovingClock extends Clock {
+		private Instant instant = Instant.parse("2021-03-01T20:00:00Z");
+
+		void advance(Duration duration) {
+			instant = instant.plus(duration);
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+
+		@Override
+		public Instant instant() {
+			return instant;
+		}
+	}
+
+	private GameTimeline recordedTimeline() throws Exception {
+		return GameTimeline.fromRecording(new ObjectMapper().readTree((
+				"{'activePlayer':{'summonerName':'atay ch3ra','level':1,'currentGold':500.0},"
+				+ "'allPlayers':[{'summonerName':'atay ch3ra','championName':'Draven','team':'ORDER'},"
+				+ "{'summonerName':'enemy','championName':'Ahri','team':'CHAOS'}],"
+				+ "'gameData':{'gameMode':'CLASSIC','gameTime':1500.0},"
+				+ "'events':{'Events':["
+				+ "{'EventID':0,'EventName':'GameStart','EventTime':0.0},"
+				+ "{'EventID':1,'EventName':'ChampionKill','EventTime':125.7,'KillerName':'enemy','VictimName':'atay ch3ra','Assisters':[]},"
+				+ "{'EventID':2,'EventName':'ChampionKill','EventTime':900.0,'KillerName':'atay ch3ra','VictimName':'enemy','Assisters':[]},"
+				+ "{'EventID':3,'EventName':'GameEnd','EventTime':1500.0,'Result':'Win'}]}}").replace('\'', '"')));
+	}
+
+	@BeforeEach
+	void setup() {
+		this.clock = new MovingClock();
+	}
+
+	@Test
+	public void whenTimeIsAccelerated_thenOnlyTheEventsThatHappenedAreServed() throws Exception {
+		SimulatedGame game = new SimulatedGame(recordedTimeline(), 10, Duration.ofSeconds(15), true, clock);
+		clock.advance(Duration.ofSeconds(20));
+
+		JsonNode eventData = game.eventData();
+		JsonNode playerList = game.playerList();
+
+		assertAll(
+				() -> assertEquals(200.0, game.gameStats().path("gameTime").asDouble()),
+				() -> assertEquals(2, eventData.path("Events").size()),
+				() -> assertEquals(1, playerList.get(0).path("scores").path("deaths").asInt()),
+				() -> assertEquals(1, playerList.get(1).path("scores").path("kills").asInt())
+		);
+	}
+
+	@Test
+	public void whenGameEnded_thenItIsHeldThenStartsOver() throws Exception {
+		SimulatedGame game = new SimulatedGame(recordedTimeline(), 10, Duration.ofSeconds(15), true, clock);
+		clock.advance(Duration.ofSeconds(160));
+		JsonNode endedGameEvents = game.eventData();
+		clock.advance(Duration.ofSeconds(10));
+
+		assertAll(
+				() -> assertEquals(4, endedGameEvents.path("Events").size()),
+				() -> assertEquals(0.0, game.gameTime())
+		);
+	}
+
+	@Test
+	public void whenSyntheticGameIsGenerated_thenItIsReproducible() {
+		GameTimeline firstTimeline = GameTimeline.synthetic(7, "atay ch3ra", Duration.ofMinutes(30));
+		GameTimeline secondTimeline = GameTimeline.synthetic(7, "atay ch3ra", Duration.ofMinutes(30));
+
+		assertAll(
+				() -> assertEquals(firstTimeline.getEvents(), secondTimeline.getEvents()),
+				() -> assertEquals("GameEnd", firstTimeline.getEvents().get(firstTimeline.getEvents().size() - 1).path("EventName").asText()),
+				() -> assertTrue(firstTimeline.getEvents().stream().anyMatch(event -> event.path("EventName").asText().equals("ChampionKill")))
+		);
+	}
+}
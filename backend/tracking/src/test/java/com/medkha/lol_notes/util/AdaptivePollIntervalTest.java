@@ -0,0 +1,63 @@
+package com.medkha.lol_notes.util;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.medkha.lol_notes.dto.EventInGameDTO;
+
+public class AdaptivePollIntervalTest {
+
+	private final Clock clock = Clock.fixed(Instant.parse("2026-01-01T00:00:00Z"), ZoneOffset.UTC);
+
+	private AdaptivePollInterval pollInterval() {
+		return new AdaptivePollInterval(Duration.ofMillis(500), Duration.ofSeconds(5), Duration.ofSeconds(2),
+				Duration.ofMinutes(14), 2, clock);
+	}
+
+	private EventInGameDTO event(String eventName, String eventTime) {
+		EventInGameDTO event = new EventInGameDTO();
+		event.eventName = eventName;
+		event.eventTime = eventTime;
+		return event;
+	}
+
+	@Test
+	public void whenKillsArrive_thenIntervalDropsToMinThenBacksOff() {
+		AdaptivePollInterval pollInterval = pollInterval();
+
+		Duration afterKill = pollInterval.next(List.of(event("ChampionKill", "300.5")));
+		Duration firstQuietPoll = pollInterval.next(List.of());
+		Duration secondQuietPoll = pollInterval.next(List.of(event("MinionsSpawning", "301.0")));
+
+		assertAll(
+				() -> assertEquals(Duration.ofMillis(500), afterKill),
+				() -> assertEquals(Duration.ofSeconds(1), firstQuietPoll),
+				() -> assertEquals(Duration.ofSeconds(2), secondQuietPoll)
+		);
+	}
+
+	@Test
+	public void whenQuiet_thenIntervalIsBoundedByThePhaseCeiling() {
+		AdaptivePollInterval pollInterval = pollInterval();
+		for (int poll = 0; poll < 10; poll++) {
+			pollInterval.next(List.of());
+		}
+		Duration laningCeiling = pollInterval.current();
+
+		Duration lateGameCeiling = pollInterval.next(List.of(event("DragonKill", "900.0")));
+
+		assertAll(
+				() -> assertEquals(Duration.ofSeconds(5), laningCeiling),
+				() -> assertEquals(Duration.ofMinutes(15), pollInterval.gameTime()),
+				() -> assertEquals(Duration.ofSeconds(2), lateGameCeiling)
+		);
+	}
+}
@@ -0,0 +1,72 @@
+package com.medkha.lol_notes.util;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+public class CancellationTokenTest {
+
+	@Test
+	public void whenCancelled_thenSleepReturnsRightAway() throws Exception {
+		CancellationToken token = new CancellationToken();
+		CompletableFuture<Boolean> sleeper = CompletableFuture.supplyAsync(() -> {
+			try {
+				return token.sleep(Duration.ofMinutes(1));
+			} catch (InterruptedException e) {
+				throw new IllegalStateException(e);
+			}
+		});
+
+		token.cancel();
+
+		assertFalse(sleeper.get(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void whenNotCancelled_thenSleepLastsItsDuration() throws Exception {
+		assertTrue(new CancellationToken().sleep(Duration.ofMillis(10)));
+	}
+
+	@Test
+	public void whenCancelledTwice_thenCallbacksRunOnce() {
+		CancellationToken token = new CancellationToken();
+		AtomicInteger runs = new AtomicInteger();
+		token.onCancel(runs::incrementAndGet);
+
+		token.cancel();
+		token.cancel();
+
+		assertAll(
+				() -> assertTrue(token.isCancelled()),
+				() -> assertEquals(1, runs.get())
+		);
+	}
+
+	@Test
+	public void whenRegistrationIsClosed_thenCallbackIsNotRun() {
+		CancellationToken token = new CancellationToken();
+		AtomicInteger runs = new AtomicInteger();
+		token.onCancel(runs::incrementAndGet).close();
+
+		token.cancel();
+
+		assertEquals(0, runs.get());
+	}
+
+	@Test
+	public void whenAlreadyCancelled_thenCallbackRunsRightAway() {
+		AtomicInteger runs = new AtomicInteger();
+
+		CancellationToken.cancelled().onCancel(runs::incrementAndGet);
+
+		assertEquals(1, runs.get());
+	}
+}
@@ -0,0 +1,43 @@
+package com.medkha.lol_notes.util;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+public class EventRingBufferTest {
+
+	@Test
+	public void whenItemsAreAdded_thenTheyAreReturnedAfterTheGivenId() {
+		EventRingBuffer<String> buffer = new EventRingBuffer<>(4);
+		buffer.add("first");
+		buffer.add("second");
+		buffer.add("third");
+
+		List<EventRingBuffer.Entry<String>> entries = buffer.since(1);
+
+		assertAll(
+				() -> assertEquals(List.of(2L, 3L), entries.stream().map(entry -> entry.id).collect(Collectors.toList())),
+				() -> assertEquals(List.of("second", "third"), entries.stream().map(entry -> entry.item).collect(Collectors.toList())),
+				() -> assertTrue(buffer.since(3).isEmpty())
+		);
+	}
+
+	@Test
+	public void whenCapacityIsExceeded_thenOldestItemsAreEvicted() {
+		EventRingBuffer<Integer> buffer = new EventRingBuffer<>(3);
+		for (int item = 1; item <= 5; item++) {
+			buffer.add(item);
+		}
+
+		assertAll(
+				() -> assertEquals(3, buffer.oldestId()),
+				() -> assertEquals(5, buffer.getLastId()),
+				() -> assertEquals(List.of(3, 4, 5), buffer.since(0).stream().map(entry -> entry.item).collect(Collectors.toList()))
+		);
+	}
+}
@@ -0,0 +1,54 @@
+package com.medkha.lol_notes.util;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.medkha.lol_notes.dto.enums.ExportCompression;
+
+public class ExportFileSinkTest {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	public void whenSinkIsCommitted_thenFileAppearsWithEverythingWritten() throws Exception {
+		Path file = directory.resolve("export.csv");
+		ExportFileSink sink = ExportFileSink.open(file, ExportCompression.NONE, 16);
+
+		sink.getOutputStream().write("a line longer than the buffer\n".getBytes(StandardCharsets.UTF_8));
+		sink.getOutputStream().close();
+		boolean existedBeforeCommit = Files.exists(file);
+		sink.commit();
+
+		assertAll(
+				() -> assertFalse(existedBeforeCommit),
+				() -> assertEquals("a line longer than the buffer\n", Files.readString(file)),
+				() -> assertFalse(Files.exists(directory.resolve("export.csv.part")))
+		);
+	}
+
+	@Test
+	public void whenSinkIsAborted_thenNothingIsLeft() throws Exception {
+		Path file = directory.resolve("export.csv");
+		ExportFileSink sink = ExportFileSink.open(file, ExportCompression.GZIP, 1024);
+
+		sink.getOutputStream().write(new byte[4096]);
+		boolean partFileExisted = Files.exists(directory.resolve("export.csv.part"));
+		sink.abort();
+
+		assertAll(
+				() -> assertTrue(partFileExisted),
+				() -> assertFalse(Files.exists(file)),
+				() -> assertFalse(Files.exists(directory.resolve("export.csv.part")))
+		);
+	}
+}
@@ -0,0 +1,125 @@
+package com.medkha.lol_notes.util;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+import com.medkha.lol_notes.dto.EventInGameDTO;
+
+public class IncrementalEventReaderTest {
+
+	private static final String GAME_START =
+			"{\"EventID\":0,\"EventName\":\"GameStart\",\"EventTime\":0.0}";
+	private static final String FIRST_KILL =
+			"{\"EventID\":1,\"EventName\":\"ChampionKill\",\"EventTime\":125.7,\"KillerName\":\"killer\",\"VictimName\":\"victim\",\"Assisters\":[\"helper\"]}";
+	private static final String DRAGON_KILL =
+			"{\"EventID\":2,\"EventName\":\"DragonKill\",\"EventTime\":300.1,\"DragonType\":\"Fire\",\"Stolen\":\"False\",\"KillerName\":\"killer\",\"Assisters\":[]}";
+	private static final String GAME_END =
+			"{\"EventID\":3,\"EventName\":\"GameEnd\",\"EventTime\":1500.0,\"Result\":\"Win\"}";
+
+	private InputStream eventData(String... events) {
+		return new ByteArrayInputStream(
+				("{\"Events\":[" + String.join(",", events) + "]}").getBytes(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void readsOnlyEventsAfterTheCursor() throws IOException {
+		IncrementalEventReader reader = new IncrementalEventReader();
+		List<EventInGameDTO> firstRead = reader.readNewEvents(eventData(GAME_START, FIRST_KILL)).getEvents();
+		List<EventInGameDTO> secondRead = reader.readNewEvents(eventData(GAME_START, FIRST_KILL, DRAGON_KILL)).getEvents();
+		List<EventInGameDTO> thirdRead = reader.readNewEvents(eventData(GAME_START, FIRST_KILL, DRAGON_KILL)).getEvents();
+
+		assertAll(
+				() -> assertEquals(2, firstRead.size()),
+				() -> assertEquals(1, secondRead.size()),
+				() -> assertEquals("DragonKill", secondRead.get(0).eventName),
+				() -> assertTrue(thirdRead.isEmpty()),
+				() -> assertEquals(2, reader.getLastEventId())
+		);
+	}
+
+	@Test
+	public void bindsTheChampionKillFields() throws IOException {
+		IncrementalEventReader reader = new IncrementalEventReader();
+		EventInGameDTO kill = reader.readNewEvents(eventData(GAME_START, FIRST_KILL)).getEvents().get(1);
+
+		assertAll(
+				() -> assertEquals("1", kill.eventId),
+				() -> assertEquals("125.7", kill.eventTime),
+				() -> assertEquals(Optional.of("killer"), kill.killerName),
+				() -> assertEquals(Optional.of("victim"), kill.victimName),
+				() -> assertEquals("helper", kill.assisters[0])
+		);
+	}
+
+	@Test
+	public void indexesEventNames() throws IOException {
+		IncrementalEventReader reader = new IncrementalEventReader();
+		reader.readNewEvents(eventData(GAME_START, FIRST_KILL)).getEvents();
+		assertFalse(reader.hasSeen("GameEnd"));
+
+		reader.readNewEvents(eventData(GAME_START, FIRST_KILL, DRAGON_KILL, GAME_END)).getEvents();
+		assertAll(
+				() -> assertTrue(reader.hasSeen("GameEnd")),
+				() -> assertEquals(1, reader.countOf("ChampionKill"))
+		);
+	}
+
+	@Test
+	public void resetsWhenANewGameStarts() throws IOException {
+		IncrementalEventReader reader = new IncrementalEventReader();
+		reader.readNewEvents(eventData(GAME_START, FIRST_KILL, DRAGON_KILL)).getEvents();
+
+		List<EventInGameDTO> newGameEvents = reader.readNewEvents(eventData(GAME_START)).getEvents();
+		List<EventInGameDTO> nextRead = reader.readNewEvents(eventData(GAME_START)).getEvents();
+
+		assertAll(
+				() -> assertEquals(1, newGameEvents.size()),
+				() -> assertEquals("GameStart", newGameEvents.get(0).eventName),
+				() -> assertTrue(nextRead.isEmpty()),
+				() -> assertFalse(reader.hasSeen("ChampionKill"))
+		);
+	}
+
+	@Test
+	public void keepsTheCursorWhenThePayloadHasNoEvents() throws IOException {
+		IncrementalEventReader reader = new IncrementalEventReader();
+		reader.readNewEvents(eventData(GAME_START, FIRST_KILL)).getEvents();
+
+		List<EventInGameDTO> emptyRead = reader.readNewEvents(eventData()).getEvents();
+		List<EventInGameDTO> errorRead = reader.readNewEvents(new ByteArrayInputStream(
+				"{\"errorCode\":\"RESOURCE_NOT_FOUND\",\"httpStatus\":404}".getBytes(StandardCharsets.UTF_8))).getEvents();
+		List<EventInGameDTO> nextRead = reader.readNewEvents(eventData(GAME_START, FIRST_KILL, DRAGON_KILL)).getEvents();
+
+		assertAll(
+				() -> assertTrue(emptyRead.isEmpty()),
+				() -> assertTrue(errorRead.isEmpty()),
+				() -> assertEquals(1, nextRead.size()),
+				() -> assertEquals("DragonKill", nextRead.get(0).eventName),
+				() -> assertEquals(1, reader.countOf("ChampionKill"))
+		);
+	}
+
+	@Test
+	public void recordsWhenTheReadHappened() throws IOException {
+		IncrementalEventReader reader = new IncrementalEventReader();
+		Instant beforeRead = Instant.now();
+		EventBatch read = reader.readNewEvents(eventData(GAME_START));
+
+		assertAll(
+				() -> assertFalse(read.getReceivedAt().isBefore(beforeRead)),
+				() -> assertFalse(read.getParsedAt().isBefore(read.getReceivedAt()))
+		);
+	}
+}
@@ -0,0 +1,80 @@
+package com.medkha.lol_notes.util;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medkha.lol_notes.dto.LiveStateFrameDTO;
+
+public class LiveStateEncoderTest {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	private JsonNode snapshot(String json) throws Exception {
+		return objectMapper.readTree(json.replace('\'', '"'));
+	}
+
+	@Test
+	public void whenFirstSnapshot_thenKeyframeIsSent() throws Exception {
+		LiveStateEncoder encoder = new LiveStateEncoder(10);
+
+		LiveStateFrameDTO frame = encoder.nextFrame(snapshot("{'activePlayer':{'currentGold':500.0}}")).orElseThrow();
+
+		assertAll(
+				() -> assertEquals(LiveStateFrameDTO.KEYFRAME, frame.type),
+				() -> assertEquals(1, frame.sequence),
+				() -> assertEquals(500.0, frame.data.at("/activePlayer/currentGold").asDouble())
+		);
+	}
+
+	@Test
+	public void whenSnapshotChanges_thenOnlyTheChangedFieldsAreSent() throws Exception {
+		LiveStateEncoder encoder = new LiveStateEncoder(10);
+		encoder.nextFrame(snapshot("{'activePlayer':{'currentGold':500.0,'level':1},'events':{'Events':[{'EventID':0}]}}"));
+
+		LiveStateFrameDTO frame = encoder.nextFrame(
+				snapshot("{'activePlayer':{'currentGold':620.5,'level':1},'events':{'Events':[{'EventID':0},{'EventID':1}]}}")).orElseThrow();
+
+		assertAll(
+				() -> assertEquals(LiveStateFrameDTO.DELTA, frame.type),
+				() -> assertEquals(2, frame.sequence),
+				() -> assertEquals(snapshot("[{'op':'replace','path':'/activePlayer/currentGold','value':620.5},"
+						+ "{'op':'add','path':'/events/Events/1','value':{'EventID':1}}]"), frame.data)
+		);
+	}
+
+	@Test
+	public void whenSnapshotIsUnchanged_thenNothingIsSent() throws Exception {
+		LiveStateEncoder encoder = new LiveStateEncoder(10);
+		encoder.nextFrame(snapshot("{'gameData':{'gameTime':12.0}}"));
+
+		Optional<LiveStateFrameDTO> frame = encoder.nextFrame(snapshot("{'gameData':{'gameTime':12.0}}"));
+
+		assertTrue(frame.isEmpty());
+	}
+
+	@Test
+	public void whenKeyframeIntervalIsReached_thenKeyframeIsSent() throws Exception {
+		LiveStateEncoder encoder = new LiveStateEncoder(1);
+		encoder.nextFrame(snapshot("{'gameData':{'gameTime':1.0}}"));
+		encoder.nextFrame(snapshot("{'gameData':{'gameTime':2.0}}"));
+
+		LiveStateFrameDTO frame = encoder.nextFrame(snapshot("{'gameData':{'gameTime':3.0}}")).orElseThrow();
+
+		assertEquals(LiveStateFrameDTO.KEYFRAME, frame.type);
+	}
+
+	@Test
+	public void whenFieldsAreRemoved_thenTheyAreEscapedAndRemoved() throws Exception {
+		JsonNode patch = JsonPatchDiff.diff(snapshot("{'a/b':1,'items':[1,2,3]}"), snapshot("{'items':[1]}"));
+
+		assertEquals(snapshot("[{'op':'remove','path':'/a~1b'},"
+				+ "{'op':'remove','path':'/items/2'},{'op':'remove','path':'/items/1'}]"), patch);
+	}
+}
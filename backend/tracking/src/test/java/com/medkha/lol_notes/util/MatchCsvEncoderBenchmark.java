@@ -0,0 +1,80 @@
+package com.medkha.lol_notes.util;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medkha.lol_notes.dto.GameFinishedDTO;
+
+/**
+ * Compares the csv rows of {@link GameFinishedDTO#toCsvFormat()} with the ones of {@link MatchCsvEncoder}, for a match
+ * of ten participants written to a writer that drops them. Not a test, run it with its main method (test classpath),
+ * the gc profiler reports the bytes allocated per match.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MatchCsvEncoderBenchmark {
+	private final Writer out = Writer.nullWriter();
+	private final MatchCsvEncoder encoder = new MatchCsvEncoder();
+	private GameFinishedDTO game;
+
+	@Setup
+	public void setUp() throws IOException {
+		StringBuilder participants = new StringBuilder();
+		for (int index = 0; index < 10; index++) {
+			participants.append(index == 0 ? "" : ",")
+					.append("{\"championName\":\"Ahri\",\"summonerName\":\"summoner ").append(index).append("\",")
+					.append("\"kills\":").append(index * 3).append(",\"deaths\":").append(index).append(",\"assists\":").append(index * 7).append(",")
+					.append("\"goldEarned\":").append(11000 + index * 517).append(",\"totalDamageDealt\":").append(150000 + index * 9113).append(",")
+					.append("\"individualPosition\":\"MIDDLE\",\"lane\":\"MIDDLE\",\"puuid\":\"puuid-").append(index).append("\",")
+					.append("\"role\":\"SOLO\",\"summonerId\":\"summonerId-").append(index).append("\",\"teamPosition\":\"MIDDLE\",")
+					.append("\"win\":").append(index < 5).append(",\"challenges\":{}}");
+		}
+		String match = "{\"metadata\":{\"dataVersion\":\"2\",\"matchId\":\"EUW1_6227335512\"},"
+				+ "\"info\":{\"gameCreation\":1672996000000,\"gameDuration\":1834,\"gameEndTimestamp\":1673000000000,\"gameId\":6227335512,"
+				+ "\"gameMode\":\"CLASSIC\",\"gameName\":\"teambuilder-match-6227335512\",\"gameStartTimestamp\":1672998166000,"
+				+ "\"gameType\":\"MATCHED_GAME\",\"gameVersion\":\"13.1.482.7397\",\"mapId\":11,\"participants\":[" + participants + "]}}";
+		game = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false).readValue(match, GameFinishedDTO.class);
+	}
+
+	@Benchmark
+	public void toCsvFormat() throws IOException {
+		for (String line : game.toCsvFormat()) {
+			out.write(line);
+			out.write(System.lineSeparator());
+		}
+	}
+
+	@Benchmark
+	public void matchCsvEncoder() throws IOException {
+		encoder.encode(game, out);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(MatchCsvEncoderBenchmark.class.getSimpleName())
+				.addProfiler(GCProfiler.class)
+				.build()).run();
+	}
+}
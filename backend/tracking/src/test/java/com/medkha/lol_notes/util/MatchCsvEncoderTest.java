@@ -0,0 +1,75 @@
+package com.medkha.lol_notes.util;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medkha.lol_notes.dto.GameFinishedDTO;
+
+public class MatchCsvEncoderTest {
+
+	private GameFinishedDTO match(String gameMode, String championName, String summonerName) throws Exception {
+		String match = "{\"metadata\":{\"dataVersion\":\"2\",\"matchId\":\"EUW1_1\"},"
+				+ "\"info\":{\"gameCreation\":-5,\"gameDuration\":1834,\"gameEndTimestamp\":1673000000000,\"gameId\":2147483647,\"gameMode\":" + gameMode + ",\"gameName\":\"teambuilder-match\",\"gameStartTimestamp\":1672998166000,"
+				+ "\"gameType\":\"MATCHED_GAME\",\"gameVersion\":\"13.1.1\",\"mapId\":11,"
+				+ "\"participants\":[" + participant(championName, summonerName, "\"kills\":12,\"win\":true") + ","
+				+ participant("\"Zed\"", "\"second\"", "\"deaths\":7,\"win\":false") + "]}}";
+		return new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false).readValue(match, GameFinishedDTO.class);
+	}
+
+	private String participant(String championName, String summonerName, String stats) {
+		return "{\"championName\":" + championName + ",\"summonerName\":" + summonerName + "," + stats + ","
+				+ "\"individualPosition\":\"MIDDLE\",\"lane\":\"MIDDLE\",\"puuid\":\"puuid\",\"role\":\"SOLO\","
+				+ "\"summonerId\":\"summonerId\",\"teamPosition\":\"MIDDLE\",\"challenges\":{}}";
+	}
+
+	private List<String> encode(GameFinishedDTO game) throws Exception {
+		StringWriter out = new StringWriter();
+		new MatchCsvEncoder().encode(game, out);
+		return Arrays.asList(out.toString().split(System.lineSeparator()));
+	}
+
+	@Test
+	public void whenFieldsArePlain_thenRowsAreTheSameAsToCsvFormat() throws Exception {
+		GameFinishedDTO game = match("\"CLASSIC\"", "\"Ahri\"", "\"first\"");
+
+		assertEquals(game.toCsvFormat(), encode(game));
+	}
+
+	@Test
+	public void whenRowsAreEncoded_thenThereIsOneColumnPerHeader() throws Exception {
+		List<String> rows = encode(match("\"CLASSIC\"", "\"Ahri\"", "\"first\""));
+
+		int headerColumns = GameFinishedDTO.toCsvFormatHeader().split(",", -1).length;
+		assertAll(
+				() -> assertEquals(2, rows.size()),
+				() -> assertEquals(headerColumns, rows.get(0).split(",", -1).length),
+				() -> assertEquals(headerColumns, rows.get(1).split(",", -1).length)
+		);
+	}
+
+	@Test
+	public void whenStringHasSeparatorOrQuote_thenItIsQuotedAndItsQuotesDoubled() throws Exception {
+		List<String> rows = encode(match("\"CLASSIC\"", "\"Nunu, Willump\"", "\"the \\\"best\\\"\""));
+
+		assertAll(
+				() -> assertTrue(rows.get(0).contains(",\"Nunu, Willump\",")),
+				() -> assertTrue(rows.get(0).contains(",\"the \"\"best\"\"\","))
+		);
+	}
+
+	@Test
+	public void whenStringIsNull_thenFieldIsEmpty() throws Exception {
+		List<String> rows = encode(match("null", "\"Ahri\"", "\"first\""));
+
+		assertTrue(rows.get(0).startsWith("2,EUW1_1,-5,1834,1673000000000,2147483647,,teambuilder-match,"));
+	}
+}
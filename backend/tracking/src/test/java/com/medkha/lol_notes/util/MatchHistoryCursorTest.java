@@ -0,0 +1,89 @@
+package com.medkha.lol_notes.util;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+public class MatchHistoryCursorTest {
+
+	private List<String> matchIds(int from, int to) {
+		return IntStream.range(from, to).mapToObj(id -> "EUW1_" + id).collect(Collectors.toList());
+	}
+
+	@Test
+	public void whenPagesAreListed_thenCursorAdvancesUntilTheSizeIsReached() {
+		MatchHistoryCursor cursor = new MatchHistoryCursor("puuid", Optional.of(420), 150);
+
+		assertEquals(100, cursor.nextCount());
+		cursor.advance(matchIds(0, 100));
+		int secondCount = cursor.nextCount();
+		List<String> secondPage = cursor.advance(matchIds(100, 150));
+
+		assertAll(
+				() -> assertEquals(50, secondCount),
+				() -> assertEquals(matchIds(100, 150), secondPage),
+				() -> assertEquals(150, cursor.getStart()),
+				() -> assertEquals("EUW1_149", cursor.getLastMatchId()),
+				() -> assertTrue(cursor.isComplete())
+		);
+	}
+
+	@Test
+	public void whenGamesWerePlayedSinceLastPage_thenShiftedIdsAreSkipped() {
+		MatchHistoryCursor cursor = new MatchHistoryCursor("puuid", Optional.empty(), 300);
+		cursor.advance(matchIds(0, 100));
+
+		// two new games pushed EUW1_98 and EUW1_99 to the next page.
+		List<String> nextPage = cursor.advance(matchIds(98, 198));
+
+		assertAll(
+				() -> assertEquals(matchIds(100, 198), nextPage),
+				() -> assertEquals(198, cursor.getMatchIds().size()),
+				() -> assertEquals(200, cursor.getStart()),
+				() -> assertFalse(cursor.isComplete())
+		);
+	}
+
+	@Test
+	public void whenPageIsShort_thenCursorIsComplete() {
+		MatchHistoryCursor cursor = new MatchHistoryCursor("puuid", Optional.empty(), 1000);
+
+		cursor.advance(matchIds(0, 42));
+
+		assertAll(
+				() -> assertTrue(cursor.isComplete()),
+				() -> assertEquals(42, cursor.getMatchIds().size())
+		);
+	}
+
+	@Test
+	public void whenCursorHasStartTime_thenNextPageQueryFiltersOnIt() {
+		MatchHistoryCursor cursor = new MatchHistoryCursor("puuid", Optional.of(420), Optional.of(1672998166L), 150);
+
+		cursor.advance(matchIds(0, 100));
+
+		assertEquals("start=100&count=50&queue=420&startTime=1672998166", cursor.nextPageQuery());
+	}
+
+	@Test
+	public void whenNewestIdsAreStillTheListedOnes_thenCursorHasItsHead() {
+		MatchHistoryCursor cursor = new MatchHistoryCursor("puuid", Optional.of(420), 300);
+		cursor.advance(matchIds(0, 100));
+		cursor.advance(matchIds(100, 200));
+
+		assertAll(
+				() -> assertEquals("start=0&count=100&queue=420", cursor.headQuery()),
+				() -> assertTrue(cursor.hasHead(matchIds(0, 100))),
+				// a game played since pushes a new id in front.
+				() -> assertFalse(cursor.hasHead(matchIds(-1, 99)))
+		);
+	}
+}
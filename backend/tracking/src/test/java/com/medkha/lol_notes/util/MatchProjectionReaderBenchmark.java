@@ -0,0 +1,92 @@
+package com.medkha.lol_notes.util;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medkha.lol_notes.dto.GameFinishedDTO;
+
+/**
+ * Compares the data binding of a match-v5 payload by the ObjectMapper with {@link MatchProjectionReader}, projecting
+ * every column and a few of them, for a match of ten participants with their challenges and perks. Not a test, run it
+ * with its main method (test classpath), the gc profiler reports the bytes allocated per match.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MatchProjectionReaderBenchmark {
+	private final ObjectMapper objectMapper = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+	private final MatchProjectionReader fullReader = new MatchProjectionReader(objectMapper.getFactory(), List.of());
+	private final MatchProjectionReader projectedReader = new MatchProjectionReader(objectMapper.getFactory(),
+			List.of("player_championName", "player_kills", "player_deaths", "player_assists", "win"));
+	private byte[] match;
+
+	@Setup
+	public void setUp() {
+		StringBuilder challenges = new StringBuilder();
+		for (int index = 0; index < 120; index++) {
+			challenges.append(index == 0 ? "" : ",").append("\"challenge").append(index).append("\":").append(index * 1.25);
+		}
+		StringBuilder participants = new StringBuilder();
+		for (int index = 0; index < 10; index++) {
+			participants.append(index == 0 ? "" : ",")
+					.append("{\"championName\":\"Ahri\",\"summonerName\":\"summoner ").append(index).append("\",")
+					.append("\"kills\":").append(index * 3).append(",\"deaths\":").append(index).append(",\"assists\":").append(index * 7).append(",")
+					.append("\"goldEarned\":").append(11000 + index * 517).append(",\"totalDamageDealt\":").append(150000 + index * 9113).append(",")
+					.append("\"individualPosition\":\"MIDDLE\",\"lane\":\"MIDDLE\",\"puuid\":\"puuid-").append(index).append("\",")
+					.append("\"role\":\"SOLO\",\"summonerId\":\"summonerId-").append(index).append("\",\"teamPosition\":\"MIDDLE\",")
+					.append("\"win\":").append(index < 5).append(",\"challenges\":{").append(challenges).append("},")
+					.append("\"perks\":{\"statPerks\":{\"defense\":5002,\"flex\":5008,\"offense\":5005},")
+					.append("\"styles\":[{\"description\":\"primaryStyle\",\"selections\":[{\"perk\":8112,\"var1\":1204,\"var2\":0,\"var3\":0}],\"style\":8100}]}}");
+		}
+		String payload = "{\"metadata\":{\"dataVersion\":\"2\",\"matchId\":\"EUW1_6227335512\"},"
+				+ "\"info\":{\"gameCreation\":1672996000000,\"gameDuration\":1834,\"gameEndTimestamp\":1673000000000,\"gameId\":6227335512,"
+				+ "\"gameMode\":\"CLASSIC\",\"gameName\":\"teambuilder-match-6227335512\",\"gameStartTimestamp\":1672998166000,"
+				+ "\"gameType\":\"MATCHED_GAME\",\"gameVersion\":\"13.1.482.7397\",\"mapId\":11,\"participants\":[" + participants + "],"
+				+ "\"teams\":[{\"bans\":[{\"championId\":157,\"pickTurn\":1}],\"objectives\":{\"baron\":{\"first\":true,\"kills\":1}},\"teamId\":100,\"win\":true}]}}";
+		match = payload.getBytes(StandardCharsets.UTF_8);
+	}
+
+	@Benchmark
+	public GameFinishedDTO objectMapper() throws IOException {
+		return objectMapper.readValue(match, GameFinishedDTO.class);
+	}
+
+	@Benchmark
+	public GameFinishedDTO everyColumn() throws IOException {
+		return fullReader.read(match);
+	}
+
+	@Benchmark
+	public GameFinishedDTO fewColumns() throws IOException {
+		return projectedReader.read(match);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(MatchProjectionReaderBenchmark.class.getSimpleName())
+				.addProfiler(GCProfiler.class)
+				.build()).run();
+	}
+}
@@ -0,0 +1,72 @@
+package com.medkha.lol_notes.util;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medkha.lol_notes.dto.GameFinishedDTO;
+
+public class MatchProjectionReaderTest {
+	private final ObjectMapper objectMapper = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+	private byte[] sampleMatch() {
+		String participant = "{\"allInPings\":1,\"assists\":7,\"challenges\":{\"12AssistStreakCount\":0,\"damagePerMinute\":812.53,\"kda\":3.5},"
+				+ "\"championName\":\"Kai'Sa\",\"deaths\":4,\"firstBloodKill\":true,\"individualPosition\":\"BOTTOM\",\"kills\":-2,"
+				+ "\"perks\":{\"statPerks\":{\"defense\":5002},\"styles\":[{\"selections\":[{\"perk\":8008,\"var1\":12}]}]},"
+				+ "\"puuid\":\"puuid-1\",\"role\":null,\"summonerName\":\"Atay Ch3ra\",\"totalDamageDealt\":154000,\"win\":true}";
+		String match = "{\"metadata\":{\"dataVersion\":\"2\",\"matchId\":\"EUW1_6227335512\",\"participants\":[\"puuid-1\",\"puuid-2\"]},"
+				+ "\"info\":{\"gameCreation\":1672996000000,\"gameDuration\":1834,\"gameEndTimestamp\":1673000000000,\"gameId\":6227335512,"
+				+ "\"gameMode\":\"CLASSIC\",\"gameName\":\"teambuilder-match\",\"gameStartTimestamp\":1672998166000,\"gameType\":\"MATCHED_GAME\","
+				+ "\"gameVersion\":\"13.1.482.7397\",\"mapId\":11,\"participants\":[" + participant + "," + participant.replace("Kai'Sa", "Thresh") + "],"
+				+ "\"platformId\":\"EUW1\",\"teams\":[{\"bans\":[{\"championId\":157,\"pickTurn\":1}],\"objectives\":{\"baron\":{\"first\":true,\"kills\":1}},\"teamId\":100}]}}";
+		return match.getBytes(StandardCharsets.UTF_8);
+	}
+
+	@Test
+	public void whenEveryColumnIsProjected_thenMatchIsTheSameAsWithDataBinding() throws Exception {
+		GameFinishedDTO projectedMatch = new MatchProjectionReader(objectMapper.getFactory(), List.of()).read(sampleMatch());
+
+		assertEquals(objectMapper.readValue(sampleMatch(), GameFinishedDTO.class).toCsvFormat(), projectedMatch.toCsvFormat());
+	}
+
+	@Test
+	public void whenSomeColumnsAreProjected_thenOnlyThemAndTheWatermarkFieldsAreBound() throws Exception {
+		GameFinishedDTO match = new MatchProjectionReader(objectMapper.getFactory(), List.of("player_kills", "win", "info_gameMode")).read(sampleMatch());
+
+		assertAll(
+				() -> assertEquals("EUW1_6227335512", match.metadata.matchId),
+				() -> assertEquals("1673000000000", match.info.gameEndTimestamp),
+				() -> assertEquals("1672996000000", match.info.gameCreation),
+				() -> assertEquals("CLASSIC", match.info.gameMode),
+				() -> assertNull(match.info.gameName),
+				() -> assertEquals(2, match.info.participants.size()),
+				() -> assertEquals(-2, match.info.participants.get(1).kills),
+				() -> assertEquals(true, match.info.participants.get(1).win),
+				() -> assertEquals(0, match.info.participants.get(1).assists),
+				() -> assertNull(match.info.participants.get(1).championName)
+		);
+	}
+
+	@Test
+	public void whenWinIsProjectedWithThePlayerPrefix_thenItIsTheWinColumn() {
+		List<String> projectedColumns = new MatchProjectionReader(objectMapper.getFactory(), List.of("player_win")).getProjectedColumns().stream()
+				.map(MatchColumnarFormat.Column::getName)
+				.collect(Collectors.toList());
+
+		assertEquals(List.of("metadata_matchId", "info_gameCreation", "info_gameEndTimestamp", "win"), projectedColumns);
+	}
+
+	@Test
+	public void whenProjectedColumnIsUnknown_thenIllegalArgumentExceptionIsThrown() {
+		assertThrows(IllegalArgumentException.class, () -> new MatchProjectionReader(objectMapper.getFactory(), List.of("player_challenges")));
+	}
+}
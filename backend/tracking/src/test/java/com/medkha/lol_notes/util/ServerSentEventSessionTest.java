@@ -0,0 +1,78 @@
+package com.medkha.lol_notes.util;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public class ServerSentEventSessionTest {
+
+	@Test
+	public void whenClientReconnectsWithLastEventId_thenMissedEventsAreReplayed() throws Exception {
+		ServerSentEventSession session = new ServerSentEventSession(1, 8, Optional.empty());
+		SseEmitter firstEmitter = mock(SseEmitter.class);
+		session.attach(firstEmitter, Optional.empty());
+		session.send("New DeathEvent", "first");
+		session.detach(firstEmitter);
+		session.send("New DeathEvent", "second");
+		session.send("New DeathEvent", "third");
+
+		SseEmitter secondEmitter = mock(SseEmitter.class);
+		session.attach(secondEmitter, Optional.of(1L));
+
+		assertAll(
+				() -> verify(firstEmitter, times(1)).send(any(SseEmitter.SseEventBuilder.class)),
+				() -> verify(secondEmitter, times(2)).send(any(SseEmitter.SseEventBuilder.class)),
+				() -> assertTrue(session.isAttached())
+		);
+	}
+
+	@Test
+	public void whenMissedEventsAreEvicted_thenReplayGapIsSentFirst() throws Exception {
+		ServerSentEventSession session = new ServerSentEventSession(1, 2, Optional.empty());
+		for (int event = 0; event < 5; event++) {
+			session.send("New DeathEvent", event);
+		}
+
+		SseEmitter emitter = mock(SseEmitter.class);
+		session.attach(emitter, Optional.of(1L));
+
+		// the gap event, then the 2 events still kept.
+		verify(emitter, times(3)).send(any(SseEmitter.SseEventBuilder.class));
+	}
+
+	@Test
+	public void whenLastEventIdIsFromAPreviousSession_thenEveryEventIsReplayed() throws Exception {
+		ServerSentEventSession session = new ServerSentEventSession(2, 8, Optional.empty());
+		session.send("New DeathEvent", "first");
+		session.send("New DeathEvent", "second");
+
+		SseEmitter emitter = mock(SseEmitter.class);
+		// the previous session sent 40 events.
+		session.attach(emitter, Optional.of(40L));
+
+		verify(emitter, times(2)).send(any(SseEmitter.SseEventBuilder.class));
+	}
+
+	@Test
+	public void whenTrackingIsCancelled_thenAttachedEmitterIsCompleted() throws Exception {
+		ServerSentEventSession session = new ServerSentEventSession(1, 8, Optional.empty());
+		SseEmitter emitter = mock(SseEmitter.class);
+		session.attach(emitter, Optional.empty());
+
+		session.tracking.cancel();
+
+		assertAll(
+				() -> verify(emitter).complete(),
+				() -> assertFalse(session.isAttached())
+		);
+	}
+}
@@ -0,0 +1,83 @@
+package com.medkha.lol_notes.util;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class TimelineLogTest {
+
+	@TempDir
+	Path directory;
+
+	private TimelineRecord event(long recordedAt, String json) {
+		return new TimelineRecord(TimelineRecord.Type.EVENT, recordedAt, json.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private List<TimelineRecord> readAll(Path log) throws Exception {
+		List<TimelineRecord> records = new ArrayList<>();
+		try (TimelineLogReader reader = TimelineLogReader.open(log, 16)) {
+			reader.forEachRemaining(records::add);
+		}
+		return records;
+	}
+
+	@Test
+	public void whenRecordsAreAppended_thenTheyAreReadBackInOrder() throws Exception {
+		Path log = directory.resolve("game-1.timeline");
+		byte[] snapshot = new byte[100_000];
+		snapshot[99_999] = 42;
+		try (TimelineLogWriter writer = TimelineLogWriter.open(log, 64)) {
+			writer.append(List.of(event(1000, "{\"EventName\":\"GameStart\"}"), event(1000, "{\"EventName\":\"MinionsSpawning\"}")));
+			writer.append(List.of(new TimelineRecord(TimelineRecord.Type.SNAPSHOT, 2000, snapshot)));
+		}
+
+		List<TimelineRecord> records = readAll(log);
+
+		assertAll(
+				() -> assertEquals(3, records.size()),
+				() -> assertEquals("{\"EventName\":\"MinionsSpawning\"}", new String(records.get(1).payload, StandardCharsets.UTF_8)),
+				() -> assertEquals(TimelineRecord.Type.SNAPSHOT, records.get(2).type),
+				() -> assertEquals(2000, records.get(2).recordedAt),
+				() -> assertArrayEquals(snapshot, records.get(2).payload)
+		);
+	}
+
+	@Test
+	public void whenLogEndsWithTornRecord_thenItIsSkippedAndOverwrittenOnReopen() throws Exception {
+		Path log = directory.resolve("game-2.timeline");
+		try (TimelineLogWriter writer = TimelineLogWriter.open(log, 64)) {
+			writer.append(List.of(event(1000, "{\"EventName\":\"GameStart\"}")));
+		}
+		long validLength = Files.size(log);
+		try (FileChannel channel = FileChannel.open(log, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+			// the beginning of a record cut by a crash.
+			channel.write(ByteBuffer.wrap(new byte[]{0, 0, 0, 40, 1, 0, 0}));
+		}
+		List<TimelineRecord> afterCrash = readAll(log);
+		long recoveredLength = TimelineLogReader.validLength(log, 64);
+
+		try (TimelineLogWriter writer = TimelineLogWriter.open(log, 64)) {
+			writer.append(List.of(event(3000, "{\"EventName\":\"ChampionKill\"}")));
+		}
+		List<TimelineRecord> afterReopen = readAll(log);
+
+		assertAll(
+				() -> assertEquals(1, afterCrash.size()),
+				() -> assertEquals(validLength, recoveredLength),
+				() -> assertEquals(2, afterReopen.size()),
+				() -> assertEquals(3000, afterReopen.get(1).recordedAt)
+		);
+	}
+}